@@ -0,0 +1,134 @@
+package com.observability.commons.deadline;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Point in time by which a request must be answered.
+ *
+ * <p>Deadlines are propagated between services as the remaining time budget
+ * in milliseconds in the {@value #HEADER} header, rather than as a wall-clock
+ * timestamp, so that clock skew between hosts does not matter. Locally a
+ * deadline is tracked against the monotonic {@link System#nanoTime()} clock.</p>
+ *
+ * @since 1.0.0
+ */
+public final class Deadline {
+
+    /**
+     * HTTP header carrying the remaining time budget of a request, in milliseconds.
+     */
+    public static final String HEADER = "X-Request-Deadline-Ms";
+
+    private final long expiresAtNanos;
+
+    private Deadline(final long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * Creates a deadline that expires after the given budget from now.
+     *
+     * @param budget the time budget
+     * @return the deadline
+     */
+    public static Deadline after(final Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Parses a deadline from the value of the {@value #HEADER} header.
+     *
+     * @param headerValue the remaining budget in milliseconds, may be {@code null}
+     * @return the deadline, or empty if the value is missing or not a non-negative number
+     */
+    public static Optional<Deadline> fromHeader(final String headerValue) {
+        if (headerValue == null) {
+            return Optional.empty();
+        }
+        try {
+            final var remainingMillis = Long.parseLong(headerValue.trim());
+            return remainingMillis < 0
+                ? Optional.empty()
+                : Optional.of(after(Duration.ofMillis(remainingMillis)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the time left before the deadline expires.
+     *
+     * @return the remaining time, or {@link Duration#ZERO} if the deadline has expired
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    /**
+     * Returns how long ago the deadline expired.
+     *
+     * @return the time since expiry, or {@link Duration#ZERO} if the deadline has not expired
+     */
+    public Duration overrun() {
+        return Duration.ofNanos(Math.max(0, System.nanoTime() - expiresAtNanos));
+    }
+
+    /**
+     * Returns whether the deadline has expired.
+     *
+     * @return {@code true} if no time is left
+     */
+    public boolean isExpired() {
+        return System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * Returns the earlier of this deadline and another one.
+     *
+     * @param other the other deadline
+     * @return whichever deadline expires first
+     */
+    public Deadline min(final Deadline other) {
+        return other.expiresAtNanos - expiresAtNanos < 0 ? other : this;
+    }
+
+    /**
+     * Returns the value to send in the {@value #HEADER} header.
+     *
+     * @return the remaining budget in whole milliseconds
+     */
+    public String toHeaderValue() {
+        return Long.toString(remaining().toMillis());
+    }
+
+    /**
+     * Throws if the deadline has expired.
+     *
+     * @param operation the operation about to be performed, for the exception message
+     * @throws DeadlineExceededException if the deadline has expired
+     */
+    public void check(final String operation) {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded before " + operation);
+        }
+    }
+
+    /**
+     * Sleeps for the given time, but no longer than the deadline allows.
+     *
+     * @param millis the requested sleep time in milliseconds
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     * @throws DeadlineExceededException if the deadline expired before the full time had elapsed
+     */
+    public void sleep(final long millis) throws InterruptedException {
+        final var remainingMillis = remaining().toMillis();
+        if (millis <= remainingMillis) {
+            Thread.sleep(millis);
+            return;
+        }
+        Thread.sleep(remainingMillis);
+        throw new DeadlineExceededException("Deadline exceeded after " + remainingMillis + "ms of a "
+            + millis + "ms wait");
+    }
+}
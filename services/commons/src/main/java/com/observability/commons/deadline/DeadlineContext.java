@@ -0,0 +1,77 @@
+package com.observability.commons.deadline;
+
+import java.util.Optional;
+
+/**
+ * Holds the {@link Deadline} of the request being processed by the current thread.
+ *
+ * <p>Set by {@link DeadlineFilter} for servlet requests carrying the
+ * {@value Deadline#HEADER} header. Code running outside such a request sees no
+ * deadline, and the helpers below then do nothing special.</p>
+ *
+ * @since 1.0.0
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Returns the deadline of the current request.
+     *
+     * @return the deadline, or empty if the request has none
+     */
+    public static Optional<Deadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Throws if the current request's deadline has expired.
+     *
+     * @param operation the operation about to be performed, for the exception message
+     * @throws DeadlineExceededException if the deadline has expired
+     */
+    public static void check(final String operation) {
+        final var deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check(operation);
+        }
+    }
+
+    /**
+     * Sleeps for the given time, cut short if the current request's deadline expires first.
+     *
+     * @param millis the requested sleep time in milliseconds
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     * @throws DeadlineExceededException if the deadline expired before the full time had elapsed
+     */
+    public static void sleep(final long millis) throws InterruptedException {
+        final var deadline = CURRENT.get();
+        if (deadline == null) {
+            Thread.sleep(millis);
+        } else {
+            deadline.sleep(millis);
+        }
+    }
+
+    /**
+     * Sets the deadline of the request processed by the current thread.
+     *
+     * <p>Callers must {@link #clear()} it once the request is done.</p>
+     *
+     * @param deadline the deadline
+     */
+    public static void set(final Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    /**
+     * Removes the deadline of the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,18 @@
+package com.observability.commons.deadline;
+
+/**
+ * Thrown when a request's {@link Deadline} expires before its work is done.
+ *
+ * @since 1.0.0
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new DeadlineExceededException.
+     *
+     * @param message the detail message
+     */
+    public DeadlineExceededException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,102 @@
+package com.observability.commons.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that reads the request deadline from the {@value Deadline#HEADER}
+ * header and exposes it through {@link DeadlineContext} while the request is processed.
+ *
+ * <p>Requests that arrive with no budget left are rejected with 504 without
+ * doing any work. Requests whose deadline expires while they are processed
+ * are counted as aborted (when answered with 504) or as completed late, and
+ * the time spent past the deadline is recorded, so wasted work is visible:</p>
+ * <ul>
+ *   <li>{@code deadline_exceeded_requests_total{outcome="rejected|aborted|completed_late"}}</li>
+ *   <li>{@code deadline_late_work_seconds}</li>
+ * </ul>
+ *
+ * <p>Only active in servlet applications.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineFilter.class);
+    private static final int GATEWAY_TIMEOUT = 504;
+
+    private final Counter rejectedCounter;
+    private final Counter abortedCounter;
+    private final Counter completedLateCounter;
+    private final Timer lateWorkTimer;
+
+    /**
+     * Constructs a new DeadlineFilter.
+     *
+     * @param meterRegistry the Micrometer registry for deadline metrics
+     */
+    public DeadlineFilter(final MeterRegistry meterRegistry) {
+        this.rejectedCounter = outcomeCounter(meterRegistry, "rejected");
+        this.abortedCounter = outcomeCounter(meterRegistry, "aborted");
+        this.completedLateCounter = outcomeCounter(meterRegistry, "completed_late");
+        this.lateWorkTimer = Timer.builder("deadline_late_work")
+            .description("Time spent processing requests after their deadline had expired")
+            .register(meterRegistry);
+    }
+
+    private static Counter outcomeCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("deadline_exceeded_requests_total")
+            .description("Total number of requests whose deadline expired before they were answered")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final var deadline = Deadline.fromHeader(request.getHeader(Deadline.HEADER)).orElse(null);
+        if (deadline == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (deadline.isExpired()) {
+            logger.warn("Rejecting request received after its deadline: {} {}",
+                request.getMethod(), request.getRequestURI());
+            rejectedCounter.increment();
+            response.setStatus(GATEWAY_TIMEOUT);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Deadline exceeded\"}");
+            return;
+        }
+
+        DeadlineContext.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DeadlineContext.clear();
+            if (deadline.isExpired()) {
+                lateWorkTimer.record(deadline.overrun());
+                if (response.getStatus() == GATEWAY_TIMEOUT) {
+                    abortedCounter.increment();
+                } else {
+                    completedLateCounter.increment();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.observability.commons.idempotency;
+
+/**
+ * Thrown when an idempotency key is reused for a request other than the one it was first used with.
+ *
+ * @since 1.0.0
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Constructs a new IdempotencyKeyMismatchException.
+     *
+     * @param message the detail message
+     */
+    public IdempotencyKeyMismatchException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,208 @@
+package com.observability.commons.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.observability.commons.deadline.DeadlineContext;
+import com.observability.commons.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring in-memory store of operation results, keyed by the
+ * client-supplied {@value #HEADER} header.
+ *
+ * <p>The first request with a key runs the operation; its result is kept
+ * for the configured TTL, so a client retrying after a timeout gets the
+ * original result back without the operation being repeated. Requests
+ * arriving with the same key while the first is still running wait for it
+ * and share its outcome. A failed operation is not kept, so its key can be
+ * retried.</p>
+ *
+ * <p>A key is bound to the request it was first used with; reusing it for a
+ * different request fails with {@link IdempotencyKeyMismatchException}. The
+ * store holds at most a configured number of keys and evicts the least
+ * valuable ones first. Because it lives in memory, keys are only honoured by
+ * the instance that first saw them.</p>
+ *
+ * <p>Requests are counted in {@code idempotency_requests_total} by
+ * {@code outcome}: {@code new}, {@code replayed} or {@code mismatched}. The
+ * number of stored keys is exported as {@code idempotency_store_entries}.</p>
+ *
+ * @param <T> the result type of the operation
+ * @since 1.0.0
+ */
+public class IdempotencyStore<T> {
+
+    /**
+     * Name of the request header carrying the idempotency key.
+     */
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry<T>> entries;
+    private final Counter created;
+    private final Counter replayed;
+    private final Counter mismatched;
+
+    /**
+     * Constructs a new IdempotencyStore.
+     *
+     * @param meterRegistry the Micrometer registry for idempotency metrics
+     * @param maxEntries the maximum number of stored keys
+     * @param ttl how long a completed result is kept
+     */
+    public IdempotencyStore(final MeterRegistry meterRegistry, final long maxEntries, final Duration ttl) {
+        this(meterRegistry, maxEntries, ttl, Ticker.systemTicker());
+    }
+
+    IdempotencyStore(final MeterRegistry meterRegistry, final long maxEntries, final Duration ttl,
+                     final Ticker ticker) {
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .build();
+        this.created = outcomeCounter(meterRegistry, "new");
+        this.replayed = outcomeCounter(meterRegistry, "replayed");
+        this.mismatched = outcomeCounter(meterRegistry, "mismatched");
+        Gauge.builder("idempotency_store_entries", entries, Cache::estimatedSize)
+            .description("Number of idempotency keys currently stored")
+            .register(meterRegistry);
+    }
+
+    private static Counter outcomeCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("idempotency_requests_total")
+            .description("Total number of requests carrying an idempotency key, by whether the key was new")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Checks that an idempotency key is present and of reasonable length.
+     *
+     * @param key the key to check
+     * @return {@code true} if the key can be stored
+     */
+    public static boolean isValidKey(final String key) {
+        return key != null && !key.isBlank() && key.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * Runs an asynchronous operation once per key.
+     *
+     * @param key the idempotency key
+     * @param request the request the key is used with; compared with {@link Object#equals(Object)}
+     * @param operation starts the operation; only invoked for a new key
+     * @return a future completed with the result of the first request with this key
+     * @throws IllegalArgumentException if the key is not valid
+     * @throws IdempotencyKeyMismatchException if the key was first used with a different request
+     */
+    public CompletableFuture<T> execute(final String key, final Object request,
+                                        final Supplier<CompletableFuture<T>> operation) {
+        if (!isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid idempotency key");
+        }
+        final var claim = new Entry<T>(request, new CompletableFuture<>());
+        final var existing = entries.asMap().putIfAbsent(key, claim);
+        if (existing != null) {
+            if (!Objects.equals(existing.request(), request)) {
+                mismatched.increment();
+                throw new IdempotencyKeyMismatchException("Idempotency key was already used with a different request");
+            }
+            replayed.increment();
+            return existing.result().copy();
+        }
+
+        created.increment();
+        CompletableFuture<T> outcome;
+        try {
+            outcome = operation.get();
+        } catch (RuntimeException e) {
+            outcome = CompletableFuture.failedFuture(e);
+        }
+        outcome.whenComplete((result, error) -> {
+            if (error == null) {
+                claim.result().complete(result);
+            } else {
+                // Forget the key before waiters see the failure, so their retries run again
+                entries.asMap().remove(key, claim);
+                claim.result().completeExceptionally(unwrap(error));
+            }
+        });
+        return claim.result().copy();
+    }
+
+    /**
+     * Runs a blocking operation once per key, on the calling thread.
+     *
+     * <p>A request with a key that is still in flight waits for the first one
+     * for at most the remaining time of the current request's deadline, if it
+     * has one.</p>
+     *
+     * @param key the idempotency key
+     * @param request the request the key is used with; compared with {@link Object#equals(Object)}
+     * @param operation the operation; only invoked for a new key
+     * @return the result of the first request with this key
+     * @throws IllegalArgumentException if the key is not valid
+     * @throws IdempotencyKeyMismatchException if the key was first used with a different request
+     * @throws DeadlineExceededException if the deadline expired while waiting for the first request
+     */
+    public T executeBlocking(final String key, final Object request, final Supplier<T> operation) {
+        final var result = execute(key, request, () -> CompletableFuture.completedFuture(operation.get()));
+        try {
+            final var deadline = DeadlineContext.current();
+            if (deadline.isEmpty() || result.isDone()) {
+                return result.get();
+            }
+            return result.get(deadline.get().remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Deadline exceeded waiting for the first request with this key");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Performs any pending eviction and expiry maintenance.
+     */
+    void cleanUp() {
+        entries.cleanUp();
+    }
+
+    /**
+     * Returns the approximate number of stored keys.
+     *
+     * @return the estimated store size
+     */
+    long size() {
+        return entries.estimatedSize();
+    }
+
+    private static Throwable unwrap(final Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * The request a key was first used with and the outcome of its operation.
+     */
+    private record Entry<T>(Object request, CompletableFuture<T> result) {
+    }
+}
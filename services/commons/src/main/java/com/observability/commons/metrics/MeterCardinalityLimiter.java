@@ -0,0 +1,103 @@
+package com.observability.commons.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.config.MeterFilterReply;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Meter filter that caps the number of distinct tag combinations (series) each meter may have.
+ *
+ * <p>A meter whose tags carry unbounded values, such as a raw URI with an ID in
+ * it, would otherwise create a new series for every value and grow registry
+ * memory and scrape time without limit. Once a meter name has reached
+ * {@code metrics.cardinality.max-series-per-meter} series, registrations of
+ * further tag combinations are denied; series that already exist keep
+ * recording.</p>
+ *
+ * <p>Overflow is logged once per meter name and counted in
+ * {@code metrics_cardinality_overflow_total}, together with
+ * {@code metrics_cardinality_limited_meters}, the number of meter names that
+ * have hit the cap.</p>
+ *
+ * <p>Spring Boot applies the filter to every meter registry and binds the
+ * overflow metrics, in all services.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class MeterCardinalityLimiter implements MeterFilter, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(MeterCardinalityLimiter.class);
+
+    private final int maxSeriesPerMeter;
+    private final Map<String, Set<Meter.Id>> seriesByMeter = new ConcurrentHashMap<>();
+    private final Set<String> limitedMeters = ConcurrentHashMap.newKeySet();
+    private final LongAdder overflow = new LongAdder();
+
+    /**
+     * Constructs a new MeterCardinalityLimiter.
+     *
+     * @param maxSeriesPerMeter the maximum number of distinct tag combinations per meter name
+     */
+    public MeterCardinalityLimiter(
+            @Value("${metrics.cardinality.max-series-per-meter:1000}") final int maxSeriesPerMeter) {
+        if (maxSeriesPerMeter < 1) {
+            throw new IllegalArgumentException("maxSeriesPerMeter must be at least 1");
+        }
+        this.maxSeriesPerMeter = maxSeriesPerMeter;
+    }
+
+    @Override
+    public MeterFilterReply accept(final Meter.Id id) {
+        final var series = seriesByMeter.computeIfAbsent(id.getName(), name -> ConcurrentHashMap.newKeySet());
+        if (series.contains(id)) {
+            return MeterFilterReply.NEUTRAL;
+        }
+        synchronized (series) {
+            if (series.size() < maxSeriesPerMeter) {
+                series.add(id);
+                return MeterFilterReply.NEUTRAL;
+            }
+        }
+        overflow.increment();
+        if (limitedMeters.add(id.getName())) {
+            logger.warn("Meter {} reached {} series; further tag combinations are dropped (first dropped: {})",
+                id.getName(), maxSeriesPerMeter, id.getTags());
+        }
+        return MeterFilterReply.DENY;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("metrics_cardinality_overflow_total", overflow, LongAdder::sum)
+            .description("Total number of meter registrations dropped because the meter reached its series limit")
+            .register(registry);
+        Gauge.builder("metrics_cardinality_limited_meters", limitedMeters, Set::size)
+            .description("Number of meter names that have reached their series limit")
+            .register(registry);
+    }
+
+    /**
+     * Returns the number of series currently admitted for a meter name.
+     *
+     * @param name the meter name
+     * @return the number of admitted tag combinations
+     */
+    int seriesCount(final String name) {
+        final var series = seriesByMeter.get(name);
+        return series == null ? 0 : series.size();
+    }
+}
@@ -0,0 +1,117 @@
+package com.observability.commons.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Durations spent on the parts of one request, rendered as a
+ * {@value #HEADER} response header.
+ *
+ * <p>Durations recorded under the same name add up, so a request making
+ * several database calls reports their total as one {@code db} metric; the
+ * number of calls is given in the metric's description. Metrics keep the
+ * order in which they were first recorded. Instances are thread-safe.</p>
+ *
+ * @since 1.0.0
+ */
+public final class ServerTiming {
+
+    /**
+     * The response header carrying the timings.
+     */
+    public static final String HEADER = "Server-Timing";
+
+    private static final long NANOS_PER_MICRO = 1_000L;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Metric> metrics = new LinkedHashMap<>();
+
+    /**
+     * Records time spent on part of the request.
+     *
+     * @param name the metric name, a token such as {@code db}
+     * @param nanos the time spent, in nanoseconds
+     */
+    public synchronized void add(final String name, final long nanos) {
+        add(name, nanos, 1);
+    }
+
+    private void add(final String name, final long nanos, final int count) {
+        final var metric = metrics.computeIfAbsent(name, key -> new Metric());
+        metric.nanos += Math.max(nanos, 0);
+        metric.count += count;
+    }
+
+    /**
+     * Records the timings reported by a downstream service in its own {@value #HEADER} header.
+     *
+     * <p>Each metric is recorded under its name prefixed with {@code prefix}
+     * and a dot, e.g. {@code db} from the inventory service becomes
+     * {@code inventory.db}. Metrics without a duration are ignored.</p>
+     *
+     * @param prefix the prefix identifying the downstream service
+     * @param headerValue the downstream's header value, may be {@code null}
+     */
+    public synchronized void merge(final String prefix, final String headerValue) {
+        if (headerValue == null) {
+            return;
+        }
+        for (final var entry : headerValue.split(",")) {
+            final var params = entry.split(";");
+            final var name = params[0].trim();
+            for (var i = 1; i < params.length && !name.isEmpty(); i++) {
+                final var param = params[i].trim();
+                if (param.startsWith("dur=")) {
+                    try {
+                        final var millis = Double.parseDouble(param.substring(4));
+                        add(prefix + "." + name, (long) (millis * NANOS_PER_MILLI), 1);
+                    } catch (NumberFormatException e) {
+                        // Not a duration we understand; leave the metric out
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the time recorded under a name.
+     *
+     * @param name the metric name
+     * @return the total time in nanoseconds, or 0 if nothing was recorded
+     */
+    public synchronized long nanos(final String name) {
+        final var metric = metrics.get(name);
+        return metric != null ? metric.nanos : 0;
+    }
+
+    /**
+     * Renders the recorded timings, e.g. {@code db;dur=3.217, total;dur=12.004}.
+     *
+     * @return the {@value #HEADER} header value, empty if nothing was recorded
+     */
+    public synchronized String toHeaderValue() {
+        final var header = new StringBuilder(32 * metrics.size());
+        for (final var entry : metrics.entrySet()) {
+            if (!header.isEmpty()) {
+                header.append(", ");
+            }
+            final var micros = entry.getValue().nanos / NANOS_PER_MICRO;
+            header.append(entry.getKey()).append(";dur=").append(micros / 1000).append('.');
+            final var fraction = micros % 1000;
+            if (fraction < 100) {
+                header.append(fraction < 10 ? "00" : "0");
+            }
+            header.append(fraction);
+            if (entry.getValue().count > 1) {
+                header.append(";desc=\"").append(entry.getValue().count).append(" calls\"");
+            }
+        }
+        return header.toString();
+    }
+
+    private static final class Metric {
+        private long nanos;
+        private int count;
+    }
+}
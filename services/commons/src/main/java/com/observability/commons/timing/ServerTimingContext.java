@@ -0,0 +1,85 @@
+package com.observability.commons.timing;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link ServerTiming} of the request being processed by the current thread.
+ *
+ * <p>Set by {@link ServerTimingFilter} for servlet requests. Code running
+ * outside such a request has nothing to record into, and the helpers below
+ * then just run the timed work.</p>
+ *
+ * @since 1.0.0
+ */
+public final class ServerTimingContext {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private ServerTimingContext() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Returns the timings of the current request.
+     *
+     * @return the timings, or empty outside a timed request
+     */
+    public static Optional<ServerTiming> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Runs an operation and records its duration for the current request.
+     *
+     * <p>The duration is recorded whether the operation returns or throws.</p>
+     *
+     * @param name the metric name, e.g. {@code db}
+     * @param operation the operation to time
+     * @param <T> the type of the operation's result
+     * @return the operation's result
+     */
+    public static <T> T time(final String name, final Supplier<T> operation) {
+        final var timing = CURRENT.get();
+        if (timing == null) {
+            return operation.get();
+        }
+        final var start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            timing.add(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records time spent on part of the current request.
+     *
+     * @param name the metric name, e.g. {@code chaos}
+     * @param nanos the time spent, in nanoseconds
+     */
+    public static void record(final String name, final long nanos) {
+        final var timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(name, nanos);
+        }
+    }
+
+    /**
+     * Sets the timings of the request processed by the current thread.
+     *
+     * <p>Callers must {@link #clear()} them once the request is done.</p>
+     *
+     * @param timing the timings
+     */
+    public static void set(final ServerTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    /**
+     * Removes the timings of the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
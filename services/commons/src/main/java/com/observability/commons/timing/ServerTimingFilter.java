@@ -0,0 +1,124 @@
+package com.observability.commons.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Servlet filter that exposes a {@link ServerTiming} through
+ * {@link ServerTimingContext} while the request is processed and returns
+ * the recorded timings in the {@value ServerTiming#HEADER} response header.
+ *
+ * <p>Besides whatever the handler records, such as {@code db} and
+ * {@code chaos}, the header carries {@code total}: the time from the request
+ * reaching the filter until the response started. The header is added just
+ * before the response body is written, while headers can still be set.
+ * Setting {@code server-timing.enabled=false} leaves the header out.</p>
+ *
+ * <p>Only active in servlet applications.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+
+    /**
+     * Constructs a new ServerTimingFilter.
+     *
+     * @param enabled whether the {@value ServerTiming#HEADER} header is returned
+     */
+    public ServerTimingFilter(@Value("${server-timing.enabled:true}") final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final var timedResponse = new TimedResponse(response, new ServerTiming(), System.nanoTime());
+        ServerTimingContext.set(timedResponse.timing);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            ServerTimingContext.clear();
+            timedResponse.addHeader();
+        }
+    }
+
+    /**
+     * Adds the {@value ServerTiming#HEADER} header as soon as anything may commit the response.
+     */
+    private static final class TimedResponse extends HttpServletResponseWrapper {
+
+        private final ServerTiming timing;
+        private final long start;
+        private boolean headerAdded;
+
+        TimedResponse(final HttpServletResponse response, final ServerTiming timing, final long start) {
+            super(response);
+            this.timing = timing;
+            this.start = start;
+        }
+
+        void addHeader() {
+            if (headerAdded || isCommitted()) {
+                return;
+            }
+            headerAdded = true;
+            timing.add("total", System.nanoTime() - start);
+            setHeader(ServerTiming.HEADER, timing.toHeaderValue());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(final int sc, final String msg) throws IOException {
+            addHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(final int sc) throws IOException {
+            addHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(final String location) throws IOException {
+            addHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
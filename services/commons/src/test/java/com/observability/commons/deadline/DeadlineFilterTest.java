@@ -0,0 +1,125 @@
+package com.observability.commons.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link DeadlineFilter}.
+ */
+class DeadlineFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new DeadlineFilter(meterRegistry);
+    }
+
+    private MockHttpServletRequest request(final String deadlineHeader) {
+        final var request = new MockHttpServletRequest("GET", "/api/inventory/item123");
+        if (deadlineHeader != null) {
+            request.addHeader(Deadline.HEADER, deadlineHeader);
+        }
+        return request;
+    }
+
+    private double outcomeCount(final String outcome) {
+        return meterRegistry.get("deadline_exceeded_requests_total").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void exposesDeadlineToHandlerAndClearsItAfterwards() throws Exception {
+        // Arrange
+        final var seen = new AtomicReference<Deadline>();
+        final FilterChain chain = (req, res) -> seen.set(DeadlineContext.current().orElse(null));
+
+        // Act
+        filter.doFilter(request("2000"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertThat(seen.get()).isNotNull();
+        assertThat(DeadlineContext.current()).isEmpty();
+        assertThat(outcomeCount("completed_late")).isZero();
+    }
+
+    @Test
+    void requestsWithoutHeaderHaveNoDeadline() throws Exception {
+        // Arrange
+        final var seen = new AtomicReference<Deadline>();
+        final FilterChain chain = (req, res) -> seen.set(DeadlineContext.current().orElse(null));
+
+        // Act
+        filter.doFilter(request(null), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertThat(seen.get()).isNull();
+    }
+
+    @Test
+    void rejectsExpiredRequestsWithoutCallingHandler() throws Exception {
+        // Arrange
+        final var called = new AtomicBoolean();
+        final var response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("0"), response, (req, res) -> called.set(true));
+
+        // Assert
+        assertThat(called).isFalse();
+        assertThat(response.getStatus()).isEqualTo(504);
+        assertThat(response.getContentAsString()).contains("Deadline exceeded");
+        assertThat(outcomeCount("rejected")).isEqualTo(1.0);
+    }
+
+    @Test
+    void countsWorkFinishedAfterTheDeadline() throws Exception {
+        // Arrange
+        final FilterChain slowHandler = (req, res) -> {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // Act
+        filter.doFilter(request("5"), new MockHttpServletResponse(), slowHandler);
+
+        // Assert
+        assertThat(outcomeCount("completed_late")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("deadline_late_work").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void countsRequestsAbortedWith504() throws Exception {
+        // Arrange
+        final FilterChain abortingHandler = (req, res) -> {
+            try {
+                DeadlineContext.sleep(1000);
+            } catch (DeadlineExceededException e) {
+                ((MockHttpServletResponse) res).setStatus(504);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // Act
+        filter.doFilter(request("5"), new MockHttpServletResponse(), abortingHandler);
+
+        // Assert
+        assertThat(outcomeCount("aborted")).isEqualTo(1.0);
+        assertThat(outcomeCount("completed_late")).isZero();
+    }
+}
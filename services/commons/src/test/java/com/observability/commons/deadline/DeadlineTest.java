@@ -0,0 +1,71 @@
+package com.observability.commons.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link Deadline}.
+ */
+class DeadlineTest {
+
+    @Test
+    void fromHeaderParsesRemainingMillis() {
+        final var deadline = Deadline.fromHeader("5000");
+
+        assertThat(deadline).isPresent();
+        assertThat(deadline.get().remaining()).isBetween(Duration.ofMillis(4000), Duration.ofMillis(5000));
+        assertThat(deadline.get().isExpired()).isFalse();
+    }
+
+    @Test
+    void fromHeaderIgnoresMissingOrMalformedValues() {
+        assertThat(Deadline.fromHeader(null)).isEmpty();
+        assertThat(Deadline.fromHeader("soon")).isEmpty();
+        assertThat(Deadline.fromHeader("-1")).isEmpty();
+    }
+
+    @Test
+    void zeroBudgetIsExpired() {
+        final var deadline = Deadline.fromHeader("0").orElseThrow();
+
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(deadline.remaining()).isZero();
+        assertThat(deadline.toHeaderValue()).isEqualTo("0");
+        assertThatThrownBy(() -> deadline.check("saving order"))
+            .isInstanceOf(DeadlineExceededException.class)
+            .hasMessageContaining("saving order");
+    }
+
+    @Test
+    void minReturnsEarlierDeadline() {
+        final var early = Deadline.after(Duration.ofSeconds(1));
+        final var late = Deadline.after(Duration.ofSeconds(10));
+
+        assertThat(early.min(late)).isSameAs(early);
+        assertThat(late.min(early)).isSameAs(early);
+    }
+
+    @Test
+    void sleepIsCutShortWhenDeadlineExpires() {
+        final var deadline = Deadline.after(Duration.ofMillis(50));
+        final var start = System.nanoTime();
+
+        assertThatThrownBy(() -> deadline.sleep(5000)).isInstanceOf(DeadlineExceededException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(deadline.isExpired()).isTrue();
+    }
+
+    @Test
+    void sleepWithinBudgetCompletes() throws InterruptedException {
+        final var deadline = Deadline.after(Duration.ofSeconds(5));
+
+        deadline.sleep(10);
+
+        assertThat(deadline.isExpired()).isFalse();
+    }
+}
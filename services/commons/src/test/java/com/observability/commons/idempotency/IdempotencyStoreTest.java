@@ -0,0 +1,222 @@
+package com.observability.commons.idempotency;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.observability.commons.deadline.Deadline;
+import com.observability.commons.deadline.DeadlineContext;
+import com.observability.commons.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link IdempotencyStore}.
+ */
+class IdempotencyStoreTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final AtomicInteger invocations = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private IdempotencyStore<String> store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotencyStore<>(meterRegistry, 100, TTL, ticker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DeadlineContext.clear();
+    }
+
+    private String createOrder() {
+        return "order-" + invocations.incrementAndGet();
+    }
+
+    private double outcomeCount(final String outcome) {
+        return meterRegistry.get("idempotency_requests_total").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void retryWithSameKeyReplaysFirstResult() {
+        // Arrange
+        final var first = store.executeBlocking("key-1", "ITEM-1:2", this::createOrder);
+
+        // Act
+        final var retry = store.executeBlocking("key-1", "ITEM-1:2", this::createOrder);
+
+        // Assert
+        assertThat(retry).isEqualTo(first).isEqualTo("order-1");
+        assertThat(invocations).hasValue(1);
+        assertThat(outcomeCount("new")).isEqualTo(1.0);
+        assertThat(outcomeCount("replayed")).isEqualTo(1.0);
+    }
+
+    @Test
+    void differentKeysRunSeparately() {
+        // Act
+        store.executeBlocking("key-1", "ITEM-1:2", this::createOrder);
+        store.executeBlocking("key-2", "ITEM-1:2", this::createOrder);
+
+        // Assert
+        assertThat(invocations).hasValue(2);
+        assertThat(meterRegistry.get("idempotency_store_entries").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void concurrentRequestWaitsForFirstAndSharesItsResult() throws Exception {
+        // Arrange
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            final var first = executor.submit(() -> store.executeBlocking("key-1", "ITEM-1:2", () -> {
+                started.countDown();
+                await(release);
+                return createOrder();
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            final var second = executor.submit(() -> store.executeBlocking("key-1", "ITEM-1:2", this::createOrder));
+            release.countDown();
+
+            // Assert
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("order-1");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("order-1");
+            assertThat(invocations).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitingRequestGivesUpWhenItsDeadlineExpires() {
+        // Arrange
+        store.execute("key-1", "ITEM-1:2", CompletableFuture::new);
+        DeadlineContext.set(Deadline.after(Duration.ofMillis(20)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> store.executeBlocking("key-1", "ITEM-1:2", this::createOrder))
+            .isInstanceOf(DeadlineExceededException.class);
+        assertThat(invocations).hasValue(0);
+    }
+
+    @Test
+    void failedOperationIsNotStored() {
+        // Arrange
+        assertThatThrownBy(() -> store.executeBlocking("key-1", "ITEM-1:2", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("database down");
+
+        // Act
+        final var retry = store.executeBlocking("key-1", "ITEM-1:2", this::createOrder);
+
+        // Assert
+        assertThat(retry).isEqualTo("order-1");
+        assertThat(outcomeCount("new")).isEqualTo(2.0);
+    }
+
+    @Test
+    void asynchronousFailureIsSharedWithWaitersThenForgotten() {
+        // Arrange
+        final var operation = new CompletableFuture<String>();
+        final var first = store.execute("key-1", "ITEM-1:2", () -> operation);
+        final var waiter = store.execute("key-1", "ITEM-1:2", () -> CompletableFuture.completedFuture(createOrder()));
+
+        // Act
+        operation.completeExceptionally(new IllegalStateException("Inventory check failed"));
+
+        // Assert
+        assertThat(first).isCompletedExceptionally();
+        assertThat(waiter).isCompletedExceptionally();
+        assertThat(store.size()).isZero();
+        assertThat(invocations).hasValue(0);
+    }
+
+    @Test
+    void cancellingOneCallerDoesNotCancelTheSharedResult() {
+        // Arrange
+        final var operation = new CompletableFuture<String>();
+        final var first = store.execute("key-1", "ITEM-1:2", () -> operation);
+        final var waiter = store.execute("key-1", "ITEM-1:2", () -> CompletableFuture.completedFuture(createOrder()));
+
+        // Act
+        first.cancel(true);
+        operation.complete("order-1");
+
+        // Assert
+        assertThat(waiter).isCompletedWithValue("order-1");
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        // Arrange
+        store.executeBlocking("key-1", "ITEM-1:2", this::createOrder);
+
+        // Act & Assert
+        assertThatThrownBy(() -> store.executeBlocking("key-1", "ITEM-2:5", this::createOrder))
+            .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(invocations).hasValue(1);
+        assertThat(outcomeCount("mismatched")).isEqualTo(1.0);
+    }
+
+    @Test
+    void resultExpiresAfterTtl() {
+        // Arrange
+        store.executeBlocking("key-1", "ITEM-1:2", this::createOrder);
+
+        // Act
+        nanos.addAndGet(TTL.plusSeconds(1).toNanos());
+        final var retry = store.executeBlocking("key-1", "ITEM-1:2", this::createOrder);
+
+        // Assert
+        assertThat(retry).isEqualTo("order-2");
+    }
+
+    @Test
+    void storeIsBounded() {
+        // Act
+        for (var i = 0; i < 1_000; i++) {
+            store.executeBlocking("key-" + i, "ITEM-1:2", this::createOrder);
+        }
+
+        // Assert
+        store.cleanUp();
+        assertThat(store.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void rejectsInvalidKeys() {
+        assertThat(IdempotencyStore.isValidKey(null)).isFalse();
+        assertThat(IdempotencyStore.isValidKey(" ")).isFalse();
+        assertThat(IdempotencyStore.isValidKey("k".repeat(256))).isFalse();
+        assertThat(IdempotencyStore.isValidKey("3f2b6c1e-7d4a-4e0b-9a51-0c6e2f1d8b7a")).isTrue();
+        assertThatThrownBy(() -> store.executeBlocking("", "ITEM-1:2", this::createOrder))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
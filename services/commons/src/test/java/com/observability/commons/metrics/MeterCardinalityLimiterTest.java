@@ -0,0 +1,104 @@
+package com.observability.commons.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link MeterCardinalityLimiter}.
+ */
+class MeterCardinalityLimiterTest {
+
+    private static final int MAX_SERIES = 100;
+
+    private MeterRegistry meterRegistry;
+    private MeterCardinalityLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new MeterCardinalityLimiter(MAX_SERIES);
+        meterRegistry.config().meterFilter(limiter);
+        limiter.bindTo(meterRegistry);
+    }
+
+    private void recordClientRequest(final String uri) {
+        Timer.builder("http.client.requests")
+            .tag("method", "GET")
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(Duration.ofMillis(1));
+    }
+
+    @Test
+    void meterCountStaysBoundedForOneHundredThousandDistinctIds() {
+        // Arrange
+        final var distinctIds = 100_000;
+
+        // Act
+        for (var i = 0; i < distinctIds; i++) {
+            recordClientRequest("/api/inventory/ITEM-" + i);
+        }
+
+        // Assert
+        assertThat(meterRegistry.find("http.client.requests").meters()).hasSize(MAX_SERIES);
+        assertThat(limiter.seriesCount("http.client.requests")).isEqualTo(MAX_SERIES);
+        assertThat(meterRegistry.getMeters()).hasSizeLessThanOrEqualTo(MAX_SERIES + 2);
+        assertThat(meterRegistry.get("metrics_cardinality_overflow_total").functionCounter().count())
+            .isEqualTo(distinctIds - MAX_SERIES);
+        assertThat(meterRegistry.get("metrics_cardinality_limited_meters").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void admittedSeriesKeepRecordingAfterTheLimitIsReached() {
+        // Arrange
+        for (var i = 0; i < MAX_SERIES * 2; i++) {
+            recordClientRequest("/api/inventory/ITEM-" + i);
+        }
+
+        // Act
+        recordClientRequest("/api/inventory/ITEM-0");
+
+        // Assert
+        assertThat(meterRegistry.get("http.client.requests").tag("uri", "/api/inventory/ITEM-0").timer().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void limitIsAppliedPerMeterName() {
+        // Arrange
+        for (var i = 0; i < MAX_SERIES * 2; i++) {
+            recordClientRequest("/api/inventory/ITEM-" + i);
+        }
+
+        // Act
+        meterRegistry.counter("orders_created_total", "status", "ok").increment();
+
+        // Assert
+        assertThat(meterRegistry.get("orders_created_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void templatedUrisNeverOverflow() {
+        // Act
+        for (var i = 0; i < 10_000; i++) {
+            recordClientRequest("/api/inventory/{itemId}");
+        }
+
+        // Assert
+        assertThat(meterRegistry.find("http.client.requests").meters()).hasSize(1);
+        assertThat(meterRegistry.get("metrics_cardinality_overflow_total").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveLimit() {
+        assertThatThrownBy(() -> new MeterCardinalityLimiter(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.observability.commons.timing;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ServerTimingFilter}.
+ */
+class ServerTimingFilterTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/order123");
+
+    @Test
+    void returnsRecordedTimingsBeforeBodyIsWritten() throws Exception {
+        // Arrange
+        final var response = new MockHttpServletResponse();
+        final FilterChain chain = (req, res) -> {
+            ServerTimingContext.time("db", () -> "order");
+            res.getWriter().write("{}");
+            res.flushBuffer();
+        };
+
+        // Act
+        new ServerTimingFilter(true).doFilter(request, response, chain);
+
+        // Assert
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(ServerTiming.HEADER)).matches("db;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}");
+        assertThat(ServerTimingContext.current()).isEmpty();
+    }
+
+    @Test
+    void addsHeaderToResponsesWithoutBody() throws Exception {
+        // Arrange
+        final var response = new MockHttpServletResponse();
+        final FilterChain chain = (req, res) -> ServerTimingContext.record("chaos", 1_000_000);
+
+        // Act
+        new ServerTimingFilter(true).doFilter(request, response, chain);
+
+        // Assert
+        assertThat(response.getHeader(ServerTiming.HEADER)).startsWith("chaos;dur=1.000, total;dur=");
+    }
+
+    @Test
+    void disabledFilterAddsNoHeaderAndNoContext() throws Exception {
+        // Arrange
+        final var response = new MockHttpServletResponse();
+        final var seen = new AtomicReference<ServerTiming>();
+        final FilterChain chain = (req, res) -> seen.set(ServerTimingContext.current().orElse(null));
+
+        // Act
+        new ServerTimingFilter(false).doFilter(request, response, chain);
+
+        // Assert
+        assertThat(seen.get()).isNull();
+        assertThat(response.getHeader(ServerTiming.HEADER)).isNull();
+    }
+}
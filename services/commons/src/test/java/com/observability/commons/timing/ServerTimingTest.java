@@ -0,0 +1,55 @@
+package com.observability.commons.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ServerTiming}.
+ */
+class ServerTimingTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void rendersDurationsInMillisecondsInRecordingOrder() {
+        final var timing = new ServerTiming();
+
+        timing.add("db", 3 * MS + 217_000);
+        timing.add("total", 12 * MS + 4_000);
+
+        assertThat(timing.toHeaderValue()).isEqualTo("db;dur=3.217, total;dur=12.004");
+    }
+
+    @Test
+    void repeatedMetricsAddUpAndReportTheirCount() {
+        final var timing = new ServerTiming();
+
+        timing.add("db", 2 * MS);
+        timing.add("db", 5 * MS);
+
+        assertThat(timing.nanos("db")).isEqualTo(7 * MS);
+        assertThat(timing.toHeaderValue()).isEqualTo("db;dur=7.000;desc=\"2 calls\"");
+    }
+
+    @Test
+    void mergesDownstreamTimingsUnderPrefix() {
+        final var timing = new ServerTiming();
+
+        timing.merge("inventory", "chaos;dur=35, db;desc=\"query\";dur=2.5, cache;desc=hit, total;dur=bad");
+
+        assertThat(timing.toHeaderValue()).isEqualTo("inventory.chaos;dur=35.000, inventory.db;dur=2.500");
+    }
+
+    @Test
+    void emptyWithoutMetrics() {
+        final var timing = new ServerTiming();
+
+        timing.merge("order", null);
+
+        assertThat(timing.toHeaderValue()).isEmpty();
+        assertThat(timing.nanos("db")).isZero();
+    }
+}
@@ -0,0 +1,88 @@
+package com.observability.gateway.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.observability.gateway.model.inventory.InventoryResponse;
+import com.observability.gateway.model.order.OrderResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding downstream responses into generic {@code Map<String, Object>}
+ * trees, as the gateway used to, with decoding them into the typed models
+ * generated from the Order and Inventory Service APIs.
+ *
+ * <p>Each benchmark decodes one response body and reads the fields the gateway
+ * actually uses. The object mapper is configured the same way as the one
+ * WebClient uses. Run with {@code ./gradlew :gateway-service:jmh} and add
+ * {@code -prof gc} to the JMH arguments to compare allocation rates.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoDecodingBenchmark {
+
+    private static final byte[] ORDER_JSON = ("{\"id\":\"550e8400-e29b-41d4-a716-446655440000\","
+        + "\"itemId\":\"ITEM-123\",\"quantity\":5,\"status\":\"PENDING\","
+        + "\"createdAt\":\"2024-01-15T10:30:00Z\"}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INVENTORY_JSON = ("{\"itemId\":\"ITEM-123\",\"name\":\"Test Item\","
+        + "\"quantity\":100,\"available\":true}").getBytes(StandardCharsets.UTF_8);
+
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    /**
+     * Decodes an order into a generic map and reads its ID and quantity.
+     *
+     * @return a value derived from the decoded fields
+     * @throws IOException if decoding fails
+     */
+    @Benchmark
+    public Object decodeOrderAsMap() throws IOException {
+        final Map<?, ?> order = objectMapper.readValue(ORDER_JSON, Map.class);
+        return ((String) order.get("id")).length() + (Integer) order.get("quantity");
+    }
+
+    /**
+     * Decodes an order into the typed model and reads its ID and quantity.
+     *
+     * @return a value derived from the decoded fields
+     * @throws IOException if decoding fails
+     */
+    @Benchmark
+    public Object decodeOrderAsDto() throws IOException {
+        final var order = objectMapper.readValue(ORDER_JSON, OrderResponse.class);
+        return order.getId().length() + order.getQuantity();
+    }
+
+    /**
+     * Decodes an inventory response into a generic map and reads its availability.
+     *
+     * @return the decoded availability
+     * @throws IOException if decoding fails
+     */
+    @Benchmark
+    public Object decodeInventoryAsMap() throws IOException {
+        final Map<?, ?> inventory = objectMapper.readValue(INVENTORY_JSON, Map.class);
+        return inventory.get("available");
+    }
+
+    /**
+     * Decodes an inventory response into the typed model and reads its availability.
+     *
+     * @return the decoded availability
+     * @throws IOException if decoding fails
+     */
+    @Benchmark
+    public Object decodeInventoryAsDto() throws IOException {
+        return objectMapper.readValue(INVENTORY_JSON, InventoryResponse.class).getAvailable();
+    }
+}
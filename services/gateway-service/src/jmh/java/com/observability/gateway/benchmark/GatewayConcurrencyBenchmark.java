@@ -0,0 +1,136 @@
+package com.observability.gateway.benchmark;
+
+import com.observability.gateway.cache.InventoryCache;
+import com.observability.gateway.client.DownstreamConnectionPools;
+import com.observability.gateway.client.RequestCoalescer;
+import com.observability.gateway.client.RequestHedger;
+import com.observability.gateway.client.RouteDeadlines;
+import com.observability.gateway.client.SpeculativeExecutor;
+import com.observability.gateway.loadbalancing.LoadBalancingFilter;
+import com.observability.gateway.model.order.CreateOrderRequest;
+import com.observability.gateway.model.order.OrderResponse;
+import com.observability.gateway.resilience.DownstreamGuards;
+import com.observability.gateway.service.GatewayService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how many concurrent order creations the gateway can keep in flight
+ * per thread, before and after moving to a fully non-blocking pipeline.
+ *
+ * <p>Downstream services are simulated with a fixed latency that does not
+ * occupy a thread. In {@code blocking} mode every request is served by a
+ * worker from a pool sized like Tomcat's default ({@value #SERVLET_WORKER_THREADS}
+ * threads) that calls {@code block()} on the result, which is what the servlet
+ * gateway did. In {@code reactive} mode all requests are subscribed to at once,
+ * as WebFlux does on the Netty event loop. The peak JVM thread count of each
+ * trial is reported by JMH next to the score, as the {@code peakJvmThreads}
+ * secondary result.</p>
+ *
+ * <p>Run with {@code ./gradlew :gateway-service:jmh}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GatewayConcurrencyBenchmark {
+
+    private static final int SERVLET_WORKER_THREADS = 200;
+    private static final Duration DOWNSTREAM_LATENCY = Duration.ofMillis(20);
+    private static final CreateOrderRequest ORDER_REQUEST = new CreateOrderRequest("ITEM-1", 1);
+
+    @Param({"blocking", "reactive"})
+    private String mode;
+
+    @Param({"50", "200", "1000"})
+    private int concurrency;
+
+    private GatewayService gatewayService;
+    private ExecutorService servletWorkers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var builder = WebClient.builder().exchangeFunction(request -> Mono.delay(DOWNSTREAM_LATENCY)
+            .map(tick -> ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"id\":\"order-1\",\"itemId\":\"ITEM-1\",\"quantity\":1,\"available\":true}")
+                .build()));
+        final var inventoryCache = new InventoryCache(new SimpleMeterRegistry(), false, Duration.ZERO, 0, false,
+            Duration.ZERO);
+        gatewayService = new GatewayService(builder, "http://order-service", "http://inventory-service", 100, 8, 100, 8,
+            100, 4096, inventoryCache, new RequestCoalescer(new SimpleMeterRegistry(), false),
+            new RequestHedger(new SimpleMeterRegistry(), false, 0.95, 0.1, Duration.ofMillis(5), 1000, 100),
+            new SpeculativeExecutor(new SimpleMeterRegistry(), false, Duration.ofSeconds(2), 3, Duration.ofMillis(100)),
+            new DownstreamGuards(new SimpleMeterRegistry(), false, 50, 20, 10, Duration.ofSeconds(10), 3,
+                20, 1, 200, Duration.ofMillis(500), 0.9),
+            new RouteDeadlines(new SimpleMeterRegistry(), Duration.ofSeconds(30), Duration.ofSeconds(30),
+                Duration.ofSeconds(30), Duration.ofSeconds(30), Duration.ofSeconds(30), Duration.ofSeconds(30),
+                Duration.ofSeconds(30), Duration.ofSeconds(30)),
+            new LoadBalancingFilter(new SimpleMeterRegistry(), "http://order-service", "",
+                "http://inventory-service", "", "", Duration.ofSeconds(5), 5, Duration.ofSeconds(30), 0.3),
+            new DownstreamConnectionPools(500, 1000, Duration.ofSeconds(2), Duration.ofSeconds(30),
+                Duration.ofMinutes(5), Duration.ofSeconds(30), true, false),
+            null);
+        servletWorkers = Executors.newFixedThreadPool(SERVLET_WORKER_THREADS);
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        servletWorkers.shutdownNow();
+    }
+
+    /**
+     * Secondary results reported by JMH alongside the score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ThreadCounters {
+
+        /** Highest number of live JVM threads since the trial started. */
+        public long peakJvmThreads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakJvmThreads = 0;
+        }
+    }
+
+    /**
+     * Issues one burst of {@code concurrency} order creations and waits for all of them.
+     *
+     * @param counters receives the peak JVM thread count once the burst has completed
+     * @throws Exception if a request fails
+     */
+    @Benchmark
+    public void createOrderBurst(final ThreadCounters counters) throws Exception {
+        if ("blocking".equals(mode)) {
+            final var pending = new ArrayList<Future<OrderResponse>>(concurrency);
+            for (var i = 0; i < concurrency; i++) {
+                pending.add(servletWorkers.submit(() -> gatewayService.createOrder(ORDER_REQUEST).block()));
+            }
+            for (final var future : pending) {
+                future.get();
+            }
+        } else {
+            Flux.range(0, concurrency)
+                .flatMap(i -> gatewayService.createOrder(ORDER_REQUEST), concurrency)
+                .blockLast();
+        }
+        counters.peakJvmThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+    }
+}
@@ -1,13 +1,32 @@
 package com.observability.gateway;
 
+import com.observability.commons.deadline.DeadlineExceededException;
+import com.observability.commons.idempotency.IdempotencyKeyMismatchException;
+import com.observability.commons.idempotency.IdempotencyStore;
+import com.observability.gateway.alert.Alert;
+import com.observability.gateway.alert.AlertIngestor;
+import com.observability.gateway.model.BatchOrderResponse;
+import com.observability.gateway.model.order.CreateOrderRequest;
+import com.observability.gateway.model.order.OrderResponse;
+import com.observability.gateway.resilience.DownstreamUnavailableException;
 import com.observability.gateway.service.GatewayService;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.observability.commons.util.LogUtils.sanitizeForLog;
 
@@ -16,7 +35,21 @@ import static com.observability.commons.util.LogUtils.sanitizeForLog;
  * 
  * <p>This controller serves as the entry point for all client requests,
  * routing them to the appropriate downstream services (Order Service,
- * Inventory Service).</p>
+ * Inventory Service). Handlers return Reactor publishers and run on the
+ * Netty event loop, so downstream calls never pin a request thread.</p>
+ *
+ * <p>Order payloads are bound to the typed models generated from the Order
+ * Service API and validated against its constraints before any downstream
+ * call is made.</p>
+ *
+ * <p>Order creation honours the {@value IdempotencyStore#HEADER} header, so
+ * a client retrying after a timeout gets the original order back instead of
+ * a duplicate. The key is forwarded to the Order Service, so an order it
+ * accepted after the gateway had given up is not created twice either.</p>
+ *
+ * <p>Alertmanager webhooks are queued for the {@link AlertIngestor} and
+ * answered at once; the deduplicated history of recent alerts is served
+ * from memory.</p>
  *
  * @since 1.0.0
  */
@@ -27,14 +60,25 @@ public class GatewayController {
     private static final Logger logger = LoggerFactory.getLogger(GatewayController.class);
 
     private final GatewayService gatewayService;
+    private final Validator validator;
+    private final IdempotencyStore<OrderResponse> idempotencyStore;
+    private final AlertIngestor alertIngestor;
 
     /**
      * Constructs a new GatewayController with the required service.
      *
      * @param gatewayService the gateway service for handling business logic
+     * @param validator the Bean Validation validator for incoming payloads
+     * @param idempotencyStore the store of created orders, keyed by idempotency key
+     * @param alertIngestor the background processor of Alertmanager webhooks
      */
-    public GatewayController(final GatewayService gatewayService) {
+    public GatewayController(final GatewayService gatewayService, final Validator validator,
+                             final IdempotencyStore<OrderResponse> idempotencyStore,
+                             final AlertIngestor alertIngestor) {
         this.gatewayService = gatewayService;
+        this.validator = validator;
+        this.idempotencyStore = idempotencyStore;
+        this.alertIngestor = alertIngestor;
     }
 
     /**
@@ -54,99 +98,359 @@ public class GatewayController {
     /**
      * Creates a new order after checking inventory availability.
      *
+     * <p>With an idempotency key, a request repeating an earlier one gets the
+     * original order back, and one arriving while the earlier request is still
+     * running waits for it. Failed attempts are not remembered, so they can be
+     * retried with the same key, and the key is forwarded to the Order
+     * Service, which creates no second order if the failed attempt reached
+     * it. Reusing a key for a different order is rejected with 422.</p>
+     *
+     * @param idempotencyKey the optional idempotency key identifying this request
      * @param orderRequest the order request containing itemId and quantity
-     * @return ResponseEntity with the created order or error details
+     * @return Mono emitting a ResponseEntity with the created order or error details
      */
     @PostMapping("/orders")
-    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> orderRequest) {
-        try {
-            final var orderResponse = gatewayService.createOrder(orderRequest);
-            return ResponseEntity.status(201).body(orderResponse);
-        } catch (IllegalStateException e) {
-            logger.warn("Inventory check failed: {}", e.getMessage());
-            return ResponseEntity.badRequest().body(Map.of("error", "Inventory check failed"));
-        } catch (Exception e) {
-            logger.error("Error creating order", e);
-            return ResponseEntity.internalServerError().body(Map.of("error", "Internal server error"));
+    public Mono<ResponseEntity<Object>> createOrder(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody CreateOrderRequest orderRequest) {
+        final var violation = validate(orderRequest);
+        if (violation != null) {
+            logger.warn("Invalid order request: {}", violation);
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", violation)));
+        }
+        if (idempotencyKey != null && !IdempotencyStore.isValidKey(idempotencyKey)) {
+            logger.warn("Invalid idempotency key received");
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid idempotency key")));
+        }
+
+        // The first request with a key runs to completion even if its caller goes away, so retries can replay it.
+        // It keeps that caller's Reactor context, so its downstream calls still show up in the caller's Server-Timing.
+        final var created = idempotencyKey == null
+            ? gatewayService.createOrder(orderRequest)
+            : Mono.deferContextual(context -> Mono.fromFuture(idempotencyStore.execute(idempotencyKey, orderRequest,
+                () -> gatewayService.createOrder(orderRequest, idempotencyKey).contextWrite(context).toFuture())));
+
+        return created
+            .map(orderResponse -> ResponseEntity.status(201).<Object>body(orderResponse))
+            .onErrorResume(IllegalStateException.class, e -> {
+                logger.warn("Inventory check failed: {}", e.getMessage());
+                return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Inventory check failed")));
+            })
+            .onErrorResume(IdempotencyKeyMismatchException.class, e -> {
+                logger.warn("Order request rejected: {}", e.getMessage());
+                return Mono.just(ResponseEntity.unprocessableEntity().body(Map.of("error", e.getMessage())));
+            })
+            .onErrorResume(DownstreamUnavailableException.class, e -> Mono.just(serviceUnavailable(e)))
+            .onErrorResume(DeadlineExceededException.class, e -> Mono.just(deadlineExceeded(e)))
+            .onErrorResume(e -> {
+                logger.error("Error creating order", e);
+                return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", "Internal server error")));
+            });
+    }
+
+    /**
+     * Creates orders for a batch of order lines.
+     *
+     * <p>Responds with 201 when every line was created and 207 (Multi-Status)
+     * when some lines were rejected or failed; per-line outcomes are in the body.</p>
+     *
+     * <p>With an idempotency key, each line is created in the Order Service
+     * under a key derived from it, so retrying the batch with the same key
+     * creates no second order for a line that was created before.</p>
+     *
+     * @param idempotencyKey the optional idempotency key identifying this batch
+     * @param orderLines the order lines, each containing itemId and quantity
+     * @return Mono emitting a ResponseEntity with per-line results or error details
+     */
+    @PostMapping("/orders/batch")
+    public Mono<ResponseEntity<Object>> createOrders(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody List<CreateOrderRequest> orderLines) {
+        for (var i = 0; orderLines != null && i < orderLines.size(); i++) {
+            final var violation = validate(orderLines.get(i));
+            if (violation != null) {
+                logger.warn("Invalid batch order line {}: {}", i, violation);
+                return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Line " + i + ": " + violation)));
+            }
+        }
+
+        if (idempotencyKey != null && !IdempotencyStore.isValidKey(idempotencyKey)) {
+            logger.warn("Invalid idempotency key received");
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid idempotency key")));
         }
+
+        return gatewayService.createOrders(orderLines, idempotencyKey)
+            .map(BatchOrderResponse::of)
+            .map(response -> ResponseEntity.status(response.allCreated() ? 201 : 207).<Object>body(response))
+            .onErrorResume(IllegalArgumentException.class, e -> {
+                logger.warn("Invalid batch order request: {}", e.getMessage());
+                return Mono.just(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+            })
+            .onErrorResume(DeadlineExceededException.class, e -> Mono.just(deadlineExceeded(e)))
+            .onErrorResume(e -> {
+                logger.error("Error creating order batch", e);
+                return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", "Internal server error")));
+            });
     }
 
     /**
      * Retrieves all orders from the Order Service.
      *
-     * @return ResponseEntity with the list of orders or error details
+     * <p>The Order Service response body is streamed to the client without
+     * being decoded or buffered in the gateway.</p>
+     *
+     * @return Mono emitting a ResponseEntity with the streamed list of orders or error details
      */
     @GetMapping("/orders")
-    public ResponseEntity<?> getOrders() {
-        try {
-            final var response = gatewayService.getOrders();
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error fetching orders", e);
-            return ResponseEntity.internalServerError().body(Map.of("error", "Internal server error"));
-        }
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOrders() {
+        return gatewayService.getOrders()
+            .map(downstream -> ResponseEntity.ok()
+                .contentType(Optional.ofNullable(downstream.getHeaders().getContentType())
+                    .orElse(MediaType.APPLICATION_JSON))
+                .body(downstream.getBody()))
+            .onErrorResume(DownstreamUnavailableException.class, e -> {
+                logger.warn("Downstream call rejected: {}", e.getMessage());
+                return Mono.just(ResponseEntity.status(503)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(errorBody(e.getMessage())));
+            })
+            .onErrorResume(DeadlineExceededException.class, e -> {
+                logger.warn("Request abandoned: {}", e.getMessage());
+                return Mono.just(ResponseEntity.status(504)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(errorBody("Deadline exceeded")));
+            })
+            .onErrorResume(e -> {
+                logger.error("Error fetching orders", e);
+                return Mono.just(ResponseEntity.internalServerError()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(errorBody("Internal server error")));
+            });
     }
 
     /**
      * Retrieves a specific order by its ID.
      *
      * @param id the order ID to retrieve
-     * @return ResponseEntity with the order or error details
+     * @return Mono emitting a ResponseEntity with the order or error details
      */
     @GetMapping("/orders/{id}")
-    public ResponseEntity<?> getOrder(@PathVariable String id) {
+    public Mono<ResponseEntity<Object>> getOrder(@PathVariable String id) {
         // Validate input to prevent injection attacks
-        if (id == null || id.trim().isEmpty() || id.length() > 255) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid order ID"));
+        if (!isValidId(id)) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid order ID")));
         }
 
-        try {
-            final var response = gatewayService.getOrder(id);
-            if (response == null) {
-                return ResponseEntity.notFound().build();
-            }
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error fetching order: {}", sanitizeForLog(id), e);
-            return ResponseEntity.internalServerError().body(Map.of("error", "Internal server error"));
+        return gatewayService.getOrder(id)
+            .<ResponseEntity<Object>>map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build())
+            .onErrorResume(DownstreamUnavailableException.class, e -> Mono.just(serviceUnavailable(e)))
+            .onErrorResume(DeadlineExceededException.class, e -> Mono.just(deadlineExceeded(e)))
+            .onErrorResume(e -> {
+                logger.error("Error fetching order: {}", sanitizeForLog(id), e);
+                return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", "Internal server error")));
+            });
+    }
+
+    /**
+     * Retrieves an order together with the current inventory of its item.
+     *
+     * @param id the order ID to retrieve
+     * @return Mono emitting a ResponseEntity with the order details or error details
+     */
+    @GetMapping("/orders/{id}/details")
+    public Mono<ResponseEntity<Object>> getOrderDetails(@PathVariable String id) {
+        if (!isValidId(id)) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid order ID")));
+        }
+
+        return gatewayService.getOrderDetails(id)
+            .<ResponseEntity<Object>>map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build())
+            .onErrorResume(DownstreamUnavailableException.class, e -> Mono.just(serviceUnavailable(e)))
+            .onErrorResume(DeadlineExceededException.class, e -> Mono.just(deadlineExceeded(e)))
+            .onErrorResume(e -> {
+                logger.error("Error fetching order details: {}", sanitizeForLog(id), e);
+                return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", "Internal server error")));
+            });
+    }
+
+    /**
+     * Retrieves the details of several orders, fetched in parallel.
+     *
+     * <p>The body holds one result per distinct ID, in request order, each
+     * with its own status.</p>
+     *
+     * @param ids the order IDs to retrieve, comma-separated or repeated
+     * @return Mono emitting a ResponseEntity with per-order results or error details
+     */
+    @GetMapping("/orders/details")
+    public Mono<ResponseEntity<Object>> getOrderDetailsList(@RequestParam List<String> ids) {
+        if (ids.stream().anyMatch(id -> !isValidId(id))) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid order ID")));
         }
+
+        return gatewayService.getOrderDetails(ids)
+            .<ResponseEntity<Object>>map(ResponseEntity::ok)
+            .onErrorResume(IllegalArgumentException.class, e -> {
+                logger.warn("Invalid order details request: {}", e.getMessage());
+                return Mono.just(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+            })
+            .onErrorResume(DeadlineExceededException.class, e -> Mono.just(deadlineExceeded(e)))
+            .onErrorResume(e -> {
+                logger.error("Error fetching order details", e);
+                return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", "Internal server error")));
+            });
     }
 
     /**
      * Checks inventory availability for a specific item.
      *
      * @param itemId the item ID to check inventory for
-     * @return ResponseEntity with inventory information or error details
+     * @return Mono emitting a ResponseEntity with inventory information or error details
      */
     @GetMapping("/inventory/{itemId}")
-    public ResponseEntity<?> checkInventory(@PathVariable String itemId) {
+    public Mono<ResponseEntity<Object>> checkInventory(@PathVariable String itemId) {
         // Validate input to prevent injection attacks
-        if (itemId == null || itemId.trim().isEmpty() || itemId.length() > 255) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid item ID"));
+        if (!isValidId(itemId)) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid item ID")));
+        }
+
+        return gatewayService.checkInventory(itemId)
+            .<ResponseEntity<Object>>map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build())
+            .onErrorResume(DownstreamUnavailableException.class, e -> Mono.just(serviceUnavailable(e)))
+            .onErrorResume(DeadlineExceededException.class, e -> Mono.just(deadlineExceeded(e)))
+            .onErrorResume(e -> {
+                logger.error("Error checking inventory: {}", sanitizeForLog(itemId), e);
+                return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", "Internal server error")));
+            });
+    }
+
+    /**
+     * Checks inventory availability for several items at once.
+     *
+     * <p>The body holds the inventory of each distinct known item, in request
+     * order.</p>
+     *
+     * @param ids the item IDs to check, comma-separated or repeated
+     * @return Mono emitting a ResponseEntity with the inventory of each item or error details
+     */
+    @GetMapping("/inventory")
+    public Mono<ResponseEntity<Object>> checkInventoryBatch(@RequestParam List<String> ids) {
+        if (ids.stream().anyMatch(id -> !isValidId(id))) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid item ID")));
         }
 
-        try {
-            final var response = gatewayService.checkInventory(itemId);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error checking inventory: {}", sanitizeForLog(itemId), e);
-            return ResponseEntity.internalServerError().body(Map.of("error", "Internal server error"));
+        return gatewayService.checkInventory(ids)
+            .<ResponseEntity<Object>>map(ResponseEntity::ok)
+            .onErrorResume(IllegalArgumentException.class, e -> {
+                logger.warn("Invalid inventory request: {}", e.getMessage());
+                return Mono.just(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+            })
+            .onErrorResume(DownstreamUnavailableException.class, e -> Mono.just(serviceUnavailable(e)))
+            .onErrorResume(DeadlineExceededException.class, e -> Mono.just(deadlineExceeded(e)))
+            .onErrorResume(e -> {
+                logger.error("Error checking inventory of {} items", ids.size(), e);
+                return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", "Internal server error")));
+            });
+    }
+
+    /**
+     * Builds the 503 response for a downstream call that was rejected by its
+     * circuit breaker or concurrency limiter.
+     *
+     * @param e the rejection
+     * @return the Service Unavailable response
+     */
+    private static ResponseEntity<Object> serviceUnavailable(final DownstreamUnavailableException e) {
+        logger.warn("Downstream call rejected: {}", e.getMessage());
+        return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
+    }
+
+    /**
+     * Builds the 504 response for a request that ran out of its time budget.
+     *
+     * @param e the deadline exception
+     * @return the Gateway Timeout response
+     */
+    private static ResponseEntity<Object> deadlineExceeded(final DeadlineExceededException e) {
+        logger.warn("Request abandoned: {}", e.getMessage());
+        return ResponseEntity.status(504).body(Map.of("error", "Deadline exceeded"));
+    }
+
+    /**
+     * Builds a JSON error body for streamed responses.
+     *
+     * @param message the error message; must not require JSON escaping
+     * @return the body as a single buffer
+     */
+    private static Flux<DataBuffer> errorBody(final String message) {
+        final var json = "{\"error\":\"" + message + "\"}";
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Checks that a path or query ID is present and of reasonable length, to prevent injection attacks.
+     *
+     * @param id the ID to check
+     * @return {@code true} if the ID can be passed downstream
+     */
+    private static boolean isValidId(final String id) {
+        return id != null && !id.trim().isEmpty() && id.length() <= 255;
+    }
+
+    /**
+     * Validates an order request against the Order Service API constraints.
+     *
+     * @param orderRequest the order request to validate
+     * @return a description of the first violation, or {@code null} if the request is valid
+     */
+    private String validate(final CreateOrderRequest orderRequest) {
+        if (orderRequest == null) {
+            return "Order request is required";
         }
+        return validator.validate(orderRequest).stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .findFirst()
+            .orElse(null);
     }
 
     /**
-     * Receives and processes alert webhooks from Alertmanager.
+     * Receives alert webhooks from Alertmanager.
+     *
+     * <p>The payload is queued for background processing and the webhook is
+     * answered with 202 straight away. If the queue is full the payload is
+     * dropped and 503 is returned, so Alertmanager retries it later.</p>
      *
      * @param alertPayload the alert payload from Alertmanager
      * @return ResponseEntity confirming webhook receipt
      */
     @PostMapping("/alerts/webhook")
     public ResponseEntity<Map<String, String>> receiveAlertWebhook(@RequestBody Map<String, Object> alertPayload) {
-        gatewayService.processAlertWebhook(alertPayload);
-
         final var response = new HashMap<String, String>();
+        if (!alertIngestor.submit(alertPayload)) {
+            response.put("status", "dropped");
+            response.put("message", "Alert webhook queue is full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
         response.put("status", "received");
-        response.put("message", "Alert webhook processed successfully");
-        return ResponseEntity.ok(response);
+        response.put("message", "Alert webhook queued for processing");
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Lists recently received alerts.
+     *
+     * <p>Repeated notifications for an alert whose status has not changed
+     * are listed once.</p>
+     *
+     * @param limit the maximum number of alerts returned
+     * @return ResponseEntity with up to {@code limit} alerts, newest first
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<List<Alert>> getAlerts(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(alertIngestor.recentAlerts(limit));
     }
 }
@@ -1,11 +1,19 @@
 package com.observability.gateway;
 
+import com.observability.commons.idempotency.IdempotencyStore;
+import com.observability.gateway.model.order.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+
 /**
  * Main Spring Boot application class for the Gateway Service.
  * 
@@ -31,10 +39,32 @@ public class GatewayServiceApplication {
     /**
      * Creates a WebClient.Builder bean for making HTTP requests to downstream services.
      *
+     * <p>Spring Boot's {@link WebClientCustomizer}s are applied, so downstream calls
+     * are observed and recorded as {@code http.client.requests}.</p>
+     *
+     * @param customizers the WebClient customizers registered by auto-configuration
      * @return a WebClient.Builder instance
      */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(final ObjectProvider<WebClientCustomizer> customizers) {
+        final var builder = WebClient.builder();
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+
+    /**
+     * Creates the store of order creation results, keyed by idempotency key.
+     *
+     * @param meterRegistry the Micrometer registry for idempotency metrics
+     * @param maxEntries the maximum number of stored keys
+     * @param ttl how long a created order is replayed for its key
+     * @return the idempotency store for order creation
+     */
+    @Bean
+    public IdempotencyStore<OrderResponse> orderIdempotencyStore(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.idempotency.max-entries:10000}") final long maxEntries,
+            @Value("${gateway.idempotency.ttl:24h}") final Duration ttl) {
+        return new IdempotencyStore<>(meterRegistry, maxEntries, ttl);
     }
 }
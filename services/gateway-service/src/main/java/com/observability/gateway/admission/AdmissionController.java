@@ -0,0 +1,305 @@
+package com.observability.gateway.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Admits incoming gateway requests up to a concurrency limit and queues the
+ * rest, shedding queued requests with {@link CoDel} once the queue stops
+ * draining.
+ *
+ * <p>Without admission control, a gateway whose downstreams slow down keeps
+ * accepting requests until they spend most of their time budget waiting for
+ * a turn, and every client times out. Here at most
+ * {@code gateway.admission.max-concurrent} requests are processed at once.
+ * Others wait in a FIFO queue per {@link Priority}; {@code HIGH} requests
+ * are always dequeued first and are never shed by CoDel. A request is shed
+ * when CoDel decides so as it leaves the queue, when the queue already
+ * holds {@code gateway.admission.max-queue-length} requests, or when it has
+ * waited {@code gateway.admission.max-queue-time}.</p>
+ *
+ * <p>Queue delay is recorded in {@code gateway_admission_queue_delay_seconds}
+ * and shed requests in {@code gateway_admission_shed_total}, both by
+ * {@code priority}; queue lengths, requests in flight and whether CoDel is
+ * currently shedding are exported as gauges.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class AdmissionController {
+
+    /**
+     * Scheduling class of a request.
+     */
+    public enum Priority {
+        /** Dequeued before any normal request and never shed by CoDel. */
+        HIGH,
+        /** Regular traffic, subject to CoDel shedding. */
+        NORMAL;
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Slot held by an admitted request.
+     */
+    public interface Permit {
+
+        /**
+         * Releases the slot once the request is done; further calls have no effect.
+         */
+        void release();
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrent;
+    private final int maxQueueLength;
+    private final Duration maxQueueTime;
+    private final CoDel coDel;
+    private final LongSupplier nanoClock;
+    private final Map<Priority, ArrayDeque<Waiter>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, Timer> queueDelay = new EnumMap<>(Priority.class);
+
+    private int inFlight;
+
+    /**
+     * Constructs a new AdmissionController from configuration.
+     *
+     * @param meterRegistry the Micrometer registry for admission metrics
+     * @param maxConcurrent the maximum number of requests processed at once
+     * @param maxQueueLength the maximum number of waiting requests; high-priority requests only count their own
+     * @param maxQueueTime the longest a request may wait before it is shed
+     * @param targetDelay the CoDel target queue delay
+     * @param interval the CoDel interval
+     */
+    @Autowired
+    public AdmissionController(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.admission.max-concurrent:256}") final int maxConcurrent,
+            @Value("${gateway.admission.max-queue-length:1000}") final int maxQueueLength,
+            @Value("${gateway.admission.max-queue-time:1s}") final Duration maxQueueTime,
+            @Value("${gateway.admission.target-delay:5ms}") final Duration targetDelay,
+            @Value("${gateway.admission.interval:100ms}") final Duration interval) {
+        this(meterRegistry, maxConcurrent, maxQueueLength, maxQueueTime, targetDelay, interval, System::nanoTime);
+    }
+
+    AdmissionController(final MeterRegistry meterRegistry, final int maxConcurrent, final int maxQueueLength,
+                        final Duration maxQueueTime, final Duration targetDelay, final Duration interval,
+                        final LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueueLength = maxQueueLength;
+        this.maxQueueTime = maxQueueTime;
+        this.coDel = new CoDel(targetDelay, interval);
+        this.nanoClock = nanoClock;
+        for (final var priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            queueDelay.put(priority, Timer.builder("gateway_admission_queue_delay")
+                .description("Time requests waited for admission to the gateway")
+                .tag("priority", priority.tag())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+            Gauge.builder("gateway_admission_queue_length", this, controller -> controller.queueLength(priority))
+                .description("Requests currently waiting for admission to the gateway")
+                .tag("priority", priority.tag())
+                .register(meterRegistry);
+        }
+        Gauge.builder("gateway_admission_inflight_requests", this, AdmissionController::inFlight)
+            .description("Requests currently admitted and being processed by the gateway")
+            .register(meterRegistry);
+        Gauge.builder("gateway_admission_dropping", this, controller -> controller.isDropping() ? 1 : 0)
+            .description("Whether CoDel is currently shedding queued requests (1) or not (0)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Waits for admission of a request.
+     *
+     * <p>The permit must be released once the request is done. Cancelling the
+     * returned Mono while the request is queued removes it from the queue.</p>
+     *
+     * @param priority the scheduling class of the request
+     * @return a Mono emitting the permit once the request is admitted; fails with
+     *         {@link RequestShedException} if the request is shed
+     */
+    public Mono<Permit> acquire(final Priority priority) {
+        return Mono.<Permit>create(sink -> {
+                final var waiter = new Waiter(priority, sink, nanoClock.getAsLong());
+                sink.onCancel(() -> cancel(waiter));
+                enqueue(waiter);
+            })
+            .timeout(maxQueueTime, Mono.error(() -> shed(priority, "queue_timeout")));
+    }
+
+    private void enqueue(final Waiter waiter) {
+        final List<Waiter> dequeued;
+        synchronized (this) {
+            final var queued = waiter.priority == Priority.HIGH
+                ? queueLength(Priority.HIGH)
+                : queueLength(Priority.HIGH) + queueLength(Priority.NORMAL);
+            if (queued >= maxQueueLength) {
+                waiter.state = State.SHED;
+                dequeued = null;
+            } else {
+                queues.get(waiter.priority).addLast(waiter);
+                dequeued = drain();
+            }
+        }
+        if (dequeued == null) {
+            waiter.sink.error(shed(waiter.priority, "queue_full"));
+            return;
+        }
+        complete(dequeued);
+    }
+
+    private void cancel(final Waiter waiter) {
+        final boolean admitted;
+        synchronized (this) {
+            if (waiter.state == State.WAITING) {
+                waiter.state = State.CANCELLED;
+                queues.get(waiter.priority).remove(waiter);
+            }
+            admitted = waiter.state == State.ADMITTED;
+        }
+        // Cancelled between admission and delivery of the permit, so nobody else will release it
+        if (admitted) {
+            waiter.release();
+        }
+    }
+
+    private void release() {
+        final List<Waiter> dequeued;
+        synchronized (this) {
+            inFlight--;
+            dequeued = drain();
+        }
+        complete(dequeued);
+    }
+
+    /**
+     * Dequeues waiters while slots are free, deciding for each whether it is admitted or shed.
+     * Must be called while holding the lock; the waiters are notified by {@link #complete(List)}.
+     */
+    private List<Waiter> drain() {
+        final var dequeued = new ArrayList<Waiter>();
+        final var now = nanoClock.getAsLong();
+        while (inFlight < maxConcurrent) {
+            var waiter = queues.get(Priority.HIGH).pollFirst();
+            if (waiter == null) {
+                waiter = queues.get(Priority.NORMAL).pollFirst();
+            }
+            if (waiter == null) {
+                break;
+            }
+            waiter.sojournNanos = now - waiter.enqueuedAt;
+            if (waiter.priority == Priority.NORMAL && coDel.onDequeue(waiter.sojournNanos, now)) {
+                waiter.state = State.SHED;
+            } else {
+                waiter.state = State.ADMITTED;
+                inFlight++;
+            }
+            dequeued.add(waiter);
+        }
+        return dequeued;
+    }
+
+    private void complete(final List<Waiter> dequeued) {
+        for (final var waiter : dequeued) {
+            if (waiter.state == State.ADMITTED) {
+                queueDelay.get(waiter.priority).record(waiter.sojournNanos, TimeUnit.NANOSECONDS);
+                waiter.sink.success(waiter);
+            } else {
+                waiter.sink.error(shed(waiter.priority, "codel"));
+            }
+        }
+    }
+
+    private RequestShedException shed(final Priority priority, final String reason) {
+        Counter.builder("gateway_admission_shed_total")
+            .description("Total number of requests shed by gateway admission control")
+            .tag("priority", priority.tag())
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+        return new RequestShedException(reason);
+    }
+
+    /**
+     * Returns the number of requests waiting with a priority.
+     *
+     * @param priority the priority
+     * @return the queue length
+     */
+    synchronized int queueLength(final Priority priority) {
+        return queues.get(priority).size();
+    }
+
+    /**
+     * Returns the number of admitted requests not yet released.
+     *
+     * @return the in-flight count
+     */
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns whether CoDel is currently shedding requests.
+     *
+     * @return {@code true} while CoDel is in its dropping state
+     */
+    synchronized boolean isDropping() {
+        return coDel.isDropping();
+    }
+
+    private enum State {
+        WAITING, ADMITTED, SHED, CANCELLED
+    }
+
+    /**
+     * A request waiting for admission, and the permit it holds once admitted.
+     */
+    private final class Waiter implements Permit {
+
+        private final Priority priority;
+        private final MonoSink<Permit> sink;
+        private final long enqueuedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        // Guarded by the controller's lock
+        private State state = State.WAITING;
+        private long sojournNanos;
+
+        private Waiter(final Priority priority, final MonoSink<Permit> sink, final long enqueuedAt) {
+            this.priority = priority;
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                AdmissionController.this.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.observability.gateway.admission;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Puts every gateway request through the {@link AdmissionController} before
+ * it reaches a controller.
+ *
+ * <p>Health checks ({@code /api/health} and {@code /actuator/**}) bypass
+ * admission entirely, so an overloaded gateway is not mistaken for a dead
+ * one. The Alertmanager webhook is admitted with {@code HIGH} priority, ahead
+ * of order and inventory traffic. Shed requests are answered with 503 and a
+ * {@code Retry-After} header of {@code gateway.admission.retry-after}.</p>
+ *
+ * <p>Runs after Spring Boot's HTTP server observation, so shed requests are
+ * still recorded in {@code http_server_requests_seconds}. Setting
+ * {@code gateway.admission.enabled=false} admits everything.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class AdmissionFilter implements WebFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    private static final String ALERT_WEBHOOK_PATH = "/api/alerts/webhook";
+    private static final byte[] OVERLOADED_BODY = "{\"error\":\"Service overloaded\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final AdmissionController admissionController;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+
+    /**
+     * Constructs a new AdmissionFilter.
+     *
+     * @param admissionController the admission controller deciding which requests proceed
+     * @param enabled whether admission control is enabled
+     * @param retryAfter how long shed clients are asked to wait before retrying; rounded up to whole seconds
+     */
+    public AdmissionFilter(
+            final AdmissionController admissionController,
+            @Value("${gateway.admission.enabled:true}") final boolean enabled,
+            @Value("${gateway.admission.retry-after:1s}") final Duration retryAfter) {
+        this.admissionController = admissionController;
+        this.enabled = enabled;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final var path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!enabled || isHealthCheck(path)) {
+            return chain.filter(exchange);
+        }
+        final var priority = ALERT_WEBHOOK_PATH.equals(path)
+            ? AdmissionController.Priority.HIGH
+            : AdmissionController.Priority.NORMAL;
+        return admissionController.acquire(priority)
+            .flatMap(permit -> chain.filter(exchange).doFinally(signal -> permit.release()))
+            .onErrorResume(RequestShedException.class, e -> {
+                logger.debug("Shedding {} request: {}", priority, e.reason());
+                return overloaded(exchange);
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private static boolean isHealthCheck(final String path) {
+        return "/api/health".equals(path) || path.startsWith("/actuator/");
+    }
+
+    private Mono<Void> overloaded(final ServerWebExchange exchange) {
+        final var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(OVERLOADED_BODY)));
+    }
+}
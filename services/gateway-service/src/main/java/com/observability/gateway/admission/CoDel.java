@@ -0,0 +1,100 @@
+package com.observability.gateway.admission;
+
+import java.time.Duration;
+
+/**
+ * Controlled Delay (CoDel) drop decision for a request queue, after RFC 8289.
+ *
+ * <p>CoDel looks at the sojourn time of each request as it leaves the queue.
+ * A queue whose requests have waited at least the target delay for a whole
+ * interval holds a standing backlog rather than absorbing a burst, and CoDel
+ * enters its dropping state: it sheds one request, then further ones at
+ * intervals shrinking with the square root of the number shed, until a
+ * request leaves the queue below the target delay again. Short bursts are
+ * therefore queued, while persistent overload is shed at the head of the
+ * queue, where requests have already waited longest.</p>
+ *
+ * <p>Not thread-safe; callers must serialize access.</p>
+ *
+ * @since 1.0.0
+ */
+public class CoDel {
+
+    private final long targetNanos;
+    private final long intervalNanos;
+
+    private long firstAboveTime;
+    private long dropNext;
+    private int count;
+    private int lastCount;
+    private boolean dropping;
+
+    /**
+     * Constructs a new CoDel.
+     *
+     * @param target the acceptable standing queue delay
+     * @param interval the time the delay must stay above target before requests are shed
+     */
+    public CoDel(final Duration target, final Duration interval) {
+        this.targetNanos = target.toNanos();
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Decides whether a request leaving the queue should be shed.
+     *
+     * @param sojournNanos how long the request waited in the queue, in nanoseconds
+     * @param now the current monotonic time, in nanoseconds
+     * @return {@code true} if the request should be shed
+     */
+    public boolean onDequeue(final long sojournNanos, final long now) {
+        final var okToDrop = updateAboveTarget(sojournNanos, now);
+        if (dropping) {
+            if (!okToDrop) {
+                dropping = false;
+                return false;
+            }
+            if (now - dropNext >= 0) {
+                count++;
+                dropNext = controlLaw(dropNext, count);
+                return true;
+            }
+            return false;
+        }
+        if (okToDrop) {
+            dropping = true;
+            // Resume near the previous drop rate if overload returns shortly after the last dropping state
+            final var delta = count - lastCount;
+            count = delta > 1 && now - dropNext < 16 * intervalNanos ? delta : 1;
+            lastCount = count;
+            dropNext = controlLaw(now, count);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether CoDel is currently shedding requests.
+     *
+     * @return {@code true} while in the dropping state
+     */
+    public boolean isDropping() {
+        return dropping;
+    }
+
+    private boolean updateAboveTarget(final long sojournNanos, final long now) {
+        if (sojournNanos < targetNanos) {
+            firstAboveTime = 0;
+            return false;
+        }
+        if (firstAboveTime == 0) {
+            firstAboveTime = now + intervalNanos;
+            return false;
+        }
+        return now - firstAboveTime >= 0;
+    }
+
+    private long controlLaw(final long time, final int dropCount) {
+        return time + (long) (intervalNanos / Math.sqrt(dropCount));
+    }
+}
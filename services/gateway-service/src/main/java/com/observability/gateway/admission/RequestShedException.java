@@ -0,0 +1,30 @@
+package com.observability.gateway.admission;
+
+/**
+ * Signals that the gateway shed a request instead of admitting it, because it is overloaded.
+ *
+ * @since 1.0.0
+ */
+public class RequestShedException extends RuntimeException {
+
+    private final String reason;
+
+    /**
+     * Constructs a new RequestShedException.
+     *
+     * @param reason why the request was shed, as used in the {@code reason} metric tag
+     */
+    public RequestShedException(final String reason) {
+        super("Request shed: " + reason);
+        this.reason = reason;
+    }
+
+    /**
+     * Returns why the request was shed.
+     *
+     * @return {@code codel}, {@code queue_full} or {@code queue_timeout}
+     */
+    public String reason() {
+        return reason;
+    }
+}
@@ -0,0 +1,58 @@
+package com.observability.gateway.alert;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compact summary of one alert received from Alertmanager.
+ *
+ * <p>Only the fields needed to tell what fired and when are kept, so the
+ * history of recent alerts stays small regardless of how many labels and
+ * annotations Alertmanager sends.</p>
+ *
+ * @param fingerprint the Alertmanager fingerprint identifying the alert's label set
+ * @param status the alert status, {@code firing} or {@code resolved}
+ * @param name the {@code alertname} label
+ * @param severity the {@code severity} label, if any
+ * @param summary the {@code summary} annotation, if any
+ * @param startsAt when the alert started firing, as sent by Alertmanager
+ * @param receivedAt when the gateway received the alert
+ * @since 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Alert(String fingerprint, String status, String name, String severity, String summary,
+                    String startsAt, Instant receivedAt) {
+
+    /**
+     * Extracts an alert from one entry of an Alertmanager webhook's {@code alerts} array.
+     *
+     * <p>Alerts without a fingerprint are identified by their sorted labels,
+     * and alerts without a status take the status of their group.</p>
+     *
+     * @param alert the alert entry
+     * @param groupStatus the status of the alert group
+     * @param receivedAt when the webhook was received
+     * @return the alert
+     */
+    static Alert from(final Map<?, ?> alert, final Object groupStatus, final Instant receivedAt) {
+        final var labels = alert.get("labels") instanceof Map<?, ?> map ? map : Map.of();
+        final var annotations = alert.get("annotations") instanceof Map<?, ?> map ? map : Map.of();
+        final var fingerprint = string(alert.get("fingerprint"));
+        final var status = string(alert.get("status"));
+        return new Alert(
+            fingerprint != null ? fingerprint : new TreeMap<>(labels).toString(),
+            status != null ? status : string(groupStatus),
+            string(labels.get("alertname")),
+            string(labels.get("severity")),
+            string(annotations.get("summary")),
+            string(alert.get("startsAt")),
+            receivedAt);
+    }
+
+    private static String string(final Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
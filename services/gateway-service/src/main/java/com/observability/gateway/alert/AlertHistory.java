@@ -0,0 +1,61 @@
+package com.observability.gateway.alert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring buffer of the most recent alerts.
+ *
+ * <p>Once full, each new alert overwrites the oldest one, so memory use is
+ * bounded by the capacity no matter how many alerts arrive.</p>
+ *
+ * @since 1.0.0
+ */
+final class AlertHistory {
+
+    private final Alert[] alerts;
+    private int next;
+    private int size;
+
+    /**
+     * Constructs a new AlertHistory.
+     *
+     * @param capacity the number of alerts kept
+     */
+    AlertHistory(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Alert history capacity must be positive");
+        }
+        this.alerts = new Alert[capacity];
+    }
+
+    /**
+     * Adds an alert, overwriting the oldest one when full.
+     *
+     * @param alert the alert
+     */
+    synchronized void add(final Alert alert) {
+        alerts[next] = alert;
+        next = (next + 1) % alerts.length;
+        size = Math.min(size + 1, alerts.length);
+    }
+
+    /**
+     * Returns the most recent alerts.
+     *
+     * @param limit the maximum number of alerts returned
+     * @return up to {@code limit} alerts, newest first
+     */
+    synchronized List<Alert> recent(final int limit) {
+        final var count = Math.min(Math.max(limit, 0), size);
+        final var recent = new ArrayList<Alert>(count);
+        for (var i = 1; i <= count; i++) {
+            recent.add(alerts[(next - i + alerts.length) % alerts.length]);
+        }
+        return recent;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
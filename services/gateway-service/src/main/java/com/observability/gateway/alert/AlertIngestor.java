@@ -0,0 +1,215 @@
+package com.observability.gateway.alert;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.observability.commons.util.LogUtils.sanitizeForLog;
+
+/**
+ * Takes Alertmanager webhook payloads off the request path and keeps a
+ * deduplicated history of recent alerts.
+ *
+ * <p>Payloads are put on a bounded queue and handled by a single background
+ * worker, so the webhook is answered without waiting for them to be
+ * processed. When the queue already holds
+ * {@code gateway.alerts.queue-capacity} payloads, new ones are dropped
+ * rather than buffered without limit.</p>
+ *
+ * <p>During incidents Alertmanager re-sends the same alert groups on every
+ * repeat interval. The worker remembers the last status seen for each alert
+ * fingerprint and only records an alert when it is new or its status has
+ * changed; the last {@code gateway.alerts.history-size} recorded alerts are
+ * kept in a ring buffer.</p>
+ *
+ * <p>Webhooks are counted in {@code gateway_alert_webhooks_total} by
+ * {@code outcome} ({@code queued} or {@code dropped}) and alerts in
+ * {@code gateway_alerts_processed_total} by {@code outcome} ({@code recorded}
+ * or {@code duplicate}); the queue length is exported as
+ * {@code gateway_alert_queue_size}.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class AlertIngestor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertIngestor.class);
+
+    private final BlockingQueue<Map<String, Object>> queue;
+    private final AlertHistory history;
+    private final Map<String, String> lastStatus;
+    private final Clock clock;
+    private final Counter queued;
+    private final Counter dropped;
+    private final Counter recorded;
+    private final Counter duplicates;
+
+    private Thread worker;
+
+    /**
+     * Constructs a new AlertIngestor from configuration.
+     *
+     * @param meterRegistry the Micrometer registry for alert metrics
+     * @param queueCapacity the maximum number of webhook payloads waiting to be processed
+     * @param historySize the number of recent alerts kept
+     * @param maxFingerprints the maximum number of alert fingerprints remembered for deduplication
+     */
+    @Autowired
+    public AlertIngestor(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.alerts.queue-capacity:100}") final int queueCapacity,
+            @Value("${gateway.alerts.history-size:1000}") final int historySize,
+            @Value("${gateway.alerts.max-fingerprints:10000}") final int maxFingerprints) {
+        this(meterRegistry, queueCapacity, historySize, maxFingerprints, Clock.systemUTC());
+    }
+
+    AlertIngestor(final MeterRegistry meterRegistry, final int queueCapacity, final int historySize,
+                  final int maxFingerprints, final Clock clock) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.history = new AlertHistory(historySize);
+        this.lastStatus = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return size() > maxFingerprints;
+            }
+        };
+        this.clock = clock;
+        this.queued = webhookCounter(meterRegistry, "queued");
+        this.dropped = webhookCounter(meterRegistry, "dropped");
+        this.recorded = alertCounter(meterRegistry, "recorded");
+        this.duplicates = alertCounter(meterRegistry, "duplicate");
+        Gauge.builder("gateway_alert_queue_size", queue, BlockingQueue::size)
+            .description("Alert webhook payloads waiting to be processed")
+            .register(meterRegistry);
+    }
+
+    private static Counter webhookCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("gateway_alert_webhooks_total")
+            .description("Alertmanager webhooks received by the gateway")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static Counter alertCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("gateway_alerts_processed_total")
+            .description("Alerts processed from Alertmanager webhooks")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts the background worker.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (worker == null) {
+            worker = Thread.ofPlatform().name("alert-ingestor").daemon().start(this::run);
+        }
+    }
+
+    /**
+     * Stops the background worker; payloads still queued are discarded.
+     *
+     * @throws InterruptedException if interrupted while waiting for the worker to stop
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+            worker = null;
+        }
+    }
+
+    /**
+     * Queues a webhook payload for processing.
+     *
+     * @param payload the Alertmanager webhook payload
+     * @return {@code true} if the payload was queued, {@code false} if the queue was full and it was dropped
+     */
+    public boolean submit(final Map<String, Object> payload) {
+        if (queue.offer(payload)) {
+            queued.increment();
+            return true;
+        }
+        dropped.increment();
+        logger.warn("Alert webhook dropped: queue is full");
+        return false;
+    }
+
+    /**
+     * Returns the most recently recorded alerts.
+     *
+     * @param limit the maximum number of alerts returned
+     * @return up to {@code limit} alerts, newest first
+     */
+    public List<Alert> recentAlerts(final int limit) {
+        return history.recent(limit);
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                process(queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Processes the payloads currently queued on the calling thread, for tests that do not start the worker.
+     */
+    void drain() {
+        Map<String, Object> payload;
+        while ((payload = queue.poll()) != null) {
+            process(payload);
+        }
+    }
+
+    private void process(final Map<String, Object> payload) {
+        try {
+            final var groupStatus = payload.get("status");
+            if (!(payload.get("alerts") instanceof List<?> alerts)) {
+                logger.info("Alert webhook without alerts, status: {}", sanitizeForLog(String.valueOf(groupStatus)));
+                return;
+            }
+            final var receivedAt = clock.instant();
+            var recordedNow = 0;
+            for (final var entry : alerts) {
+                if (entry instanceof Map<?, ?> map && record(Alert.from(map, groupStatus, receivedAt))) {
+                    recordedNow++;
+                }
+            }
+            logger.info("Alert webhook processed, status: {}, alerts: {}, new or changed: {}",
+                sanitizeForLog(String.valueOf(groupStatus)), alerts.size(), recordedNow);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to process alert webhook", e);
+        }
+    }
+
+    private boolean record(final Alert alert) {
+        if (alert.status() != null && alert.status().equals(lastStatus.put(alert.fingerprint(), alert.status()))) {
+            duplicates.increment();
+            return false;
+        }
+        history.add(alert);
+        recorded.increment();
+        return true;
+    }
+}
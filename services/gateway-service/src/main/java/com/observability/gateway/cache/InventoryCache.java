@@ -0,0 +1,201 @@
+package com.observability.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.observability.gateway.model.inventory.InventoryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache of inventory lookups, keyed by item ID.
+ *
+ * <p>Entries expire after a configurable TTL and the cache is bounded to a
+ * maximum number of entries, evicting the least valuable ones first. Lookups
+ * for items the Inventory Service does not know about (404 or empty body)
+ * can optionally be cached as well, with their own shorter TTL.</p>
+ *
+ * <p>Hit, miss, eviction and size metrics are exported to Micrometer under
+ * the {@code cache="gateway.inventory"} tag.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class InventoryCache {
+
+    private static final String CACHE_NAME = "gateway.inventory";
+
+    private final boolean enabled;
+    private final boolean cacheNotFound;
+    private final Cache<String, Entry> cache;
+
+    /**
+     * Constructs a new InventoryCache from configuration.
+     *
+     * @param meterRegistry the Micrometer registry for cache metrics
+     * @param enabled whether caching is enabled; when disabled every lookup goes downstream
+     * @param ttl how long a found item stays cached
+     * @param maxEntries the maximum number of cached items
+     * @param cacheNotFound whether lookups for unknown items are cached
+     * @param notFoundTtl how long an unknown item stays cached
+     */
+    @Autowired
+    public InventoryCache(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.inventory-cache.enabled:true}") final boolean enabled,
+            @Value("${gateway.inventory-cache.ttl:5s}") final Duration ttl,
+            @Value("${gateway.inventory-cache.max-entries:10000}") final long maxEntries,
+            @Value("${gateway.inventory-cache.cache-not-found:true}") final boolean cacheNotFound,
+            @Value("${gateway.inventory-cache.not-found-ttl:1s}") final Duration notFoundTtl) {
+        this(meterRegistry, enabled, ttl, maxEntries, cacheNotFound, notFoundTtl, Ticker.systemTicker());
+    }
+
+    InventoryCache(
+            final MeterRegistry meterRegistry,
+            final boolean enabled,
+            final Duration ttl,
+            final long maxEntries,
+            final boolean cacheNotFound,
+            final Duration notFoundTtl,
+            final Ticker ticker) {
+        this.enabled = enabled;
+        this.cacheNotFound = cacheNotFound;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfter(new EntryExpiry(ttl.toNanos(), notFoundTtl.toNanos()))
+            .ticker(ticker)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached inventory for an item, loading it on a miss.
+     *
+     * @param itemId the item ID to look up
+     * @param loader function performing the downstream lookup; an empty result means "not found"
+     * @return a Mono emitting the inventory, or empty if the item was not found
+     */
+    public Mono<InventoryResponse> get(final String itemId,
+                                       final Function<String, Mono<InventoryResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(itemId);
+        }
+        return Mono.defer(() -> {
+            final var cached = cache.getIfPresent(itemId);
+            if (cached != null) {
+                return Mono.justOrEmpty(cached.inventory());
+            }
+            return loader.apply(itemId)
+                .doOnNext(inventory -> cache.put(itemId, new Entry(inventory)))
+                .switchIfEmpty(Mono.defer(() -> {
+                    if (cacheNotFound) {
+                        cache.put(itemId, Entry.NOT_FOUND);
+                    }
+                    return Mono.empty();
+                }));
+        });
+    }
+
+    /**
+     * Returns the cached inventory for several items, loading all misses with
+     * a single call.
+     *
+     * @param itemIds the distinct item IDs to look up
+     * @param loader function performing one downstream lookup for the missed IDs; an ID missing
+     *               from its result means "not found"
+     * @return a Mono emitting the inventory of each found item, keyed by item ID
+     */
+    public Mono<Map<String, InventoryResponse>> getAll(
+            final List<String> itemIds,
+            final Function<List<String>, Mono<Map<String, InventoryResponse>>> loader) {
+        if (!enabled) {
+            return loader.apply(itemIds);
+        }
+        return Mono.defer(() -> {
+            final var found = new HashMap<String, InventoryResponse>();
+            final var missed = new ArrayList<String>();
+            for (final var itemId : itemIds) {
+                final var cached = cache.getIfPresent(itemId);
+                if (cached == null) {
+                    missed.add(itemId);
+                } else if (cached.inventory() != null) {
+                    found.put(itemId, cached.inventory());
+                }
+            }
+            if (missed.isEmpty()) {
+                return Mono.just(found);
+            }
+            return loader.apply(missed).map(loaded -> {
+                for (final var itemId : missed) {
+                    final var inventory = loaded.get(itemId);
+                    if (inventory != null) {
+                        cache.put(itemId, new Entry(inventory));
+                        found.put(itemId, inventory);
+                    } else if (cacheNotFound) {
+                        cache.put(itemId, Entry.NOT_FOUND);
+                    }
+                }
+                return found;
+            });
+        });
+    }
+
+    /**
+     * Performs any pending eviction and expiry maintenance.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Returns the approximate number of cached items.
+     *
+     * @return the estimated cache size
+     */
+    long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Cached lookup result; a {@code null} inventory marks an item that was not found.
+     */
+    private record Entry(InventoryResponse inventory) {
+        private static final Entry NOT_FOUND = new Entry(null);
+    }
+
+    /**
+     * Applies the found or not-found TTL depending on the entry.
+     */
+    private record EntryExpiry(long ttlNanos, long notFoundTtlNanos) implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(final String key, final Entry value, final long currentTime) {
+            return value.inventory() == null ? notFoundTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final Entry value, final long currentTime,
+                                      final long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final Entry value, final long currentTime,
+                                    final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.observability.gateway.client;
+
+import com.observability.commons.deadline.Deadline;
+import com.observability.commons.deadline.DeadlineExceededException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient filter that passes the remaining time budget of the current request
+ * downstream in the {@value Deadline#HEADER} header.
+ *
+ * <p>The deadline is read from the Reactor context, where {@link RouteDeadlines}
+ * puts it. Calls made after the deadline has expired fail with
+ * {@link DeadlineExceededException} without being sent. Calls made outside a
+ * route deadline are passed through unchanged.</p>
+ *
+ * @since 1.0.0
+ */
+public class DeadlinePropagationFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            final Deadline deadline = context.getOrDefault(Deadline.class, null);
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+            if (deadline.isExpired()) {
+                return Mono.error(new DeadlineExceededException(
+                    "Deadline exceeded before calling " + request.url().getHost()));
+            }
+            return next.exchange(ClientRequest.from(request)
+                .header(Deadline.HEADER, deadline.toHeaderValue())
+                .build());
+        });
+    }
+}
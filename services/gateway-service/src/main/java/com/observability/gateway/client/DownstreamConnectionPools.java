@@ -0,0 +1,109 @@
+package com.observability.gateway.client;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dedicated Reactor Netty connection pool per downstream service.
+ *
+ * <p>Each downstream gets its own named {@link ConnectionProvider}, so a slow
+ * downstream holding all of its connections cannot starve calls to the other
+ * one. Pools are bounded, callers waiting for a connection are queued up to a
+ * limit and time out, and idle or old connections are evicted in the background
+ * before the server or a proxy silently drops them.</p>
+ *
+ * <p>With metrics enabled, Reactor Netty publishes per-pool gauges (total,
+ * active, idle and pending connections) and the pending-acquire time to
+ * Micrometer under {@code reactor.netty.connection.provider.*}, tagged with the
+ * pool {@code name}, so pool starvation shows up as a metric rather than as tail
+ * latency.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class DownstreamConnectionPools {
+
+    private final Map<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+    private final int maxConnections;
+    private final int pendingAcquireMaxCount;
+    private final Duration pendingAcquireTimeout;
+    private final Duration maxIdleTime;
+    private final Duration maxLifeTime;
+    private final Duration evictionInterval;
+    private final boolean keepAlive;
+    private final boolean metricsEnabled;
+
+    /**
+     * Constructs a new DownstreamConnectionPools from configuration.
+     *
+     * @param maxConnections the maximum number of connections per downstream host
+     * @param pendingAcquireMaxCount the maximum number of callers waiting for a connection
+     * @param pendingAcquireTimeout how long a caller waits for a connection before failing
+     * @param maxIdleTime how long a connection may stay idle before it is closed
+     * @param maxLifeTime how long a connection may live before it is closed
+     * @param evictionInterval how often idle and expired connections are evicted in the background
+     * @param keepAlive whether HTTP and TCP keep-alive are enabled
+     * @param metricsEnabled whether pool metrics are published to Micrometer
+     */
+    public DownstreamConnectionPools(
+            @Value("${gateway.connection-pool.max-connections:100}") final int maxConnections,
+            @Value("${gateway.connection-pool.pending-acquire-max-count:500}") final int pendingAcquireMaxCount,
+            @Value("${gateway.connection-pool.pending-acquire-timeout:2s}") final Duration pendingAcquireTimeout,
+            @Value("${gateway.connection-pool.max-idle-time:30s}") final Duration maxIdleTime,
+            @Value("${gateway.connection-pool.max-life-time:5m}") final Duration maxLifeTime,
+            @Value("${gateway.connection-pool.eviction-interval:30s}") final Duration evictionInterval,
+            @Value("${gateway.connection-pool.keep-alive:true}") final boolean keepAlive,
+            @Value("${gateway.connection-pool.metrics-enabled:true}") final boolean metricsEnabled) {
+        this.maxConnections = maxConnections;
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+        this.maxIdleTime = maxIdleTime;
+        this.maxLifeTime = maxLifeTime;
+        this.evictionInterval = evictionInterval;
+        this.keepAlive = keepAlive;
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * Returns an HTTP connector backed by the connection pool of a downstream.
+     *
+     * @param downstream the downstream service name, used as the pool name
+     * @return a connector using the downstream's dedicated pool
+     */
+    public ClientHttpConnector connector(final String downstream) {
+        final var httpClient = HttpClient.create(provider(downstream))
+            .keepAlive(keepAlive)
+            .option(ChannelOption.SO_KEEPALIVE, keepAlive);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    /**
+     * Closes all pools.
+     */
+    @PreDestroy
+    public void close() {
+        providers.values().forEach(ConnectionProvider::dispose);
+    }
+
+    ConnectionProvider provider(final String downstream) {
+        return providers.computeIfAbsent(downstream, name -> ConnectionProvider.builder(name)
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(pendingAcquireTimeout)
+            .maxIdleTime(maxIdleTime)
+            .maxLifeTime(maxLifeTime)
+            .evictInBackground(evictionInterval)
+            .metrics(metricsEnabled)
+            .build());
+    }
+}
@@ -0,0 +1,71 @@
+package com.observability.gateway.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Tracks a latency percentile over a sliding window of recent samples.
+ *
+ * <p>The last {@code windowSize} samples are kept in a ring buffer. The
+ * percentile is recomputed every {@value #RECOMPUTE_INTERVAL} samples rather
+ * than on every read, so reading it is a single volatile load. No percentile
+ * is reported until {@code minSamples} samples have been recorded.</p>
+ *
+ * @since 1.0.0
+ */
+public class LatencyPercentileTracker {
+
+    private static final int RECOMPUTE_INTERVAL = 50;
+
+    private final double percentile;
+    private final int minSamples;
+    private final long[] samples;
+
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    /**
+     * Constructs a new LatencyPercentileTracker.
+     *
+     * @param percentile the percentile to track, between 0 and 1 (e.g. 0.95)
+     * @param windowSize the number of most recent samples the percentile is computed over
+     * @param minSamples the number of samples required before a percentile is reported
+     */
+    public LatencyPercentileTracker(final double percentile, final int windowSize, final int minSamples) {
+        this.percentile = percentile;
+        this.minSamples = Math.min(Math.max(1, minSamples), windowSize);
+        this.samples = new long[windowSize];
+    }
+
+    /**
+     * Records a latency sample.
+     *
+     * @param latencyNanos the observed latency, in nanoseconds
+     */
+    public synchronized void record(final long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        sinceRecompute++;
+        if (count >= minSamples && (percentileNanos < 0 || sinceRecompute >= RECOMPUTE_INTERVAL)) {
+            final var sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.ceil(percentile * count) - 1];
+            sinceRecompute = 0;
+        }
+    }
+
+    /**
+     * Returns the tracked percentile.
+     *
+     * @return the percentile latency, or {@code null} if too few samples have been recorded
+     */
+    public Duration percentile() {
+        final var nanos = percentileNanos;
+        return nanos < 0 ? null : Duration.ofNanos(nanos);
+    }
+}
@@ -0,0 +1,137 @@
+package com.observability.gateway.client;
+
+import com.observability.commons.deadline.Deadline;
+import com.observability.gateway.timing.RequestTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical in-flight downstream requests.
+ *
+ * <p>The first caller for a key (typically the downstream GET URL) performs
+ * the call; callers arriving while it is still in flight subscribe to the same
+ * result instead of issuing their own request. The entry is removed as soon as
+ * the call terminates, so results are never reused after completion. If every
+ * waiter cancels, the shared upstream call is cancelled too.</p>
+ *
+ * <p>The shared call runs in the Reactor context of the caller that started
+ * it, and so with that caller's {@link Deadline}. A caller therefore only joins
+ * a call whose deadline is no earlier than its own, and otherwise starts a
+ * call of its own that later callers join instead; a caller with a long budget
+ * is never failed by a call made for one with a short budget. Each caller still
+ * times out on its own deadline. The time a joining caller waits is recorded
+ * as a call to the downstream in its own {@link RequestTiming}, so it shows up
+ * in that caller's {@code Server-Timing} header.</p>
+ *
+ * <p>Only idempotent requests should be coalesced.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class RequestCoalescer {
+
+    private final boolean enabled;
+    private final Map<String, Flight<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executedCounter;
+    private final Counter coalescedCounter;
+
+    /**
+     * Constructs a new RequestCoalescer.
+     *
+     * @param meterRegistry the Micrometer registry for coalescing metrics
+     * @param enabled whether coalescing is enabled; when disabled every request is executed
+     */
+    public RequestCoalescer(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.coalescing.enabled:true}") final boolean enabled) {
+        this.enabled = enabled;
+        this.executedCounter = Counter.builder("gateway_coalescer_executed_requests_total")
+            .description("Total number of downstream requests actually executed by the request coalescer")
+            .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("gateway_coalesced_requests_total")
+            .description("Total number of requests served by joining an identical in-flight downstream request")
+            .register(meterRegistry);
+        Gauge.builder("gateway_coalescer_inflight_keys", inFlight, Map::size)
+            .description("Number of distinct downstream requests currently in flight through the coalescer")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Executes the call for the given key, or joins an identical call already in flight
+     * that has at least as much time left as the caller.
+     *
+     * @param key the request identity, e.g. the downstream URL
+     * @param downstream the downstream service name, under which a joining caller's wait is timed
+     * @param call supplier of the downstream call; only invoked by the caller that starts it
+     * @param <T> the element type
+     * @return a Mono emitting the (possibly shared) result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(final String key, final String downstream, final Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.deferContextual(context -> {
+            final Deadline deadline = context.getOrDefault(Deadline.class, null);
+            final var leader = new boolean[1];
+            final var flight = inFlight.compute(key, (k, existing) -> {
+                if (existing != null && existing.outlasts(deadline)) {
+                    return existing;
+                }
+                leader[0] = true;
+                return share(k, deadline, call);
+            });
+            if (leader[0]) {
+                executedCounter.increment();
+                return (Mono<T>) flight.result();
+            }
+            coalescedCounter.increment();
+            final RequestTiming timing = context.getOrDefault(RequestTiming.class, null);
+            if (timing == null) {
+                return (Mono<T>) flight.result();
+            }
+            final var wait = timing.startCall(downstream, System.nanoTime());
+            return ((Mono<T>) flight.result()).doFinally(signal -> wait.finish(null, System.nanoTime()));
+        });
+    }
+
+    private <T> Flight<T> share(final String key, final Deadline deadline, final Supplier<Mono<T>> call) {
+        final var self = new AtomicReference<Flight<T>>();
+        final var shared = Mono.defer(call)
+            .doFinally(signal -> inFlight.remove(key, self.get()))
+            .share();
+        self.set(new Flight<>(shared, deadline));
+        return self.get();
+    }
+
+    /**
+     * A shared call in flight and the deadline of the caller that started it.
+     *
+     * @param result the shared result
+     * @param deadline the deadline the call runs with, or {@code null} if it has none
+     */
+    private record Flight<T>(Mono<T> result, Deadline deadline) {
+
+        /**
+         * Returns whether this call runs at least as long as a caller with the given deadline waits.
+         *
+         * @param other the caller's deadline, or {@code null} if it has none
+         * @return {@code true} if the caller can join this call
+         */
+        boolean outlasts(final Deadline other) {
+            if (deadline == null) {
+                return true;
+            }
+            return other != null && other.min(deadline) == other;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.observability.gateway.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent downstream requests against tail latency.
+ *
+ * <p>Each request is sent once. If it has not answered within the live
+ * percentile latency of recent requests (p95 by default, tracked by a
+ * {@link LatencyPercentileTracker}), a second identical request is sent and
+ * whichever signals first wins; the other is cancelled. Errors are not hedged:
+ * a failing first attempt fails the request, while a failing hedge (rejected by
+ * the downstream guard, for instance) is ignored and the first attempt is
+ * awaited.</p>
+ *
+ * <p>Cancelled attempts record their elapsed time too, as a lower bound on
+ * their latency, so that slow attempts keep pulling the percentile up.</p>
+ *
+ * <p>Hedges are limited by a budget that earns {@code max-hedge-ratio} of a
+ * hedge per request, so at most that fraction of requests are ever duplicated.
+ * No hedging happens until enough latency samples have been observed.</p>
+ *
+ * <p>Only idempotent requests should be hedged.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class RequestHedger {
+
+    private static final double MAX_BUDGET = 10.0;
+
+    private final boolean enabled;
+    private final double maxHedgeRatio;
+    private final Duration minDelay;
+    private final LatencyPercentileTracker latencyTracker;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private double budget;
+
+    /**
+     * Constructs a new RequestHedger.
+     *
+     * @param meterRegistry the Micrometer registry for hedging metrics
+     * @param enabled whether hedging is enabled; when disabled requests are sent once
+     * @param percentile the latency percentile after which a hedge is sent, between 0 and 1
+     * @param maxHedgeRatio the maximum fraction of requests that may be hedged
+     * @param minDelay the minimum time to wait before hedging
+     * @param windowSize the number of recent latency samples the percentile is computed over
+     * @param minSamples the number of latency samples required before hedging starts
+     */
+    public RequestHedger(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.hedging.enabled:false}") final boolean enabled,
+            @Value("${gateway.hedging.percentile:0.95}") final double percentile,
+            @Value("${gateway.hedging.max-hedge-ratio:0.1}") final double maxHedgeRatio,
+            @Value("${gateway.hedging.min-delay:5ms}") final Duration minDelay,
+            @Value("${gateway.hedging.window-size:1000}") final int windowSize,
+            @Value("${gateway.hedging.min-samples:100}") final int minSamples) {
+        this.enabled = enabled;
+        this.maxHedgeRatio = maxHedgeRatio;
+        this.minDelay = minDelay;
+        this.latencyTracker = new LatencyPercentileTracker(percentile, windowSize, minSamples);
+        this.hedgesSent = Counter.builder("gateway_hedged_requests_total")
+            .description("Total number of hedge requests sent because the first attempt exceeded the latency percentile")
+            .register(meterRegistry);
+        this.hedgesWon = Counter.builder("gateway_hedged_requests_won_total")
+            .description("Total number of hedge requests that answered before the first attempt")
+            .register(meterRegistry);
+        Gauge.builder("gateway_hedge_delay_seconds", this, hedger -> hedger.hedgeDelaySeconds())
+            .description("Current delay after which a hedge request is sent, from the live latency percentile")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Executes a request, hedging it if it is slower than the live latency percentile.
+     *
+     * @param attempt supplier of one request attempt; invoked once, or twice if hedged
+     * @param <T> the element type
+     * @return a Mono emitting the result of whichever attempt signals first
+     */
+    public <T> Mono<T> execute(final Supplier<Mono<T>> attempt) {
+        if (!enabled) {
+            return Mono.defer(attempt);
+        }
+        return Mono.defer(() -> {
+            earnBudget();
+            final var primary = timed(attempt);
+            final var delay = hedgeDelay();
+            if (delay == null) {
+                return primary;
+            }
+            final var hedge = Mono.delay(delay)
+                .flatMap(tick -> {
+                    if (!tryAcquireBudget()) {
+                        return Mono.never();
+                    }
+                    hedgesSent.increment();
+                    return timed(attempt)
+                        .doOnSuccess(value -> hedgesWon.increment())
+                        .onErrorResume(e -> Mono.never());
+                });
+            return Mono.firstWithSignal(primary, hedge);
+        });
+    }
+
+    private <T> Mono<T> timed(final Supplier<Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            final var start = System.nanoTime();
+            return attempt.get()
+                .doOnSuccess(value -> latencyTracker.record(System.nanoTime() - start))
+                .doOnCancel(() -> latencyTracker.record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Returns the current hedge delay.
+     *
+     * @return the delay before a hedge is sent, or {@code null} if there are too few samples to hedge
+     */
+    Duration hedgeDelay() {
+        final var percentile = latencyTracker.percentile();
+        if (percentile == null) {
+            return null;
+        }
+        return percentile.compareTo(minDelay) < 0 ? minDelay : percentile;
+    }
+
+    /**
+     * Returns the tracker of recent request latencies.
+     *
+     * @return the latency tracker
+     */
+    LatencyPercentileTracker latencyTracker() {
+        return latencyTracker;
+    }
+
+    private double hedgeDelaySeconds() {
+        final var delay = hedgeDelay();
+        return delay == null ? Double.NaN : delay.toNanos() / 1e9;
+    }
+
+    private synchronized void earnBudget() {
+        budget = Math.min(MAX_BUDGET, budget + maxHedgeRatio);
+    }
+
+    private synchronized boolean tryAcquireBudget() {
+        if (budget < 1.0) {
+            return false;
+        }
+        budget -= 1.0;
+        return true;
+    }
+}
@@ -0,0 +1,116 @@
+package com.observability.gateway.client;
+
+import com.observability.commons.deadline.Deadline;
+import com.observability.commons.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Per-route time budgets for gateway requests.
+ *
+ * <p>Each route gets a configurable budget. The work of a request is cancelled
+ * once its budget is spent and fails with {@link DeadlineExceededException}.
+ * The deadline is also put in the Reactor context, so that
+ * {@link DeadlinePropagationFilter} can pass the remaining budget to the
+ * downstream services, which then stop working on requests nobody is waiting
+ * for any more.</p>
+ *
+ * <p>Expired requests are counted in {@code gateway_deadline_exceeded_total},
+ * tagged with {@code route}.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class RouteDeadlines {
+
+    /**
+     * Gateway routes with their own time budget.
+     */
+    public enum Route {
+        CREATE_ORDER("create-order"),
+        CREATE_ORDER_BATCH("create-order-batch"),
+        GET_ORDERS("get-orders"),
+        GET_ORDER("get-order"),
+        GET_ORDER_DETAILS("get-order-details"),
+        GET_ORDER_DETAILS_LIST("get-order-details-list"),
+        CHECK_INVENTORY("check-inventory"),
+        CHECK_INVENTORY_BATCH("check-inventory-batch");
+
+        private final String tag;
+
+        Route(final String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Route, Duration> budgets = new EnumMap<>(Route.class);
+    private final Map<Route, Counter> exceededCounters = new EnumMap<>(Route.class);
+
+    /**
+     * Constructs a new RouteDeadlines from configuration.
+     *
+     * @param meterRegistry the Micrometer registry for deadline metrics
+     * @param createOrder the budget for creating an order
+     * @param createOrderBatch the budget for creating a batch of orders
+     * @param getOrders the budget for listing orders, until the response headers arrive
+     * @param getOrder the budget for fetching one order
+     * @param getOrderDetails the budget for fetching one order together with its inventory
+     * @param getOrderDetailsList the budget for fetching the details of several orders
+     * @param checkInventory the budget for checking inventory
+     * @param checkInventoryBatch the budget for checking the inventory of several items
+     */
+    public RouteDeadlines(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.deadline.create-order:3s}") final Duration createOrder,
+            @Value("${gateway.deadline.create-order-batch:10s}") final Duration createOrderBatch,
+            @Value("${gateway.deadline.get-orders:5s}") final Duration getOrders,
+            @Value("${gateway.deadline.get-order:2s}") final Duration getOrder,
+            @Value("${gateway.deadline.get-order-details:3s}") final Duration getOrderDetails,
+            @Value("${gateway.deadline.get-order-details-list:5s}") final Duration getOrderDetailsList,
+            @Value("${gateway.deadline.check-inventory:2s}") final Duration checkInventory,
+            @Value("${gateway.deadline.check-inventory-batch:3s}") final Duration checkInventoryBatch) {
+        budgets.put(Route.CREATE_ORDER, createOrder);
+        budgets.put(Route.CREATE_ORDER_BATCH, createOrderBatch);
+        budgets.put(Route.GET_ORDERS, getOrders);
+        budgets.put(Route.GET_ORDER, getOrder);
+        budgets.put(Route.GET_ORDER_DETAILS, getOrderDetails);
+        budgets.put(Route.GET_ORDER_DETAILS_LIST, getOrderDetailsList);
+        budgets.put(Route.CHECK_INVENTORY, checkInventory);
+        budgets.put(Route.CHECK_INVENTORY_BATCH, checkInventoryBatch);
+        for (final var route : Route.values()) {
+            exceededCounters.put(route, Counter.builder("gateway_deadline_exceeded_total")
+                .description("Total number of gateway requests that ran out of their time budget")
+                .tag("route", route.tag)
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs the work of a request within the budget of its route.
+     *
+     * <p>The budget starts when the returned Mono is subscribed to.</p>
+     *
+     * @param route the route being served
+     * @param work the work of the request
+     * @param <T> the element type
+     * @return a Mono emitting the result of the work; fails with
+     *         {@link DeadlineExceededException} if the budget runs out first
+     */
+    public <T> Mono<T> apply(final Route route, final Mono<T> work) {
+        final var budget = budgets.get(route);
+        return Mono.defer(() -> work
+            .timeout(budget)
+            .onErrorMap(TimeoutException.class, e -> new DeadlineExceededException(
+                route.tag + " exceeded its " + budget.toMillis() + "ms deadline"))
+            .doOnError(DeadlineExceededException.class, e -> exceededCounters.get(route).increment())
+            .contextWrite(context -> context.put(Deadline.class, Deadline.after(budget))));
+    }
+}
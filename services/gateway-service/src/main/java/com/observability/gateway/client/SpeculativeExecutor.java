@@ -0,0 +1,159 @@
+package com.observability.gateway.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runs a precondition check and the action it guards concurrently, compensating
+ * the action when the check fails.
+ *
+ * <p>Normally the action only starts once the check has passed, so the caller
+ * waits for both one after the other. In speculative mode both are started at
+ * once and the caller waits only for the slower of the two. If the check then
+ * fails after the action has produced a result, the compensation is run to
+ * undo it (for example, cancelling an order that was created speculatively)
+ * and the check failure is returned, exactly as in sequential mode.</p>
+ *
+ * <p>The action is never cancelled when the check fails, since only its result
+ * identifies what has to be compensated. If the caller cancels after the
+ * action has produced a result but before the check has passed (e.g. because
+ * its deadline ran out or the client went away), the result is compensated
+ * too. If the caller cancels while the action is still in flight, the
+ * action's result is unknown and cannot be compensated.</p>
+ *
+ * <p>A compensation outlives the request that triggered it: it runs in a
+ * subscription of its own, so the caller's cancellation does not stop it and
+ * the caller's deadline is not in its context. It gets its own
+ * {@code gateway.speculative-create.compensation-timeout} per attempt and is
+ * retried up to {@code gateway.speculative-create.compensation-retries}
+ * times, with exponential backoff starting at
+ * {@code gateway.speculative-create.compensation-backoff}. The caller gets
+ * the check failure straight away, without waiting for it.</p>
+ *
+ * <p>Each speculative execution is counted in
+ * {@code gateway_speculative_executions_total} under exactly one
+ * {@code outcome}: {@code confirmed}, {@code compensated},
+ * {@code compensation_failed} or {@code not_created}, except for one cancelled
+ * while its action was in flight. The share of compensations tells whether
+ * the lower latency is worth the extra work.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class SpeculativeExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpeculativeExecutor.class);
+
+    private final boolean enabled;
+    private final Duration compensationTimeout;
+    private final int compensationRetries;
+    private final Duration compensationBackoff;
+    private final Counter confirmed;
+    private final Counter compensated;
+    private final Counter compensationFailed;
+    private final Counter notCreated;
+
+    /**
+     * Constructs a new SpeculativeExecutor.
+     *
+     * @param meterRegistry the Micrometer registry for speculation metrics
+     * @param enabled whether speculative execution is enabled; when disabled the action runs after the check
+     * @param compensationTimeout the time budget of each compensation attempt
+     * @param compensationRetries how many times a failed compensation is retried
+     * @param compensationBackoff the pause before the first retry of a compensation, doubled for each further one
+     */
+    public SpeculativeExecutor(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.speculative-create.enabled:false}") final boolean enabled,
+            @Value("${gateway.speculative-create.compensation-timeout:2s}") final Duration compensationTimeout,
+            @Value("${gateway.speculative-create.compensation-retries:3}") final int compensationRetries,
+            @Value("${gateway.speculative-create.compensation-backoff:100ms}") final Duration compensationBackoff) {
+        this.enabled = enabled;
+        this.compensationTimeout = compensationTimeout;
+        this.compensationRetries = compensationRetries;
+        this.compensationBackoff = compensationBackoff;
+        this.confirmed = outcomeCounter(meterRegistry, "confirmed");
+        this.compensated = outcomeCounter(meterRegistry, "compensated");
+        this.compensationFailed = outcomeCounter(meterRegistry, "compensation_failed");
+        this.notCreated = outcomeCounter(meterRegistry, "not_created");
+    }
+
+    private static Counter outcomeCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("gateway_speculative_executions_total")
+            .description("Total number of speculative executions, by whether the action was kept or compensated")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Executes an action guarded by a precondition check.
+     *
+     * @param check the precondition; passes by completing and fails with an error
+     * @param action the guarded action
+     * @param compensation undoes the result of the action; runs detached from the caller, and its errors
+     *                     are retried, logged and counted, not propagated
+     * @param <T> the result type of the action
+     * @return a Mono emitting the result of the action; fails with the check's error if the check failed,
+     *         otherwise with the action's error if the action failed
+     */
+    public <T> Mono<T> execute(final Mono<?> check, final Mono<T> action, final Function<T, Mono<?>> compensation) {
+        if (!enabled) {
+            return check.then(action);
+        }
+        return Mono.defer(() -> {
+            final var created = new AtomicReference<T>();
+            final var settled = new AtomicBoolean();
+            final var checkFailure = check.then(Mono.just(Optional.<Throwable>empty()))
+                .onErrorResume(e -> Mono.just(Optional.of(e)));
+            return Mono.zip(checkFailure, action.doOnNext(created::set).materialize())
+                .flatMap(outcomes -> {
+                    settled.set(true);
+                    final var failure = outcomes.getT1();
+                    final var result = outcomes.getT2();
+                    if (!result.isOnNext()) {
+                        notCreated.increment();
+                        return failure.isPresent() || result.isOnError()
+                            ? Mono.<T>error(failure.orElseGet(result::getThrowable))
+                            : Mono.<T>empty();
+                    }
+                    if (failure.isEmpty()) {
+                        confirmed.increment();
+                        return Mono.just(result.get());
+                    }
+                    compensate(result.get(), compensation);
+                    return Mono.<T>error(failure.get());
+                })
+                .doOnCancel(() -> {
+                    final var result = created.get();
+                    if (result != null && settled.compareAndSet(false, true)) {
+                        logger.warn("Speculative execution cancelled before its check passed; compensating");
+                        compensate(result, compensation);
+                    }
+                });
+        });
+    }
+
+    private <T> void compensate(final T result, final Function<T, Mono<?>> compensation) {
+        Mono.defer(() -> compensation.apply(result).then().timeout(compensationTimeout))
+            .retryWhen(Retry.backoff(compensationRetries, compensationBackoff))
+            .subscribe(
+                null,
+                e -> {
+                    logger.error("Compensation of a speculative action failed", e);
+                    compensationFailed.increment();
+                },
+                compensated::increment);
+    }
+}
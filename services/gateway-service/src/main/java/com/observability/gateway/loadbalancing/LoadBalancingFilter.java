@@ -0,0 +1,190 @@
+package com.observability.gateway.loadbalancing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.LongSupplier;
+
+/**
+ * WebClient filter that load-balances downstream calls over the replicas of
+ * each downstream service.
+ *
+ * <p>Requests addressed to a downstream's logical URL ({@code services.<name>.url})
+ * are sent to one of its replicas, chosen by a {@link PowerOfTwoChoicesBalancer}.
+ * Other requests pass through unchanged. Replicas are taken from, in order of
+ * precedence:</p>
+ * <ol>
+ *   <li>the {@code gateway.load-balancing.instances-file}, a properties file
+ *       mapping each downstream name to a comma-separated list of base URLs
+ *       (e.g. {@code inventory=http://inventory-1:8082,http://inventory-2:8082}),
+ *       checked for changes every {@code file-refresh-interval};</li>
+ *   <li>the comma-separated {@code services.<name>.instances} property;</li>
+ *   <li>the logical URL itself, as a single replica.</li>
+ * </ol>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class LoadBalancingFilter implements ExchangeFilterFunction {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadBalancingFilter.class);
+
+    private final Map<String, PowerOfTwoChoicesBalancer> balancers = new LinkedHashMap<>();
+    private final Map<String, PowerOfTwoChoicesBalancer> balancersByOrigin = new LinkedHashMap<>();
+    private final Map<String, List<URI>> configuredInstances = new LinkedHashMap<>();
+    private final Path instancesFile;
+    private long instancesFileModified = Long.MIN_VALUE;
+    private Disposable fileWatch;
+
+    /**
+     * Constructs a new LoadBalancingFilter from configuration and starts watching the instances file, if any.
+     *
+     * @param meterRegistry the Micrometer registry for per-replica metrics
+     * @param orderServiceUrl the logical URL of the Order Service
+     * @param orderInstances comma-separated base URLs of the Order Service replicas; empty to use the logical URL
+     * @param inventoryServiceUrl the logical URL of the Inventory Service
+     * @param inventoryInstances comma-separated base URLs of the Inventory Service replicas; empty to use the
+     *                           logical URL
+     * @param instancesFile path of the watched instances file; empty to disable
+     * @param fileRefreshInterval how often the instances file is checked for changes
+     * @param failureThreshold consecutive failures after which a replica is ejected
+     * @param ejectionDuration how long an ejected replica receives no traffic
+     * @param latencyEwmaAlpha weight of the latest latency sample in each replica's latency EWMA
+     */
+    @Autowired
+    public LoadBalancingFilter(
+            final MeterRegistry meterRegistry,
+            @Value("${services.order.url}") final String orderServiceUrl,
+            @Value("${services.order.instances:}") final String orderInstances,
+            @Value("${services.inventory.url}") final String inventoryServiceUrl,
+            @Value("${services.inventory.instances:}") final String inventoryInstances,
+            @Value("${gateway.load-balancing.instances-file:}") final String instancesFile,
+            @Value("${gateway.load-balancing.file-refresh-interval:5s}") final Duration fileRefreshInterval,
+            @Value("${gateway.load-balancing.failure-threshold:5}") final int failureThreshold,
+            @Value("${gateway.load-balancing.ejection-duration:30s}") final Duration ejectionDuration,
+            @Value("${gateway.load-balancing.latency-ewma-alpha:0.3}") final double latencyEwmaAlpha) {
+        this(meterRegistry, Map.of("order", orderServiceUrl, "inventory", inventoryServiceUrl),
+            Map.of("order", orderInstances, "inventory", inventoryInstances), instancesFile,
+            failureThreshold, ejectionDuration, latencyEwmaAlpha, System::nanoTime);
+        if (this.instancesFile != null) {
+            fileWatch = Flux.interval(fileRefreshInterval, fileRefreshInterval)
+                .subscribe(tick -> reloadInstancesFile());
+        }
+    }
+
+    LoadBalancingFilter(
+            final MeterRegistry meterRegistry,
+            final Map<String, String> serviceUrls,
+            final Map<String, String> instances,
+            final String instancesFile,
+            final int failureThreshold,
+            final Duration ejectionDuration,
+            final double latencyEwmaAlpha,
+            final LongSupplier nanoClock) {
+        this.instancesFile = instancesFile == null || instancesFile.isBlank() ? null : Path.of(instancesFile);
+        serviceUrls.forEach((downstream, url) -> {
+            final var balancer = new PowerOfTwoChoicesBalancer(downstream, meterRegistry, failureThreshold,
+                ejectionDuration.toNanos(), latencyEwmaAlpha, nanoClock);
+            final var configured = parseInstances(instances.getOrDefault(downstream, ""));
+            configuredInstances.put(downstream, configured.isEmpty() ? List.of(URI.create(url)) : configured);
+            balancer.updateInstances(configuredInstances.get(downstream));
+            balancers.put(downstream, balancer);
+            balancersByOrigin.put(origin(URI.create(url)), balancer);
+        });
+        reloadInstancesFile();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        final var balancer = balancersByOrigin.get(origin(request.url()));
+        return balancer == null ? next.exchange(request) : balancer.exchange(request, next);
+    }
+
+    /**
+     * Returns the balancer of a downstream service.
+     *
+     * @param downstream the downstream service name, e.g. {@code "inventory"}
+     * @return the balancer, or {@code null} if the downstream is unknown
+     */
+    public PowerOfTwoChoicesBalancer forDownstream(final String downstream) {
+        return balancers.get(downstream);
+    }
+
+    /**
+     * Stops watching the instances file.
+     */
+    @PreDestroy
+    public void close() {
+        if (fileWatch != null) {
+            fileWatch.dispose();
+        }
+    }
+
+    /**
+     * Applies the instances file if it changed since it was last read.
+     *
+     * <p>Downstreams missing from the file fall back to their configured
+     * replicas. If the file cannot be read, the current replicas are kept.</p>
+     */
+    synchronized void reloadInstancesFile() {
+        if (instancesFile == null) {
+            return;
+        }
+        try {
+            final var modified = Files.getLastModifiedTime(instancesFile).toMillis();
+            if (modified == instancesFileModified) {
+                return;
+            }
+            final var properties = new Properties();
+            try (var reader = Files.newBufferedReader(instancesFile)) {
+                properties.load(reader);
+            }
+            balancers.forEach((downstream, balancer) -> {
+                final var fromFile = parseInstances(properties.getProperty(downstream, ""));
+                final var updated = fromFile.isEmpty() ? configuredInstances.get(downstream) : fromFile;
+                if (!updated.equals(balancer.instances())) {
+                    balancer.updateInstances(updated);
+                }
+            });
+            instancesFileModified = modified;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Could not read instances file {}, keeping current instances: {}",
+                instancesFile, e.getMessage());
+        }
+    }
+
+    private static List<URI> parseInstances(final String instances) {
+        return Arrays.stream(instances.split(","))
+            .map(String::trim)
+            .filter(instance -> !instance.isEmpty())
+            .map(URI::create)
+            .toList();
+    }
+
+    private static String origin(final URI uri) {
+        final var port = uri.getPort() != -1 ? uri.getPort() : "https".equals(uri.getScheme()) ? 443 : 80;
+        return uri.getScheme() + "://" + uri.getHost() + ":" + port;
+    }
+}
@@ -0,0 +1,235 @@
+package com.observability.gateway.loadbalancing;
+
+import com.observability.commons.deadline.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Spreads the requests for one downstream service over its replicas using
+ * power-of-two-choices.
+ *
+ * <p>For each request two distinct replicas are drawn at random and the one
+ * with the lower expected cost wins. The cost is the replica's latency EWMA
+ * weighted by its in-flight requests, so slow or busy replicas receive less
+ * traffic without the gateway having to keep global state.</p>
+ *
+ * <p>Replicas are ejected passively: after {@code failureThreshold} failed
+ * requests in a row (server errors or connection failures) a replica receives no
+ * traffic for the ejection duration. If every replica is ejected, all of them
+ * are used again rather than failing every request. A 504 answering a request
+ * that carried a propagated {@link Deadline} means the request's own budget ran
+ * out, not that the replica failed, so it is treated like a cancelled request:
+ * neither as a success nor as a failure, with its elapsed time raising the
+ * replica's latency EWMA if it is higher.</p>
+ *
+ * <p>Per-replica in-flight requests, latency EWMA, ejection state, requests and
+ * ejections are exported to Micrometer, tagged with {@code downstream} and
+ * {@code instance}.</p>
+ *
+ * @since 1.0.0
+ */
+public class PowerOfTwoChoicesBalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerOfTwoChoicesBalancer.class);
+
+    private final String downstream;
+    private final MeterRegistry meterRegistry;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final double ewmaAlpha;
+    private final LongSupplier nanoClock;
+    private volatile List<ServiceInstance> instances = List.of();
+
+    /**
+     * Constructs a new PowerOfTwoChoicesBalancer with no replicas.
+     *
+     * @param downstream the downstream service name, used as metric tag
+     * @param meterRegistry the Micrometer registry for per-replica metrics
+     * @param failureThreshold consecutive failures after which a replica is ejected
+     * @param ejectionNanos how long an ejected replica receives no traffic
+     * @param ewmaAlpha weight of the latest latency sample in the latency EWMA
+     * @param nanoClock monotonic clock in nanoseconds
+     */
+    public PowerOfTwoChoicesBalancer(final String downstream, final MeterRegistry meterRegistry,
+                                     final int failureThreshold, final long ejectionNanos,
+                                     final double ewmaAlpha, final LongSupplier nanoClock) {
+        this.downstream = downstream;
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = ejectionNanos;
+        this.ewmaAlpha = ewmaAlpha;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Replaces the set of replicas.
+     *
+     * <p>Replicas that stay in the set keep their load and health state; new
+     * replicas start with the average latency of the known ones.</p>
+     *
+     * @param uris the base URIs of the replicas; must not be empty
+     */
+    public synchronized void updateInstances(final List<URI> uris) {
+        if (uris.isEmpty()) {
+            throw new IllegalArgumentException("At least one " + downstream + " instance is required");
+        }
+        final var current = new HashMap<URI, ServiceInstance>();
+        instances.forEach(instance -> current.put(instance.uri(), instance));
+        final var initialLatency = current.values().stream()
+            .mapToDouble(ServiceInstance::latencyEwmaNanos)
+            .average()
+            .orElse(0);
+
+        final var updated = new ArrayList<ServiceInstance>(uris.size());
+        for (final var uri : uris.stream().distinct().toList()) {
+            final var existing = current.remove(uri);
+            updated.add(existing != null ? existing : register(new ServiceInstance(uri, initialLatency)));
+        }
+        current.values().forEach(removed -> removed.meters().forEach(meterRegistry::remove));
+        instances = List.copyOf(updated);
+        logger.info("{} instances: {}", downstream, uris);
+    }
+
+    /**
+     * Returns the base URIs of the current replicas.
+     *
+     * @return the replica URIs
+     */
+    public List<URI> instances() {
+        return instances.stream().map(ServiceInstance::uri).toList();
+    }
+
+    /**
+     * Sends a request to the chosen replica, rewriting its scheme, host and port.
+     *
+     * @param request the request addressed to the downstream's logical URL
+     * @param next the next exchange function
+     * @return a Mono emitting the replica's response
+     */
+    public Mono<ClientResponse> exchange(final ClientRequest request, final ExchangeFunction next) {
+        return Mono.defer(() -> {
+            final var instance = choose();
+            final var target = UriComponentsBuilder.fromUri(request.url())
+                .scheme(instance.uri().getScheme())
+                .host(instance.uri().getHost())
+                .port(instance.uri().getPort())
+                .build(true)
+                .toUri();
+            final var start = nanoClock.getAsLong();
+            final var done = new AtomicBoolean();
+            instance.onStart();
+            return next.exchange(ClientRequest.from(request).url(target).build())
+                .doOnNext(response -> {
+                    if (!done.compareAndSet(false, true)) {
+                        return;
+                    }
+                    if (response.statusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value()
+                            && request.headers().containsKey(Deadline.HEADER)) {
+                        instance.onAbandoned(nanoClock.getAsLong() - start, ewmaAlpha);
+                    } else {
+                        onComplete(instance, start, response.statusCode().is5xxServerError());
+                    }
+                })
+                .doOnError(error -> {
+                    if (done.compareAndSet(false, true)) {
+                        onComplete(instance, start, true);
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (done.compareAndSet(false, true)) {
+                        instance.onAbandoned(nanoClock.getAsLong() - start, ewmaAlpha);
+                    }
+                });
+        });
+    }
+
+    /**
+     * Picks the cheaper of two distinct random available replicas.
+     *
+     * @return the chosen replica
+     */
+    ServiceInstance choose() {
+        final var all = instances;
+        final var now = nanoClock.getAsLong();
+        final var available = all.stream().filter(instance -> instance.isAvailable(now)).toList();
+        final var candidates = available.isEmpty() ? all : available;
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        final var random = ThreadLocalRandom.current();
+        final var first = random.nextInt(candidates.size());
+        var second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        final var a = candidates.get(first);
+        final var b = candidates.get(second);
+        return a.cost() <= b.cost() ? a : b;
+    }
+
+    private void onComplete(final ServiceInstance instance, final long start, final boolean failed) {
+        if (!failed) {
+            instance.successCounter().increment();
+            instance.onSuccess(nanoClock.getAsLong() - start, ewmaAlpha);
+            return;
+        }
+        instance.failureCounter().increment();
+        if (instance.onFailure(failureThreshold, nanoClock.getAsLong() + ejectionNanos)) {
+            logger.warn("Ejecting {} instance {} after {} consecutive failures for {}s", downstream,
+                instance.uri(), failureThreshold, TimeUnit.NANOSECONDS.toSeconds(ejectionNanos));
+            instance.ejectionCounter().increment();
+        }
+    }
+
+    private ServiceInstance register(final ServiceInstance instance) {
+        final var tags = Tags.of("downstream", downstream, "instance", instance.uri().getAuthority());
+        final var inFlight = Gauge.builder("gateway_lb_instance_inflight_requests", instance, ServiceInstance::inFlight)
+            .description("Requests currently in flight per downstream instance")
+            .tags(tags)
+            .register(meterRegistry);
+        final var latency = Gauge.builder("gateway_lb_instance_latency_ewma_seconds", instance,
+                i -> i.latencyEwmaNanos() / TimeUnit.SECONDS.toNanos(1))
+            .description("Exponentially weighted moving average of response latency per downstream instance")
+            .tags(tags)
+            .register(meterRegistry);
+        final var ejected = Gauge.builder("gateway_lb_instance_ejected", instance, i -> i.isEjected() ? 1 : 0)
+            .description("Whether the downstream instance is currently ejected (1) or receiving traffic (0)")
+            .tags(tags)
+            .register(meterRegistry);
+        final var successes = requestCounter(tags, "success");
+        final var failures = requestCounter(tags, "failure");
+        final var ejections = Counter.builder("gateway_lb_instance_ejections_total")
+            .description("Total number of times the downstream instance was ejected after consecutive failures")
+            .tags(tags)
+            .register(meterRegistry);
+        instance.bindMetrics(List.of(inFlight, latency, ejected, successes, failures, ejections),
+            successes, failures, ejections);
+        return instance;
+    }
+
+    private Counter requestCounter(final Tags tags, final String outcome) {
+        return Counter.builder("gateway_lb_instance_requests_total")
+            .description("Total number of requests sent per downstream instance")
+            .tags(tags.and("outcome", outcome))
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,141 @@
+package com.observability.gateway.loadbalancing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One replica of a downstream service, with the load and health state used to
+ * pick between replicas.
+ *
+ * @since 1.0.0
+ */
+final class ServiceInstance {
+
+    private final URI uri;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<Meter> meters = new ArrayList<>();
+    private Counter successCounter;
+    private Counter failureCounter;
+    private Counter ejectionCounter;
+    private double latencyEwmaNanos;
+    private int consecutiveFailures;
+    private boolean ejected;
+    private long ejectedUntilNanos;
+
+    ServiceInstance(final URI uri, final double initialLatencyNanos) {
+        this.uri = uri;
+        this.latencyEwmaNanos = initialLatencyNanos;
+    }
+
+    URI uri() {
+        return uri;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    synchronized double latencyEwmaNanos() {
+        return latencyEwmaNanos;
+    }
+
+    synchronized boolean isEjected() {
+        return ejected;
+    }
+
+    /**
+     * Returns the expected cost of sending one more request to this instance.
+     *
+     * @return the latency EWMA weighted by the number of requests already in flight
+     */
+    double cost() {
+        return (inFlight.get() + 1) * (latencyEwmaNanos() + 1);
+    }
+
+    /**
+     * Returns whether the instance may receive requests, readmitting it once its ejection has elapsed.
+     *
+     * @param nowNanos the current time
+     * @return {@code true} if the instance is not ejected
+     */
+    synchronized boolean isAvailable(final long nowNanos) {
+        if (ejected && nowNanos - ejectedUntilNanos >= 0) {
+            ejected = false;
+            consecutiveFailures = 0;
+        }
+        return !ejected;
+    }
+
+    void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records a request that was abandoned before its outcome was known, e.g.
+     * cancelled by a deadline or as the losing side of a hedge.
+     *
+     * <p>Its elapsed time is a lower bound on its latency, so it only ever
+     * raises the latency EWMA: a replica whose requests keep being cut off for
+     * slowness must not keep its old low latency.</p>
+     *
+     * @param elapsedNanos how long the request had been in flight
+     * @param ewmaAlpha weight of the latest latency sample in the latency EWMA
+     */
+    synchronized void onAbandoned(final long elapsedNanos, final double ewmaAlpha) {
+        inFlight.decrementAndGet();
+        if (elapsedNanos > latencyEwmaNanos) {
+            latencyEwmaNanos += ewmaAlpha * (elapsedNanos - latencyEwmaNanos);
+        }
+    }
+
+    synchronized void onSuccess(final long latencyNanos, final double ewmaAlpha) {
+        inFlight.decrementAndGet();
+        consecutiveFailures = 0;
+        latencyEwmaNanos += ewmaAlpha * (latencyNanos - latencyEwmaNanos);
+    }
+
+    /**
+     * Records a failed request, ejecting the instance after too many failures in a row.
+     *
+     * @return {@code true} if this failure ejected the instance
+     */
+    synchronized boolean onFailure(final int failureThreshold, final long ejectedUntilNanos) {
+        inFlight.decrementAndGet();
+        consecutiveFailures++;
+        if (ejected || consecutiveFailures < failureThreshold) {
+            return false;
+        }
+        ejected = true;
+        this.ejectedUntilNanos = ejectedUntilNanos;
+        return true;
+    }
+
+    void bindMetrics(final List<Meter> meters, final Counter successCounter, final Counter failureCounter,
+                     final Counter ejectionCounter) {
+        this.meters.addAll(meters);
+        this.successCounter = successCounter;
+        this.failureCounter = failureCounter;
+        this.ejectionCounter = ejectionCounter;
+    }
+
+    List<Meter> meters() {
+        return meters;
+    }
+
+    Counter successCounter() {
+        return successCounter;
+    }
+
+    Counter failureCounter() {
+        return failureCounter;
+    }
+
+    Counter ejectionCounter() {
+        return ejectionCounter;
+    }
+}
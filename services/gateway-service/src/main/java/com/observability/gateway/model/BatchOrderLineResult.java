@@ -0,0 +1,62 @@
+package com.observability.gateway.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.observability.gateway.model.order.OrderResponse;
+
+/**
+ * Outcome of a single line of a batch order request.
+ *
+ * @param index the zero-based position of the line in the request
+ * @param status the line outcome
+ * @param order the created order, present only when {@code status} is {@link Status#CREATED}
+ * @param error the failure reason, present only when the line was not created
+ * @since 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchOrderLineResult(int index, Status status, OrderResponse order, String error) {
+
+    /**
+     * Possible outcomes of a batch line.
+     */
+    public enum Status {
+        /** The order was created. */
+        CREATED,
+        /** The inventory check for the line's item failed; nothing was created. */
+        REJECTED,
+        /** A downstream call failed while processing the line. */
+        FAILED
+    }
+
+    /**
+     * Creates a result for a successfully created order.
+     *
+     * @param index the line index
+     * @param order the created order
+     * @return the line result
+     */
+    public static BatchOrderLineResult created(final int index, final OrderResponse order) {
+        return new BatchOrderLineResult(index, Status.CREATED, order, null);
+    }
+
+    /**
+     * Creates a result for a rejected line.
+     *
+     * @param index the line index
+     * @param error the rejection reason
+     * @return the line result
+     */
+    public static BatchOrderLineResult rejected(final int index, final String error) {
+        return new BatchOrderLineResult(index, Status.REJECTED, null, error);
+    }
+
+    /**
+     * Creates a result for a line that failed because of a downstream error.
+     *
+     * @param index the line index
+     * @param error the failure reason
+     * @return the line result
+     */
+    public static BatchOrderLineResult failed(final int index, final String error) {
+        return new BatchOrderLineResult(index, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,36 @@
+package com.observability.gateway.model;
+
+import java.util.List;
+
+/**
+ * Response of a batch order request, with one result per submitted line.
+ *
+ * @param results the per-line results, in request order
+ * @param created the number of lines for which an order was created
+ * @param failed the number of lines that were rejected or failed
+ * @since 1.0.0
+ */
+public record BatchOrderResponse(List<BatchOrderLineResult> results, int created, int failed) {
+
+    /**
+     * Builds a response from per-line results, computing the summary counts.
+     *
+     * @param results the per-line results
+     * @return the batch response
+     */
+    public static BatchOrderResponse of(final List<BatchOrderLineResult> results) {
+        final var created = (int) results.stream()
+            .filter(result -> result.status() == BatchOrderLineResult.Status.CREATED)
+            .count();
+        return new BatchOrderResponse(results, created, results.size() - created);
+    }
+
+    /**
+     * Returns whether every line of the batch resulted in a created order.
+     *
+     * @return {@code true} if no line was rejected or failed
+     */
+    public boolean allCreated() {
+        return failed == 0;
+    }
+}
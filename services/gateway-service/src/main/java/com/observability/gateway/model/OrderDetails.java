@@ -0,0 +1,42 @@
+package com.observability.gateway.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.observability.gateway.model.inventory.InventoryResponse;
+import com.observability.gateway.model.order.OrderResponse;
+
+/**
+ * An order together with the current inventory of its item.
+ *
+ * <p>The order is always present. The inventory is left out when it could not
+ * be determined, in which case {@code inventoryError} says why.</p>
+ *
+ * @param order the order
+ * @param inventory the inventory of the ordered item, if known
+ * @param inventoryError why the inventory is missing, present only when {@code inventory} is absent
+ * @since 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderDetails(OrderResponse order, InventoryResponse inventory, String inventoryError) {
+
+    /**
+     * Creates the details of an order whose inventory was found.
+     *
+     * @param order the order
+     * @param inventory the inventory of the ordered item
+     * @return the order details
+     */
+    public static OrderDetails of(final OrderResponse order, final InventoryResponse inventory) {
+        return new OrderDetails(order, inventory, null);
+    }
+
+    /**
+     * Creates the details of an order whose inventory could not be determined.
+     *
+     * @param order the order
+     * @param inventoryError why the inventory is missing
+     * @return the order details
+     */
+    public static OrderDetails withoutInventory(final OrderResponse order, final String inventoryError) {
+        return new OrderDetails(order, null, inventoryError);
+    }
+}
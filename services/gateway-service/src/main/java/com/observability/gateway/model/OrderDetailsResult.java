@@ -0,0 +1,60 @@
+package com.observability.gateway.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of the details lookup for one order of a multi-order request.
+ *
+ * @param id the requested order ID
+ * @param status the lookup outcome
+ * @param details the order details, present only when {@code status} is {@link Status#FOUND}
+ * @param error the failure reason, present only when {@code status} is {@link Status#FAILED}
+ * @since 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderDetailsResult(String id, Status status, OrderDetails details, String error) {
+
+    /**
+     * Possible outcomes of an order details lookup.
+     */
+    public enum Status {
+        /** The order was found. */
+        FOUND,
+        /** The Order Service does not know the order. */
+        NOT_FOUND,
+        /** A downstream call failed while fetching the order. */
+        FAILED
+    }
+
+    /**
+     * Creates a result for an order that was found.
+     *
+     * @param id the order ID
+     * @param details the order details
+     * @return the lookup result
+     */
+    public static OrderDetailsResult found(final String id, final OrderDetails details) {
+        return new OrderDetailsResult(id, Status.FOUND, details, null);
+    }
+
+    /**
+     * Creates a result for an unknown order.
+     *
+     * @param id the order ID
+     * @return the lookup result
+     */
+    public static OrderDetailsResult notFound(final String id) {
+        return new OrderDetailsResult(id, Status.NOT_FOUND, null, null);
+    }
+
+    /**
+     * Creates a result for an order whose lookup failed.
+     *
+     * @param id the order ID
+     * @param error the failure reason
+     * @return the lookup result
+     */
+    public static OrderDetailsResult failed(final String id, final String error) {
+        return new OrderDetailsResult(id, Status.FAILED, null, error);
+    }
+}
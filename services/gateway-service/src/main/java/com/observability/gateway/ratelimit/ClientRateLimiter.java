@@ -0,0 +1,120 @@
+package com.observability.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-client rate limiter holding one {@link TokenBucket} per client key.
+ *
+ * <p>Each client may send {@code gateway.rate-limit.requests-per-second}
+ * requests on average, in bursts of up to {@code gateway.rate-limit.burst}.
+ * Buckets live in a Caffeine cache: lookups of existing buckets take no lock
+ * and only the bucket's own compare-and-set is contended, so clients never
+ * wait on each other. A bucket idle for {@code gateway.rate-limit.idle-timeout}
+ * is evicted; since an idle bucket refills completely, the timeout is never
+ * shorter than the time to refill a full burst, and eviction does not change
+ * any decision. The number of buckets is additionally capped at
+ * {@code gateway.rate-limit.max-clients}, keeping memory bounded however many
+ * clients show up.</p>
+ *
+ * <p>Rejections are counted in {@code gateway_rate_limited_requests_total};
+ * the number of tracked clients is exported as
+ * {@code gateway_rate_limiter_clients}.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final long nanosPerToken;
+    private final long burst;
+    private final Ticker ticker;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter limited;
+
+    /**
+     * Constructs a new ClientRateLimiter from configuration.
+     *
+     * @param meterRegistry the Micrometer registry for rate limiting metrics
+     * @param requestsPerSecond the sustained request rate allowed per client
+     * @param burst the number of requests a client may send at once
+     * @param idleTimeout how long an unused bucket is kept
+     * @param maxClients the maximum number of clients tracked at once
+     */
+    @Autowired
+    public ClientRateLimiter(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.requests-per-second:100}") final double requestsPerSecond,
+            @Value("${gateway.rate-limit.burst:200}") final long burst,
+            @Value("${gateway.rate-limit.idle-timeout:10m}") final Duration idleTimeout,
+            @Value("${gateway.rate-limit.max-clients:100000}") final long maxClients) {
+        this(meterRegistry, requestsPerSecond, burst, idleTimeout, maxClients, Ticker.systemTicker());
+    }
+
+    ClientRateLimiter(final MeterRegistry meterRegistry, final double requestsPerSecond, final long burst,
+                      final Duration idleTimeout, final long maxClients, final Ticker ticker) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive and burst at least 1");
+        }
+        this.nanosPerToken = Math.max(1, (long) (Duration.ofSeconds(1).toNanos() / requestsPerSecond));
+        this.burst = burst;
+        this.ticker = ticker;
+        final var refillNanos = nanosPerToken * burst;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofNanos(Math.max(idleTimeout.toNanos(), refillNanos)))
+            .ticker(ticker)
+            .build();
+        this.limited = Counter.builder("gateway_rate_limited_requests_total")
+            .description("Total number of requests rejected because their client exceeded its rate limit")
+            .register(meterRegistry);
+        Gauge.builder("gateway_rate_limiter_clients", buckets, Cache::estimatedSize)
+            .description("Number of clients with a rate limiting bucket")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Attempts to admit one request of a client.
+     *
+     * @param clientKey the key identifying the client
+     * @return {@code 0} if the request is allowed, otherwise the nanoseconds until the client may retry
+     */
+    public long tryAcquire(final String clientKey) {
+        final var now = ticker.read();
+        var bucket = buckets.getIfPresent(clientKey);
+        if (bucket == null) {
+            // Only new clients pay for the mapping function and its allocation
+            bucket = buckets.get(clientKey, key -> new TokenBucket(nanosPerToken, burst, now));
+        }
+        final var wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            limited.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Performs any pending eviction and expiry maintenance.
+     */
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+
+    /**
+     * Returns the approximate number of tracked clients.
+     *
+     * @return the estimated number of buckets
+     */
+    long clients() {
+        return buckets.estimatedSize();
+    }
+}
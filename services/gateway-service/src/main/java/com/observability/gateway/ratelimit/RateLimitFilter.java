@@ -0,0 +1,155 @@
+package com.observability.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link ClientRateLimiter} to all {@code /api/**} requests
+ * except health checks.
+ *
+ * <p>Clients are identified by their API key header
+ * ({@code gateway.rate-limit.api-key-header}) when it holds one of the keys
+ * configured in {@code gateway.rate-limit.api-keys}, and by their remote
+ * address otherwise. The header is not authenticated, so an unknown key
+ * never gets a bucket of its own: otherwise a client could pick a new key
+ * for every request and never be limited. For the same reason one remote
+ * address gets buckets for at most
+ * {@code gateway.rate-limit.max-keys-per-address} different keys within
+ * {@code gateway.rate-limit.idle-timeout}; further keys from it share the
+ * address's bucket. Requests over the limit are answered with 429 and a
+ * {@code Retry-After} header telling the client when its next token is
+ * due.</p>
+ *
+ * <p>Runs before admission control, so a noisy client is turned away before
+ * it takes a place in the admission queue. Setting
+ * {@code gateway.rate-limit.enabled=false} disables rate limiting.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class RateLimitFilter implements WebFilter, Ordered {
+
+    private static final int MAX_API_KEY_LENGTH = 255;
+    private static final byte[] LIMITED_BODY = "{\"error\":\"Rate limit exceeded\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ClientRateLimiter rateLimiter;
+    private final boolean enabled;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final int maxKeysPerAddress;
+    private final Cache<String, Set<String>> keysByAddress;
+
+    /**
+     * Constructs a new RateLimitFilter.
+     *
+     * @param rateLimiter the per-client rate limiter
+     * @param enabled whether rate limiting is enabled
+     * @param apiKeyHeader the request header carrying the client's API key
+     * @param apiKeys the known API keys; requests with any other key are identified by their remote address
+     * @param maxKeysPerAddress the maximum number of API keys identifying separate clients behind one address
+     * @param idleTimeout how long the API keys seen from an address are remembered after its last request
+     * @param maxClients the maximum number of addresses whose API keys are remembered
+     */
+    public RateLimitFilter(
+            final ClientRateLimiter rateLimiter,
+            @Value("${gateway.rate-limit.enabled:true}") final boolean enabled,
+            @Value("${gateway.rate-limit.api-key-header:X-API-Key}") final String apiKeyHeader,
+            @Value("${gateway.rate-limit.api-keys:}") final Set<String> apiKeys,
+            @Value("${gateway.rate-limit.max-keys-per-address:4}") final int maxKeysPerAddress,
+            @Value("${gateway.rate-limit.idle-timeout:10m}") final Duration idleTimeout,
+            @Value("${gateway.rate-limit.max-clients:100000}") final long maxClients) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.maxKeysPerAddress = maxKeysPerAddress;
+        this.keysByAddress = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(idleTimeout)
+            .build();
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final var path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!enabled || !path.startsWith("/api/") || "/api/health".equals(path)) {
+            return chain.filter(exchange);
+        }
+        final var waitNanos = rateLimiter.tryAcquire(clientKey(exchange.getRequest()));
+        return waitNanos == 0 ? chain.filter(exchange) : tooManyRequests(exchange, waitNanos);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 5;
+    }
+
+    /**
+     * Identifies the client sending a request.
+     *
+     * @param request the request
+     * @return the API key, or the remote address if the request has no known API key or its address
+     *         already sent too many different ones
+     */
+    String clientKey(final ServerHttpRequest request) {
+        final var address = remoteAddress(request);
+        final var apiKey = request.getHeaders().getFirst(apiKeyHeader);
+        if (apiKey != null && apiKey.length() <= MAX_API_KEY_LENGTH && apiKeys.contains(apiKey)
+                && isKeyAllowedFrom(address, apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "addr:" + address;
+    }
+
+    private boolean isKeyAllowedFrom(final String address, final String apiKey) {
+        final var seen = keysByAddress.getIfPresent(address);
+        if (seen != null && seen.contains(apiKey)) {
+            return true;
+        }
+        // Only a key new to the address pays for the copy
+        final var updated = keysByAddress.asMap().compute(address, (key, keys) -> {
+            final var known = keys == null ? Set.<String>of() : keys;
+            if (known.contains(apiKey) || known.size() >= maxKeysPerAddress) {
+                return known;
+            }
+            final var added = new HashSet<>(known);
+            added.add(apiKey);
+            return Set.copyOf(added);
+        });
+        return updated.contains(apiKey);
+    }
+
+    private static String remoteAddress(final ServerHttpRequest request) {
+        final var remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+
+    private static Mono<Void> tooManyRequests(final ServerWebExchange exchange, final long waitNanos) {
+        final var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+            String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(LIMITED_BODY)));
+    }
+}
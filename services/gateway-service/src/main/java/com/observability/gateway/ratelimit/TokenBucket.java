@@ -0,0 +1,66 @@
+package com.observability.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket with lazy refill.
+ *
+ * <p>Instead of a token count and a last-refill time, the bucket keeps a
+ * single timestamp: the moment it was (or would have been) empty. The tokens
+ * available at any time are the time elapsed since then divided by the
+ * refill interval, capped at the capacity. Taking a token moves the
+ * timestamp forward by one interval with a single compare-and-set, so there
+ * is no background refill and no lock; rejected requests do not write at
+ * all.</p>
+ *
+ * @since 1.0.0
+ */
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final AtomicLong emptyAt;
+
+    /**
+     * Constructs a new, full TokenBucket.
+     *
+     * @param nanosPerToken the refill interval of one token, in nanoseconds
+     * @param capacity the maximum number of tokens the bucket holds
+     * @param now the current monotonic time, in nanoseconds
+     */
+    public TokenBucket(final long nanosPerToken, final long capacity, final long now) {
+        this.nanosPerToken = nanosPerToken;
+        this.capacityNanos = nanosPerToken * capacity;
+        this.emptyAt = new AtomicLong(now - capacityNanos);
+    }
+
+    /**
+     * Attempts to take one token.
+     *
+     * @param now the current monotonic time, in nanoseconds
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(final long now) {
+        while (true) {
+            final var current = emptyAt.get();
+            // Tokens beyond the capacity are not kept, however long the bucket was idle
+            final var next = Math.max(current, now - capacityNanos) + nanosPerToken;
+            if (next - now > 0) {
+                return next - now;
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of whole tokens available.
+     *
+     * @param now the current monotonic time, in nanoseconds
+     * @return the available tokens
+     */
+    public long available(final long now) {
+        return Math.min(capacityNanos, Math.max(0, now - emptyAt.get())) / nanosPerToken;
+    }
+}
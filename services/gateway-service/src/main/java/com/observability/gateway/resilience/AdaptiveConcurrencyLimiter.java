@@ -0,0 +1,117 @@
+package com.observability.gateway.resilience;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limiter whose limit adapts to observed downstream latency using
+ * additive-increase/multiplicative-decrease (AIMD).
+ *
+ * <p>A call is admitted only while fewer than {@link #limit()} calls are in
+ * flight. When a call completes within the latency threshold and the limit
+ * was at least half used, the limit grows by one. When a call fails or takes
+ * longer than the threshold, the downstream is treated as overloaded and the
+ * limit is multiplied by the backoff ratio. The limit always stays within
+ * {@code [minLimit, maxLimit]}.</p>
+ *
+ * <p>All methods are thread-safe.</p>
+ *
+ * @since 1.0.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    /**
+     * Constructs a new AdaptiveConcurrencyLimiter.
+     *
+     * @param initialLimit the starting concurrency limit
+     * @param minLimit the lowest the limit can be reduced to
+     * @param maxLimit the highest the limit can grow to
+     * @param latencyThreshold the latency above which a call signals overload
+     * @param backoffRatio the factor (between 0 and 1) applied to the limit on overload
+     */
+    public AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit,
+                                      final Duration latencyThreshold, final double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Attempts to admit a call.
+     *
+     * <p>Every admitted call must be followed by exactly one call to
+     * {@link #onComplete(long, boolean)} or {@link #release()}.</p>
+     *
+     * @return {@code true} if the call may proceed
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Records a completed call and adjusts the limit.
+     *
+     * @param latencyNanos how long the call took, in nanoseconds
+     * @param failed whether the call failed in a way that indicates downstream overload
+     */
+    public synchronized void onComplete(final long latencyNanos, final boolean failed) {
+        final var utilized = inFlight * 2 >= (int) limit;
+        inFlight--;
+        if (failed || isSlow(latencyNanos)) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (utilized) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    /**
+     * Returns whether a call of the given latency signals overload.
+     *
+     * <p>Used to judge calls that were abandoned before they completed, whose
+     * elapsed time is a lower bound on their latency.</p>
+     *
+     * @param latencyNanos how long the call took, or has taken so far, in nanoseconds
+     * @return {@code true} if the latency exceeds the threshold
+     */
+    public boolean isSlow(final long latencyNanos) {
+        return latencyNanos > latencyThresholdNanos;
+    }
+
+    /**
+     * Releases an admitted call without adjusting the limit, e.g. when it was cancelled.
+     */
+    public synchronized void release() {
+        inFlight--;
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return the limit
+     */
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of calls currently in flight.
+     *
+     * @return the in-flight count
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,200 @@
+package com.observability.gateway.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for a single downstream service.
+ *
+ * <p>While {@link State#CLOSED}, the outcomes of the last
+ * {@code slidingWindowSize} calls are kept; once at least {@code minimumCalls}
+ * have been recorded and the failure rate reaches the threshold, the breaker
+ * opens and rejects every call for {@code openDuration}. It then lets up to
+ * {@code halfOpenCalls} trial calls through: a single failure re-opens it,
+ * and that many successes close it again.</p>
+ *
+ * <p>Each admitted call holds a {@link Permit} recording whether it is one
+ * of the trial calls of the current half-open period. Only those calls
+ * decide whether a half-open breaker closes or re-opens, and only their
+ * permits are given back when released, so a slow call admitted while the
+ * breaker was still closed cannot hand out extra trial calls.</p>
+ *
+ * <p>All methods are thread-safe.</p>
+ *
+ * @since 1.0.0
+ */
+public class CircuitBreaker {
+
+    /**
+     * Breaker states; the ordinal is the value exported as a gauge.
+     */
+    public enum State {
+        /** Calls flow normally and outcomes are recorded. */
+        CLOSED,
+        /** A limited number of trial calls are allowed through. */
+        HALF_OPEN,
+        /** Every call is rejected until the open duration has elapsed. */
+        OPEN
+    }
+
+    /**
+     * Permission for one call, passed back with its outcome.
+     *
+     * @param trial whether the call is a trial call of a half-open period
+     * @param halfOpenPeriod the half-open period a trial call belongs to
+     */
+    public record Permit(boolean trial, long halfOpenPeriod) {
+        private static final Permit REGULAR = new Permit(false, 0);
+    }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+    private int windowIndex;
+    private int recordedCalls;
+    private int failedCalls;
+    private long openedAt;
+    private long halfOpenPeriod;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * Constructs a new CircuitBreaker.
+     *
+     * @param failureRateThreshold the failure percentage (0-100) at which the breaker opens
+     * @param slidingWindowSize the number of most recent calls the failure rate is computed over
+     * @param minimumCalls the number of calls required before the failure rate is evaluated
+     * @param openDuration how long the breaker stays open before allowing trial calls
+     * @param halfOpenCalls the number of trial calls allowed while half-open
+     * @param nanoClock the monotonic clock, in nanoseconds
+     */
+    public CircuitBreaker(final double failureRateThreshold, final int slidingWindowSize, final int minimumCalls,
+                          final Duration openDuration, final int halfOpenCalls, final LongSupplier nanoClock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+        this.window = new boolean[slidingWindowSize];
+    }
+
+    /**
+     * Attempts to acquire permission for a call.
+     *
+     * <p>Every granted permission must be followed by exactly one call to
+     * {@link #onSuccess(Permit)}, {@link #onFailure(Permit)} or
+     * {@link #releasePermission(Permit)} with the returned permit.</p>
+     *
+     * @return the permit of the call, or {@code null} if the call may not proceed
+     */
+    public synchronized Permit tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                return null;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPeriod++;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return null;
+            }
+            halfOpenPermits--;
+            return new Permit(true, halfOpenPeriod);
+        }
+        return Permit.REGULAR;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param permit the permit the call was admitted with
+     */
+    public synchronized void onSuccess(final Permit permit) {
+        if (state == State.HALF_OPEN) {
+            if (isCurrentTrial(permit) && ++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @param permit the permit the call was admitted with
+     */
+    public synchronized void onFailure(final Permit permit) {
+        if (state == State.HALF_OPEN) {
+            if (isCurrentTrial(permit)) {
+                open();
+            }
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumCalls && failedCalls * 100.0 / recordedCalls >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Returns a permission without recording an outcome, e.g. when the call
+     * was cancelled. Only a trial call of the current half-open period gives
+     * its place back.
+     *
+     * @param permit the permit the call was admitted with
+     */
+    public synchronized void releasePermission(final Permit permit) {
+        if (state == State.HALF_OPEN && isCurrentTrial(permit)) {
+            halfOpenPermits++;
+        }
+    }
+
+    /**
+     * Returns the current state, without transitioning from open to half-open.
+     *
+     * @return the breaker state
+     */
+    public synchronized State state() {
+        return state;
+    }
+
+    private boolean isCurrentTrial(final Permit permit) {
+        return permit.trial() && permit.halfOpenPeriod() == halfOpenPeriod;
+    }
+
+    private void record(final boolean failed) {
+        if (recordedCalls == window.length) {
+            if (window[windowIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+    }
+}
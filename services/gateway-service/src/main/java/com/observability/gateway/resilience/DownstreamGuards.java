@@ -0,0 +1,119 @@
+package com.observability.gateway.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of {@link DownstreamGuard}s, one per downstream service, sharing
+ * the same circuit breaker and concurrency limiter configuration.
+ *
+ * @since 1.0.0
+ */
+@Component
+public class DownstreamGuards {
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final double failureRateThreshold;
+    private final int slidingWindowSize;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration latencyThreshold;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+    private final Map<String, DownstreamGuard> guards = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new DownstreamGuards registry from configuration.
+     *
+     * @param meterRegistry the Micrometer registry for guard metrics
+     * @param enabled whether guards are enabled; when disabled every call is sent as-is
+     * @param failureRateThreshold the failure percentage at which a circuit breaker opens
+     * @param slidingWindowSize the number of recent calls the failure rate is computed over
+     * @param minimumCalls the number of calls required before the failure rate is evaluated
+     * @param openDuration how long a circuit breaker stays open
+     * @param halfOpenCalls the number of trial calls allowed while half-open
+     * @param initialLimit the starting concurrency limit per downstream
+     * @param minLimit the lowest a concurrency limit can be reduced to
+     * @param maxLimit the highest a concurrency limit can grow to
+     * @param latencyThreshold the latency above which a call signals overload
+     * @param backoffRatio the factor applied to a concurrency limit on overload
+     */
+    @Autowired
+    public DownstreamGuards(
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.resilience.enabled:true}") final boolean enabled,
+            @Value("${gateway.resilience.circuit-breaker.failure-rate-threshold:50}") final double failureRateThreshold,
+            @Value("${gateway.resilience.circuit-breaker.sliding-window-size:20}") final int slidingWindowSize,
+            @Value("${gateway.resilience.circuit-breaker.minimum-calls:10}") final int minimumCalls,
+            @Value("${gateway.resilience.circuit-breaker.open-duration:10s}") final Duration openDuration,
+            @Value("${gateway.resilience.circuit-breaker.half-open-calls:3}") final int halfOpenCalls,
+            @Value("${gateway.resilience.limiter.initial-limit:20}") final int initialLimit,
+            @Value("${gateway.resilience.limiter.min-limit:1}") final int minLimit,
+            @Value("${gateway.resilience.limiter.max-limit:200}") final int maxLimit,
+            @Value("${gateway.resilience.limiter.latency-threshold:500ms}") final Duration latencyThreshold,
+            @Value("${gateway.resilience.limiter.backoff-ratio:0.9}") final double backoffRatio) {
+        this(meterRegistry, enabled, failureRateThreshold, slidingWindowSize, minimumCalls, openDuration,
+            halfOpenCalls, initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, System::nanoTime);
+    }
+
+    DownstreamGuards(
+            final MeterRegistry meterRegistry,
+            final boolean enabled,
+            final double failureRateThreshold,
+            final int slidingWindowSize,
+            final int minimumCalls,
+            final Duration openDuration,
+            final int halfOpenCalls,
+            final int initialLimit,
+            final int minLimit,
+            final int maxLimit,
+            final Duration latencyThreshold,
+            final double backoffRatio,
+            final LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumCalls = minimumCalls;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold;
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the guard for the named downstream service, creating it and
+     * registering its metrics on first use.
+     *
+     * @param downstream the downstream name, e.g. {@code order} or {@code inventory}
+     * @return the guard for that downstream
+     */
+    public DownstreamGuard forDownstream(final String downstream) {
+        return guards.computeIfAbsent(downstream, this::createGuard);
+    }
+
+    private DownstreamGuard createGuard(final String downstream) {
+        return new DownstreamGuard(downstream, enabled,
+            new CircuitBreaker(failureRateThreshold, slidingWindowSize, minimumCalls, openDuration,
+                halfOpenCalls, nanoClock),
+            new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio),
+            nanoClock,
+            meterRegistry);
+    }
+}
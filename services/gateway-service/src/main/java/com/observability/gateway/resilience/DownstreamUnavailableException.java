@@ -0,0 +1,32 @@
+package com.observability.gateway.resilience;
+
+/**
+ * Thrown when a call to a downstream service is rejected without being sent,
+ * because its circuit breaker is open or its concurrency limit is reached.
+ *
+ * @since 1.0.0
+ */
+public class DownstreamUnavailableException extends RuntimeException {
+
+    private final String downstream;
+
+    /**
+     * Constructs a new DownstreamUnavailableException.
+     *
+     * @param downstream the name of the downstream service, e.g. {@code inventory}
+     * @param reason why the call was rejected
+     */
+    public DownstreamUnavailableException(final String downstream, final String reason) {
+        super(downstream + " service unavailable: " + reason);
+        this.downstream = downstream;
+    }
+
+    /**
+     * Returns the name of the downstream service that rejected the call.
+     *
+     * @return the downstream name
+     */
+    public String getDownstream() {
+        return downstream;
+    }
+}
@@ -1,16 +1,49 @@
 package com.observability.gateway.service;
 
-import io.opentelemetry.api.trace.Span;
+import com.observability.commons.deadline.DeadlineExceededException;
+import com.observability.commons.idempotency.IdempotencyStore;
+import com.observability.gateway.cache.InventoryCache;
+import com.observability.gateway.client.DeadlinePropagationFilter;
+import com.observability.gateway.client.DownstreamConnectionPools;
+import com.observability.gateway.client.RequestCoalescer;
+import com.observability.gateway.client.RequestHedger;
+import com.observability.gateway.client.RouteDeadlines;
+import com.observability.gateway.client.SpeculativeExecutor;
+import com.observability.gateway.client.RouteDeadlines.Route;
+import com.observability.gateway.loadbalancing.LoadBalancingFilter;
+import com.observability.gateway.model.BatchOrderLineResult;
+import com.observability.gateway.model.OrderDetails;
+import com.observability.gateway.model.OrderDetailsResult;
+import com.observability.gateway.model.inventory.InventoryResponse;
+import com.observability.gateway.model.order.CreateOrderRequest;
+import com.observability.gateway.model.order.OrderResponse;
+import com.observability.gateway.resilience.DownstreamGuard;
+import com.observability.gateway.resilience.DownstreamGuards;
+import com.observability.gateway.timing.DownstreamTimingFilter;
+import com.observability.gateway.tracing.ReactorTracing;
 import io.opentelemetry.api.trace.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.IntFunction;
 
 import static com.observability.commons.util.LogUtils.sanitizeForLog;
 
@@ -18,7 +51,25 @@ import static com.observability.commons.util.LogUtils.sanitizeForLog;
  * Service class for gateway operations.
  * 
  * <p>This service orchestrates calls to downstream microservices
- * (Order Service, Inventory Service) and handles distributed tracing.</p>
+ * (Order Service, Inventory Service) and handles distributed tracing.
+ * All operations are non-blocking and return Reactor publishers, so no
+ * thread is held while a downstream call is in flight.</p>
+ *
+ * <p>Every downstream call goes through that downstream's {@link DownstreamGuard},
+ * so calls to a failing or overloaded service fail fast with a
+ * {@link com.observability.gateway.resilience.DownstreamUnavailableException}.</p>
+ *
+ * <p>Each downstream is called through its own WebClient on a dedicated
+ * connection pool (see {@link DownstreamConnectionPools}). Downstream URLs are
+ * logical: the {@link LoadBalancingFilter} sends each call to one of the
+ * replicas of the addressed service.</p>
+ *
+ * <p>Each operation runs within the time budget of its route (see {@link RouteDeadlines})
+ * and fails with {@link DeadlineExceededException} once it is spent; the
+ * remaining budget is passed to the downstream services.</p>
+ *
+ * <p>Each downstream call is timed by a {@link DownstreamTimingFilter}, so its
+ * latency shows up in the gateway's {@code Server-Timing} response header.</p>
  *
  * @since 1.0.0
  */
@@ -26,11 +77,25 @@ import static com.observability.commons.util.LogUtils.sanitizeForLog;
 public class GatewayService {
 
     private static final Logger logger = LoggerFactory.getLogger(GatewayService.class);
+    private static final String WARM_UP_ID_PREFIX = "warmup-";
+    private static final String ID_SEPARATOR = ",";
 
-    private final WebClient webClient;
+    private final Downstream order;
+    private final Downstream inventory;
+    private final InventoryCache inventoryCache;
+    private final RequestCoalescer requestCoalescer;
+    private final RequestHedger requestHedger;
+    private final SpeculativeExecutor speculativeExecutor;
+    private final RouteDeadlines routeDeadlines;
     private final Tracer tracer;
     private final String orderServiceUrl;
     private final String inventoryServiceUrl;
+    private final int batchMaxLines;
+    private final int batchConcurrency;
+    private final int detailsMaxIds;
+    private final int detailsConcurrency;
+    private final int inventoryLookupMaxIds;
+    private final int inventoryLookupMaxUrlLength;
 
     /**
      * Constructs a new GatewayService with the required dependencies.
@@ -38,145 +103,630 @@ public class GatewayService {
      * @param webClientBuilder the WebClient builder for HTTP calls
      * @param orderServiceUrl the URL of the Order Service
      * @param inventoryServiceUrl the URL of the Inventory Service
+     * @param batchMaxLines the maximum number of lines accepted in a batch order request
+     * @param batchConcurrency the maximum number of concurrent downstream calls per batch
+     * @param detailsMaxIds the maximum number of order IDs accepted in an order details request
+     * @param detailsConcurrency the maximum number of orders fetched concurrently per order details request
+     * @param inventoryLookupMaxIds the maximum number of item IDs accepted in a bulk inventory check
+     * @param inventoryLookupMaxUrlLength the maximum length of the URL of one bulk lookup sent to the Inventory
+     *                                    Service; longer lookups are split
+     * @param inventoryCache the read-through cache for inventory lookups
+     * @param requestCoalescer the coalescer sharing identical in-flight downstream GETs
+     * @param requestHedger the hedger for tail-latency-sensitive inventory GETs
+     * @param speculativeExecutor runs the inventory check and the order creation concurrently, if enabled
+     * @param downstreamGuards the circuit breakers and concurrency limiters per downstream
+     * @param routeDeadlines the time budgets per gateway route
+     * @param loadBalancingFilter the filter spreading downstream calls over the replicas of each service
+     * @param connectionPools the dedicated connection pool per downstream
      * @param tracer the OpenTelemetry tracer for distributed tracing (optional)
      */
     public GatewayService(
             final WebClient.Builder webClientBuilder,
             @Value("${services.order.url}") final String orderServiceUrl,
             @Value("${services.inventory.url}") final String inventoryServiceUrl,
+            @Value("${gateway.batch.max-lines:100}") final int batchMaxLines,
+            @Value("${gateway.batch.concurrency:8}") final int batchConcurrency,
+            @Value("${gateway.order-details.max-ids:100}") final int detailsMaxIds,
+            @Value("${gateway.order-details.concurrency:8}") final int detailsConcurrency,
+            @Value("${gateway.inventory-lookup.max-ids:100}") final int inventoryLookupMaxIds,
+            @Value("${gateway.inventory-lookup.max-url-length:4096}") final int inventoryLookupMaxUrlLength,
+            final InventoryCache inventoryCache,
+            final RequestCoalescer requestCoalescer,
+            final RequestHedger requestHedger,
+            final SpeculativeExecutor speculativeExecutor,
+            final DownstreamGuards downstreamGuards,
+            final RouteDeadlines routeDeadlines,
+            final LoadBalancingFilter loadBalancingFilter,
+            final DownstreamConnectionPools connectionPools,
             @Autowired(required = false) final Tracer tracer) {
-        this.webClient = webClientBuilder.build();
+        this.order = new Downstream("order", webClientBuilder.clone()
+            .clientConnector(connectionPools.connector("order"))
+            .filter(new DeadlinePropagationFilter())
+            .filter(new DownstreamTimingFilter("order"))
+            .filter(loadBalancingFilter)
+            .build(), downstreamGuards.forDownstream("order"));
+        this.inventory = new Downstream("inventory", webClientBuilder.clone()
+            .clientConnector(connectionPools.connector("inventory"))
+            .filter(new DeadlinePropagationFilter())
+            .filter(new DownstreamTimingFilter("inventory"))
+            .filter(loadBalancingFilter)
+            .build(), downstreamGuards.forDownstream("inventory"));
         this.orderServiceUrl = orderServiceUrl;
         this.inventoryServiceUrl = inventoryServiceUrl;
+        this.batchMaxLines = batchMaxLines;
+        this.batchConcurrency = batchConcurrency;
+        this.detailsMaxIds = detailsMaxIds;
+        this.detailsConcurrency = detailsConcurrency;
+        this.inventoryLookupMaxIds = inventoryLookupMaxIds;
+        this.inventoryLookupMaxUrlLength = inventoryLookupMaxUrlLength;
+        this.inventoryCache = inventoryCache;
+        this.requestCoalescer = requestCoalescer;
+        this.requestHedger = requestHedger;
+        this.speculativeExecutor = speculativeExecutor;
+        this.routeDeadlines = routeDeadlines;
         this.tracer = tracer;
     }
 
     /**
      * Creates a new order after verifying inventory availability.
      *
+     * <p>The request is expected to have been validated against the Order
+     * Service contract by the caller. The {@code create-order-flow} span is carried through the Reactor
+     * context so that it stays attached to the request regardless of which
+     * event-loop thread completes each downstream call.</p>
+     *
+     * <p>The inventory check normally completes before the order is created.
+     * With {@code gateway.speculative-create.enabled} both run concurrently
+     * through the {@link SpeculativeExecutor}, and an order created for an
+     * item that fails the check is cancelled again.</p>
+     *
      * @param orderRequest the order request containing itemId and quantity
-     * @return the created order response from the Order Service
-     * @throws IllegalStateException if inventory check fails
-     */
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> createOrder(final Map<String, Object> orderRequest) {
-        Span span = null;
-        if (tracer != null) {
-            span = tracer.spanBuilder("create-order-flow").startSpan();
-        }
-        try {
+     * @return a Mono emitting the created order response from the Order Service;
+     *         fails with {@link IllegalStateException} if the inventory check fails
+     */
+    public Mono<OrderResponse> createOrder(final CreateOrderRequest orderRequest) {
+        return createOrder(orderRequest, null);
+    }
+
+    /**
+     * Creates a new order after checking inventory availability, under an idempotency key.
+     *
+     * <p>The key is forwarded to the Order Service with the order POST, so an
+     * attempt that timed out here after the Order Service accepted it, and the
+     * client's retry, create a single order between them.</p>
+     *
+     * @param orderRequest the order request containing itemId and quantity
+     * @param idempotencyKey the client's idempotency key, or {@code null} if it sent none
+     * @return a Mono emitting the created order response from the Order Service;
+     *         fails with {@link IllegalStateException} if the inventory check fails
+     * @see #createOrder(CreateOrderRequest)
+     */
+    public Mono<OrderResponse> createOrder(final CreateOrderRequest orderRequest, final String idempotencyKey) {
+        final var flow = ReactorTracing.inSpan(tracer, "create-order-flow", span -> {
             logger.info("Creating order through gateway");
 
-            // Check inventory first
-            final var itemId = (String) orderRequest.get("itemId");
-            if (span != null) {
-                span.setAttribute("item.id", itemId);
-            }
+            // Check inventory
+            final var itemId = orderRequest.getItemId();
+            span.setAttribute("item.id", itemId);
 
-            final var inventoryCheck = webClient.get()
-                .uri(inventoryServiceUrl + "/api/inventory/" + itemId)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
+            final var inventoryCheck = inventoryCache.get(itemId, this::fetchInventory)
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Inventory check failed for item: {}", sanitizeForLog(itemId));
+                    return Mono.error(new IllegalStateException("Inventory check failed"));
+                }));
 
-            if (inventoryCheck == null) {
-                logger.warn("Inventory check failed for item: {}", sanitizeForLog(itemId));
-                throw new IllegalStateException("Inventory check failed");
-            }
+            // Create order once the check has passed, or alongside it when speculative
+            return speculativeExecutor.execute(inventoryCheck, postOrder(orderRequest, idempotencyKey),
+                    created -> cancelOrder(created.getId()))
+                .doOnSuccess(orderResponse -> {
+                    logger.info("Order created successfully");
+                    span.setAttribute("order.status", "success");
+                })
+                .doOnError(e -> {
+                    logger.error("Error creating order", e);
+                    span.setAttribute("order.status", "error");
+                });
+        });
+        return routeDeadlines.apply(Route.CREATE_ORDER, flow);
+    }
 
-            // Create order
-            final var orderResponse = (Map<String, Object>) webClient.post()
-                .uri(orderServiceUrl + "/api/orders")
-                .bodyValue(orderRequest)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
+    /**
+     * Creates orders for a batch of order lines.
+     *
+     * <p>Inventory is looked up once per distinct item ID, with at most
+     * {@code gateway.batch.concurrency} lookups in flight, before any order is
+     * created. Orders for lines whose inventory check passed are then created
+     * with the same concurrency bound. Each line succeeds or fails on its own;
+     * a single {@code create-order-batch} span covers the whole batch.</p>
+     *
+     * <p>Each line is expected to have been validated by the caller.</p>
+     *
+     * @param orderLines the order lines, each containing itemId and quantity
+     * @return a Mono emitting one result per line, in request order;
+     *         fails with {@link IllegalArgumentException} if the batch is empty or too large
+     */
+    public Mono<List<BatchOrderLineResult>> createOrders(final List<CreateOrderRequest> orderLines) {
+        return createOrders(orderLines, null);
+    }
 
-            logger.info("Order created successfully");
-            if (span != null) {
-                span.setAttribute("order.status", "success");
-            }
-            return orderResponse;
-        } catch (Exception e) {
-            logger.error("Error creating order", e);
-            if (span != null) {
-                span.setAttribute("order.status", "error");
-                span.recordException(e);
-            }
-            throw e;
-        } finally {
-            if (span != null) {
-                span.end();
-            }
+    /**
+     * Creates orders for a batch of order lines, under an idempotency key.
+     *
+     * <p>Each line is sent to the Order Service with a key derived from the
+     * batch key and the line's index, so retrying the batch with the same key
+     * creates no second order for a line that was already created.</p>
+     *
+     * @param orderLines the order lines, each containing itemId and quantity
+     * @param idempotencyKey the client's idempotency key for the batch, or {@code null} if it sent none
+     * @return a Mono emitting one result per line, in request order;
+     *         fails with {@link IllegalArgumentException} if the batch is empty or too large
+     * @see #createOrders(List)
+     */
+    public Mono<List<BatchOrderLineResult>> createOrders(final List<CreateOrderRequest> orderLines,
+                                                         final String idempotencyKey) {
+        if (orderLines == null || orderLines.isEmpty() || orderLines.size() > batchMaxLines) {
+            return Mono.error(new IllegalArgumentException(
+                "Batch must contain between 1 and " + batchMaxLines + " order lines"));
         }
+        final var batch = ReactorTracing.inSpan(tracer, "create-order-batch", span -> {
+            logger.info("Creating batch of {} orders through gateway", orderLines.size());
+
+            final var distinctItemIds = orderLines.stream()
+                .map(CreateOrderRequest::getItemId)
+                .distinct()
+                .toList();
+            span.setAttribute("batch.size", orderLines.size());
+            span.setAttribute("batch.distinct_items", distinctItemIds.size());
+
+            return Flux.fromIterable(distinctItemIds)
+                .flatMap(itemId -> lookupForBatch(itemId).map(outcome -> Map.entry(itemId, outcome)),
+                    batchConcurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMapMany(outcomes -> Flux.range(0, orderLines.size())
+                    .flatMapSequential(index -> createBatchLine(index, orderLines.get(index),
+                        idempotencyKey == null ? null : derivedKey(idempotencyKey, "line-" + index), outcomes),
+                        batchConcurrency))
+                .collectList()
+                .doOnSuccess(results -> {
+                    final var created = results.stream()
+                        .filter(result -> result.status() == BatchOrderLineResult.Status.CREATED)
+                        .count();
+                    logger.info("Batch processed: {} of {} orders created", created, results.size());
+                    span.setAttribute("batch.created", created);
+                    span.setAttribute("batch.failed", results.size() - created);
+                });
+        });
+        return routeDeadlines.apply(Route.CREATE_ORDER_BATCH, batch);
+    }
+
+    private Mono<InventoryOutcome> lookupForBatch(final String itemId) {
+        return inventoryCache.get(itemId, this::fetchInventory)
+            .map(inventory -> InventoryOutcome.AVAILABLE)
+            .defaultIfEmpty(InventoryOutcome.NOT_FOUND)
+            .onErrorResume(e -> {
+                logger.warn("Inventory lookup failed for item: {}", sanitizeForLog(itemId), e);
+                return Mono.just(InventoryOutcome.ERROR);
+            });
+    }
+
+    private Mono<BatchOrderLineResult> createBatchLine(final int index, final CreateOrderRequest line,
+                                                       final String idempotencyKey,
+                                                       final Map<String, InventoryOutcome> outcomes) {
+        return switch (outcomes.get(line.getItemId())) {
+            case NOT_FOUND -> Mono.just(BatchOrderLineResult.rejected(index, "Inventory check failed"));
+            case ERROR -> Mono.just(BatchOrderLineResult.failed(index, "Inventory check error"));
+            case AVAILABLE -> postOrder(line, idempotencyKey)
+                .map(order -> BatchOrderLineResult.created(index, order))
+                .onErrorResume(e -> {
+                    logger.error("Error creating order for batch line {}", index, e);
+                    return Mono.just(BatchOrderLineResult.failed(index, "Order creation failed"));
+                });
+        };
     }
 
     /**
-     * Retrieves all orders from the Order Service.
+     * Retrieves all orders from the Order Service as a raw byte stream.
+     *
+     * <p>The downstream body is neither decoded nor aggregated: each buffer
+     * received from the Order Service is handed on as-is, so gateway memory
+     * stays flat regardless of how many orders are returned. Because the body
+     * can only be consumed once, this call is not coalesced.</p>
      *
-     * @return list of all orders
+     * @return a Mono emitting the downstream response once its headers arrive,
+     *         with the body as an unconsumed stream of buffers; fails with
+     *         {@link WebClientResponseException} on an error status
      */
-    public Object getOrders() {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOrders() {
         logger.info("Fetching all orders");
-        return webClient.get()
+        return routeDeadlines.apply(Route.GET_ORDERS, order.guard().protect(order.client().get()
             .uri(orderServiceUrl + "/api/orders")
             .retrieve()
-            .bodyToMono(Object.class)
-            .block();
+            .toEntityFlux(DataBuffer.class)));
     }
 
     /**
      * Retrieves a specific order by its ID.
      *
      * @param id the order ID to retrieve
-     * @return the order details or null if not found
+     * @return a Mono emitting the order details, or empty if not found
      */
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> getOrder(final String id) {
+    public Mono<OrderResponse> getOrder(final String id) {
         logger.info("Fetching order: {}", sanitizeForLog(id));
-        return webClient.get()
-            .uri(orderServiceUrl + "/api/orders/" + id)
-            .retrieve()
-            .bodyToMono(Map.class)
-            .block();
+        return routeDeadlines.apply(Route.GET_ORDER,
+            coalescedGet(order, OrderResponse.class, orderServiceUrl + "/api/orders/{id}", id));
+    }
+
+    /**
+     * Retrieves an order together with the current inventory of its item.
+     *
+     * <p>The order is fetched first, then the inventory of its item, which is
+     * served from the {@link InventoryCache} when possible. A failed inventory
+     * lookup does not fail the request: the order is returned without
+     * inventory. Each downstream hop gets its own child span of the
+     * {@code get-order-details} span.</p>
+     *
+     * @param id the order ID to retrieve
+     * @return a Mono emitting the order details, or empty if the order was not found
+     */
+    public Mono<OrderDetails> getOrderDetails(final String id) {
+        logger.info("Fetching order details: {}", sanitizeForLog(id));
+        final var details = ReactorTracing.inSpan(tracer, "get-order-details", span -> {
+            span.setAttribute("order.id", id);
+            return fetchOrderDetails(id);
+        });
+        return routeDeadlines.apply(Route.GET_ORDER_DETAILS, details);
+    }
+
+    /**
+     * Retrieves the details of several orders.
+     *
+     * <p>Orders are fetched in parallel, with at most
+     * {@code gateway.order-details.concurrency} in flight, each as described
+     * for {@link #getOrderDetails(String)}. Duplicate IDs are fetched once.
+     * Each order is found, not found or failed on its own; a single
+     * {@code get-order-details-list} span covers the whole request.</p>
+     *
+     * @param ids the order IDs to retrieve
+     * @return a Mono emitting one result per distinct ID, in request order;
+     *         fails with {@link IllegalArgumentException} if no or too many IDs are given
+     */
+    public Mono<List<OrderDetailsResult>> getOrderDetails(final List<String> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > detailsMaxIds) {
+            return Mono.error(new IllegalArgumentException(
+                "Between 1 and " + detailsMaxIds + " order IDs must be given"));
+        }
+        final var details = ReactorTracing.inSpan(tracer, "get-order-details-list", span -> {
+            final var distinctIds = ids.stream().distinct().toList();
+            logger.info("Fetching details of {} orders", distinctIds.size());
+            span.setAttribute("orders.requested", distinctIds.size());
+
+            return Flux.fromIterable(distinctIds)
+                .flatMapSequential(id -> fetchOrderDetails(id)
+                    .map(orderDetails -> OrderDetailsResult.found(id, orderDetails))
+                    .defaultIfEmpty(OrderDetailsResult.notFound(id))
+                    .onErrorResume(e -> {
+                        logger.warn("Order lookup failed for order: {}", sanitizeForLog(id), e);
+                        return Mono.just(OrderDetailsResult.failed(id, "Order lookup failed"));
+                    }), detailsConcurrency)
+                .collectList()
+                .doOnSuccess(results -> span.setAttribute("orders.found", results.stream()
+                    .filter(result -> result.status() == OrderDetailsResult.Status.FOUND)
+                    .count()));
+        });
+        return routeDeadlines.apply(Route.GET_ORDER_DETAILS_LIST, details);
+    }
+
+    /**
+     * Fetches an order, then the inventory of its item, each hop in its own span.
+     *
+     * @param id the order ID
+     * @return a Mono emitting the order details, or empty if the order was not found
+     */
+    private Mono<OrderDetails> fetchOrderDetails(final String id) {
+        return ReactorTracing.inSpan(tracer, "fetch-order", span -> {
+                span.setAttribute("order.id", id);
+                return coalescedGet(order, OrderResponse.class, orderServiceUrl + "/api/orders/{id}", id)
+                    .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+            })
+            .flatMap(this::withInventory);
+    }
+
+    /**
+     * Adds the inventory of the ordered item to an order.
+     *
+     * <p>The {@code fetch-inventory} span records in {@code inventory.cache_hit}
+     * whether the inventory came from the cache or from the Inventory Service.</p>
+     *
+     * @param orderResponse the order
+     * @return a Mono emitting the order details; never fails except when the deadline runs out
+     */
+    private Mono<OrderDetails> withInventory(final OrderResponse orderResponse) {
+        final var itemId = orderResponse.getItemId();
+        return ReactorTracing.inSpan(tracer, "fetch-inventory", span -> {
+                span.setAttribute("item.id", itemId);
+                span.setAttribute("inventory.cache_hit", true);
+                return inventoryCache.get(itemId, id -> {
+                    span.setAttribute("inventory.cache_hit", false);
+                    return fetchInventory(id);
+                });
+            })
+            .map(inventoryResponse -> OrderDetails.of(orderResponse, inventoryResponse))
+            .defaultIfEmpty(OrderDetails.withoutInventory(orderResponse, "Item not found"))
+            .onErrorResume(e -> !(e instanceof DeadlineExceededException), e -> {
+                logger.warn("Inventory lookup failed for item: {}", sanitizeForLog(itemId), e);
+                return Mono.just(OrderDetails.withoutInventory(orderResponse, "Inventory unavailable"));
+            });
     }
 
     /**
      * Checks inventory availability for a specific item.
      *
+     * <p>Served from the {@link InventoryCache} when possible.</p>
+     *
      * @param itemId the item ID to check
-     * @return inventory information for the item
+     * @return a Mono emitting inventory information for the item, or empty if the item is unknown
      */
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> checkInventory(final String itemId) {
+    public Mono<InventoryResponse> checkInventory(final String itemId) {
         logger.info("Checking inventory for item: {}", sanitizeForLog(itemId));
-        return webClient.get()
-            .uri(inventoryServiceUrl + "/api/inventory/" + itemId)
-            .retrieve()
-            .bodyToMono(Map.class)
-            .block();
+        return routeDeadlines.apply(Route.CHECK_INVENTORY, inventoryCache.get(itemId, this::fetchInventory));
+    }
+
+    /**
+     * Checks inventory availability for several items.
+     *
+     * <p>Items in the {@link InventoryCache} are served from it; all others
+     * are fetched with a single bulk lookup from the Inventory Service, or
+     * with several concurrent ones if their URL would be longer than
+     * {@code gateway.inventory-lookup.max-url-length}. Duplicate IDs are
+     * checked once.</p>
+     *
+     * <p>The IDs are sent comma-separated, so IDs containing a comma are
+     * rejected rather than split into several lookups.</p>
+     *
+     * @param itemIds the item IDs to check
+     * @return a Mono emitting the inventory of each distinct known item, in request order;
+     *         fails with {@link IllegalArgumentException} if no or too many IDs are given, or one contains a comma
+     */
+    public Mono<List<InventoryResponse>> checkInventory(final List<String> itemIds) {
+        if (itemIds == null || itemIds.isEmpty() || itemIds.size() > inventoryLookupMaxIds) {
+            return Mono.error(new IllegalArgumentException(
+                "Between 1 and " + inventoryLookupMaxIds + " item IDs must be given"));
+        }
+        if (itemIds.stream().anyMatch(id -> id.indexOf(ID_SEPARATOR) >= 0)) {
+            return Mono.error(new IllegalArgumentException("Item IDs must not contain '" + ID_SEPARATOR + "'"));
+        }
+        final var distinctIds = itemIds.stream().distinct().toList();
+        logger.info("Checking inventory for {} items", distinctIds.size());
+        final var lookup = inventoryCache.getAll(distinctIds, this::fetchInventory)
+            .map(found -> distinctIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList());
+        return routeDeadlines.apply(Route.CHECK_INVENTORY_BATCH, lookup);
     }
 
     /**
-     * Processes alert webhooks from Alertmanager.
+     * Fetches inventory for an item from the Inventory Service, bypassing the cache.
      *
-     * @param alertPayload the alert payload from Alertmanager
+     * <p>The lookup is idempotent, so a slow attempt may be hedged by the
+     * {@link RequestHedger}; each attempt goes through the inventory guard.</p>
+     *
+     * @param itemId the item ID to fetch
+     * @return a Mono emitting the inventory, or empty if the service returned 404 or no body
      */
-    public void processAlertWebhook(final Map<String, Object> alertPayload) {
-        logger.info("Alert webhook received from Alertmanager");
+    private Mono<InventoryResponse> fetchInventory(final String itemId) {
+        final var uriTemplate = inventoryServiceUrl + "/api/inventory/{itemId}";
+        return requestCoalescer.execute(expand(uriTemplate, itemId), inventory.name(),
+                () -> requestHedger.execute(() -> get(inventory, InventoryResponse.class, uriTemplate, itemId)))
+            .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
 
-        final var alerts = alertPayload.get("alerts");
-        final var status = (String) alertPayload.get("status");
+    /**
+     * Fetches inventory for several items from the Inventory Service with as
+     * few bulk lookups as the URL length limit allows, bypassing the cache.
+     *
+     * <p>Unlike single lookups, bulk lookups are not hedged: their latency
+     * grows with the number of items and would skew the hedging threshold.</p>
+     *
+     * @param itemIds the distinct item IDs to fetch
+     * @return a Mono emitting the inventory of each item returned, keyed by item ID
+     */
+    private Mono<Map<String, InventoryResponse>> fetchInventory(final List<String> itemIds) {
+        final var uriTemplate = inventoryServiceUrl + "/api/inventory?ids={ids}";
+        return Flux.fromIterable(splitByUrlLength(uriTemplate, itemIds))
+            .flatMap(chunk -> coalescedGet(inventory, InventoryResponse[].class, uriTemplate,
+                String.join(ID_SEPARATOR, chunk)))
+            .collect(HashMap::new, (byId, items) -> {
+                for (final var item : items) {
+                    byId.put(item.getItemId(), item);
+                }
+            });
+    }
 
-        if (alerts != null) {
-            logger.info("Alert status: {}, number of alerts: {}",
-                sanitizeForLog(status),
-                alerts instanceof List ? ((List<?>) alerts).size() : 1);
+    /**
+     * Splits the IDs of a bulk lookup into consecutive chunks whose lookup
+     * URL stays within {@code gateway.inventory-lookup.max-url-length}, as
+     * long as each ID fits on its own.
+     *
+     * @param uriTemplate the lookup URI template, with the IDs in its only variable
+     * @param itemIds the item IDs to look up
+     * @return the IDs of each lookup, in order
+     */
+    private List<List<String>> splitByUrlLength(final String uriTemplate, final List<String> itemIds) {
+        final var baseLength = expand(uriTemplate, "").length();
+        final var separatorLength = UriUtils.encode(ID_SEPARATOR, StandardCharsets.UTF_8).length();
+        final var chunks = new ArrayList<List<String>>();
+        var chunk = new ArrayList<String>();
+        var length = baseLength;
+        for (final var itemId : itemIds) {
+            final var idLength = UriUtils.encode(itemId, StandardCharsets.UTF_8).length();
+            if (!chunk.isEmpty() && length + separatorLength + idLength > inventoryLookupMaxUrlLength) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                length = baseLength;
+            }
+            length += (chunk.isEmpty() ? 0 : separatorLength) + idLength;
+            chunk.add(itemId);
         }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * Sends synthetic lookups to both downstreams to warm up the gateway before it takes traffic.
+     *
+     * <p>Up to {@code connections} lookups per downstream are in flight at
+     * once, so that many pooled connections are opened, and {@code requests}
+     * lookups are sent in total, so the request, guard and decoding paths are
+     * compiled before real requests arrive. The lookups bypass the cache,
+     * coalescing and hedging. Failed lookups are ignored: warming up is best
+     * effort, and a downstream that is not up yet is handled by its guard.</p>
+     *
+     * @param requests the number of lookups sent to each downstream
+     * @param connections the number of lookups in flight per downstream
+     * @return a Mono completing once all lookups have finished
+     */
+    public Mono<Void> warmUp(final int requests, final int connections) {
+        return Mono.when(
+            warmUp(requests, connections, i -> get(inventory, InventoryResponse.class,
+                inventoryServiceUrl + "/api/inventory/{itemId}", WARM_UP_ID_PREFIX + i)),
+            warmUp(requests, connections, i -> get(order, OrderResponse.class,
+                orderServiceUrl + "/api/orders/{id}", WARM_UP_ID_PREFIX + i)));
+    }
+
+    private static Mono<Void> warmUp(final int requests, final int connections,
+                                     final IntFunction<Mono<?>> lookup) {
+        return Flux.range(0, requests)
+            .flatMap(i -> lookup.apply(i).onErrorResume(e -> Mono.empty()), Math.max(connections, 1))
+            .then();
+    }
 
-        // Log sanitized payload summary for debugging (avoid logging raw user-controlled data)
-        if (logger.isDebugEnabled()) {
-            logger.debug("Alert payload received with {} keys", alertPayload.size());
+    /**
+     * Creates an order in the Order Service.
+     *
+     * <p>An idempotency key is sent as the {@value IdempotencyStore#HEADER}
+     * header. If the Order Service answers it with an order that has since
+     * been cancelled, i.e. one created speculatively by an earlier attempt and
+     * compensated when its inventory check failed, the order is created again
+     * under a key derived from the cancelled order, so that a retry which now
+     * passes the check does not get the cancelled order back.</p>
+     *
+     * @param orderRequest the order request containing itemId and quantity
+     * @param idempotencyKey the idempotency key to send, or {@code null} for none
+     * @return a Mono emitting the created order
+     */
+    private Mono<OrderResponse> postOrder(final CreateOrderRequest orderRequest, final String idempotencyKey) {
+        final var post = order.client().post()
+            .uri(orderServiceUrl + "/api/orders");
+        if (idempotencyKey != null) {
+            post.header(IdempotencyStore.HEADER, idempotencyKey);
         }
+        return order.guard().protect(post
+                .bodyValue(orderRequest)
+                .retrieve()
+                .bodyToMono(OrderResponse.class))
+            .flatMap(created -> idempotencyKey != null && created.getStatus() == OrderResponse.StatusEnum.CANCELLED
+                ? postOrder(orderRequest, derivedKey(idempotencyKey, created.getId()))
+                : Mono.just(created));
+    }
+
+    /**
+     * Derives a downstream idempotency key from a client's key.
+     *
+     * <p>The result is a name-based UUID, so it is the same for every retry and
+     * always short enough to be a valid key, however long the client's key is.</p>
+     *
+     * @param idempotencyKey the client's idempotency key
+     * @param qualifier what the derived key stands for, e.g. one line of a batch
+     * @return the derived key
+     */
+    private static String derivedKey(final String idempotencyKey, final String qualifier) {
+        return UUID.nameUUIDFromBytes((idempotencyKey + ":" + qualifier).getBytes(StandardCharsets.UTF_8))
+            .toString();
+    }
+
+    /**
+     * Cancels an order in the Order Service, compensating a speculative creation.
+     *
+     * <p>The call bypasses the order downstream's guard: an order that is
+     * left uncancelled costs more than one more call to a struggling Order
+     * Service, and the {@link SpeculativeExecutor} retries it with backoff.
+     * It is made outside of the request's Reactor context, so no deadline is
+     * propagated with it.</p>
+     *
+     * @param id the ID of the order to cancel
+     * @return a Mono completing once the order is cancelled
+     */
+    private Mono<Void> cancelOrder(final String id) {
+        logger.info("Cancelling speculatively created order: {}", sanitizeForLog(id));
+        return order.client().post()
+            .uri(orderServiceUrl + "/api/orders/{id}/cancel", id)
+            .retrieve()
+            .toBodilessEntity()
+            .then();
+    }
+
+    /**
+     * Performs a guarded downstream GET, sharing the call with any identical GET already in flight.
+     *
+     * @param downstream the downstream being called
+     * @param type the response body type
+     * @param uriTemplate the downstream URI template
+     * @param uriVariables the values expanded into the template
+     * @param <T> the response body type
+     * @return a Mono emitting the decoded response body
+     */
+    private <T> Mono<T> coalescedGet(final Downstream downstream, final Class<T> type,
+                                     final String uriTemplate, final Object... uriVariables) {
+        return requestCoalescer.execute(expand(uriTemplate, uriVariables), downstream.name(),
+            () -> get(downstream, type, uriTemplate, uriVariables));
+    }
+
+    /**
+     * Performs a single guarded downstream GET.
+     *
+     * <p>The URI is passed to the WebClient as a template, so client metrics are
+     * tagged with the template (e.g. {@code /api/inventory/{itemId}}) rather than
+     * with one {@code uri} value per ID.</p>
+     *
+     * @param downstream the downstream being called
+     * @param type the response body type
+     * @param uriTemplate the downstream URI template
+     * @param uriVariables the values expanded into the template
+     * @param <T> the response body type
+     * @return a Mono emitting the decoded response body
+     */
+    private <T> Mono<T> get(final Downstream downstream, final Class<T> type,
+                            final String uriTemplate, final Object... uriVariables) {
+        return downstream.guard().protect(downstream.client().get()
+            .uri(uriTemplate, uriVariables)
+            .retrieve()
+            .bodyToMono(type));
+    }
+
+    /**
+     * Expands a URI template, e.g. to key the {@link RequestCoalescer} by the actual request URL.
+     *
+     * @param uriTemplate the URI template
+     * @param uriVariables the values expanded into the template
+     * @return the encoded URL
+     */
+    private static String expand(final String uriTemplate, final Object... uriVariables) {
+        return UriComponentsBuilder.fromUriString(uriTemplate).encode().buildAndExpand(uriVariables).toUriString();
+    }
+
+    /**
+     * Name, WebClient, on the downstream's own connection pool, and guard of one downstream service.
+     */
+    private record Downstream(String name, WebClient client, DownstreamGuard guard) {
+    }
+
+    /**
+     * Result of the inventory pre-check for one distinct item of a batch.
+     */
+    private enum InventoryOutcome {
+        AVAILABLE,
+        NOT_FOUND,
+        ERROR
     }
 }
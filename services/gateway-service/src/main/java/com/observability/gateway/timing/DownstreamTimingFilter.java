@@ -0,0 +1,49 @@
+package com.observability.gateway.timing;
+
+import com.observability.commons.timing.ServerTiming;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient filter that times each call to one downstream service and
+ * merges the downstream's own {@value ServerTiming#HEADER} header into the
+ * current request's {@link RequestTiming}.
+ *
+ * <p>The timing is read from the Reactor context, where
+ * {@link ServerTimingWebFilter} puts it. A call is timed until its response
+ * headers arrive, or until it fails or is cancelled. Calls made outside a
+ * timed request are passed through unchanged.</p>
+ *
+ * @since 1.0.0
+ */
+public class DownstreamTimingFilter implements ExchangeFilterFunction {
+
+    private final String downstream;
+
+    /**
+     * Constructs a new DownstreamTimingFilter.
+     *
+     * @param downstream the downstream service name, e.g. {@code inventory}
+     */
+    public DownstreamTimingFilter(final String downstream) {
+        this.downstream = downstream;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            final RequestTiming timing = context.getOrDefault(RequestTiming.class, null);
+            if (timing == null) {
+                return next.exchange(request);
+            }
+            final var call = timing.startCall(downstream, System.nanoTime());
+            return next.exchange(request)
+                .doOnNext(response -> call.finish(
+                    response.headers().asHttpHeaders().getFirst(ServerTiming.HEADER), System.nanoTime()))
+                .doFinally(signal -> call.finish(null, System.nanoTime()));
+        });
+    }
+}
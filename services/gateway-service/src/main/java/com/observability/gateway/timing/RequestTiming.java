@@ -0,0 +1,94 @@
+package com.observability.gateway.timing;
+
+import com.observability.commons.timing.ServerTiming;
+
+/**
+ * Latency breakdown of one gateway request: the time spent in each
+ * downstream call, the timings the downstreams report themselves, and the
+ * gateway's own overhead.
+ *
+ * <p>Downstream calls of a request may overlap, e.g. in a batch. The
+ * overhead is therefore the time during which no downstream call was in
+ * flight, rather than the total minus the sum of the calls. Instances are
+ * thread-safe, as a request's calls complete on different event-loop
+ * threads.</p>
+ *
+ * @since 1.0.0
+ */
+public final class RequestTiming {
+
+    /**
+     * A downstream call in flight.
+     */
+    public interface Call {
+
+        /**
+         * Records the end of the call; further calls have no effect.
+         *
+         * @param downstreamHeader the downstream's {@value ServerTiming#HEADER} header, or {@code null}
+         * @param end the current time, from {@link System#nanoTime()}
+         */
+        void finish(String downstreamHeader, long end);
+    }
+
+    private final ServerTiming timing = new ServerTiming();
+    private final long start;
+
+    private int inFlight;
+    private long busySince;
+    private long busyNanos;
+
+    /**
+     * Constructs a new RequestTiming.
+     *
+     * @param start when the request started, from {@link System#nanoTime()}
+     */
+    public RequestTiming(final long start) {
+        this.start = start;
+    }
+
+    /**
+     * Records the start of a downstream call.
+     *
+     * @param downstream the downstream service name, used as the metric name
+     * @param now the current time, from {@link System#nanoTime()}
+     * @return the call, to be finished when its response arrives or it fails
+     */
+    public synchronized Call startCall(final String downstream, final long now) {
+        if (inFlight++ == 0) {
+            busySince = now;
+        }
+        return new Call() {
+            private boolean finished;
+
+            @Override
+            public void finish(final String downstreamHeader, final long end) {
+                synchronized (RequestTiming.this) {
+                    if (finished) {
+                        return;
+                    }
+                    finished = true;
+                    timing.add(downstream, end - now);
+                    timing.merge(downstream, downstreamHeader);
+                    if (--inFlight == 0) {
+                        busyNanos += end - busySince;
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Completes the breakdown with the gateway's overhead and the total time.
+     *
+     * @param now the current time, from {@link System#nanoTime()}
+     * @return the {@value ServerTiming#HEADER} header value
+     */
+    public synchronized String finish(final long now) {
+        final var busy = busyNanos + (inFlight > 0 ? now - busySince : 0);
+        final var total = now - start;
+        timing.add("gateway", total - busy);
+        timing.add("total", total);
+        return timing.toHeaderValue();
+    }
+}
@@ -0,0 +1,60 @@
+package com.observability.gateway.timing;
+
+import com.observability.commons.timing.ServerTiming;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Returns the latency breakdown of each gateway request in the
+ * {@value ServerTiming#HEADER} response header, e.g.
+ * {@code inventory;dur=41.2, inventory.chaos;dur=35.0, inventory.db;dur=2.1,
+ * inventory.total;dur=38.4, order;dur=12.9, order.db;dur=6.3,
+ * order.total;dur=9.8, gateway;dur=3.1, total;dur=57.2}.
+ *
+ * <p>Each downstream's metric is the time the gateway waited for it, and
+ * the prefixed metrics are what the downstream reported about itself, so
+ * the difference between {@code inventory} and {@code inventory.total} is
+ * time spent on the network. {@code gateway} is the time no downstream call
+ * was in flight, including rate limiting and admission queueing.</p>
+ *
+ * <p>Runs before rate limiting and admission control. Setting
+ * {@code gateway.server-timing.enabled=false} leaves the header out.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class ServerTimingWebFilter implements WebFilter, Ordered {
+
+    private final boolean enabled;
+
+    /**
+     * Constructs a new ServerTimingWebFilter.
+     *
+     * @param enabled whether the {@value ServerTiming#HEADER} header is returned
+     */
+    public ServerTimingWebFilter(@Value("${gateway.server-timing.enabled:true}") final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        final var timing = new RequestTiming(System.nanoTime());
+        final var response = exchange.getResponse();
+        response.beforeCommit(() -> Mono.fromRunnable(() ->
+            response.getHeaders().set(ServerTiming.HEADER, timing.finish(System.nanoTime()))));
+        return chain.filter(exchange).contextWrite(context -> context.put(RequestTiming.class, timing));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+}
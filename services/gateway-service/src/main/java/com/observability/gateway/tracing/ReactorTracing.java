@@ -0,0 +1,78 @@
+package com.observability.gateway.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Utility class for carrying OpenTelemetry spans through Reactor pipelines.
+ *
+ * <p>Reactive pipelines hop between threads, so the thread-local
+ * {@link Context#current()} cannot be relied upon to find the active span.
+ * Instead, the active OpenTelemetry {@link Context} is stored in the Reactor
+ * subscriber context under {@link #CONTEXT_KEY} and child spans are parented
+ * from there.</p>
+ *
+ * @since 1.0.0
+ */
+public final class ReactorTracing {
+
+    /**
+     * Reactor context key holding the active OpenTelemetry context.
+     */
+    public static final Class<Context> CONTEXT_KEY = Context.class;
+
+    private ReactorTracing() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Returns the OpenTelemetry context stored in the given Reactor context view.
+     *
+     * @param view the Reactor context view of the current subscriber
+     * @return the stored OpenTelemetry context, or the root context if none is present
+     */
+    public static Context otelContext(final ContextView view) {
+        return view.getOrDefault(CONTEXT_KEY, Context.root());
+    }
+
+    /**
+     * Runs the given publisher inside a new span.
+     *
+     * <p>The span is parented from the OpenTelemetry context found in the
+     * Reactor context, made available to downstream operators through the
+     * Reactor context, records any error signal and is ended on completion,
+     * error or cancellation. When no tracer is configured the body receives
+     * the invalid (no-op) span.</p>
+     *
+     * @param tracer the tracer to create the span with, may be {@code null}
+     * @param spanName the name of the span
+     * @param body function producing the traced publisher from the started span
+     * @param <T> the element type
+     * @return a Mono running {@code body} within the span
+     */
+    public static <T> Mono<T> inSpan(final Tracer tracer, final String spanName,
+                                     final Function<Span, Mono<T>> body) {
+        if (tracer == null) {
+            return Mono.defer(() -> body.apply(Span.getInvalid()));
+        }
+        return Mono.deferContextual(view -> {
+            final var parent = otelContext(view);
+            final var span = tracer.spanBuilder(spanName).setParent(parent).startSpan();
+            Mono<T> traced;
+            try {
+                traced = body.apply(span);
+            } catch (RuntimeException e) {
+                traced = Mono.error(e);
+            }
+            return traced
+                .doOnError(span::recordException)
+                .doFinally(signal -> span.end())
+                .contextWrite(ctx -> ctx.put(CONTEXT_KEY, parent.with(span)));
+        });
+    }
+}
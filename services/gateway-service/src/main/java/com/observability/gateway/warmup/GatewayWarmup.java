@@ -0,0 +1,159 @@
+package com.observability.gateway.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.observability.gateway.model.inventory.InventoryResponse;
+import com.observability.gateway.model.order.CreateOrderRequest;
+import com.observability.gateway.model.order.OrderResponse;
+import com.observability.gateway.service.GatewayService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Warms up the gateway after startup, before it reports itself ready.
+ *
+ * <p>Right after a deploy, the first requests would otherwise wait for
+ * connections to the downstream services to be opened and run through code
+ * that has not been compiled yet, showing up as p99 spikes. Once the
+ * application has started, the warm-up opens
+ * {@code gateway.warmup.connections} pooled connections per downstream and
+ * sends {@code gateway.warmup.requests} synthetic lookups to each (see
+ * {@link GatewayService#warmUp(int, int)}). It also runs the order and
+ * inventory models through the JSON mapper the same number of times.</p>
+ *
+ * <p>The {@code warmup} health indicator, part of the readiness group, stays
+ * DOWN until the warm-up has finished or given up after
+ * {@code gateway.warmup.timeout}. Its duration is recorded in
+ * {@code gateway_warmup_duration_seconds} by {@code outcome}
+ * ({@code completed}, {@code timed_out} or {@code failed}). Setting
+ * {@code gateway.warmup.enabled=false} skips it.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class GatewayWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayWarmup.class);
+    private static final String ORDER_JSON = "{\"id\":\"warmup\",\"itemId\":\"warmup\",\"quantity\":1,"
+        + "\"status\":\"PENDING\",\"createdAt\":\"2024-01-01T00:00:00Z\"}";
+    private static final String INVENTORY_JSON =
+        "{\"itemId\":\"warmup\",\"name\":\"Warm-up\",\"quantity\":1,\"available\":true}";
+
+    private final GatewayService gatewayService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int requests;
+    private final int connections;
+    private final Duration timeout;
+
+    private volatile boolean complete;
+
+    /**
+     * Constructs a new GatewayWarmup.
+     *
+     * @param gatewayService the gateway service sending the synthetic lookups
+     * @param objectMapper the JSON mapper used for request and response bodies
+     * @param meterRegistry the Micrometer registry for the warm-up duration
+     * @param enabled whether to warm up before reporting ready
+     * @param requests the number of synthetic lookups per downstream
+     * @param connections the number of pooled connections opened per downstream
+     * @param timeout the longest the warm-up may take before the gateway reports ready anyway
+     */
+    public GatewayWarmup(
+            final GatewayService gatewayService,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry,
+            @Value("${gateway.warmup.enabled:true}") final boolean enabled,
+            @Value("${gateway.warmup.requests:200}") final int requests,
+            @Value("${gateway.warmup.connections:10}") final int connections,
+            @Value("${gateway.warmup.timeout:30s}") final Duration timeout) {
+        this.gatewayService = gatewayService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.requests = requests;
+        this.connections = connections;
+        this.timeout = timeout;
+        this.complete = !enabled;
+    }
+
+    /**
+     * Starts the warm-up once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        run().subscribe();
+    }
+
+    /**
+     * Returns whether the warm-up has finished, or was not needed.
+     *
+     * @return {@code true} once the gateway may report itself ready
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Runs the warm-up.
+     *
+     * @return a Mono completing once the warm-up has finished, successfully or not
+     */
+    Mono<Void> run() {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            logger.info("Warming up: {} requests over {} connections per downstream", requests, connections);
+            final var start = System.nanoTime();
+            return Mono.fromRunnable(this::warmUpSerialization)
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(gatewayService.warmUp(requests, connections))
+                .timeout(timeout)
+                .then(Mono.just("completed"))
+                .onErrorResume(e -> {
+                    logger.warn("Warm-up did not finish, reporting ready anyway", e);
+                    return Mono.just(e instanceof TimeoutException ? "timed_out" : "failed");
+                })
+                .doOnNext(outcome -> {
+                    final var elapsed = System.nanoTime() - start;
+                    Timer.builder("gateway_warmup_duration")
+                        .description("Time the gateway spent warming up before reporting ready")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+                    logger.info("Warm-up {} in {} ms", outcome.replace('_', ' '),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed));
+                    complete = true;
+                })
+                .doFinally(signal -> complete = true)
+                .then();
+        });
+    }
+
+    private void warmUpSerialization() {
+        try {
+            for (var i = 0; i < requests; i++) {
+                objectMapper.writeValueAsBytes(new CreateOrderRequest("warmup", 1));
+                objectMapper.writeValueAsBytes(objectMapper.readValue(ORDER_JSON, OrderResponse.class));
+                objectMapper.writeValueAsBytes(objectMapper.readValue(INVENTORY_JSON, InventoryResponse.class));
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.observability.gateway.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports DOWN while the {@link GatewayWarmup} is still running.
+ *
+ * <p>Included in the readiness group, so load balancers and Kubernetes only
+ * route traffic to the gateway once it has warmed up.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final GatewayWarmup warmup;
+
+    /**
+     * Constructs a new WarmupHealthIndicator.
+     *
+     * @param warmup the warm-up whose progress is reported
+     */
+    public WarmupHealthIndicator(final GatewayWarmup warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        return warmup.isComplete()
+            ? Health.up().build()
+            : Health.down().withDetail("reason", "Warm-up in progress").build();
+    }
+}
@@ -1,18 +1,46 @@
 package com.observability.gateway;
 
+import com.observability.commons.deadline.DeadlineExceededException;
+import com.observability.commons.idempotency.IdempotencyStore;
+import com.observability.gateway.alert.Alert;
+import com.observability.gateway.alert.AlertIngestor;
+import com.observability.gateway.model.BatchOrderLineResult;
+import com.observability.gateway.model.BatchOrderResponse;
+import com.observability.gateway.model.OrderDetails;
+import com.observability.gateway.model.OrderDetailsResult;
+import com.observability.gateway.model.inventory.InventoryResponse;
+import com.observability.gateway.model.order.CreateOrderRequest;
+import com.observability.gateway.model.order.OrderResponse;
+import com.observability.gateway.resilience.DownstreamUnavailableException;
 import com.observability.gateway.service.GatewayService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
-
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -23,11 +51,17 @@ class GatewayControllerUnitTest {
     @Mock
     private GatewayService gatewayService;
 
+    @Mock
+    private AlertIngestor alertIngestor;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     private GatewayController gatewayController;
 
     @BeforeEach
     void setUp() {
-        gatewayController = new GatewayController(gatewayService);
+        gatewayController = new GatewayController(gatewayService, validator,
+            new IdempotencyStore<>(new SimpleMeterRegistry(), 100, Duration.ofHours(1)), alertIngestor);
     }
 
     @Test
@@ -43,37 +77,50 @@ class GatewayControllerUnitTest {
     @Test
     void createOrderReturnsCreatedOnSuccess() {
         // Arrange
-        var orderRequest = new HashMap<String, Object>();
-        orderRequest.put("itemId", "item123");
-        orderRequest.put("quantity", 5);
+        var orderRequest = new CreateOrderRequest("item123", 5);
 
-        var orderResponse = new HashMap<String, Object>();
-        orderResponse.put("id", "order123");
-        orderResponse.put("itemId", "item123");
-        orderResponse.put("quantity", 5);
-        orderResponse.put("status", "PENDING");
+        var orderResponse = new OrderResponse()
+            .id("order123")
+            .itemId("item123")
+            .quantity(5)
+            .status(OrderResponse.StatusEnum.PENDING);
 
-        when(gatewayService.createOrder(anyMap())).thenReturn(orderResponse);
+        when(gatewayService.createOrder(any(CreateOrderRequest.class))).thenReturn(Mono.just(orderResponse));
 
         // Act
-        var response = gatewayController.createOrder(orderRequest);
+        var response = gatewayController.createOrder(null, orderRequest).block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         verify(gatewayService).createOrder(orderRequest);
     }
 
+    @Test
+    void createOrderRejectsInvalidRequestWithoutCallingDownstream() {
+        // Act & Assert
+        var missingItem = gatewayController.createOrder(null, new CreateOrderRequest(null, 5)).block();
+        assertThat(missingItem.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(missingItem.getBody()).isEqualTo(Map.of("error", "itemId must not be null"));
+
+        var quantityTooLow = gatewayController.createOrder(null, new CreateOrderRequest("item123", 0)).block();
+        assertThat(quantityTooLow.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        var quantityTooHigh = gatewayController.createOrder(null, new CreateOrderRequest("item123", 10001)).block();
+        assertThat(quantityTooHigh.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        assertThat(gatewayController.createOrder(null, null).block().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(gatewayService, never()).createOrder(any());
+    }
+
     @Test
     void createOrderReturnsBadRequestOnInventoryFailure() {
         // Arrange
-        var orderRequest = new HashMap<String, Object>();
-        orderRequest.put("itemId", "item123");
-        orderRequest.put("quantity", 5);
+        var orderRequest = new CreateOrderRequest("item123", 5);
 
-        when(gatewayService.createOrder(anyMap())).thenThrow(new IllegalStateException("Inventory check failed"));
+        when(gatewayService.createOrder(any(CreateOrderRequest.class))).thenReturn(Mono.error(new IllegalStateException("Inventory check failed")));
 
         // Act
-        var response = gatewayController.createOrder(orderRequest);
+        var response = gatewayController.createOrder(null, orderRequest).block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -82,59 +129,283 @@ class GatewayControllerUnitTest {
     @Test
     void createOrderReturnsInternalErrorOnException() {
         // Arrange
-        var orderRequest = new HashMap<String, Object>();
-        orderRequest.put("itemId", "item123");
-        orderRequest.put("quantity", 5);
+        var orderRequest = new CreateOrderRequest("item123", 5);
 
-        when(gatewayService.createOrder(anyMap())).thenThrow(new RuntimeException("Database error"));
+        when(gatewayService.createOrder(any(CreateOrderRequest.class))).thenReturn(Mono.error(new RuntimeException("Database error")));
 
         // Act
-        var response = gatewayController.createOrder(orderRequest);
+        var response = gatewayController.createOrder(null, orderRequest).block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @Test
+    void createOrderReturnsServiceUnavailableWhenDownstreamRejectsCall() {
+        // Arrange
+        when(gatewayService.createOrder(any(CreateOrderRequest.class)))
+            .thenReturn(Mono.error(new DownstreamUnavailableException("inventory", "concurrency limit reached")));
+
+        // Act
+        var response = gatewayController.createOrder(null, new CreateOrderRequest("item123", 5)).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getBody())
+            .isEqualTo(Map.of("error", "inventory service unavailable: concurrency limit reached"));
+    }
+
+    @Test
+    void createOrderReturnsGatewayTimeoutWhenDeadlineExceeded() {
+        // Arrange
+        when(gatewayService.createOrder(any(CreateOrderRequest.class)))
+            .thenReturn(Mono.error(new DeadlineExceededException("create-order exceeded its 3000ms deadline")));
+
+        // Act
+        var response = gatewayController.createOrder(null, new CreateOrderRequest("item123", 5)).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(response.getBody()).isEqualTo(Map.of("error", "Deadline exceeded"));
+    }
+
+    @Test
+    void createOrderWithRepeatedIdempotencyKeyReturnsOriginalOrder() {
+        // Arrange
+        var orderRequest = new CreateOrderRequest("item123", 5);
+        when(gatewayService.createOrder(orderRequest, "key-1")).thenReturn(Mono.just(new OrderResponse().id("order1")));
+        gatewayController.createOrder("key-1", orderRequest).block();
+
+        // Act
+        var response = gatewayController.createOrder("key-1", new CreateOrderRequest("item123", 5)).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(((OrderResponse) response.getBody()).getId()).isEqualTo("order1");
+        verify(gatewayService, times(1)).createOrder(any(), any());
+    }
+
+    @Test
+    void concurrentRequestWithSameIdempotencyKeyWaitsForFirst() {
+        // Arrange
+        var orderRequest = new CreateOrderRequest("item123", 5);
+        Sinks.One<OrderResponse> created = Sinks.one();
+        when(gatewayService.createOrder(orderRequest, "key-1")).thenReturn(created.asMono());
+        var first = gatewayController.createOrder("key-1", orderRequest).toFuture();
+        var retry = gatewayController.createOrder("key-1", orderRequest).toFuture();
+
+        // Act
+        created.tryEmitValue(new OrderResponse().id("order1"));
+
+        // Assert
+        assertThat(first.join().getBody()).isEqualTo(retry.join().getBody());
+        assertThat(retry.join().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verify(gatewayService, times(1)).createOrder(any(), any());
+    }
+
+    @Test
+    void createOrderRetriesIdempotencyKeyAfterFailure() {
+        // Arrange
+        var orderRequest = new CreateOrderRequest("item123", 5);
+        when(gatewayService.createOrder(orderRequest, "key-1"))
+            .thenReturn(Mono.error(new DeadlineExceededException("create-order exceeded its 3000ms deadline")))
+            .thenReturn(Mono.just(new OrderResponse().id("order1")));
+        var timedOut = gatewayController.createOrder("key-1", orderRequest).block();
+
+        // Act
+        var response = gatewayController.createOrder("key-1", orderRequest).block();
+
+        // Assert
+        assertThat(timedOut.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verify(gatewayService, times(2)).createOrder(any(), any());
+    }
+
+    @Test
+    void createOrderWithIdempotencyKeyReusedForDifferentOrderReturnsUnprocessableEntity() {
+        // Arrange
+        when(gatewayService.createOrder(any(CreateOrderRequest.class), eq("key-1")))
+            .thenReturn(Mono.just(new OrderResponse().id("order1")));
+        gatewayController.createOrder("key-1", new CreateOrderRequest("item123", 5)).block();
+
+        // Act
+        var response = gatewayController.createOrder("key-1", new CreateOrderRequest("item123", 6)).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        verify(gatewayService, times(1)).createOrder(any(), any());
+    }
+
+    @Test
+    void createOrderWithOverlongIdempotencyKeyReturnsBadRequest() {
+        // Act
+        var response = gatewayController.createOrder("k".repeat(256), new CreateOrderRequest("item123", 5)).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(gatewayService, never()).createOrder(any(), any());
+    }
+
+    @Test
+    void createOrdersReturnsCreatedWhenAllLinesSucceed() {
+        // Arrange
+        var lines = List.of(new CreateOrderRequest("item1", 1));
+        when(gatewayService.createOrders(lines, null)).thenReturn(Mono.just(List.of(
+            BatchOrderLineResult.created(0, new OrderResponse().id("order1")))));
+
+        // Act
+        var response = gatewayController.createOrders(null, lines).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody()).isInstanceOf(BatchOrderResponse.class);
+        assertThat(((BatchOrderResponse) response.getBody()).created()).isEqualTo(1);
+    }
+
+    @Test
+    void createOrdersReturnsMultiStatusOnPartialFailure() {
+        // Arrange
+        var lines = List.of(new CreateOrderRequest("item1", 1), new CreateOrderRequest("item2", 1));
+        when(gatewayService.createOrders(lines, null)).thenReturn(Mono.just(List.of(
+            BatchOrderLineResult.created(0, new OrderResponse().id("order1")),
+            BatchOrderLineResult.rejected(1, "Inventory check failed"))));
+
+        // Act
+        var response = gatewayController.createOrders(null, lines).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        var body = (BatchOrderResponse) response.getBody();
+        assertThat(body.created()).isEqualTo(1);
+        assertThat(body.failed()).isEqualTo(1);
+    }
+
+    @Test
+    void createOrdersReturnsBadRequestForInvalidBatch() {
+        // Arrange
+        when(gatewayService.createOrders(List.of(), null))
+            .thenReturn(Mono.error(new IllegalArgumentException("Batch must contain between 1 and 100 order lines")));
+
+        // Act
+        var response = gatewayController.createOrders(null, List.of()).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void createOrdersRejectsBatchWithInvalidLineWithoutCallingDownstream() {
+        // Arrange
+        var lines = List.of(new CreateOrderRequest("item1", 1), new CreateOrderRequest("item2", -1));
+
+        // Act
+        var response = gatewayController.createOrders(null, lines).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo(Map.of("error", "Line 1: quantity must be greater than or equal to 1"));
+        verify(gatewayService, never()).createOrders(any(), any());
+    }
+
+    @Test
+    void createOrdersPassesIdempotencyKeyToService() {
+        // Arrange
+        var lines = List.of(new CreateOrderRequest("item1", 1));
+        when(gatewayService.createOrders(lines, "key-1")).thenReturn(Mono.just(List.of(
+            BatchOrderLineResult.created(0, new OrderResponse().id("order1")))));
+
+        // Act
+        var response = gatewayController.createOrders("key-1", lines).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verify(gatewayService).createOrders(lines, "key-1");
+    }
+
+    @Test
+    void createOrdersWithOverlongIdempotencyKeyReturnsBadRequest() {
+        // Act
+        var response = gatewayController.createOrders("k".repeat(256), List.of(new CreateOrderRequest("item1", 1)))
+            .block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(gatewayService, never()).createOrders(any(), any());
+    }
+
     @Test
     void getOrdersReturnsOrderList() {
         // Arrange
-        var orders = List.of(
-            Map.of("id", "order1", "itemId", "item1"),
-            Map.of("id", "order2", "itemId", "item2")
-        );
-        when(gatewayService.getOrders()).thenReturn(orders);
+        var body = Flux.<DataBuffer>just(
+            DefaultDataBufferFactory.sharedInstance.wrap("[{\"id\":\"order1\"},".getBytes(StandardCharsets.UTF_8)),
+            DefaultDataBufferFactory.sharedInstance.wrap("{\"id\":\"order2\"}]".getBytes(StandardCharsets.UTF_8)));
+        when(gatewayService.getOrders()).thenReturn(Mono.just(ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body)));
 
         // Act
-        var response = gatewayController.getOrders();
+        var response = gatewayController.getOrders().block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getBody()).isSameAs(body);
         verify(gatewayService).getOrders();
     }
 
     @Test
     void getOrdersReturnsInternalErrorOnException() {
         // Arrange
-        when(gatewayService.getOrders()).thenThrow(new RuntimeException("Database error"));
+        when(gatewayService.getOrders()).thenReturn(Mono.error(new RuntimeException("Database error")));
 
         // Act
-        var response = gatewayController.getOrders();
+        var response = gatewayController.getOrders().block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(DataBufferUtils.join(response.getBody()).map(buffer -> buffer.toString(StandardCharsets.UTF_8)).block())
+            .isEqualTo("{\"error\":\"Internal server error\"}");
+    }
+
+    @Test
+    void getOrdersReturnsServiceUnavailableWhenDownstreamRejectsCall() {
+        // Arrange
+        when(gatewayService.getOrders())
+            .thenReturn(Mono.error(new DownstreamUnavailableException("order", "circuit breaker is open")));
+
+        // Act
+        var response = gatewayController.getOrders().block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(DataBufferUtils.join(response.getBody()).map(buffer -> buffer.toString(StandardCharsets.UTF_8)).block())
+            .isEqualTo("{\"error\":\"order service unavailable: circuit breaker is open\"}");
+    }
+
+    @Test
+    void getOrdersReturnsGatewayTimeoutWhenDeadlineExceeded() {
+        // Arrange
+        when(gatewayService.getOrders())
+            .thenReturn(Mono.error(new DeadlineExceededException("get-orders exceeded its 5000ms deadline")));
+
+        // Act
+        var response = gatewayController.getOrders().block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(DataBufferUtils.join(response.getBody()).map(buffer -> buffer.toString(StandardCharsets.UTF_8)).block())
+            .isEqualTo("{\"error\":\"Deadline exceeded\"}");
     }
 
     @Test
     void getOrderReturnsOrderWhenExists() {
         // Arrange
-        var orderResponse = new HashMap<String, Object>();
-        orderResponse.put("id", "order123");
-        orderResponse.put("itemId", "item123");
+        var orderResponse = new OrderResponse().id("order123").itemId("item123");
 
-        when(gatewayService.getOrder("order123")).thenReturn(orderResponse);
+        when(gatewayService.getOrder("order123")).thenReturn(Mono.just(orderResponse));
 
         // Act
-        var response = gatewayController.getOrder("order123");
+        var response = gatewayController.getOrder("order123").block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -142,12 +413,12 @@ class GatewayControllerUnitTest {
     }
 
     @Test
-    void getOrderReturnsNotFoundWhenNull() {
+    void getOrderReturnsNotFoundWhenEmpty() {
         // Arrange
-        when(gatewayService.getOrder("nonexistent")).thenReturn(null);
+        when(gatewayService.getOrder("nonexistent")).thenReturn(Mono.empty());
 
         // Act
-        var response = gatewayController.getOrder("nonexistent");
+        var response = gatewayController.getOrder("nonexistent").block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
@@ -156,37 +427,154 @@ class GatewayControllerUnitTest {
     @Test
     void getOrderReturnsBadRequestForInvalidId() {
         // Act & Assert
-        assertThat(gatewayController.getOrder(null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(gatewayController.getOrder("").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(gatewayController.getOrder("   ").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(gatewayController.getOrder("a".repeat(256)).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(gatewayController.getOrder(null).block().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(gatewayController.getOrder("").block().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(gatewayController.getOrder("   ").block().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(gatewayController.getOrder("a".repeat(256)).block().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         verify(gatewayService, never()).getOrder(anyString());
     }
 
     @Test
     void getOrderReturnsInternalErrorOnException() {
         // Arrange
-        when(gatewayService.getOrder("order123")).thenThrow(new RuntimeException("Database error"));
+        when(gatewayService.getOrder("order123")).thenReturn(Mono.error(new RuntimeException("Database error")));
 
         // Act
-        var response = gatewayController.getOrder("order123");
+        var response = gatewayController.getOrder("order123").block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @Test
+    void getOrderDetailsReturnsOrderWithInventory() {
+        // Arrange
+        var orderResponse = new OrderResponse().id("order123").itemId("item123");
+        var inventoryResponse = new InventoryResponse("item123", "Test Item", 100, true);
+        when(gatewayService.getOrderDetails("order123"))
+            .thenReturn(Mono.just(OrderDetails.of(orderResponse, inventoryResponse)));
+
+        // Act
+        var response = gatewayController.getOrderDetails("order123").block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(OrderDetails.of(orderResponse, inventoryResponse));
+    }
+
+    @Test
+    void getOrderDetailsReturnsNotFoundWhenEmpty() {
+        // Arrange
+        when(gatewayService.getOrderDetails("nonexistent")).thenReturn(Mono.empty());
+
+        // Act
+        var response = gatewayController.getOrderDetails("nonexistent").block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void getOrderDetailsReturnsGatewayTimeoutWhenDeadlineExceeded() {
+        // Arrange
+        when(gatewayService.getOrderDetails("order123"))
+            .thenReturn(Mono.error(new DeadlineExceededException("get-order-details exceeded its 3000ms deadline")));
+
+        // Act
+        var response = gatewayController.getOrderDetails("order123").block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @Test
+    void getOrderDetailsListReturnsPerOrderResults() {
+        // Arrange
+        var results = List.of(
+            OrderDetailsResult.found("order1", OrderDetails.withoutInventory(
+                new OrderResponse().id("order1").itemId("item1"), "Item not found")),
+            OrderDetailsResult.notFound("order2"));
+        when(gatewayService.getOrderDetails(List.of("order1", "order2"))).thenReturn(Mono.just(results));
+
+        // Act
+        var response = gatewayController.getOrderDetailsList(List.of("order1", "order2")).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(results);
+    }
+
+    @Test
+    void getOrderDetailsListRejectsInvalidIdWithoutCallingDownstream() {
+        // Act
+        var response = gatewayController.getOrderDetailsList(List.of("order1", " ")).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(gatewayService, never()).getOrderDetails(anyList());
+    }
+
+    @Test
+    void getOrderDetailsListReturnsBadRequestForTooManyIds() {
+        // Arrange
+        when(gatewayService.getOrderDetails(anyList()))
+            .thenReturn(Mono.error(new IllegalArgumentException("Between 1 and 100 order IDs must be given")));
+
+        // Act
+        var response = gatewayController.getOrderDetailsList(List.of("order1")).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo(Map.of("error", "Between 1 and 100 order IDs must be given"));
+    }
+
+    @Test
+    void checkInventoryBatchReturnsInventoryOfEachItem() {
+        // Arrange
+        var inventory = List.of(new InventoryResponse("item1", "Test Item", 100, true));
+        when(gatewayService.checkInventory(List.of("item1", "item2"))).thenReturn(Mono.just(inventory));
+
+        // Act
+        var response = gatewayController.checkInventoryBatch(List.of("item1", "item2")).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(inventory);
+    }
+
+    @Test
+    void checkInventoryBatchRejectsInvalidIdWithoutCallingDownstream() {
+        // Act
+        var response = gatewayController.checkInventoryBatch(List.of("item1", "")).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(gatewayService, never()).checkInventory(anyList());
+    }
+
+    @Test
+    void checkInventoryBatchReturnsBadRequestForTooManyIds() {
+        // Arrange
+        when(gatewayService.checkInventory(anyList()))
+            .thenReturn(Mono.error(new IllegalArgumentException("Between 1 and 100 item IDs must be given")));
+
+        // Act
+        var response = gatewayController.checkInventoryBatch(List.of("item1")).block();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo(Map.of("error", "Between 1 and 100 item IDs must be given"));
+    }
+
     @Test
     void checkInventoryReturnsInventoryResponse() {
         // Arrange
-        var inventoryResponse = new HashMap<String, Object>();
-        inventoryResponse.put("itemId", "item123");
-        inventoryResponse.put("available", true);
-        inventoryResponse.put("quantity", 100);
+        var inventoryResponse = new InventoryResponse("item123", "Test Item", 100, true);
 
-        when(gatewayService.checkInventory("item123")).thenReturn(inventoryResponse);
+        when(gatewayService.checkInventory("item123")).thenReturn(Mono.just(inventoryResponse));
 
         // Act
-        var response = gatewayController.checkInventory("item123");
+        var response = gatewayController.checkInventory("item123").block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -196,41 +584,69 @@ class GatewayControllerUnitTest {
     @Test
     void checkInventoryReturnsBadRequestForInvalidId() {
         // Act & Assert
-        assertThat(gatewayController.checkInventory(null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(gatewayController.checkInventory("").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(gatewayController.checkInventory("   ").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(gatewayController.checkInventory("a".repeat(256)).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(gatewayController.checkInventory(null).block().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(gatewayController.checkInventory("").block().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(gatewayController.checkInventory("   ").block().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(gatewayController.checkInventory("a".repeat(256)).block().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         verify(gatewayService, never()).checkInventory(anyString());
     }
 
     @Test
     void checkInventoryReturnsInternalErrorOnException() {
         // Arrange
-        when(gatewayService.checkInventory("item123")).thenThrow(new RuntimeException("Service error"));
+        when(gatewayService.checkInventory("item123")).thenReturn(Mono.error(new RuntimeException("Service error")));
 
         // Act
-        var response = gatewayController.checkInventory("item123");
+        var response = gatewayController.checkInventory("item123").block();
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     @Test
-    void receiveAlertWebhookReturnsOk() {
+    void receiveAlertWebhookQueuesPayloadAndReturnsAccepted() {
         // Arrange
         var alertPayload = new HashMap<String, Object>();
         alertPayload.put("status", "firing");
         alertPayload.put("alerts", List.of(Map.of("alertname", "HighLatency")));
 
-        doNothing().when(gatewayService).processAlertWebhook(anyMap());
+        when(alertIngestor.submit(anyMap())).thenReturn(true);
 
         // Act
         var response = gatewayController.receiveAlertWebhook(alertPayload);
 
         // Assert
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().get("status")).isEqualTo("received");
-        verify(gatewayService).processAlertWebhook(alertPayload);
+        verify(alertIngestor).submit(alertPayload);
+    }
+
+    @Test
+    void receiveAlertWebhookReturnsServiceUnavailableWhenQueueIsFull() {
+        // Arrange
+        when(alertIngestor.submit(anyMap())).thenReturn(false);
+
+        // Act
+        var response = gatewayController.receiveAlertWebhook(Map.of("status", "firing"));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getBody()).containsEntry("status", "dropped");
+    }
+
+    @Test
+    void getAlertsReturnsRecentAlerts() {
+        // Arrange
+        var alert = new Alert("fp1", "firing", "HighLatency", "warning", null,
+            "2024-01-01T00:00:00Z", Instant.parse("2024-01-01T00:00:05Z"));
+        when(alertIngestor.recentAlerts(10)).thenReturn(List.of(alert));
+
+        // Act
+        var response = gatewayController.getAlerts(10);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(alert);
     }
 }
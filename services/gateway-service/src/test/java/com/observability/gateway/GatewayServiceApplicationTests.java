@@ -5,11 +5,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.time.Duration;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(
     webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
-    properties = {"otel.sdk.disabled=true"}
+    properties = {"otel.sdk.disabled=true", "gateway.warmup.requests=2", "gateway.warmup.timeout=2s",
+        // Keeps the warm-up's pools out of the global meter registry other tests inspect
+        "gateway.connection-pool.metrics-enabled=false"}
 )
 class GatewayServiceApplicationTests {
 
@@ -31,4 +35,22 @@ class GatewayServiceApplicationTests {
             .jsonPath("$.status").isEqualTo("UP")
             .jsonPath("$.service").isEqualTo("gateway-service");
     }
+
+    @Test
+    void readinessIsUpOnceWarmUpHasFinished() throws InterruptedException {
+        // Downstreams are not running here, so the warm-up lookups fail fast and it finishes anyway
+        final var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (webTestClient.get().uri("/actuator/health/readiness").exchange()
+                .returnResult(String.class).getStatus().isError() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        webTestClient.get()
+            .uri("/actuator/health/readiness")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.status").isEqualTo("UP")
+            .jsonPath("$.components.warmup.status").isEqualTo("UP");
+    }
 }
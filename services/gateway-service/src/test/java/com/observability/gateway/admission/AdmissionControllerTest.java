@@ -0,0 +1,190 @@
+package com.observability.gateway.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AdmissionController}.
+ */
+class AdmissionControllerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private MeterRegistry meterRegistry;
+    private AdmissionController controller;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        controller = controller(1, 3);
+    }
+
+    private AdmissionController controller(final int maxConcurrent, final int maxQueueLength) {
+        return new AdmissionController(meterRegistry, maxConcurrent, maxQueueLength, Duration.ofSeconds(30),
+            Duration.ofMillis(5), Duration.ofMillis(100), nanos::get);
+    }
+
+    private Outcome acquire(final AdmissionController.Priority priority) {
+        final var outcome = new Outcome();
+        controller.acquire(priority).subscribe(outcome.permits::add, outcome.errors::add);
+        return outcome;
+    }
+
+    private double shedCount(final String priority, final String reason) {
+        final var counter = meterRegistry.find("gateway_admission_shed_total")
+            .tag("priority", priority).tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void advanceMillis(final long millis) {
+        nanos.addAndGet(Duration.ofMillis(millis).toNanos());
+    }
+
+    @Test
+    void admitsImmediatelyBelowConcurrencyLimit() {
+        // Act
+        final var first = acquire(AdmissionController.Priority.NORMAL);
+
+        // Assert
+        assertThat(first.permits).hasSize(1);
+        assertThat(controller.inFlight()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway_admission_queue_delay").tag("priority", "normal").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void queuesAtLimitAndAdmitsOnRelease() {
+        // Arrange
+        final var first = acquire(AdmissionController.Priority.NORMAL);
+        final var second = acquire(AdmissionController.Priority.NORMAL);
+        assertThat(second.permits).isEmpty();
+        assertThat(controller.queueLength(AdmissionController.Priority.NORMAL)).isEqualTo(1);
+
+        // Act
+        first.permits.get(0).release();
+
+        // Assert
+        assertThat(second.permits).hasSize(1);
+        assertThat(controller.inFlight()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway_admission_queue_length").tag("priority", "normal").gauge().value())
+            .isZero();
+    }
+
+    @Test
+    void releaseIsIdempotent() {
+        // Arrange
+        final var first = acquire(AdmissionController.Priority.NORMAL);
+
+        // Act
+        first.permits.get(0).release();
+        first.permits.get(0).release();
+
+        // Assert
+        assertThat(controller.inFlight()).isZero();
+    }
+
+    @Test
+    void highPriorityRequestsAreDequeuedFirst() {
+        // Arrange
+        final var first = acquire(AdmissionController.Priority.NORMAL);
+        final var normal = acquire(AdmissionController.Priority.NORMAL);
+        final var high = acquire(AdmissionController.Priority.HIGH);
+
+        // Act
+        first.permits.get(0).release();
+
+        // Assert
+        assertThat(high.permits).hasSize(1);
+        assertThat(normal.permits).isEmpty();
+    }
+
+    @Test
+    void shedsWhenQueueIsFull() {
+        // Arrange
+        acquire(AdmissionController.Priority.NORMAL);
+        for (var i = 0; i < 3; i++) {
+            acquire(AdmissionController.Priority.NORMAL);
+        }
+
+        // Act
+        final var rejected = acquire(AdmissionController.Priority.NORMAL);
+        final var high = acquire(AdmissionController.Priority.HIGH);
+
+        // Assert
+        assertThat(rejected.errors).singleElement()
+            .isInstanceOfSatisfying(RequestShedException.class, e -> assertThat(e.reason()).isEqualTo("queue_full"));
+        assertThat(high.errors).isEmpty();
+        assertThat(shedCount("normal", "queue_full")).isEqualTo(1.0);
+    }
+
+    @Test
+    void codelShedsStandingQueueButNotHighPriority() {
+        // Arrange
+        controller = controller(1, 10);
+        final var running = acquire(AdmissionController.Priority.NORMAL);
+        final var queued = new ArrayList<Outcome>();
+        for (var i = 0; i < 4; i++) {
+            queued.add(acquire(AdmissionController.Priority.NORMAL));
+        }
+        final var high = acquire(AdmissionController.Priority.HIGH);
+
+        // Act: the queue has been standing above the target delay for more than an interval
+        advanceMillis(200);
+        running.permits.get(0).release();
+        advanceMillis(1);
+        high.permits.get(0).release();
+        advanceMillis(110);
+        queued.get(0).permits.get(0).release();
+
+        // Assert
+        assertThat(high.errors).isEmpty();
+        assertThat(queued.get(1).errors).singleElement()
+            .isInstanceOfSatisfying(RequestShedException.class, e -> assertThat(e.reason()).isEqualTo("codel"));
+        assertThat(queued.get(2).permits).hasSize(1);
+        assertThat(queued.get(3).permits).isEmpty();
+        assertThat(controller.isDropping()).isTrue();
+        assertThat(shedCount("normal", "codel")).isEqualTo(1.0);
+    }
+
+    @Test
+    void cancelledRequestLeavesTheQueue() {
+        // Arrange
+        acquire(AdmissionController.Priority.NORMAL);
+        final var waiting = controller.acquire(AdmissionController.Priority.NORMAL).subscribe();
+
+        // Act
+        waiting.dispose();
+
+        // Assert
+        assertThat(controller.queueLength(AdmissionController.Priority.NORMAL)).isZero();
+    }
+
+    @Test
+    void shedsRequestsWaitingLongerThanMaxQueueTime() {
+        // Arrange
+        controller = new AdmissionController(meterRegistry, 1, 10, Duration.ofMillis(50),
+            Duration.ofMillis(5), Duration.ofMillis(100), nanos::get);
+        acquire(AdmissionController.Priority.NORMAL);
+
+        // Act & Assert
+        StepVerifier.create(controller.acquire(AdmissionController.Priority.NORMAL))
+            .expectErrorSatisfies(e -> assertThat(((RequestShedException) e).reason()).isEqualTo("queue_timeout"))
+            .verify(Duration.ofSeconds(5));
+        assertThat(controller.queueLength(AdmissionController.Priority.NORMAL)).isZero();
+        assertThat(shedCount("normal", "queue_timeout")).isEqualTo(1.0);
+    }
+
+    private static final class Outcome {
+        private final List<AdmissionController.Permit> permits = new ArrayList<>();
+        private final List<Throwable> errors = new ArrayList<>();
+    }
+}
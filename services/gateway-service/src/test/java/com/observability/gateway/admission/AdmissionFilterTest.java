@@ -0,0 +1,105 @@
+package com.observability.gateway.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AdmissionFilter}.
+ */
+class AdmissionFilterTest {
+
+    private final AtomicInteger handled = new AtomicInteger();
+    private final WebFilterChain chain = exchange -> Mono.fromRunnable(handled::incrementAndGet);
+
+    private static AdmissionController saturatedController() {
+        return new AdmissionController(new SimpleMeterRegistry(), 0, 0, Duration.ofSeconds(1),
+            Duration.ofMillis(5), Duration.ofMillis(100));
+    }
+
+    private static MockServerWebExchange exchange(final MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    @Test
+    void admittedRequestReleasesItsPermitWhenDone() {
+        // Arrange
+        final var controller = new AdmissionController(new SimpleMeterRegistry(), 1, 10, Duration.ofSeconds(1),
+            Duration.ofMillis(5), Duration.ofMillis(100));
+        final var filter = new AdmissionFilter(controller, true, Duration.ofSeconds(1));
+
+        // Act
+        filter.filter(exchange(MockServerHttpRequest.get("/api/orders/1")), chain).block();
+
+        // Assert
+        assertThat(handled).hasValue(1);
+        assertThat(controller.inFlight()).isZero();
+    }
+
+    @Test
+    void shedRequestGetsServiceUnavailableWithRetryAfter() {
+        // Arrange
+        final var filter = new AdmissionFilter(saturatedController(), true, Duration.ofMillis(1500));
+        final var exchange = exchange(MockServerHttpRequest.post("/api/orders"));
+
+        // Act
+        filter.filter(exchange, chain).block();
+
+        // Assert
+        assertThat(handled).hasValue(0);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"error\":\"Service overloaded\"}");
+    }
+
+    @Test
+    void healthChecksBypassAdmission() {
+        // Arrange
+        final var filter = new AdmissionFilter(saturatedController(), true, Duration.ofSeconds(1));
+
+        // Act
+        filter.filter(exchange(MockServerHttpRequest.get("/api/health")), chain).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/actuator/prometheus")), chain).block();
+
+        // Assert
+        assertThat(handled).hasValue(2);
+    }
+
+    @Test
+    void alertWebhookIsAdmittedWithHighPriority() {
+        // Arrange
+        final var meterRegistry = new SimpleMeterRegistry();
+        final var controller = new AdmissionController(meterRegistry, 1, 10, Duration.ofSeconds(1),
+            Duration.ofMillis(5), Duration.ofMillis(100));
+        final var filter = new AdmissionFilter(controller, true, Duration.ofSeconds(1));
+
+        // Act
+        filter.filter(exchange(MockServerHttpRequest.post("/api/alerts/webhook")), chain).block();
+
+        // Assert
+        assertThat(meterRegistry.get("gateway_admission_queue_delay").tag("priority", "high").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void disabledFilterAdmitsEverything() {
+        // Arrange
+        final var filter = new AdmissionFilter(saturatedController(), false, Duration.ofSeconds(1));
+
+        // Act
+        filter.filter(exchange(MockServerHttpRequest.post("/api/orders")), chain).block();
+
+        // Assert
+        assertThat(handled).hasValue(1);
+    }
+}
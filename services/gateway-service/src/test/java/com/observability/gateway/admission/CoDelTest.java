@@ -0,0 +1,62 @@
+package com.observability.gateway.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CoDel}.
+ */
+class CoDelTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final CoDel coDel = new CoDel(Duration.ofMillis(5), Duration.ofMillis(100));
+
+    @Test
+    void neverDropsBelowTargetDelay() {
+        for (var now = 0L; now < 1_000 * MS; now += MS) {
+            assertThat(coDel.onDequeue(4 * MS, now)).isFalse();
+        }
+        assertThat(coDel.isDropping()).isFalse();
+    }
+
+    @Test
+    void toleratesDelayAboveTargetForLessThanAnInterval() {
+        for (var now = 0L; now < 99 * MS; now += MS) {
+            assertThat(coDel.onDequeue(50 * MS, now)).isFalse();
+        }
+    }
+
+    @Test
+    void dropsOnceDelayStaysAboveTargetForAnInterval() {
+        assertThat(coDel.onDequeue(50 * MS, 0)).isFalse();
+
+        assertThat(coDel.onDequeue(50 * MS, 100 * MS)).isTrue();
+        assertThat(coDel.isDropping()).isTrue();
+    }
+
+    @Test
+    void dropsFasterWhileDelayStaysHigh() {
+        coDel.onDequeue(50 * MS, 0);
+        coDel.onDequeue(50 * MS, 100 * MS);
+
+        // Next drops are due interval / sqrt(count) after the previous one
+        assertThat(coDel.onDequeue(50 * MS, 199 * MS)).isFalse();
+        assertThat(coDel.onDequeue(50 * MS, 200 * MS)).isTrue();
+        assertThat(coDel.onDequeue(50 * MS, 270 * MS)).isFalse();
+        assertThat(coDel.onDequeue(50 * MS, 271 * MS)).isTrue();
+    }
+
+    @Test
+    void stopsDroppingOnceDelayFallsBelowTarget() {
+        coDel.onDequeue(50 * MS, 0);
+        coDel.onDequeue(50 * MS, 100 * MS);
+
+        assertThat(coDel.onDequeue(MS, 150 * MS)).isFalse();
+        assertThat(coDel.isDropping()).isFalse();
+        assertThat(coDel.onDequeue(50 * MS, 200 * MS)).isFalse();
+    }
+}
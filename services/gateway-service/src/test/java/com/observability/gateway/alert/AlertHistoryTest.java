@@ -0,0 +1,46 @@
+package com.observability.gateway.alert;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link AlertHistory}.
+ */
+class AlertHistoryTest {
+
+    private static Alert alert(final String fingerprint) {
+        return new Alert(fingerprint, "firing", "HighLatency", null, null, null, Instant.EPOCH);
+    }
+
+    @Test
+    void returnsAlertsNewestFirstUpToLimit() {
+        final var history = new AlertHistory(5);
+        history.add(alert("a"));
+        history.add(alert("b"));
+        history.add(alert("c"));
+
+        assertThat(history.recent(2)).extracting(Alert::fingerprint).containsExactly("c", "b");
+        assertThat(history.recent(10)).extracting(Alert::fingerprint).containsExactly("c", "b", "a");
+        assertThat(history.recent(-1)).isEmpty();
+    }
+
+    @Test
+    void overwritesOldestAlertsOnceFull() {
+        final var history = new AlertHistory(3);
+        for (final var fingerprint : new String[] {"a", "b", "c", "d", "e"}) {
+            history.add(alert(fingerprint));
+        }
+
+        assertThat(history.size()).isEqualTo(3);
+        assertThat(history.recent(10)).extracting(Alert::fingerprint).containsExactly("e", "d", "c");
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new AlertHistory(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,155 @@
+package com.observability.gateway.alert;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AlertIngestor}.
+ */
+class AlertIngestorTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:05Z");
+
+    private MeterRegistry meterRegistry;
+    private AlertIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ingestor = new AlertIngestor(meterRegistry, 2, 3, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static Map<String, Object> webhook(final String status, final Map<?, ?>... alerts) {
+        return Map.of("status", status, "alerts", List.of(alerts));
+    }
+
+    private static Map<String, Object> alert(final String fingerprint, final String status, final String name) {
+        return Map.of(
+            "fingerprint", fingerprint,
+            "status", status,
+            "labels", Map.of("alertname", name, "severity", "critical"),
+            "annotations", Map.of("summary", name + " is high"),
+            "startsAt", "2024-01-01T00:00:00Z");
+    }
+
+    private double count(final String name, final String outcome) {
+        return meterRegistry.get(name).tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void recordsCompactSummaryOfEachAlert() {
+        // Arrange
+        ingestor.submit(webhook("firing", alert("fp1", "firing", "HighLatency")));
+
+        // Act
+        ingestor.drain();
+
+        // Assert
+        assertThat(ingestor.recentAlerts(10)).containsExactly(new Alert("fp1", "firing", "HighLatency",
+            "critical", "HighLatency is high", "2024-01-01T00:00:00Z", NOW));
+    }
+
+    @Test
+    void repeatedNotificationsAreRecordedOnce() {
+        // Arrange
+        final var group = webhook("firing", alert("fp1", "firing", "HighLatency"), alert("fp2", "firing", "HighErrorRate"));
+        ingestor.submit(group);
+        ingestor.drain();
+        ingestor.submit(group);
+
+        // Act
+        ingestor.drain();
+
+        // Assert
+        assertThat(ingestor.recentAlerts(10)).extracting(Alert::fingerprint).containsExactly("fp2", "fp1");
+        assertThat(count("gateway_alerts_processed_total", "recorded")).isEqualTo(2.0);
+        assertThat(count("gateway_alerts_processed_total", "duplicate")).isEqualTo(2.0);
+    }
+
+    @Test
+    void statusChangeIsRecordedAgain() {
+        // Arrange
+        ingestor.submit(webhook("firing", alert("fp1", "firing", "HighLatency")));
+        ingestor.submit(webhook("resolved", alert("fp1", "resolved", "HighLatency")));
+
+        // Act
+        ingestor.drain();
+
+        // Assert
+        assertThat(ingestor.recentAlerts(10)).extracting(Alert::status).containsExactly("resolved", "firing");
+    }
+
+    @Test
+    void alertsWithoutStatusOrFingerprintFallBackToGroupStatusAndLabels() {
+        // Arrange
+        ingestor.submit(webhook("firing", Map.of("labels", Map.of("alertname", "HighLatency"))));
+
+        // Act
+        ingestor.drain();
+
+        // Assert
+        final var alert = ingestor.recentAlerts(1).get(0);
+        assertThat(alert.status()).isEqualTo("firing");
+        assertThat(alert.fingerprint()).isEqualTo("{alertname=HighLatency}");
+    }
+
+    @Test
+    void dropsPayloadsWhenQueueIsFull() {
+        // Act
+        final var accepted = List.of(
+            ingestor.submit(webhook("firing")),
+            ingestor.submit(webhook("firing")),
+            ingestor.submit(webhook("firing")));
+
+        // Assert
+        assertThat(accepted).containsExactly(true, true, false);
+        assertThat(count("gateway_alert_webhooks_total", "queued")).isEqualTo(2.0);
+        assertThat(count("gateway_alert_webhooks_total", "dropped")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("gateway_alert_queue_size").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void malformedPayloadDoesNotStopProcessing() {
+        // Arrange
+        ingestor.submit(Map.of("status", "firing", "alerts", List.of("not an alert", Map.of("labels", "none"))));
+        ingestor.submit(webhook("firing", alert("fp1", "firing", "HighLatency")));
+
+        // Act
+        ingestor.drain();
+
+        // Assert
+        assertThat(ingestor.recentAlerts(10)).extracting(Alert::fingerprint).contains("fp1");
+    }
+
+    @Test
+    void backgroundWorkerProcessesQueuedPayloads() throws InterruptedException {
+        // Arrange
+        ingestor.start();
+
+        try {
+            // Act
+            ingestor.submit(webhook("firing", alert("fp1", "firing", "HighLatency")));
+
+            final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ingestor.recentAlerts(10).isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // Assert
+            assertThat(ingestor.recentAlerts(10)).hasSize(1);
+        } finally {
+            ingestor.stop();
+        }
+    }
+}
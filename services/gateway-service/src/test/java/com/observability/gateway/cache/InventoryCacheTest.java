@@ -0,0 +1,148 @@
+package com.observability.gateway.cache;
+
+import com.observability.gateway.model.inventory.InventoryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link InventoryCache}.
+ */
+class InventoryCacheTest {
+
+    private static final InventoryResponse INVENTORY = new InventoryResponse("item123", "Test Item", 10, true);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private InventoryCache cache(final long maxEntries, final boolean cacheNotFound) {
+        return new InventoryCache(meterRegistry, true, Duration.ofSeconds(5), maxEntries,
+            cacheNotFound, Duration.ofSeconds(1), nanos::get);
+    }
+
+    private Function<String, Mono<InventoryResponse>> loader(final InventoryResponse result) {
+        return itemId -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return result;
+        });
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        final var cache = cache(100, true);
+
+        StepVerifier.create(cache.get("item123", loader(INVENTORY))).expectNext(INVENTORY).verifyComplete();
+        StepVerifier.create(cache.get("item123", loader(INVENTORY))).expectNext(INVENTORY).verifyComplete();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void entryExpiresAfterTtl() {
+        final var cache = cache(100, true);
+        cache.get("item123", loader(INVENTORY)).block();
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        cache.get("item123", loader(INVENTORY)).block();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void notFoundIsCachedWithItsOwnTtl() {
+        final var cache = cache(100, true);
+
+        StepVerifier.create(cache.get("unknown", loader(null))).verifyComplete();
+        StepVerifier.create(cache.get("unknown", loader(null))).verifyComplete();
+        assertThat(loads.get()).isEqualTo(1);
+
+        nanos.addAndGet(Duration.ofMillis(1500).toNanos());
+        cache.get("unknown", loader(null)).block();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void notFoundIsNotCachedWhenDisabled() {
+        final var cache = cache(100, false);
+
+        cache.get("unknown", loader(null)).block();
+        cache.get("unknown", loader(null)).block();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void cacheIsBoundedAndRecordsEvictions() {
+        final var cache = cache(10, true);
+
+        for (var i = 0; i < 100; i++) {
+            cache.get("item" + i, loader(INVENTORY)).block();
+        }
+        cache.cleanUp();
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(meterRegistry.get("cache.evictions").functionCounter().count()).isGreaterThan(0.0);
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        final var cache = new InventoryCache(meterRegistry, false, Duration.ofSeconds(5), 100,
+            true, Duration.ofSeconds(1));
+
+        cache.get("item123", loader(INVENTORY)).block();
+        cache.get("item123", loader(INVENTORY)).block();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void loaderErrorsAreNotCached() {
+        final var cache = cache(100, true);
+
+        StepVerifier.create(cache.get("item123", itemId -> Mono.error(new IllegalStateException("down"))))
+            .expectError(IllegalStateException.class)
+            .verify();
+        StepVerifier.create(cache.get("item123", loader(INVENTORY))).expectNext(INVENTORY).verifyComplete();
+    }
+
+    @Test
+    void getAllLoadsOnlyMissesInOneCallAndCachesNotFound() {
+        final var cache = cache(100, true);
+        cache.get("item123", loader(INVENTORY)).block();
+        final var batches = new ArrayList<List<String>>();
+        final Function<List<String>, Mono<Map<String, InventoryResponse>>> bulkLoader = itemIds -> {
+            batches.add(itemIds);
+            return Mono.just(Map.of("item456", INVENTORY));
+        };
+
+        StepVerifier.create(cache.getAll(List.of("item123", "item456", "unknown"), bulkLoader))
+            .expectNext(Map.of("item123", INVENTORY, "item456", INVENTORY))
+            .verifyComplete();
+        StepVerifier.create(cache.getAll(List.of("item456", "unknown"), bulkLoader))
+            .expectNext(Map.of("item456", INVENTORY))
+            .verifyComplete();
+
+        assertThat(batches).containsExactly(List.of("item456", "unknown"));
+    }
+}
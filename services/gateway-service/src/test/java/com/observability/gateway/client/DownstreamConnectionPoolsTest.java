@@ -0,0 +1,76 @@
+package com.observability.gateway.client;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link DownstreamConnectionPools}.
+ */
+class DownstreamConnectionPoolsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DisposableServer server;
+    private DownstreamConnectionPools pools;
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(meterRegistry);
+        server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/ping", (request, response) -> response.sendString(Mono.just("pong"))))
+            .bindNow();
+        pools = new DownstreamConnectionPools(7, 20, Duration.ofSeconds(1), Duration.ofSeconds(30),
+            Duration.ofMinutes(5), Duration.ofSeconds(30), true, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pools.close();
+        server.disposeNow();
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    void eachDownstreamGetsItsOwnNamedPool() {
+        final var order = pools.provider("order");
+        final var inventory = pools.provider("inventory");
+
+        assertThat(order).isNotSameAs(inventory);
+        assertThat(pools.provider("order")).isSameAs(order);
+        assertThat(order.name()).isEqualTo("order");
+        assertThat(inventory.name()).isEqualTo("inventory");
+        assertThat(order.maxConnections()).isEqualTo(7);
+    }
+
+    @Test
+    void publishesPoolMetricsPerDownstream() {
+        final var client = WebClient.builder().clientConnector(pools.connector("inventory")).build();
+
+        final var body = client.get()
+            .uri("http://localhost:" + server.port() + "/ping")
+            .retrieve()
+            .bodyToMono(String.class)
+            .block(Duration.ofSeconds(5));
+
+        assertThat(body).isEqualTo("pong");
+        assertThat(meterRegistry.find("reactor.netty.connection.provider.total.connections")
+            .tag("name", "inventory").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("reactor.netty.connection.provider.active.connections")
+            .tag("name", "inventory").gauge()).isNotNull();
+        assertThat(meterRegistry.find("reactor.netty.connection.provider.pending.connections")
+            .tag("name", "inventory").gauge()).isNotNull();
+        assertThat(meterRegistry.find("reactor.netty.connection.provider.total.connections")
+            .tag("name", "order").gauge()).isNull();
+    }
+}
@@ -0,0 +1,49 @@
+package com.observability.gateway.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link LatencyPercentileTracker}.
+ */
+class LatencyPercentileTrackerTest {
+
+    @Test
+    void reportsNothingUntilMinimumSamples() {
+        final var tracker = new LatencyPercentileTracker(0.95, 100, 10);
+
+        for (var i = 0; i < 9; i++) {
+            tracker.record(Duration.ofMillis(10).toNanos());
+        }
+
+        assertThat(tracker.percentile()).isNull();
+    }
+
+    @Test
+    void computesPercentileOverRecordedSamples() {
+        final var tracker = new LatencyPercentileTracker(0.95, 100, 100);
+
+        for (var i = 1; i <= 100; i++) {
+            tracker.record(Duration.ofMillis(i).toNanos());
+        }
+
+        assertThat(tracker.percentile()).isEqualTo(Duration.ofMillis(95));
+    }
+
+    @Test
+    void followsRecentSamplesOnly() {
+        final var tracker = new LatencyPercentileTracker(0.5, 100, 100);
+        for (var i = 0; i < 100; i++) {
+            tracker.record(Duration.ofMillis(500).toNanos());
+        }
+
+        for (var i = 0; i < 100; i++) {
+            tracker.record(Duration.ofMillis(20).toNanos());
+        }
+
+        assertThat(tracker.percentile()).isEqualTo(Duration.ofMillis(20));
+    }
+}
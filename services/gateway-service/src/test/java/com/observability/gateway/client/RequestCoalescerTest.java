@@ -0,0 +1,179 @@
+package com.observability.gateway.client;
+
+import com.observability.commons.deadline.Deadline;
+import com.observability.commons.deadline.DeadlineExceededException;
+import com.observability.gateway.timing.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RequestCoalescer}.
+ */
+class RequestCoalescerTest {
+
+    private static final String KEY = "http://inventory/api/inventory/item1";
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry, true);
+    }
+
+    private Mono<String> callThrough(final Sinks.One<String> upstream) {
+        return coalescer.execute(KEY, "inventory", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+    }
+
+    @Test
+    void concurrentIdenticalRequestsShareOneUpstreamCall() {
+        final Sinks.One<String> upstream = Sinks.one();
+
+        final var first = StepVerifier.create(callThrough(upstream)).expectNext("result").expectComplete().verifyLater();
+        final var second = StepVerifier.create(callThrough(upstream)).expectNext("result").expectComplete().verifyLater();
+        final var third = StepVerifier.create(callThrough(upstream)).expectNext("result").expectComplete().verifyLater();
+
+        upstream.tryEmitValue("result");
+        first.verify();
+        second.verify();
+        third.verify();
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway_coalescer_executed_requests_total").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("gateway_coalesced_requests_total").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("gateway_coalescer_inflight_keys").gauge().value()).isZero();
+    }
+
+    @Test
+    void requestsAfterCompletionAreExecutedAgain() {
+        StepVerifier.create(coalescer.execute("key", "inventory", () -> {
+            calls.incrementAndGet();
+            return Mono.just("first");
+        })).expectNext("first").verifyComplete();
+
+        StepVerifier.create(coalescer.execute("key", "inventory", () -> {
+            calls.incrementAndGet();
+            return Mono.just("second");
+        })).expectNext("second").verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("gateway_coalesced_requests_total").counter().count()).isZero();
+    }
+
+    @Test
+    void errorsAreSharedWithAllWaiters() {
+        final Sinks.One<String> upstream = Sinks.one();
+
+        final var first = StepVerifier.create(callThrough(upstream)).expectError(IllegalStateException.class).verifyLater();
+        final var second = StepVerifier.create(callThrough(upstream)).expectError(IllegalStateException.class).verifyLater();
+
+        upstream.tryEmitError(new IllegalStateException("down"));
+        first.verify();
+        second.verify();
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    private Mono<String> callWithDeadline(final Iterator<Sinks.One<String>> upstreams, final Duration budget) {
+        return coalescer.execute(KEY, "inventory", () -> {
+                calls.incrementAndGet();
+                return upstreams.next().asMono();
+            })
+            .contextWrite(context -> context.put(Deadline.class, Deadline.after(budget)));
+    }
+
+    @Test
+    void callerOnlyJoinsCallWithAtLeastItsOwnDeadline() {
+        final Sinks.One<String> shortCall = Sinks.one();
+        final Sinks.One<String> longCall = Sinks.one();
+        final var upstreams = List.of(shortCall, longCall).iterator();
+
+        final var shortBudget = StepVerifier.create(callWithDeadline(upstreams, Duration.ofMillis(100)))
+            .expectError(DeadlineExceededException.class)
+            .verifyLater();
+        final var longBudget = StepVerifier.create(callWithDeadline(upstreams, Duration.ofSeconds(5)))
+            .expectNext("result")
+            .expectComplete()
+            .verifyLater();
+        final var mediumBudget = StepVerifier.create(callWithDeadline(upstreams, Duration.ofSeconds(1)))
+            .expectNext("result")
+            .expectComplete()
+            .verifyLater();
+
+        shortCall.tryEmitError(new DeadlineExceededException("check-inventory exceeded its 100ms deadline"));
+        longCall.tryEmitValue("result");
+        shortBudget.verify();
+        longBudget.verify();
+        mediumBudget.verify();
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("gateway_coalesced_requests_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void joiningCallerRecordsItsWaitInItsOwnRequestTiming() {
+        final Sinks.One<String> upstream = Sinks.one();
+        final var timing = new RequestTiming(System.nanoTime());
+        callThrough(upstream).subscribe();
+
+        final var waiter = StepVerifier.create(callThrough(upstream)
+                .contextWrite(context -> context.put(RequestTiming.class, timing)))
+            .expectNext("result")
+            .expectComplete()
+            .verifyLater();
+        upstream.tryEmitValue("result");
+        waiter.verify();
+
+        assertThat(timing.finish(System.nanoTime())).contains("inventory;dur=");
+    }
+
+    @Test
+    void upstreamIsCancelledWhenAllWaitersCancel() {
+        final var cancelled = new AtomicBoolean();
+        final Sinks.One<String> upstream = Sinks.one();
+        final var call = coalescer.execute("key", "inventory", () -> upstream.asMono().doOnCancel(() -> cancelled.set(true)));
+
+        final var first = call.subscribe();
+        final var second = call.subscribe();
+        first.dispose();
+        assertThat(cancelled).isFalse();
+
+        second.dispose();
+        assertThat(cancelled).isTrue();
+        assertThat(meterRegistry.get("gateway_coalescer_inflight_keys").gauge().value()).isZero();
+    }
+
+    @Test
+    void disabledCoalescerExecutesEveryRequest() {
+        final var disabled = new RequestCoalescer(meterRegistry, false);
+        final Sinks.One<String> upstream = Sinks.one();
+
+        disabled.execute("key", "inventory", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).subscribe();
+        disabled.execute("key", "inventory", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).subscribe();
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+}
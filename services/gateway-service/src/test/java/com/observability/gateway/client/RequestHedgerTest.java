@@ -0,0 +1,178 @@
+package com.observability.gateway.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RequestHedger}.
+ */
+class RequestHedgerTest {
+
+    private static final Duration P95 = Duration.ofMillis(50);
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private RequestHedger hedger(final boolean enabled, final double maxHedgeRatio) {
+        final var hedger = new RequestHedger(meterRegistry, enabled, 0.95, maxHedgeRatio, Duration.ofMillis(5), 100, 20);
+        for (var i = 0; i < 20; i++) {
+            hedger.latencyTracker().record(P95.toNanos());
+        }
+        return hedger;
+    }
+
+    /**
+     * Returns attempts where the first one takes {@code primaryLatency} and any
+     * hedge takes {@code hedgeLatency}.
+     */
+    private Supplier<Mono<String>> attempts(final Duration primaryLatency, final Duration hedgeLatency) {
+        return () -> attempts.incrementAndGet() % 2 == 1
+            ? Mono.delay(primaryLatency).thenReturn("primary")
+            : Mono.delay(hedgeLatency).thenReturn("hedge");
+    }
+
+    private double count(final String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    void fastRequestIsNotHedged() {
+        final var hedger = hedger(true, 1.0);
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(attempts(Duration.ofMillis(10), Duration.ofMillis(1))))
+            .thenAwait(Duration.ofMillis(10))
+            .expectNext("primary")
+            .verifyComplete();
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(count("gateway_hedged_requests_total")).isZero();
+    }
+
+    @Test
+    void slowRequestIsHedgedAfterPercentileAndFasterAttemptWins() {
+        final var hedger = hedger(true, 1.0);
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(attempts(Duration.ofSeconds(2), Duration.ofMillis(10))))
+            .thenAwait(P95)
+            .then(() -> assertThat(attempts.get()).isEqualTo(2))
+            .thenAwait(Duration.ofMillis(10))
+            .expectNext("hedge")
+            .verifyComplete();
+
+        assertThat(count("gateway_hedged_requests_total")).isEqualTo(1.0);
+        assertThat(count("gateway_hedged_requests_won_total")).isEqualTo(1.0);
+    }
+
+    @Test
+    void primaryCanStillWinAfterHedgeIsSent() {
+        final var hedger = hedger(true, 1.0);
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(attempts(Duration.ofMillis(60), Duration.ofSeconds(2))))
+            .thenAwait(Duration.ofMillis(60))
+            .expectNext("primary")
+            .verifyComplete();
+
+        assertThat(count("gateway_hedged_requests_total")).isEqualTo(1.0);
+        assertThat(count("gateway_hedged_requests_won_total")).isZero();
+    }
+
+    @Test
+    void hedgeRateIsCappedByBudget() {
+        final var hedger = hedger(true, 0.5);
+
+        for (var i = 0; i < 4; i++) {
+            StepVerifier.withVirtualTime(() -> hedger.execute(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.delay(Duration.ofSeconds(1)).thenReturn("slow");
+                }))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("slow")
+                .verifyComplete();
+        }
+
+        assertThat(count("gateway_hedged_requests_total")).isEqualTo(2.0);
+        assertThat(attempts.get()).isEqualTo(6);
+    }
+
+    @Test
+    void errorsAreNotHedged() {
+        final var hedger = hedger(true, 1.0);
+
+        StepVerifier.create(hedger.execute(() -> {
+                attempts.incrementAndGet();
+                return Mono.<String>error(new IllegalStateException("down"));
+            }))
+            .expectError(IllegalStateException.class)
+            .verify();
+
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failedHedgeDoesNotFailRequestWhilePrimaryIsPending() {
+        final var hedger = hedger(true, 1.0);
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(() -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(2)).thenReturn("primary")
+                : Mono.<String>error(new IllegalStateException("rejected"))))
+            .thenAwait(P95)
+            .then(() -> assertThat(attempts.get()).isEqualTo(2))
+            .thenAwait(Duration.ofSeconds(2))
+            .expectNext("primary")
+            .verifyComplete();
+
+        assertThat(count("gateway_hedged_requests_total")).isEqualTo(1.0);
+        assertThat(count("gateway_hedged_requests_won_total")).isZero();
+    }
+
+    @Test
+    void cancelledAttemptRecordsElapsedTime() {
+        final var hedger = new RequestHedger(meterRegistry, true, 0.95, 1.0, Duration.ofMillis(5), 100, 1);
+
+        StepVerifier.create(hedger.execute(Mono::<String>never))
+            .thenAwait(Duration.ofMillis(60))
+            .thenCancel()
+            .verify();
+
+        assertThat(hedger.hedgeDelay()).isGreaterThanOrEqualTo(Duration.ofMillis(60));
+    }
+
+    @Test
+    void doesNotHedgeWithoutEnoughSamples() {
+        final var hedger = new RequestHedger(meterRegistry, true, 0.95, 1.0, Duration.ofMillis(5), 100, 20);
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(attempts(Duration.ofSeconds(2), Duration.ofMillis(10))))
+            .thenAwait(Duration.ofSeconds(2))
+            .expectNext("primary")
+            .verifyComplete();
+
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledHedgerSendsOneAttempt() {
+        final var hedger = hedger(false, 1.0);
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(attempts(Duration.ofSeconds(2), Duration.ofMillis(10))))
+            .thenAwait(Duration.ofSeconds(2))
+            .expectNext("primary")
+            .verifyComplete();
+
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+}
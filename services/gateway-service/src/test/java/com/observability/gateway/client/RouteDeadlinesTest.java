@@ -0,0 +1,100 @@
+package com.observability.gateway.client;
+
+import com.observability.commons.deadline.Deadline;
+import com.observability.commons.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RouteDeadlines} and {@link DeadlinePropagationFilter}.
+ */
+class RouteDeadlinesTest {
+
+    private static final ClientRequest REQUEST =
+        ClientRequest.create(HttpMethod.GET, URI.create("http://inventory-service/api/inventory/item1")).build();
+
+    private final AtomicReference<ClientRequest> sent = new AtomicReference<>();
+    private final DeadlinePropagationFilter filter = new DeadlinePropagationFilter();
+    private MeterRegistry meterRegistry;
+    private RouteDeadlines routeDeadlines;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        routeDeadlines = new RouteDeadlines(meterRegistry, Duration.ofSeconds(3), Duration.ofSeconds(10),
+            Duration.ofSeconds(5), Duration.ofSeconds(2), Duration.ofSeconds(3), Duration.ofSeconds(5),
+            Duration.ofMillis(500), Duration.ofSeconds(3));
+    }
+
+    private Mono<ClientResponse> exchange() {
+        return filter.filter(REQUEST, request -> {
+            sent.set(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        });
+    }
+
+    private double exceededCount(final String route) {
+        return meterRegistry.get("gateway_deadline_exceeded_total").tag("route", route).counter().count();
+    }
+
+    @Test
+    void workWithinBudgetCompletes() {
+        StepVerifier.create(routeDeadlines.apply(RouteDeadlines.Route.GET_ORDER, Mono.just("order")))
+            .expectNext("order")
+            .verifyComplete();
+
+        assertThat(exceededCount("get-order")).isZero();
+    }
+
+    @Test
+    void workExceedingBudgetFailsAndIsCounted() {
+        StepVerifier.withVirtualTime(() -> routeDeadlines.apply(RouteDeadlines.Route.CHECK_INVENTORY, Mono.never()))
+            .expectSubscription()
+            .thenAwait(Duration.ofMillis(500))
+            .expectErrorSatisfies(error -> assertThat(error)
+                .isInstanceOf(DeadlineExceededException.class)
+                .hasMessageContaining("check-inventory"))
+            .verify();
+
+        assertThat(exceededCount("check-inventory")).isEqualTo(1.0);
+        assertThat(exceededCount("get-order")).isZero();
+    }
+
+    @Test
+    void downstreamCallsCarryRemainingBudget() {
+        routeDeadlines.apply(RouteDeadlines.Route.CHECK_INVENTORY, exchange()).block();
+
+        final var remainingMillis = Long.parseLong(sent.get().headers().getFirst(Deadline.HEADER));
+        assertThat(remainingMillis).isBetween(1L, 500L);
+    }
+
+    @Test
+    void callsWithoutDeadlineAreSentUnchanged() {
+        exchange().block();
+
+        assertThat(sent.get().headers().containsKey(Deadline.HEADER)).isFalse();
+    }
+
+    @Test
+    void callsAfterDeadlineAreNotSent() {
+        StepVerifier.create(exchange().contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ZERO))))
+            .expectError(DeadlineExceededException.class)
+            .verify();
+
+        assertThat(sent.get()).isNull();
+    }
+}
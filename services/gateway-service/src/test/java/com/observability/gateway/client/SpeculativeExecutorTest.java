@@ -0,0 +1,192 @@
+package com.observability.gateway.client;
+
+import com.observability.commons.deadline.Deadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SpeculativeExecutor}.
+ */
+class SpeculativeExecutorTest {
+
+    private final List<String> compensated = new CopyOnWriteArrayList<>();
+    private MeterRegistry meterRegistry;
+    private SpeculativeExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new SpeculativeExecutor(meterRegistry, true, Duration.ofSeconds(1), 2, Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        VirtualTimeScheduler.reset();
+    }
+
+    private Mono<Void> compensate(final String result) {
+        return Mono.fromRunnable(() -> compensated.add(result));
+    }
+
+    private double outcomeCount(final String outcome) {
+        return meterRegistry.get("gateway_speculative_executions_total").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void actionStartsBeforeCheckCompletes() {
+        final Sinks.One<Boolean> check = Sinks.one();
+        final var actionStarted = new AtomicBoolean();
+        final var action = Mono.fromSupplier(() -> {
+            actionStarted.set(true);
+            return "order";
+        });
+
+        final var result = StepVerifier.create(executor.execute(check.asMono(), action, this::compensate))
+            .expectNext("order")
+            .expectComplete()
+            .verifyLater();
+        assertThat(actionStarted).isTrue();
+
+        check.tryEmitValue(true);
+        result.verify();
+        assertThat(compensated).isEmpty();
+        assertThat(outcomeCount("confirmed")).isEqualTo(1.0);
+    }
+
+    @Test
+    void compensatesActionWhenCheckFails() {
+        final var check = Mono.error(new IllegalStateException("Inventory check failed"));
+
+        StepVerifier.create(executor.execute(check, Mono.just("order"), this::compensate))
+            .expectErrorMessage("Inventory check failed")
+            .verify();
+
+        assertThat(compensated).containsExactly("order");
+        assertThat(outcomeCount("compensated")).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedCompensationIsRetriedThenCountedAndCheckFailureReturned() {
+        final var time = VirtualTimeScheduler.getOrSet();
+        final var check = Mono.error(new IllegalStateException("Inventory check failed"));
+        final var attempts = new AtomicInteger();
+
+        StepVerifier.create(executor.execute(check, Mono.just("order"),
+                result -> Mono.fromRunnable(attempts::incrementAndGet)
+                    .then(Mono.error(new IllegalStateException("cancel failed")))))
+            .expectErrorMessage("Inventory check failed")
+            .verify();
+        time.advanceTimeBy(Duration.ofSeconds(10));
+
+        assertThat(attempts).hasValue(3);
+        assertThat(outcomeCount("compensation_failed")).isEqualTo(1.0);
+        assertThat(outcomeCount("compensated")).isZero();
+    }
+
+    @Test
+    void compensationThatTimesOutIsRetriedUntilItSucceeds() {
+        final var time = VirtualTimeScheduler.getOrSet();
+        final var check = Mono.error(new IllegalStateException("Inventory check failed"));
+        final var attempts = new AtomicInteger();
+
+        StepVerifier.create(executor.execute(check, Mono.just("order"),
+                result -> attempts.incrementAndGet() == 1 ? Mono.never() : compensate(result)))
+            .expectErrorMessage("Inventory check failed")
+            .verify();
+        assertThat(compensated).isEmpty();
+        time.advanceTimeBy(Duration.ofSeconds(2));
+
+        assertThat(attempts).hasValue(2);
+        assertThat(compensated).containsExactly("order");
+        assertThat(outcomeCount("compensated")).isEqualTo(1.0);
+    }
+
+    @Test
+    void compensatesWithoutCallerDeadlineWhenCallerTimesOutBeforeCheckCompletes() {
+        final Sinks.One<Boolean> check = Sinks.one();
+        final var sawDeadline = new AtomicBoolean();
+
+        StepVerifier.create(executor.execute(check.asMono(), Mono.just("order"),
+                    result -> Mono.deferContextual(context -> {
+                        sawDeadline.set(context.hasKey(Deadline.class));
+                        return compensate(result);
+                    }))
+                .timeout(Duration.ofMillis(50))
+                .contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ofMillis(50)))))
+            .expectError(TimeoutException.class)
+            .verify();
+
+        assertThat(compensated).containsExactly("order");
+        assertThat(sawDeadline).isFalse();
+        assertThat(outcomeCount("compensated")).isEqualTo(1.0);
+    }
+
+    @Test
+    void cancellationWhileActionIsInFlightCompensatesNothing() {
+        final Sinks.One<String> action = Sinks.one();
+
+        StepVerifier.create(executor.execute(Mono.never(), action.asMono(), this::compensate))
+            .thenCancel()
+            .verify();
+
+        assertThat(compensated).isEmpty();
+    }
+
+    @Test
+    void checkFailureWinsWhenActionFailedToo() {
+        final var check = Mono.error(new IllegalStateException("Inventory check failed"));
+        final var action = Mono.<String>error(new IllegalArgumentException("order failed"));
+
+        StepVerifier.create(executor.execute(check, action, this::compensate))
+            .expectError(IllegalStateException.class)
+            .verify();
+
+        assertThat(compensated).isEmpty();
+        assertThat(outcomeCount("not_created")).isEqualTo(1.0);
+    }
+
+    @Test
+    void actionFailurePropagatesWhenCheckPasses() {
+        final var action = Mono.<String>error(new IllegalArgumentException("order failed"));
+
+        StepVerifier.create(executor.execute(Mono.just(true), action, this::compensate))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+
+        assertThat(outcomeCount("not_created")).isEqualTo(1.0);
+    }
+
+    @Test
+    void disabledExecutorRunsActionOnlyAfterCheckPasses() {
+        final var sequential = new SpeculativeExecutor(meterRegistry, false, Duration.ofSeconds(1), 2, Duration.ofMillis(100));
+        final var actionStarted = new AtomicBoolean();
+        final var action = Mono.fromSupplier(() -> {
+            actionStarted.set(true);
+            return "order";
+        });
+
+        StepVerifier.create(sequential.execute(Mono.error(new IllegalStateException("Inventory check failed")),
+                action, this::compensate))
+            .expectError(IllegalStateException.class)
+            .verify();
+
+        assertThat(actionStarted).isFalse();
+        assertThat(compensated).isEmpty();
+    }
+}
@@ -0,0 +1,117 @@
+package com.observability.gateway.loadbalancing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link LoadBalancingFilter}.
+ */
+class LoadBalancingFilterTest {
+
+    private static final Map<String, String> SERVICE_URLS = Map.of(
+        "order", "http://order-service:8081",
+        "inventory", "http://inventory-service:8082");
+
+    @TempDir
+    private Path tempDir;
+
+    private LoadBalancingFilter filter(final Map<String, String> instances, final String instancesFile) {
+        return new LoadBalancingFilter(new SimpleMeterRegistry(), SERVICE_URLS, instances, instancesFile,
+            5, Duration.ofSeconds(30), 0.3, System::nanoTime);
+    }
+
+    private static URI send(final LoadBalancingFilter filter, final String url) {
+        final var sent = new AtomicReference<URI>();
+        filter.filter(ClientRequest.create(HttpMethod.GET, URI.create(url)).build(), request -> {
+            sent.set(request.url());
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        }).block();
+        return sent.get();
+    }
+
+    private static void writeInstances(final Path file, final String content, final int version) throws IOException {
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.ofEpochSecond(1_700_000_000L + version)));
+    }
+
+    @Test
+    void routesLogicalUrlToConfiguredReplica() {
+        final var filter = filter(Map.of("inventory", "http://inventory-1:8082"), "");
+
+        assertThat(send(filter, "http://inventory-service:8082/api/inventory/item1"))
+            .hasToString("http://inventory-1:8082/api/inventory/item1");
+    }
+
+    @Test
+    void usesLogicalUrlWhenNoReplicasConfigured() {
+        final var filter = filter(Map.of(), "");
+
+        assertThat(send(filter, "http://order-service:8081/api/orders"))
+            .hasToString("http://order-service:8081/api/orders");
+        assertThat(filter.forDownstream("order").instances())
+            .containsExactly(URI.create("http://order-service:8081"));
+    }
+
+    @Test
+    void passesThroughRequestsToUnknownHosts() {
+        final var filter = filter(Map.of("inventory", "http://inventory-1:8082"), "");
+
+        assertThat(send(filter, "http://other-service:8082/api/inventory/item1"))
+            .hasToString("http://other-service:8082/api/inventory/item1");
+    }
+
+    @Test
+    void parsesCommaSeparatedReplicas() {
+        final var filter = filter(Map.of("inventory", "http://inventory-1:8082, http://inventory-2:8082,"), "");
+
+        assertThat(filter.forDownstream("inventory").instances()).containsExactly(
+            URI.create("http://inventory-1:8082"), URI.create("http://inventory-2:8082"));
+    }
+
+    @Test
+    void instancesFileOverridesConfigurationAndIsReloadedOnChange() throws IOException {
+        final var file = tempDir.resolve("instances.properties");
+        writeInstances(file, "inventory=http://inventory-1:8082,http://inventory-2:8082\n", 1);
+        final var filter = filter(Map.of("order", "http://order-1:8081"), file.toString());
+
+        assertThat(filter.forDownstream("inventory").instances()).containsExactly(
+            URI.create("http://inventory-1:8082"), URI.create("http://inventory-2:8082"));
+        assertThat(filter.forDownstream("order").instances()).containsExactly(URI.create("http://order-1:8081"));
+
+        writeInstances(file, "inventory=http://inventory-3:8082\norder=http://order-2:8081\n", 2);
+        filter.reloadInstancesFile();
+
+        assertThat(filter.forDownstream("inventory").instances()).containsExactly(URI.create("http://inventory-3:8082"));
+        assertThat(filter.forDownstream("order").instances()).containsExactly(URI.create("http://order-2:8081"));
+    }
+
+    @Test
+    void keepsCurrentReplicasWhenInstancesFileDisappears() throws IOException {
+        final var file = tempDir.resolve("instances.properties");
+        writeInstances(file, "inventory=http://inventory-1:8082\n", 1);
+        final var filter = filter(Map.of(), file.toString());
+
+        Files.delete(file);
+        filter.reloadInstancesFile();
+
+        assertThat(filter.forDownstream("inventory").instances()).containsExactly(URI.create("http://inventory-1:8082"));
+    }
+}
@@ -0,0 +1,251 @@
+package com.observability.gateway.loadbalancing;
+
+import com.observability.commons.deadline.Deadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for {@link PowerOfTwoChoicesBalancer}.
+ */
+class PowerOfTwoChoicesBalancerTest {
+
+    private static final URI REPLICA_1 = URI.create("http://inventory-1:8082");
+    private static final URI REPLICA_2 = URI.create("http://inventory-2:8082");
+    private static final URI REPLICA_3 = URI.create("http://inventory-3:8082");
+    private static final ClientRequest REQUEST = ClientRequest.create(HttpMethod.GET,
+        URI.create("http://inventory-service:8082/api/inventory/item%201?fields=all")).build();
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private MeterRegistry meterRegistry;
+    private PowerOfTwoChoicesBalancer balancer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        balancer = new PowerOfTwoChoicesBalancer("inventory", meterRegistry, 3,
+            Duration.ofSeconds(30).toNanos(), 0.5, nanos::get);
+    }
+
+    private ClientResponse send(final HttpStatus status) {
+        return balancer.exchange(REQUEST, request -> {
+            hits.computeIfAbsent(request.url().getHost(), host -> new AtomicInteger()).incrementAndGet();
+            return Mono.just(ClientResponse.create(status).build());
+        }).block();
+    }
+
+    private int hits(final URI replica) {
+        return hits.getOrDefault(replica.getHost(), new AtomicInteger()).get();
+    }
+
+    private double gauge(final String name, final URI replica) {
+        return meterRegistry.get(name).tag("instance", replica.getAuthority()).gauge().value();
+    }
+
+    @Test
+    void rewritesRequestToChosenReplicaKeepingPathAndQuery() {
+        balancer.updateInstances(List.of(REPLICA_1));
+        final var sent = new AtomicReference<URI>();
+
+        balancer.exchange(REQUEST, request -> {
+            sent.set(request.url());
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        }).block();
+
+        assertThat(sent.get()).hasToString("http://inventory-1:8082/api/inventory/item%201?fields=all");
+    }
+
+    @Test
+    void spreadsLoadEvenlyOverEqualReplicas() {
+        balancer.updateInstances(List.of(REPLICA_1, REPLICA_2, REPLICA_3));
+
+        for (var i = 0; i < 3000; i++) {
+            send(HttpStatus.OK);
+        }
+
+        for (final var replica : List.of(REPLICA_1, REPLICA_2, REPLICA_3)) {
+            assertThat(hits(replica)).isBetween(700, 1300);
+        }
+        assertThat(meterRegistry.get("gateway_lb_instance_requests_total")
+            .tag("instance", REPLICA_1.getAuthority()).tag("outcome", "success").counter().count())
+            .isEqualTo(hits(REPLICA_1));
+    }
+
+    @Test
+    void prefersReplicaWithFewerRequestsInFlight() {
+        balancer.updateInstances(List.of(REPLICA_1, REPLICA_2));
+        final Sinks.One<ClientResponse> pending = Sinks.one();
+        balancer.exchange(REQUEST, request -> pending.asMono()).subscribe();
+        final var busy = gauge("gateway_lb_instance_inflight_requests", REPLICA_1) == 1 ? REPLICA_1 : REPLICA_2;
+
+        for (var i = 0; i < 20; i++) {
+            send(HttpStatus.OK);
+        }
+
+        assertThat(hits(busy)).isZero();
+    }
+
+    @Test
+    void prefersReplicaWithLowerLatency() {
+        balancer.updateInstances(List.of(REPLICA_1, REPLICA_2));
+        final var slowReplicaHits = new AtomicInteger();
+        for (var i = 0; i < 50; i++) {
+            balancer.exchange(REQUEST, request -> {
+                if (request.url().getHost().equals(REPLICA_1.getHost())) {
+                    nanos.addAndGet(Duration.ofMillis(200).toNanos());
+                    slowReplicaHits.incrementAndGet();
+                } else {
+                    nanos.addAndGet(Duration.ofMillis(5).toNanos());
+                }
+                return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+            }).block();
+        }
+
+        assertThat(slowReplicaHits.get()).isLessThanOrEqualTo(1);
+        assertThat(gauge("gateway_lb_instance_latency_ewma_seconds", REPLICA_2)).isCloseTo(0.005, within(0.001));
+    }
+
+    @Test
+    void ejectsFailingReplicaAndReadmitsItAfterEjectionDuration() {
+        balancer.updateInstances(List.of(REPLICA_1));
+        for (var i = 0; i < 3; i++) {
+            send(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        assertThat(gauge("gateway_lb_instance_ejected", REPLICA_1)).isEqualTo(1.0);
+
+        balancer.updateInstances(List.of(REPLICA_1, REPLICA_2));
+        for (var i = 0; i < 10; i++) {
+            send(HttpStatus.OK);
+        }
+        assertThat(hits(REPLICA_1)).isEqualTo(3);
+        assertThat(hits(REPLICA_2)).isEqualTo(10);
+        assertThat(meterRegistry.get("gateway_lb_instance_ejections_total")
+            .tag("instance", REPLICA_1.getAuthority()).counter().count()).isEqualTo(1.0);
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        balancer.choose();
+        assertThat(gauge("gateway_lb_instance_ejected", REPLICA_1)).isZero();
+    }
+
+    @Test
+    void usesEjectedReplicasWhenNoneAreAvailable() {
+        balancer.updateInstances(List.of(REPLICA_1));
+        for (var i = 0; i < 5; i++) {
+            send(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        assertThat(hits(REPLICA_1)).isEqualTo(5);
+    }
+
+    @Test
+    void clientErrorsDoNotEjectReplica() {
+        balancer.updateInstances(List.of(REPLICA_1));
+        for (var i = 0; i < 5; i++) {
+            send(HttpStatus.NOT_FOUND);
+        }
+
+        assertThat(gauge("gateway_lb_instance_ejected", REPLICA_1)).isZero();
+    }
+
+    @Test
+    void deadlineExceededRepliesToRequestsWithPropagatedDeadlineDoNotEjectReplica() {
+        balancer.updateInstances(List.of(REPLICA_1));
+        final var withDeadline = ClientRequest.from(REQUEST).header(Deadline.HEADER, "50").build();
+        for (var i = 0; i < 5; i++) {
+            balancer.exchange(withDeadline, request -> {
+                nanos.addAndGet(Duration.ofMillis(50).toNanos());
+                return Mono.just(ClientResponse.create(HttpStatus.GATEWAY_TIMEOUT).build());
+            }).block();
+        }
+
+        assertThat(gauge("gateway_lb_instance_ejected", REPLICA_1)).isZero();
+        assertThat(gauge("gateway_lb_instance_inflight_requests", REPLICA_1)).isZero();
+        assertThat(gauge("gateway_lb_instance_latency_ewma_seconds", REPLICA_1)).isGreaterThan(0.0);
+    }
+
+    @Test
+    void gatewayTimeoutsWithoutPropagatedDeadlineStillEjectReplica() {
+        balancer.updateInstances(List.of(REPLICA_1));
+        for (var i = 0; i < 3; i++) {
+            send(HttpStatus.GATEWAY_TIMEOUT);
+        }
+
+        assertThat(gauge("gateway_lb_instance_ejected", REPLICA_1)).isEqualTo(1.0);
+    }
+
+    @Test
+    void cancelledRequestsRaiseLatencyOfReplicaSoItLosesChoices() {
+        balancer.updateInstances(List.of(REPLICA_1, REPLICA_2));
+        final var slowReplicaHits = new AtomicInteger();
+        for (var i = 0; i < 50; i++) {
+            final var subscription = balancer.exchange(REQUEST, request -> {
+                if (request.url().getHost().equals(REPLICA_1.getHost())) {
+                    slowReplicaHits.incrementAndGet();
+                    return Mono.never();
+                }
+                nanos.addAndGet(Duration.ofMillis(5).toNanos());
+                return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+            }).subscribe();
+            // Replica 1 never answers, and its requests are cancelled by their deadline
+            nanos.addAndGet(Duration.ofMillis(200).toNanos());
+            subscription.dispose();
+        }
+
+        assertThat(slowReplicaHits.get()).isLessThanOrEqualTo(2);
+        assertThat(gauge("gateway_lb_instance_latency_ewma_seconds", REPLICA_1)).isGreaterThan(0.05);
+        assertThat(gauge("gateway_lb_instance_inflight_requests", REPLICA_1)).isZero();
+    }
+
+    @Test
+    void fastCancellationsDoNotLowerLatencyOfReplica() {
+        balancer.updateInstances(List.of(REPLICA_1));
+        balancer.exchange(REQUEST, request -> {
+            nanos.addAndGet(Duration.ofMillis(100).toNanos());
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        }).block();
+
+        balancer.exchange(REQUEST, request -> Mono.never()).subscribe().dispose();
+
+        assertThat(gauge("gateway_lb_instance_latency_ewma_seconds", REPLICA_1)).isCloseTo(0.05, within(0.001));
+    }
+
+    @Test
+    void updatingInstancesRemovesMetricsOfDroppedReplicas() {
+        balancer.updateInstances(List.of(REPLICA_1, REPLICA_2));
+
+        balancer.updateInstances(List.of(REPLICA_2, REPLICA_3));
+
+        assertThat(balancer.instances()).containsExactly(REPLICA_2, REPLICA_3);
+        assertThat(meterRegistry.find("gateway_lb_instance_inflight_requests")
+            .tag("instance", REPLICA_1.getAuthority()).gauge()).isNull();
+        assertThat(meterRegistry.find("gateway_lb_instance_inflight_requests")
+            .tag("instance", REPLICA_3.getAuthority()).gauge()).isNotNull();
+    }
+
+    @Test
+    void rejectsEmptyInstanceList() {
+        assertThatThrownBy(() -> balancer.updateInstances(List.of()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package com.observability.gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link ClientRateLimiter}.
+ */
+class ClientRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1);
+    private MeterRegistry meterRegistry;
+    private ClientRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new ClientRateLimiter(meterRegistry, 10, 3, Duration.ofMinutes(1), 1_000, nanos::get);
+    }
+
+    @Test
+    void limitsEachClientToItsBurstThenItsRate() {
+        // Act
+        for (var i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("addr:10.0.0.1")).isZero();
+        }
+        final var wait = limiter.tryAcquire("addr:10.0.0.1");
+
+        // Assert
+        assertThat(wait).isEqualTo(Duration.ofMillis(100).toNanos());
+        assertThat(meterRegistry.get("gateway_rate_limited_requests_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void noisyClientDoesNotAffectOthers() {
+        // Arrange
+        for (var i = 0; i < 100; i++) {
+            limiter.tryAcquire("key:noisy");
+        }
+
+        // Act & Assert
+        assertThat(limiter.tryAcquire("key:quiet")).isZero();
+    }
+
+    @Test
+    void idleBucketsAreEvicted() {
+        // Arrange
+        for (var i = 0; i < 500; i++) {
+            limiter.tryAcquire("addr:10.0.0." + i);
+        }
+
+        // Act
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        limiter.cleanUp();
+
+        // Assert
+        assertThat(limiter.clients()).isZero();
+    }
+
+    @Test
+    void memoryStaysBoundedWithManyClients() {
+        // Act
+        for (var i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("addr:client-" + i);
+        }
+        limiter.cleanUp();
+
+        // Assert
+        assertThat(limiter.clients()).isLessThanOrEqualTo(1_000);
+        assertThat(meterRegistry.get("gateway_rate_limiter_clients").gauge().value()).isLessThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void idleTimeoutIsNeverShorterThanTheRefillTime() {
+        // Arrange: a bucket takes 3s to refill at 1 request per second
+        limiter = new ClientRateLimiter(meterRegistry, 1, 3, Duration.ofMillis(1), 1_000, nanos::get);
+        for (var i = 0; i < 3; i++) {
+            limiter.tryAcquire("key:client");
+        }
+
+        // Act
+        nanos.addAndGet(Duration.ofMillis(500).toNanos());
+
+        // Assert
+        assertThat(limiter.tryAcquire("key:client")).isPositive();
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new ClientRateLimiter(meterRegistry, 0, 3, Duration.ofMinutes(1), 1_000))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
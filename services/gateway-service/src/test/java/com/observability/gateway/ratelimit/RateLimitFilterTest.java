@@ -0,0 +1,127 @@
+package com.observability.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RateLimitFilter}.
+ */
+class RateLimitFilterTest {
+
+    private final AtomicInteger handled = new AtomicInteger();
+    private final WebFilterChain chain = exchange -> Mono.fromRunnable(handled::incrementAndGet);
+    private final ClientRateLimiter limiter =
+        new ClientRateLimiter(new SimpleMeterRegistry(), 0.5, 1, Duration.ofMinutes(1), 1_000);
+    private final RateLimitFilter filter = filter(true, 2);
+
+    private RateLimitFilter filter(final boolean enabled, final int maxKeysPerAddress) {
+        return new RateLimitFilter(limiter, enabled, "X-API-Key", Set.of("client-a", "client-b", "client-c"),
+            maxKeysPerAddress, Duration.ofMinutes(1), 1_000);
+    }
+
+    private static MockServerWebExchange request(final String path, final String address, final String apiKey) {
+        final var request = MockServerHttpRequest.get(path)
+            .remoteAddress(new InetSocketAddress(address, 40000));
+        if (apiKey != null) {
+            request.header("X-API-Key", apiKey);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    @Test
+    void rejectsClientOverItsLimitWithTooManyRequests() {
+        // Arrange
+        filter.filter(request("/api/orders", "10.0.0.1", null), chain).block();
+        final var exchange = request("/api/orders", "10.0.0.1", null);
+
+        // Act
+        filter.filter(exchange, chain).block();
+
+        // Assert
+        assertThat(handled).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    }
+
+    @Test
+    void apiKeyIdentifiesClientsBehindTheSameAddress() {
+        // Act
+        filter.filter(request("/api/orders", "10.0.0.1", "client-a"), chain).block();
+        filter.filter(request("/api/orders", "10.0.0.1", "client-b"), chain).block();
+        filter.filter(request("/api/orders", "10.0.0.1", null), chain).block();
+
+        // Assert
+        assertThat(handled).hasValue(3);
+    }
+
+    @Test
+    void unknownApiKeysAreLimitedByRemoteAddress() {
+        // Arrange
+        filter.filter(request("/api/orders", "10.0.0.1", "made-up-1"), chain).block();
+        final var exchange = request("/api/orders", "10.0.0.1", "made-up-2");
+
+        // Act
+        filter.filter(exchange, chain).block();
+
+        // Assert
+        assertThat(handled).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void addressGetsBucketsForAtMostMaxKeysPerAddress() {
+        // Arrange
+        filter.filter(request("/api/orders", "10.0.0.1", "client-a"), chain).block();
+        filter.filter(request("/api/orders", "10.0.0.1", "client-b"), chain).block();
+
+        // Act - a third key from the same address shares the address's bucket
+        filter.filter(request("/api/orders", "10.0.0.1", "client-c"), chain).block();
+        final var exchange = request("/api/orders", "10.0.0.1", null);
+        filter.filter(exchange, chain).block();
+
+        // Assert
+        assertThat(handled).hasValue(3);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(filter.clientKey(request("/api/orders", "10.0.0.2", "client-c").getRequest()))
+            .isEqualTo("key:client-c");
+    }
+
+    @Test
+    void healthChecksAndNonApiPathsAreNotLimited() {
+        // Act
+        for (var i = 0; i < 3; i++) {
+            filter.filter(request("/api/health", "10.0.0.1", null), chain).block();
+            filter.filter(request("/actuator/prometheus", "10.0.0.1", null), chain).block();
+        }
+
+        // Assert
+        assertThat(handled).hasValue(6);
+    }
+
+    @Test
+    void disabledFilterLetsEverythingThrough() {
+        // Arrange
+        final var disabled = filter(false, 2);
+
+        // Act
+        for (var i = 0; i < 3; i++) {
+            disabled.filter(request("/api/orders", "10.0.0.1", null), chain).block();
+        }
+
+        // Assert
+        assertThat(handled).hasValue(3);
+    }
+}
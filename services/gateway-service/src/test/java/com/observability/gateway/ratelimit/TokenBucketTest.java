@@ -0,0 +1,79 @@
+package com.observability.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link TokenBucket}.
+ */
+class TokenBucketTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void startsFullAndAllowsABurstUpToCapacity() {
+        final var bucket = new TokenBucket(10 * MS, 5, 0);
+
+        for (var i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(0)).isZero();
+        }
+        assertThat(bucket.tryAcquire(0)).isEqualTo(10 * MS);
+        assertThat(bucket.available(0)).isZero();
+    }
+
+    @Test
+    void refillsLazilyAtTheConfiguredRate() {
+        final var bucket = new TokenBucket(10 * MS, 5, 0);
+        for (var i = 0; i < 5; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        assertThat(bucket.tryAcquire(4 * MS)).isEqualTo(6 * MS);
+        assertThat(bucket.tryAcquire(10 * MS)).isZero();
+        assertThat(bucket.tryAcquire(10 * MS)).isEqualTo(10 * MS);
+    }
+
+    @Test
+    void neverHoldsMoreThanCapacityAfterIdling() {
+        final var bucket = new TokenBucket(10 * MS, 5, 0);
+
+        assertThat(bucket.available(10_000 * MS)).isEqualTo(5);
+        for (var i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(10_000 * MS)).isZero();
+        }
+        assertThat(bucket.tryAcquire(10_000 * MS)).isPositive();
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanCapacity() throws Exception {
+        final var bucket = new TokenBucket(TimeUnit.HOURS.toNanos(1), 1_000, 0);
+        final var acquired = new AtomicInteger();
+        final var start = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            for (var t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < 1_000; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            acquired.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(acquired).hasValue(1_000);
+    }
+}
@@ -0,0 +1,76 @@
+package com.observability.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AdaptiveConcurrencyLimiter}.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final AdaptiveConcurrencyLimiter limiter =
+        new AdaptiveConcurrencyLimiter(4, 2, 6, Duration.ofMillis(500), 0.5);
+
+    private void acquire(final int calls) {
+        for (var i = 0; i < calls; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+
+    @Test
+    void rejectsCallsOverTheLimit() {
+        acquire(4);
+
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.inFlight()).isEqualTo(4);
+
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsAdditivelyOnFastCallsWhenUtilized() {
+        acquire(2);
+
+        limiter.onComplete(FAST, false);
+        assertThat(limiter.limit()).isEqualTo(5);
+
+        limiter.onComplete(FAST, false);
+        assertThat(limiter.limit()).isEqualTo(5);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void shrinksMultiplicativelyOnSlowOrFailedCalls() {
+        acquire(2);
+
+        limiter.onComplete(SLOW, false);
+        assertThat(limiter.limit()).isEqualTo(2);
+
+        limiter.onComplete(FAST, true);
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void staysWithinBounds() {
+        for (var i = 0; i < 10; i++) {
+            acquire(limiter.limit());
+            while (limiter.inFlight() > 0) {
+                limiter.onComplete(FAST, false);
+            }
+        }
+        assertThat(limiter.limit()).isEqualTo(6);
+
+        for (var i = 0; i < 10; i++) {
+            acquire(1);
+            limiter.onComplete(SLOW, false);
+        }
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+}
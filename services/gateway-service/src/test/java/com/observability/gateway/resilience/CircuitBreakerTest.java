@@ -0,0 +1,147 @@
+package com.observability.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(50, 10, 4, Duration.ofSeconds(10), 2, nanos::get);
+
+    private void call(final boolean fails) {
+        final var permit = breaker.tryAcquirePermission();
+        assertThat(permit).isNotNull();
+        if (fails) {
+            breaker.onFailure(permit);
+        } else {
+            breaker.onSuccess(permit);
+        }
+    }
+
+    private void open() {
+        for (var i = 0; i < 4; i++) {
+            call(true);
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void staysClosedUntilMinimumCallsRecorded() {
+        call(true);
+        call(true);
+        call(true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void staysClosedBelowFailureRateThreshold() {
+        for (var i = 0; i < 10; i++) {
+            call(i % 3 == 2);
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensAtFailureRateThresholdAndRejectsCalls() {
+        call(false);
+        call(true);
+        call(false);
+        call(true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isNull();
+    }
+
+    @Test
+    void oldOutcomesLeaveTheSlidingWindow() {
+        for (var i = 0; i < 20; i++) {
+            call(i >= 6 && i < 10);
+        }
+        for (var i = 0; i < 4; i++) {
+            call(true);
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void allowsLimitedTrialCallsAfterOpenDurationAndClosesOnSuccess() {
+        open();
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        final var first = breaker.tryAcquirePermission();
+        final var second = breaker.tryAcquirePermission();
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(breaker.tryAcquirePermission()).isNull();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        breaker.onSuccess(first);
+        breaker.onSuccess(second);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void reopensWhenTrialCallFails() {
+        open();
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        call(true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isNull();
+    }
+
+    @Test
+    void releasedTrialPermissionCanBeReused() {
+        open();
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(breaker.tryAcquirePermission()).isNotNull();
+        final var second = breaker.tryAcquirePermission();
+        assertThat(second).isNotNull();
+
+        breaker.releasePermission(second);
+
+        assertThat(breaker.tryAcquirePermission()).isNotNull();
+    }
+
+    @Test
+    void callsAdmittedWhileClosedDoNotAffectHalfOpenBreaker() {
+        final var admittedWhileClosed = breaker.tryAcquirePermission();
+        final var failedWhileClosed = breaker.tryAcquirePermission();
+        open();
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(breaker.tryAcquirePermission()).isNotNull();
+        assertThat(breaker.tryAcquirePermission()).isNotNull();
+
+        breaker.releasePermission(admittedWhileClosed);
+        breaker.onFailure(failedWhileClosed);
+
+        assertThat(breaker.tryAcquirePermission()).isNull();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void trialPermitOfEarlierHalfOpenPeriodIsNotGivenBack() {
+        open();
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        final var staleTrial = breaker.tryAcquirePermission();
+        call(true);
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(breaker.tryAcquirePermission()).isNotNull();
+        assertThat(breaker.tryAcquirePermission()).isNotNull();
+
+        breaker.releasePermission(staleTrial);
+
+        assertThat(breaker.tryAcquirePermission()).isNull();
+    }
+}
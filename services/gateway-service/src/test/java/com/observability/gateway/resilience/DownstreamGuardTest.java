@@ -0,0 +1,175 @@
+package com.observability.gateway.resilience;
+
+import com.observability.commons.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link DownstreamGuard} as created by {@link DownstreamGuards}.
+ */
+class DownstreamGuardTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private MeterRegistry meterRegistry;
+    private DownstreamGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        guard = guards(true).forDownstream("inventory");
+    }
+
+    private DownstreamGuards guards(final boolean enabled) {
+        return new DownstreamGuards(meterRegistry, enabled, 50, 4, 4, Duration.ofSeconds(10), 1,
+            2, 1, 10, Duration.ofMillis(500), 0.5, nanos::get);
+    }
+
+    private double gauge(final String name) {
+        return meterRegistry.get(name).tag("downstream", "inventory").gauge().value();
+    }
+
+    private double rejections(final String reason) {
+        return meterRegistry.get("gateway_downstream_rejected_requests_total")
+            .tag("downstream", "inventory")
+            .tag("reason", reason)
+            .counter()
+            .count();
+    }
+
+    @Test
+    void rejectsCallsOverTheConcurrencyLimit() {
+        final Sinks.One<String> first = Sinks.one();
+        final Sinks.One<String> second = Sinks.one();
+        final var pending = StepVerifier.create(guard.protect(first.asMono())).expectNext("a").expectComplete().verifyLater();
+        guard.protect(second.asMono()).subscribe();
+
+        StepVerifier.create(guard.protect(Mono.just("c")))
+            .expectErrorSatisfies(error -> assertThat(error)
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessage("inventory service unavailable: concurrency limit reached"))
+            .verify();
+        assertThat(gauge("gateway_downstream_inflight_requests")).isEqualTo(2.0);
+        assertThat(rejections("limit_exceeded")).isEqualTo(1.0);
+
+        first.tryEmitValue("a");
+        pending.verify();
+        assertThat(gauge("gateway_downstream_inflight_requests")).isEqualTo(1.0);
+    }
+
+    @Test
+    void slowCallsReduceTheLimit() {
+        nanos.set(0);
+        final var slow = Mono.fromSupplier(() -> {
+            nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+            return "slow";
+        });
+
+        StepVerifier.create(guard.protect(slow)).expectNext("slow").verifyComplete();
+
+        assertThat(gauge("gateway_downstream_concurrency_limit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void failuresOpenTheCircuitAndCallsFailFast() {
+        for (var i = 0; i < 4; i++) {
+            StepVerifier.create(guard.protect(Mono.error(new IllegalStateException("down"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        }
+
+        final var subscribed = new AtomicBoolean();
+        StepVerifier.create(guard.protect(Mono.fromSupplier(() -> {
+            subscribed.set(true);
+            return "never";
+        })))
+            .expectErrorMessage("inventory service unavailable: circuit breaker is open")
+            .verify();
+
+        assertThat(subscribed).isFalse();
+        assertThat(gauge("gateway_downstream_circuit_state")).isEqualTo(CircuitBreaker.State.OPEN.ordinal());
+        assertThat(rejections("circuit_open")).isEqualTo(1.0);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        for (var i = 0; i < 10; i++) {
+            StepVerifier.create(guard.protect(Mono.error(
+                    WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null))))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+        }
+
+        assertThat(gauge("gateway_downstream_circuit_state")).isEqualTo(CircuitBreaker.State.CLOSED.ordinal());
+    }
+
+    @Test
+    void expiredDeadlinesDoNotOpenTheCircuit() {
+        for (var i = 0; i < 10; i++) {
+            StepVerifier.create(guard.protect(Mono.error(new DeadlineExceededException("expired"))))
+                .expectError(DeadlineExceededException.class)
+                .verify();
+        }
+
+        assertThat(gauge("gateway_downstream_circuit_state")).isEqualTo(CircuitBreaker.State.CLOSED.ordinal());
+        assertThat(gauge("gateway_downstream_inflight_requests")).isZero();
+    }
+
+    @Test
+    void cancelledCallsReleaseTheirPermit() {
+        final Sinks.One<String> upstream = Sinks.one();
+        guard.protect(upstream.asMono()).subscribe().dispose();
+        guard.protect(upstream.asMono()).subscribe().dispose();
+
+        assertThat(gauge("gateway_downstream_inflight_requests")).isZero();
+        StepVerifier.create(guard.protect(Mono.just("ok"))).expectNext("ok").verifyComplete();
+    }
+
+    @Test
+    void callsTimedOutAfterLatencyThresholdReduceTheLimitAndOpenTheCircuit() {
+        for (var i = 0; i < 4; i++) {
+            final var subscription = guard.protect(Mono.never()).subscribe();
+            nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+            subscription.dispose();
+        }
+
+        assertThat(gauge("gateway_downstream_concurrency_limit")).isEqualTo(1.0);
+        assertThat(gauge("gateway_downstream_inflight_requests")).isZero();
+        assertThat(gauge("gateway_downstream_circuit_state")).isEqualTo(CircuitBreaker.State.OPEN.ordinal());
+    }
+
+    @Test
+    void deadlineExpiredAfterLatencyThresholdReducesTheLimit() {
+        final var expired = Mono.defer(() -> {
+            nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+            return Mono.<String>error(new DeadlineExceededException("expired"));
+        });
+
+        StepVerifier.create(guard.protect(expired)).expectError(DeadlineExceededException.class).verify();
+
+        assertThat(gauge("gateway_downstream_concurrency_limit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void disabledGuardSendsEveryCall() {
+        final var disabled = guards(false).forDownstream("order");
+        final Sinks.One<String> upstream = Sinks.one();
+        for (var i = 0; i < 5; i++) {
+            disabled.protect(upstream.asMono()).subscribe();
+        }
+
+        StepVerifier.create(disabled.protect(Mono.just("ok"))).expectNext("ok").verifyComplete();
+    }
+}
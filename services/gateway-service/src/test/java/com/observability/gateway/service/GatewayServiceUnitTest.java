@@ -0,0 +1,887 @@
+package com.observability.gateway.service;
+
+import com.observability.commons.deadline.Deadline;
+import com.observability.commons.deadline.DeadlineExceededException;
+import com.observability.commons.idempotency.IdempotencyStore;
+import com.observability.gateway.cache.InventoryCache;
+import com.observability.gateway.client.DownstreamConnectionPools;
+import com.observability.gateway.client.RequestCoalescer;
+import com.observability.gateway.client.RequestHedger;
+import com.observability.gateway.client.RouteDeadlines;
+import com.observability.gateway.client.SpeculativeExecutor;
+import com.observability.gateway.loadbalancing.LoadBalancingFilter;
+import com.observability.gateway.model.BatchOrderLineResult;
+import com.observability.gateway.model.OrderDetailsResult;
+import com.observability.gateway.model.inventory.InventoryResponse;
+import com.observability.gateway.model.order.CreateOrderRequest;
+import com.observability.gateway.resilience.DownstreamGuards;
+import com.observability.gateway.resilience.DownstreamUnavailableException;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.Tracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayServiceUnitTest {
+
+    private static final String ORDER_URL = "http://order-service";
+    private static final String INVENTORY_URL = "http://inventory-service";
+
+    @Mock
+    private Tracer tracer;
+
+    @Mock
+    private SpanBuilder spanBuilder;
+
+    @Mock
+    private Span span;
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        requests.clear();
+    }
+
+    private GatewayService serviceResponding(final Function<ClientRequest, ClientResponse> responder) {
+        return serviceResponding(responder, inventoryCache(false));
+    }
+
+    private GatewayService serviceResponding(final Function<ClientRequest, ClientResponse> responder,
+                                             final InventoryCache inventoryCache) {
+        return serviceResponding(responder, inventoryCache, ObservationRegistry.NOOP);
+    }
+
+    private GatewayService serviceResponding(final Function<ClientRequest, ClientResponse> responder,
+                                             final InventoryCache inventoryCache,
+                                             final ObservationRegistry observationRegistry) {
+        final var builder = WebClient.builder().observationRegistry(observationRegistry).exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(responder.apply(request));
+        });
+        return new GatewayService(builder, ORDER_URL, INVENTORY_URL, 3, 2, 5, 2, 5, 4096, inventoryCache,
+            new RequestCoalescer(new SimpleMeterRegistry(), true), requestHedger(), speculativeExecutor(false),
+            downstreamGuards(), routeDeadlines(), loadBalancingFilter(), connectionPools(), tracer);
+    }
+
+    private static InventoryCache inventoryCache(final boolean enabled) {
+        return new InventoryCache(new SimpleMeterRegistry(), enabled, Duration.ofMinutes(1), 100,
+            true, Duration.ofMinutes(1));
+    }
+
+    private static RequestHedger requestHedger() {
+        return new RequestHedger(new SimpleMeterRegistry(), false, 0.95, 0.1, Duration.ofMillis(5), 1000, 100);
+    }
+
+    private static SpeculativeExecutor speculativeExecutor(final boolean enabled) {
+        return new SpeculativeExecutor(new SimpleMeterRegistry(), enabled, Duration.ofSeconds(2), 3,
+            Duration.ofMillis(1));
+    }
+
+    private static DownstreamGuards downstreamGuards() {
+        return new DownstreamGuards(new SimpleMeterRegistry(), true, 50, 4, 4, Duration.ofMinutes(1), 1,
+            10, 1, 100, Duration.ofSeconds(5), 0.9);
+    }
+
+    private static RouteDeadlines routeDeadlines() {
+        return new RouteDeadlines(new SimpleMeterRegistry(), Duration.ofSeconds(3), Duration.ofSeconds(10),
+            Duration.ofSeconds(5), Duration.ofMillis(200), Duration.ofSeconds(3), Duration.ofSeconds(5),
+            Duration.ofSeconds(2), Duration.ofSeconds(3));
+    }
+
+    private static LoadBalancingFilter loadBalancingFilter() {
+        return new LoadBalancingFilter(new SimpleMeterRegistry(), ORDER_URL, "", INVENTORY_URL, "", "",
+            Duration.ofSeconds(5), 5, Duration.ofSeconds(30), 0.3);
+    }
+
+    private static DownstreamConnectionPools connectionPools() {
+        return new DownstreamConnectionPools(10, 20, Duration.ofSeconds(1), Duration.ofSeconds(30),
+            Duration.ofMinutes(5), Duration.ofSeconds(30), true, false);
+    }
+
+    private static ClientResponse json(final HttpStatus status, final String body) {
+        return ClientResponse.create(status)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(body)
+            .build();
+    }
+
+    private void stubSpan() {
+        when(tracer.spanBuilder(anyString())).thenReturn(spanBuilder);
+        when(spanBuilder.setParent(any())).thenReturn(spanBuilder);
+        when(spanBuilder.startSpan()).thenReturn(span);
+        when(span.storeInContext(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void createOrderChecksInventoryThenCreatesOrder() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> request.method() == HttpMethod.GET
+            ? json(HttpStatus.OK, "{\"itemId\":\"item123\",\"available\":true,\"quantity\":10}")
+            : json(HttpStatus.CREATED, "{\"id\":\"order123\",\"itemId\":\"item123\",\"quantity\":5}"));
+
+        // Act & Assert
+        StepVerifier.create(service.createOrder(new CreateOrderRequest("item123", 5)))
+            .assertNext(order -> assertThat(order.getId()).isEqualTo("order123"))
+            .verifyComplete();
+
+        assertThat(requests).extracting(request -> request.url().toString())
+            .containsExactly(INVENTORY_URL + "/api/inventory/item123", ORDER_URL + "/api/orders");
+        verify(span).setAttribute("item.id", "item123");
+        verify(span).setAttribute("order.status", "success");
+        verify(span).end();
+    }
+
+    @Test
+    void createOrderFailsWhenInventoryResponseIsEmpty() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> ClientResponse.create(HttpStatus.OK).build());
+
+        // Act & Assert
+        StepVerifier.create(service.createOrder(new CreateOrderRequest("item123", 5)))
+            .expectError(IllegalStateException.class)
+            .verify();
+
+        assertThat(requests).hasSize(1);
+        verify(span).setAttribute("order.status", "error");
+        verify(span).recordException(any(IllegalStateException.class));
+        verify(span).end();
+    }
+
+    @Test
+    void createOrderPropagatesDownstreamErrors() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> json(HttpStatus.INTERNAL_SERVER_ERROR, "{}"));
+
+        // Act & Assert
+        StepVerifier.create(service.createOrder(new CreateOrderRequest("item123", 5)))
+            .expectError(WebClientResponseException.class)
+            .verify();
+
+        verify(span).recordException(any(WebClientResponseException.class));
+        verify(span).end();
+    }
+
+    @Test
+    void createOrderIsLazyUntilSubscribed() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.OK, "{}"));
+
+        // Act
+        service.createOrder(new CreateOrderRequest("item123", 5));
+
+        // Assert
+        assertThat(requests).isEmpty();
+        verifyNoInteractions(tracer);
+    }
+
+    private GatewayService speculativeServiceResponding(final Function<ClientRequest, ClientResponse> responder) {
+        final var builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(responder.apply(request));
+        });
+        return new GatewayService(builder, ORDER_URL, INVENTORY_URL, 3, 2, 5, 2, 5, 4096, inventoryCache(false),
+            new RequestCoalescer(new SimpleMeterRegistry(), true), requestHedger(), speculativeExecutor(true),
+            downstreamGuards(), routeDeadlines(), loadBalancingFilter(), connectionPools(), null);
+    }
+
+    @Test
+    void speculativeCreateOrderSendsInventoryCheckAndOrderTogether() {
+        // Arrange
+        final Sinks.One<ClientResponse> inventoryResponse = Sinks.one();
+        final var builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return request.method() == HttpMethod.GET
+                ? inventoryResponse.asMono()
+                : Mono.just(json(HttpStatus.CREATED, "{\"id\":\"order123\"}"));
+        });
+        final var service = new GatewayService(builder, ORDER_URL, INVENTORY_URL, 3, 2, 5, 2, 5, 4096, inventoryCache(false),
+            new RequestCoalescer(new SimpleMeterRegistry(), true), requestHedger(), speculativeExecutor(true),
+            downstreamGuards(), routeDeadlines(), loadBalancingFilter(), connectionPools(), null);
+
+        // Act
+        final var result = StepVerifier.create(service.createOrder(new CreateOrderRequest("item123", 5)))
+            .assertNext(order -> assertThat(order.getId()).isEqualTo("order123"))
+            .expectComplete()
+            .verifyLater();
+
+        // Assert - the order POST went out while the inventory check was still pending
+        assertThat(requests).extracting(request -> request.method())
+            .containsExactlyInAnyOrder(HttpMethod.GET, HttpMethod.POST);
+        inventoryResponse.tryEmitValue(json(HttpStatus.OK, "{\"itemId\":\"item123\",\"available\":true}"));
+        result.verify();
+    }
+
+    @Test
+    void speculativeCreateOrderCancelsOrderWhenInventoryCheckFails() {
+        // Arrange
+        final var service = speculativeServiceResponding(request -> {
+            if (request.method() == HttpMethod.GET) {
+                return json(HttpStatus.NOT_FOUND, "{}");
+            }
+            return request.url().getPath().endsWith("/cancel")
+                ? json(HttpStatus.OK, "{\"id\":\"order123\",\"status\":\"CANCELLED\"}")
+                : json(HttpStatus.CREATED, "{\"id\":\"order123\"}");
+        });
+
+        // Act & Assert
+        StepVerifier.create(service.createOrder(new CreateOrderRequest("item123", 5)))
+            .expectErrorMessage("Inventory check failed")
+            .verify();
+        assertThat(requests).extracting(request -> request.url().toString())
+            .contains(ORDER_URL + "/api/orders/order123/cancel");
+    }
+
+    @Test
+    void speculativeCreateOrderStillCancelsOrderWhenDeadlineRunsOutDuringInventoryCheck() {
+        // Arrange
+        final var builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            if (request.method() == HttpMethod.GET) {
+                return Mono.never();
+            }
+            return Mono.just(request.url().getPath().endsWith("/cancel")
+                ? json(HttpStatus.OK, "{\"id\":\"order123\",\"status\":\"CANCELLED\"}")
+                : json(HttpStatus.CREATED, "{\"id\":\"order123\"}"));
+        });
+        final var shortDeadlines = new RouteDeadlines(new SimpleMeterRegistry(), Duration.ofMillis(100),
+            Duration.ofSeconds(10), Duration.ofSeconds(5), Duration.ofMillis(200), Duration.ofSeconds(3),
+            Duration.ofSeconds(5), Duration.ofSeconds(2), Duration.ofSeconds(3));
+        final var service = new GatewayService(builder, ORDER_URL, INVENTORY_URL, 3, 2, 5, 2, 5, 4096, inventoryCache(false),
+            new RequestCoalescer(new SimpleMeterRegistry(), true), requestHedger(), speculativeExecutor(true),
+            downstreamGuards(), shortDeadlines, loadBalancingFilter(), connectionPools(), null);
+
+        // Act
+        StepVerifier.create(service.createOrder(new CreateOrderRequest("item123", 5)))
+            .expectError(DeadlineExceededException.class)
+            .verify();
+
+        // Assert - the cancel went out on its own, without the expired deadline
+        final var cancel = requests.stream()
+            .filter(request -> request.url().getPath().endsWith("/cancel"))
+            .findFirst()
+            .orElseThrow();
+        assertThat(cancel.url().toString()).isEqualTo(ORDER_URL + "/api/orders/order123/cancel");
+        assertThat(cancel.headers().containsKey(Deadline.HEADER)).isFalse();
+    }
+
+    @Test
+    void createOrderRetryAfterTimeoutReachesOrderServiceWithSameIdempotencyKey() {
+        // Arrange - the first order POST is accepted but answers after the route deadline
+        final var posts = new AtomicInteger();
+        final var builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            if (request.method() == HttpMethod.GET) {
+                return Mono.just(json(HttpStatus.OK, "{\"itemId\":\"item123\",\"available\":true}"));
+            }
+            return posts.incrementAndGet() == 1
+                ? Mono.never()
+                : Mono.just(json(HttpStatus.CREATED, "{\"id\":\"order123\"}"));
+        });
+        final var shortDeadlines = new RouteDeadlines(new SimpleMeterRegistry(), Duration.ofMillis(100),
+            Duration.ofSeconds(10), Duration.ofSeconds(5), Duration.ofMillis(200), Duration.ofSeconds(3),
+            Duration.ofSeconds(5), Duration.ofSeconds(2), Duration.ofSeconds(3));
+        final var service = new GatewayService(builder, ORDER_URL, INVENTORY_URL, 3, 2, 5, 2, 5, 4096, inventoryCache(false),
+            new RequestCoalescer(new SimpleMeterRegistry(), true), requestHedger(), speculativeExecutor(false),
+            downstreamGuards(), shortDeadlines, loadBalancingFilter(), connectionPools(), null);
+        final var orderRequest = new CreateOrderRequest("item123", 5);
+        StepVerifier.create(service.createOrder(orderRequest, "key-1"))
+            .expectError(DeadlineExceededException.class)
+            .verify();
+
+        // Act
+        StepVerifier.create(service.createOrder(orderRequest, "key-1"))
+            .assertNext(order -> assertThat(order.getId()).isEqualTo("order123"))
+            .verifyComplete();
+
+        // Assert
+        assertThat(requests).filteredOn(request -> request.method() == HttpMethod.POST)
+            .extracting(request -> request.headers().getFirst(IdempotencyStore.HEADER))
+            .containsExactly("key-1", "key-1");
+    }
+
+    @Test
+    void createOrderWithIdempotencyKeyCreatesOrderAgainWhenOrderServiceReplaysCancelledOrder() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> {
+            if (request.method() == HttpMethod.GET) {
+                return json(HttpStatus.OK, "{\"itemId\":\"item123\",\"available\":true}");
+            }
+            return "key-1".equals(request.headers().getFirst(IdempotencyStore.HEADER))
+                ? json(HttpStatus.CREATED, "{\"id\":\"order1\",\"status\":\"CANCELLED\"}")
+                : json(HttpStatus.CREATED, "{\"id\":\"order2\",\"status\":\"PENDING\"}");
+        });
+
+        // Act & Assert
+        StepVerifier.create(service.createOrder(new CreateOrderRequest("item123", 5), "key-1"))
+            .assertNext(order -> assertThat(order.getId()).isEqualTo("order2"))
+            .verifyComplete();
+        final var keys = requests.stream()
+            .filter(request -> request.method() == HttpMethod.POST)
+            .map(request -> request.headers().getFirst(IdempotencyStore.HEADER))
+            .toList();
+        assertThat(keys).hasSize(2).doesNotHaveDuplicates().startsWith("key-1");
+    }
+
+    @Test
+    void createOrderWithoutIdempotencyKeySendsNoKeyHeader() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> request.method() == HttpMethod.GET
+            ? json(HttpStatus.OK, "{\"itemId\":\"item123\",\"available\":true}")
+            : json(HttpStatus.CREATED, "{\"id\":\"order123\"}"));
+
+        // Act
+        service.createOrder(new CreateOrderRequest("item123", 5)).block();
+
+        // Assert
+        assertThat(requests).filteredOn(request -> request.method() == HttpMethod.POST)
+            .allMatch(request -> !request.headers().containsKey(IdempotencyStore.HEADER));
+    }
+
+    @Test
+    void createOrderWithoutTracerDoesNotThrow() {
+        // Arrange
+        final var builder = WebClient.builder().exchangeFunction(request -> Mono.just(
+            json(HttpStatus.OK, "{\"id\":\"order123\"}")));
+        final var service = new GatewayService(builder, ORDER_URL, INVENTORY_URL, 3, 2, 5, 2, 5, 4096, inventoryCache(false),
+            new RequestCoalescer(new SimpleMeterRegistry(), true), requestHedger(), speculativeExecutor(false),
+            downstreamGuards(), routeDeadlines(), loadBalancingFilter(), connectionPools(), null);
+
+        // Act & Assert
+        StepVerifier.create(service.createOrder(new CreateOrderRequest("item123", 5)))
+            .assertNext(order -> assertThat(order.getId()).isEqualTo("order123"))
+            .verifyComplete();
+    }
+
+    @Test
+    void getOrdersStreamsDownstreamBodyWithoutAggregating() {
+        // Arrange
+        final var chunks = Flux.just("[{\"id\":\"order1\"},", "{\"id\":\"order2\"}]")
+            .<DataBuffer>map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+        final var service = serviceResponding(request -> ClientResponse.create(HttpStatus.OK)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(chunks)
+            .build());
+
+        // Act
+        final var response = service.getOrders().block();
+
+        // Assert
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        StepVerifier.create(response.getBody().map(buffer -> buffer.toString(StandardCharsets.UTF_8)))
+            .expectNext("[{\"id\":\"order1\"},", "{\"id\":\"order2\"}]")
+            .verifyComplete();
+        assertThat(requests.get(0).url().toString()).isEqualTo(ORDER_URL + "/api/orders");
+    }
+
+    @Test
+    void getOrdersFailsOnDownstreamErrorStatus() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.SERVICE_UNAVAILABLE, "{}"));
+
+        // Act & Assert
+        StepVerifier.create(service.getOrders())
+            .expectError(WebClientResponseException.ServiceUnavailable.class)
+            .verify();
+    }
+
+    @Test
+    void getOrderReturnsOrder() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.OK, "{\"id\":\"order123\"}"));
+
+        // Act & Assert
+        StepVerifier.create(service.getOrder("order123"))
+            .assertNext(order -> assertThat(order.getId()).isEqualTo("order123"))
+            .verifyComplete();
+        assertThat(requests.get(0).url().toString()).isEqualTo(ORDER_URL + "/api/orders/order123");
+    }
+
+    private static ClientResponse orderOrInventory(final ClientRequest request) {
+        final var path = request.url().getPath();
+        if (path.equals("/api/orders/missing")) {
+            return json(HttpStatus.NOT_FOUND, "{}");
+        }
+        if (path.startsWith("/api/orders/")) {
+            final var id = path.substring("/api/orders/".length());
+            return json(HttpStatus.OK, "{\"id\":\"" + id + "\",\"itemId\":\"item123\",\"quantity\":1}");
+        }
+        return json(HttpStatus.OK, "{\"itemId\":\"item123\",\"available\":true,\"quantity\":10}");
+    }
+
+    @Test
+    void getOrderDetailsFetchesOrderThenInventoryInChildSpans() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(GatewayServiceUnitTest::orderOrInventory);
+
+        // Act & Assert
+        StepVerifier.create(service.getOrderDetails("order123"))
+            .assertNext(details -> {
+                assertThat(details.order().getId()).isEqualTo("order123");
+                assertThat(details.inventory().getQuantity()).isEqualTo(10);
+                assertThat(details.inventoryError()).isNull();
+            })
+            .verifyComplete();
+        assertThat(requests).extracting(request -> request.url().toString())
+            .containsExactly(ORDER_URL + "/api/orders/order123", INVENTORY_URL + "/api/inventory/item123");
+        verify(tracer).spanBuilder("get-order-details");
+        verify(tracer).spanBuilder("fetch-order");
+        verify(tracer).spanBuilder("fetch-inventory");
+        verify(span).setAttribute("inventory.cache_hit", false);
+    }
+
+    @Test
+    void getOrderDetailsServesInventoryFromCache() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(GatewayServiceUnitTest::orderOrInventory, inventoryCache(true));
+        service.checkInventory("item123").block();
+        requests.clear();
+
+        // Act
+        final var details = service.getOrderDetails("order123").block();
+
+        // Assert - only the order hop went downstream
+        assertThat(details.inventory().getItemId()).isEqualTo("item123");
+        assertThat(requests).extracting(request -> request.url().getPath()).containsExactly("/api/orders/order123");
+        verify(span, never()).setAttribute("inventory.cache_hit", false);
+    }
+
+    @Test
+    void getOrderDetailsReturnsOrderWithoutInventoryWhenLookupFails() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> request.url().getPath().startsWith("/api/inventory/")
+            ? json(HttpStatus.INTERNAL_SERVER_ERROR, "{}")
+            : orderOrInventory(request));
+
+        // Act & Assert
+        StepVerifier.create(service.getOrderDetails("order123"))
+            .assertNext(details -> {
+                assertThat(details.order().getId()).isEqualTo("order123");
+                assertThat(details.inventory()).isNull();
+                assertThat(details.inventoryError()).isEqualTo("Inventory unavailable");
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void getOrderDetailsReturnsEmptyWhenOrderNotFound() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(GatewayServiceUnitTest::orderOrInventory);
+
+        // Act & Assert
+        StepVerifier.create(service.getOrderDetails("missing")).verifyComplete();
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void getOrderDetailsListMergesPerOrderResultsInRequestOrder() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(GatewayServiceUnitTest::orderOrInventory);
+
+        // Act & Assert
+        StepVerifier.create(service.getOrderDetails(List.of("order1", "missing", "order2", "order1")))
+            .assertNext(results -> {
+                assertThat(results).extracting(OrderDetailsResult::id)
+                    .containsExactly("order1", "missing", "order2");
+                assertThat(results).extracting(OrderDetailsResult::status).containsExactly(
+                    OrderDetailsResult.Status.FOUND, OrderDetailsResult.Status.NOT_FOUND,
+                    OrderDetailsResult.Status.FOUND);
+                assertThat(results.get(2).details().inventory().getQuantity()).isEqualTo(10);
+            })
+            .verifyComplete();
+        verify(tracer).spanBuilder("get-order-details-list");
+        verify(tracer, times(3)).spanBuilder("fetch-order");
+    }
+
+    @Test
+    void getOrderDetailsListFetchesOrdersInParallelWithBoundedConcurrency() {
+        // Arrange
+        final var inFlight = new AtomicInteger();
+        final var maxInFlight = new AtomicInteger();
+        final var builder = WebClient.builder().exchangeFunction(request -> Mono.defer(() -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return Mono.delay(Duration.ofMillis(20)).map(tick -> {
+                inFlight.decrementAndGet();
+                return orderOrInventory(request);
+            });
+        }));
+        final var service = new GatewayService(builder, ORDER_URL, INVENTORY_URL, 3, 2, 5, 2, 5, 4096, inventoryCache(false),
+            new RequestCoalescer(new SimpleMeterRegistry(), true), requestHedger(), speculativeExecutor(false),
+            downstreamGuards(), routeDeadlines(), loadBalancingFilter(), connectionPools(), null);
+
+        // Act
+        final var results = service.getOrderDetails(List.of("order1", "order2", "order3")).block();
+
+        // Assert
+        assertThat(results).extracting(OrderDetailsResult::status).containsOnly(OrderDetailsResult.Status.FOUND);
+        assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getOrderDetailsListRejectsTooManyIds() {
+        // Arrange
+        final var service = serviceResponding(GatewayServiceUnitTest::orderOrInventory);
+
+        // Act & Assert
+        StepVerifier.create(service.getOrderDetails(List.of("order1", "order2", "order3", "order4", "order5", "order6")))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    void checkInventoryReturnsInventory() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.OK,
+            "{\"itemId\":\"item123\",\"available\":true,\"quantity\":10}"));
+
+        // Act & Assert
+        StepVerifier.create(service.checkInventory("item123"))
+            .assertNext(inventory -> assertThat(inventory.getQuantity()).isEqualTo(10))
+            .verifyComplete();
+        assertThat(requests.get(0).url().toString()).isEqualTo(INVENTORY_URL + "/api/inventory/item123");
+    }
+
+    @Test
+    void checkInventoryIsServedFromCacheOnRepeatLookups() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> json(HttpStatus.OK,
+            "{\"itemId\":\"item123\",\"available\":true,\"quantity\":10}"), inventoryCache(true));
+
+        // Act
+        service.checkInventory("item123").block();
+        service.checkInventory("item123").block();
+        service.createOrder(new CreateOrderRequest("item123", 5)).block();
+
+        // Assert - one inventory lookup, then only the order POST
+        assertThat(requests).extracting(request -> request.method())
+            .containsExactly(HttpMethod.GET, HttpMethod.POST);
+    }
+
+    @Test
+    void checkInventoryOfSeveralItemsFetchesCacheMissesWithOneLookup() {
+        // Arrange
+        final var service = serviceResponding(request -> request.url().getPath().endsWith("/item1")
+            ? json(HttpStatus.OK, "{\"itemId\":\"item1\",\"available\":true,\"quantity\":1}")
+            : json(HttpStatus.OK, "[{\"itemId\":\"item3\",\"available\":true,\"quantity\":3}]"),
+            inventoryCache(true));
+        service.checkInventory("item1").block();
+
+        // Act & Assert
+        StepVerifier.create(service.checkInventory(List.of("item3", "item1", "item2", "item3")))
+            .assertNext(inventory -> assertThat(inventory).extracting(InventoryResponse::getItemId)
+                .containsExactly("item3", "item1"))
+            .verifyComplete();
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).url().getPath()).isEqualTo("/api/inventory");
+        assertThat(requests.get(1).url().getQuery()).isEqualTo("ids=item3,item2");
+    }
+
+    @Test
+    void checkInventoryOfSeveralLongIdsSplitsLookupToKeepUrlsShort() {
+        // Arrange - five 255-character IDs make a URL of about 1.3KB, over the 1KB limit
+        final var builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            final var ids = request.url().getQuery().substring("ids=".length()).split(",");
+            final var body = new StringBuilder("[");
+            for (final var id : ids) {
+                body.append(body.length() > 1 ? "," : "")
+                    .append("{\"itemId\":\"").append(id).append("\",\"available\":true,\"quantity\":1}");
+            }
+            return Mono.just(json(HttpStatus.OK, body.append("]").toString()));
+        });
+        final var service = new GatewayService(builder, ORDER_URL, INVENTORY_URL, 3, 2, 5, 2, 5, 1024,
+            inventoryCache(false), new RequestCoalescer(new SimpleMeterRegistry(), true), requestHedger(),
+            speculativeExecutor(false), downstreamGuards(), routeDeadlines(), loadBalancingFilter(),
+            connectionPools(), null);
+        final var itemIds = List.of("a".repeat(255), "b".repeat(255), "c".repeat(255), "d".repeat(255),
+            "e".repeat(255));
+
+        // Act & Assert
+        StepVerifier.create(service.checkInventory(itemIds))
+            .assertNext(inventory -> assertThat(inventory).extracting(InventoryResponse::getItemId)
+                .containsExactlyElementsOf(itemIds))
+            .verifyComplete();
+        assertThat(requests).hasSize(2);
+        assertThat(requests).allSatisfy(request ->
+            assertThat(request.url().toString()).hasSizeLessThanOrEqualTo(1024));
+        assertThat(requests).extracting(request -> request.url().getQuery().split(",").length)
+            .containsExactlyInAnyOrder(3, 2);
+    }
+
+    @Test
+    void checkInventoryOfSeveralItemsRejectsIdsContainingComma() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.OK, "[]"));
+
+        // Act & Assert
+        StepVerifier.create(service.checkInventory(List.of("item1", "item2,item3")))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    void checkInventoryOfSeveralItemsRejectsTooManyIds() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.OK, "[]"));
+
+        // Act & Assert
+        StepVerifier.create(service.checkInventory(List.of("a", "b", "c", "d", "e", "f", "g")))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    void checkInventoryReturnsEmptyWhenItemNotFound() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.NOT_FOUND, "{}"));
+
+        // Act & Assert
+        StepVerifier.create(service.checkInventory("unknown"))
+            .verifyComplete();
+    }
+
+    @Test
+    void clientMetricsAreTaggedWithUriTemplateInsteadOfItemId() {
+        // Arrange
+        final var meterRegistry = new SimpleMeterRegistry();
+        final var observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        final var service = serviceResponding(request -> json(HttpStatus.OK,
+            "{\"itemId\":\"item\",\"available\":true,\"quantity\":10}"), inventoryCache(false), observationRegistry);
+
+        // Act
+        for (var i = 0; i < 1_000; i++) {
+            service.checkInventory("ITEM-" + i).block();
+        }
+
+        // Assert
+        assertThat(requests).hasSize(1_000);
+        assertThat(requests.get(999).url().toString()).isEqualTo(INVENTORY_URL + "/api/inventory/ITEM-999");
+        assertThat(meterRegistry.find("http.client.requests").timers())
+            .singleElement()
+            .satisfies(timer -> {
+                assertThat(timer.getId().getTag("uri")).isEqualTo("/api/inventory/{itemId}");
+                assertThat(timer.count()).isEqualTo(1_000);
+            });
+    }
+
+    @Test
+    void createOrdersLooksUpEachDistinctItemOnceAndReportsPerLineResults() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> {
+            if (request.method() == HttpMethod.POST) {
+                return json(HttpStatus.CREATED, "{\"id\":\"order\"}");
+            }
+            return request.url().getPath().endsWith("/missing")
+                ? json(HttpStatus.NOT_FOUND, "{}")
+                : json(HttpStatus.OK, "{\"available\":true}");
+        });
+        final var lines = List.of(
+            new CreateOrderRequest("item1", 1),
+            new CreateOrderRequest("missing", 1),
+            new CreateOrderRequest("item1", 2));
+
+        // Act
+        final var results = service.createOrders(lines).block();
+
+        // Assert
+        assertThat(results).extracting(BatchOrderLineResult::index).containsExactly(0, 1, 2);
+        assertThat(results).extracting(BatchOrderLineResult::status).containsExactly(
+            BatchOrderLineResult.Status.CREATED,
+            BatchOrderLineResult.Status.REJECTED,
+            BatchOrderLineResult.Status.CREATED);
+        assertThat(requests).filteredOn(request -> request.method() == HttpMethod.GET).hasSize(2);
+        assertThat(requests).filteredOn(request -> request.method() == HttpMethod.POST).hasSize(2);
+        verify(tracer).spanBuilder("create-order-batch");
+        verify(span).setAttribute("batch.distinct_items", 2L);
+        verify(span).setAttribute("batch.created", 2L);
+        verify(span).end();
+    }
+
+    @Test
+    void createOrdersSendsEachLineWithItsOwnIdempotencyKeyThatRetriesReuse() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> request.method() == HttpMethod.POST
+            ? json(HttpStatus.CREATED, "{\"id\":\"order\"}")
+            : json(HttpStatus.OK, "{\"available\":true}"));
+        final var lines = List.of(new CreateOrderRequest("item1", 1), new CreateOrderRequest("item1", 1));
+
+        // Act
+        service.createOrders(lines, "batch-1").block();
+        service.createOrders(lines, "batch-1").block();
+
+        // Assert
+        final var keys = requests.stream()
+            .filter(request -> request.method() == HttpMethod.POST)
+            .map(request -> request.headers().getFirst(IdempotencyStore.HEADER))
+            .toList();
+        assertThat(keys).hasSize(4).doesNotContainNull();
+        assertThat(keys.subList(0, 2)).doesNotHaveDuplicates();
+        assertThat(keys.subList(2, 4)).containsExactlyElementsOf(keys.subList(0, 2));
+    }
+
+    @Test
+    void createOrdersReportsFailedLinesWithoutFailingTheBatch() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> request.method() == HttpMethod.POST
+            ? json(HttpStatus.INTERNAL_SERVER_ERROR, "{}")
+            : json(HttpStatus.OK, "{\"available\":true}"));
+        final var lines = List.of(new CreateOrderRequest("item1", 1), new CreateOrderRequest("item2", 1));
+
+        // Act
+        final var results = service.createOrders(lines).block();
+
+        // Assert
+        assertThat(results).extracting(BatchOrderLineResult::status).containsExactly(
+            BatchOrderLineResult.Status.FAILED,
+            BatchOrderLineResult.Status.FAILED);
+        assertThat(results.get(1).error()).isEqualTo("Order creation failed");
+    }
+
+    @Test
+    void createOrdersRejectsEmptyAndOversizedBatches() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.OK, "{}"));
+        final var line = new CreateOrderRequest("item1", 1);
+
+        // Act & Assert
+        StepVerifier.create(service.createOrders(List.of()))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+        StepVerifier.create(service.createOrders(List.of(line, line, line, line)))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    void createOrderFailsFastOnceInventoryCircuitIsOpen() {
+        // Arrange
+        stubSpan();
+        final var service = serviceResponding(request -> json(HttpStatus.SERVICE_UNAVAILABLE, "{}"));
+        for (var i = 0; i < 4; i++) {
+            StepVerifier.create(service.checkInventory("item" + i))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify();
+        }
+        requests.clear();
+
+        // Act & Assert
+        StepVerifier.create(service.createOrder(new CreateOrderRequest("item123", 5)))
+            .expectError(DownstreamUnavailableException.class)
+            .verify();
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    void inventoryNotFoundDoesNotOpenTheCircuit() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.NOT_FOUND, "{}"));
+
+        // Act
+        for (var i = 0; i < 10; i++) {
+            service.checkInventory("unknown" + i).block();
+        }
+
+        // Assert
+        assertThat(requests).hasSize(10);
+    }
+
+    @Test
+    void downstreamCallsCarryRemainingDeadline() {
+        // Arrange
+        final var service = serviceResponding(request -> json(HttpStatus.OK,
+            "{\"itemId\":\"item123\",\"available\":true,\"quantity\":10}"));
+
+        // Act
+        service.checkInventory("item123").block();
+
+        // Assert
+        assertThat(requests).hasSize(1);
+        final var remainingMillis = Long.parseLong(requests.get(0).headers().getFirst(Deadline.HEADER));
+        assertThat(remainingMillis).isBetween(1L, 2000L);
+    }
+
+    @Test
+    void getOrderFailsWhenRouteDeadlineExpires() {
+        // Arrange
+        final var builder = WebClient.builder().exchangeFunction(request -> Mono.never());
+        final var service = new GatewayService(builder, ORDER_URL, INVENTORY_URL, 3, 2, 5, 2, 5, 4096, inventoryCache(false),
+            new RequestCoalescer(new SimpleMeterRegistry(), true), requestHedger(), speculativeExecutor(false),
+            downstreamGuards(), routeDeadlines(), loadBalancingFilter(), connectionPools(), null);
+
+        // Act & Assert
+        StepVerifier.create(service.getOrder("order123"))
+            .expectError(DeadlineExceededException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void warmUpSendsSyntheticLookupsToBothDownstreamsAndIgnoresNotFound() {
+        // Arrange
+        final var service = serviceResponding(request -> request.url().getHost().startsWith("order")
+            ? json(HttpStatus.NOT_FOUND, "{}")
+            : json(HttpStatus.OK, "{\"itemId\":\"warmup-0\",\"available\":true,\"quantity\":100}"));
+
+        // Act
+        StepVerifier.create(service.warmUp(5, 2))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        // Assert
+        assertThat(requests).hasSize(10);
+        assertThat(requests).extracting(request -> request.url().getPath())
+            .contains("/api/orders/warmup-0", "/api/inventory/warmup-4");
+        verifyNoInteractions(tracer);
+    }
+}
@@ -0,0 +1,52 @@
+package com.observability.gateway.timing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RequestTiming}.
+ */
+class RequestTimingTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void gatewayOverheadIsTheTimeWithoutDownstreamCallsInFlight() {
+        final var timing = new RequestTiming(0);
+
+        final var inventory = timing.startCall("inventory", 2 * MS);
+        inventory.finish("chaos;dur=5, total;dur=7", 10 * MS);
+        final var order = timing.startCall("order", 11 * MS);
+        order.finish("db;dur=3, total;dur=4", 16 * MS);
+
+        assertThat(timing.finish(20 * MS)).isEqualTo("inventory;dur=8.000, inventory.chaos;dur=5.000, "
+            + "inventory.total;dur=7.000, order;dur=5.000, order.db;dur=3.000, order.total;dur=4.000, "
+            + "gateway;dur=7.000, total;dur=20.000");
+    }
+
+    @Test
+    void overlappingCallsAreNotCountedTwiceInTheOverhead() {
+        final var timing = new RequestTiming(0);
+
+        final var first = timing.startCall("inventory", 1 * MS);
+        final var second = timing.startCall("inventory", 2 * MS);
+        second.finish(null, 6 * MS);
+        first.finish(null, 8 * MS);
+
+        assertThat(timing.finish(10 * MS))
+            .isEqualTo("inventory;dur=11.000;desc=\"2 calls\", gateway;dur=3.000, total;dur=10.000");
+    }
+
+    @Test
+    void finishingACallTwiceRecordsItOnce() {
+        final var timing = new RequestTiming(0);
+
+        final var call = timing.startCall("order", 0);
+        call.finish("db;dur=1", 2 * MS);
+        call.finish(null, 5 * MS);
+
+        assertThat(timing.finish(5 * MS)).isEqualTo("order;dur=2.000, order.db;dur=1.000, "
+            + "gateway;dur=3.000, total;dur=5.000");
+    }
+}
@@ -0,0 +1,75 @@
+package com.observability.gateway.timing;
+
+import com.observability.commons.timing.ServerTiming;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ServerTimingWebFilter} together with {@link DownstreamTimingFilter}.
+ */
+class ServerTimingWebFilterTest {
+
+    private final ExchangeFunction inventoryService = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+        .header(ServerTiming.HEADER, "db;dur=2.5, total;dur=3")
+        .build());
+    private final DownstreamTimingFilter downstreamTiming = new DownstreamTimingFilter("inventory");
+
+    private WebFilterChain callingInventory() {
+        final var request = ClientRequest.create(HttpMethod.GET, URI.create("http://inventory/api/inventory/item1"))
+            .build();
+        return exchange -> downstreamTiming.filter(request, inventoryService)
+            .then(exchange.getResponse().setComplete());
+    }
+
+    @Test
+    void returnsDownstreamAndGatewayTimingsInTheResponseHeader() {
+        // Arrange
+        final var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/inventory/item1"));
+
+        // Act
+        new ServerTimingWebFilter(true).filter(exchange, callingInventory()).block();
+
+        // Assert
+        assertThat(exchange.getResponse().getHeaders().getFirst(ServerTiming.HEADER)).matches(
+            "inventory;dur=[\\d.]+, inventory\\.db;dur=2\\.500, inventory\\.total;dur=3\\.000, "
+                + "gateway;dur=[\\d.]+, total;dur=[\\d.]+");
+    }
+
+    @Test
+    void callsOutsideATimedRequestAreNotTimed() {
+        // Arrange
+        final var request = ClientRequest.create(HttpMethod.GET, URI.create("http://inventory/api/inventory/item1"))
+            .build();
+
+        // Act
+        final var response = downstreamTiming.filter(request, inventoryService).block();
+
+        // Assert
+        assertThat(response).isNotNull();
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void disabledFilterAddsNoHeader() {
+        // Arrange
+        final var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/inventory/item1"));
+
+        // Act
+        new ServerTimingWebFilter(false).filter(exchange, callingInventory()).block();
+
+        // Assert
+        assertThat(exchange.getResponse().getHeaders().containsKey(ServerTiming.HEADER)).isFalse();
+    }
+}
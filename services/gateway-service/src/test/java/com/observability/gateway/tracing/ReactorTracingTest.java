@@ -0,0 +1,96 @@
+package com.observability.gateway.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ReactorTracing}.
+ */
+class ReactorTracingTest {
+
+    private SdkTracerProvider tracerProvider;
+
+    @BeforeEach
+    void setUp() {
+        tracerProvider = SdkTracerProvider.builder().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void nestedSpansAreParentedThroughReactorContextAcrossThreads() {
+        final var tracer = tracerProvider.get("test");
+        final var outer = new AtomicReference<Span>();
+        final var inner = new AtomicReference<Span>();
+
+        final var pipeline = ReactorTracing.inSpan(tracer, "outer", outerSpan -> {
+            outer.set(outerSpan);
+            return Mono.just("value")
+                .publishOn(Schedulers.parallel())
+                .flatMap(value -> ReactorTracing.inSpan(tracer, "inner", innerSpan -> {
+                    inner.set(innerSpan);
+                    return Mono.just(value);
+                }));
+        });
+
+        StepVerifier.create(pipeline).expectNext("value").verifyComplete();
+
+        final var outerSpan = (ReadableSpan) outer.get();
+        final var innerSpan = (ReadableSpan) inner.get();
+        assertThat(innerSpan.getParentSpanContext()).isEqualTo(outerSpan.getSpanContext());
+        assertThat(outerSpan.hasEnded()).isTrue();
+        assertThat(innerSpan.hasEnded()).isTrue();
+    }
+
+    @Test
+    void spanRecordsErrorAndEnds() {
+        final var tracer = tracerProvider.get("test");
+        final var captured = new AtomicReference<Span>();
+
+        final var pipeline = ReactorTracing.inSpan(tracer, "failing", span -> {
+            captured.set(span);
+            return Mono.<String>error(new IllegalStateException("boom"));
+        });
+
+        StepVerifier.create(pipeline).expectError(IllegalStateException.class).verify();
+
+        final var span = (ReadableSpan) captured.get();
+        assertThat(span.hasEnded()).isTrue();
+        assertThat(span.toSpanData().getEvents()).extracting("name").contains("exception");
+    }
+
+    @Test
+    void spanEndsWhenBodyThrowsSynchronously() {
+        final var tracer = tracerProvider.get("test");
+        final var captured = new AtomicReference<Span>();
+
+        final var pipeline = ReactorTracing.<String>inSpan(tracer, "throwing", span -> {
+            captured.set(span);
+            throw new IllegalArgumentException("bad input");
+        });
+
+        StepVerifier.create(pipeline).expectError(IllegalArgumentException.class).verify();
+        assertThat(((ReadableSpan) captured.get()).hasEnded()).isTrue();
+    }
+
+    @Test
+    void nullTracerUsesInvalidSpan() {
+        final var pipeline = ReactorTracing.inSpan(null, "untraced", span -> Mono.just(span.getSpanContext().isValid()));
+
+        StepVerifier.create(pipeline).expectNext(false).verifyComplete();
+    }
+}
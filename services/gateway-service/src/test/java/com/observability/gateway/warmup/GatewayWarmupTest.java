@@ -0,0 +1,82 @@
+package com.observability.gateway.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.observability.gateway.service.GatewayService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link GatewayWarmup} and {@link WarmupHealthIndicator}.
+ */
+@ExtendWith(MockitoExtension.class)
+class GatewayWarmupTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private GatewayService gatewayService;
+
+    private GatewayWarmup warmup(final boolean enabled, final Duration timeout) {
+        return new GatewayWarmup(gatewayService, objectMapper, meterRegistry, enabled, 20, 4, timeout);
+    }
+
+    @Test
+    void readinessStaysDownUntilWarmUpHasFinished() {
+        // Arrange
+        when(gatewayService.warmUp(20, 4)).thenReturn(Mono.empty());
+        final var warmup = warmup(true, Duration.ofSeconds(5));
+        final var health = new WarmupHealthIndicator(warmup);
+        final var statusBefore = health.health().getStatus();
+
+        // Act
+        warmup.run().block();
+
+        // Assert
+        assertThat(statusBefore).isEqualTo(Status.DOWN);
+        assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+        verify(gatewayService).warmUp(20, 4);
+        assertThat(meterRegistry.get("gateway_warmup_duration").tag("outcome", "completed").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void reportsReadyAnywayWhenWarmUpTimesOut() {
+        // Arrange
+        when(gatewayService.warmUp(20, 4)).thenReturn(Mono.never());
+        final var warmup = warmup(true, Duration.ofMillis(50));
+
+        // Act
+        warmup.run().block();
+
+        // Assert
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat(meterRegistry.get("gateway_warmup_duration").tag("outcome", "timed_out").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void disabledWarmUpIsCompleteImmediately() {
+        // Act
+        final var warmup = warmup(false, Duration.ofSeconds(5));
+        warmup.run().block();
+
+        // Assert
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat(meterRegistry.find("gateway_warmup_duration").timer()).isNull();
+        verifyNoInteractions(gatewayService);
+    }
+}
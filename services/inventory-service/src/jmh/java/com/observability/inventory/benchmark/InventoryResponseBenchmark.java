@@ -0,0 +1,99 @@
+package com.observability.inventory.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.observability.inventory.InventoryController;
+import com.observability.inventory.model.InventoryResponse;
+import com.observability.inventory.service.InventoryItemCache;
+import com.observability.inventory.service.InventoryService;
+import com.observability.inventory.service.InventoryStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the inventory check request path that returned a generic
+ * {@code Map<String, Object>} from the service, copied by the controller into
+ * the generated {@link InventoryResponse}, with the current one, which writes
+ * the service's immutable {@link InventoryStatus} to the response as is.
+ *
+ * <p>Both benchmarks look up an item through {@link InventoryService} with
+ * its {@link InventoryItemCache} already warm, so no database is involved,
+ * and serialize the response body with an object mapper configured like the
+ * one Spring MVC uses. {@code map} rebuilds the previous map and copy on top
+ * of the same lookup. {@code itemId} selects an existing item or an unknown
+ * one, which gets the synthetic default. Run with
+ * {@code ./gradlew :inventory-service:jmh} and add {@code -prof gc} to the
+ * JMH arguments to compare bytes allocated per operation.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InventoryResponseBenchmark {
+
+    @Param({"ITEM-123", "UNKNOWN-1"})
+    private String itemId;
+
+    private ObjectMapper objectMapper;
+    private InventoryService inventoryService;
+    private InventoryController inventoryController;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var rootLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(ch.qos.logback.classic.Level.WARN);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        final var itemCache = new InventoryItemCache(new SimpleMeterRegistry(), true, Duration.ofHours(1), 100,
+            true, Duration.ofHours(1));
+        itemCache.get("ITEM-123", id -> Optional.of(InventoryStatus.of(id, "Test Item", 5000)));
+        itemCache.get("UNKNOWN-1", id -> Optional.empty());
+        inventoryService = new InventoryService(null, null, itemCache, null, null, false, 100, 2000, false, 0.1, 100);
+        inventoryController = new InventoryController(inventoryService);
+    }
+
+    /**
+     * Checks an item and serializes the map-based response the controller used to build.
+     *
+     * @return the serialized response body
+     * @throws Exception if the lookup or serialization fails
+     */
+    @Benchmark
+    public byte[] map() throws Exception {
+        final var status = inventoryService.checkInventory(itemId);
+        final var result = new HashMap<String, Object>();
+        result.put("itemId", status.itemId());
+        result.put("name", status.name());
+        result.put("quantity", status.quantity());
+        result.put("available", status.available());
+        final var response = new InventoryResponse()
+            .itemId((String) result.get("itemId"))
+            .name((String) result.get("name"))
+            .quantity((Integer) result.get("quantity"))
+            .available((Boolean) result.get("available"));
+        return serialize(ResponseEntity.ok(response));
+    }
+
+    /**
+     * Checks an item through the controller and serializes its response.
+     *
+     * @return the serialized response body
+     * @throws JsonProcessingException if serialization fails
+     */
+    @Benchmark
+    public byte[] typed() throws JsonProcessingException {
+        return serialize(inventoryController.checkInventory(itemId));
+    }
+
+    private byte[] serialize(final ResponseEntity<?> response) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+}
@@ -0,0 +1,148 @@
+package com.observability.inventory.benchmark;
+
+import com.observability.inventory.InventoryItem;
+import com.observability.inventory.InventoryRepository;
+import com.observability.inventory.InventoryServiceApplication;
+import com.observability.inventory.service.InventoryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of concurrent reservations of one item with a
+ * conditional {@code UPDATE} and with a read-modify-write through the
+ * repository.
+ *
+ * <p>{@code conditional-update} calls {@link InventoryService#reserve}.
+ * {@code read-modify-write} loads the item, decrements it and saves it back in
+ * a serializable transaction, retrying on conflicts, as CockroachDB would
+ * require. The service runs against an in-memory H2 database, so the numbers
+ * show lock contention rather than network round trips. The retries of the
+ * read-modify-write and the stock left at the end of the trial are reported
+ * by JMH next to the score, as the {@code retries} and {@code stockLeft}
+ * secondary results.</p>
+ *
+ * <p>Run with {@code ./gradlew :inventory-service:jmh}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class ReservationBenchmark {
+
+    private static final String ITEM_ID = "BENCH-1";
+
+    @Param({"conditional-update", "read-modify-write"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private InventoryRepository inventoryRepository;
+    private TransactionTemplate serializable;
+    private Integer stockLeft;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.datasource.hikari.maximum-pool-size=8",
+                "--otel.sdk.disabled=true",
+                "--logging.level.root=WARN",
+                "--logging.level.com.observability=WARN");
+        inventoryService = context.getBean(InventoryService.class);
+        inventoryRepository = context.getBean(InventoryRepository.class);
+        serializable = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        serializable.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+
+        final var item = new InventoryItem();
+        item.setItemId(ITEM_ID);
+        item.setName("Benchmark Item");
+        item.setQuantity(Integer.MAX_VALUE);
+        inventoryRepository.save(item);
+    }
+
+    /**
+     * Reads the stock before closing the context: whichever thread finishes
+     * first tears the trial down, possibly before the first thread has
+     * recorded {@link Counters#stockLeft}.
+     */
+    @TearDown(Level.Trial)
+    public synchronized void tearDown() {
+        stockLeft();
+        context.close();
+    }
+
+    private synchronized int stockLeft() {
+        if (stockLeft == null) {
+            stockLeft = inventoryRepository.findQuantityByItemId(ITEM_ID).orElseThrow();
+        }
+        return stockLeft;
+    }
+
+    /**
+     * Secondary results reported by JMH alongside the score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        /** Conflicts after which this thread retried a read-modify-write. */
+        public long retries;
+
+        /**
+         * Units left in stock at the end of the trial. JMH sums counters over
+         * threads and iterations, so only the first thread sets it, after the
+         * last measurement iteration.
+         */
+        public long stockLeft;
+
+        private int measurementIterations;
+
+        @TearDown(Level.Iteration)
+        public void recordStockLeft(final ReservationBenchmark benchmark, final ThreadParams threadParams,
+                                    final IterationParams iterationParams) {
+            if (iterationParams.getType() == IterationType.MEASUREMENT
+                    && ++measurementIterations == iterationParams.getCount()
+                    && threadParams.getThreadIndex() == 0) {
+                stockLeft = benchmark.stockLeft();
+            }
+        }
+    }
+
+    /**
+     * Reserves one unit of the benchmark item.
+     *
+     * @param counters counts the retries of the read-modify-write
+     * @return the result of the reservation
+     */
+    @Benchmark
+    public Object reserve(final Counters counters) {
+        if ("conditional-update".equals(mode)) {
+            return inventoryService.reserve(ITEM_ID, 1);
+        }
+        while (true) {
+            try {
+                return serializable.execute(status -> {
+                    final var item = inventoryRepository.findById(ITEM_ID).orElseThrow();
+                    item.setQuantity(item.getQuantity() - 1);
+                    return inventoryRepository.save(item).getQuantity();
+                });
+            } catch (ConcurrencyFailureException e) {
+                counters.retries++;
+            }
+        }
+    }
+}
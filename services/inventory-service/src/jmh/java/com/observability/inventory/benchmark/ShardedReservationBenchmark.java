@@ -0,0 +1,74 @@
+package com.observability.inventory.benchmark;
+
+import com.observability.inventory.InventoryItem;
+import com.observability.inventory.InventoryRepository;
+import com.observability.inventory.InventoryServiceApplication;
+import com.observability.inventory.service.InventoryService;
+import com.observability.inventory.service.ShardedStock;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the throughput of concurrent reservations of one hot item
+ * scales with the number of stock shards it is split into.
+ *
+ * <p>With one shard every reservation updates the same row, as without
+ * sharding; with more, concurrent reservations mostly update different rows.
+ * The service runs against an in-memory H2 database, so the numbers show
+ * row lock contention rather than network round trips.</p>
+ *
+ * <p>Run with {@code ./gradlew :inventory-service:jmh}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class ShardedReservationBenchmark {
+
+    private static final String ITEM_ID = "HOT-1";
+
+    @Param({"1", "4", "16"})
+    private int shards;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.datasource.hikari.maximum-pool-size=8",
+                "--inventory.sharding.enabled=true",
+                "--inventory.sharding.shards=" + shards,
+                "--inventory.sharding.hot-items=" + ITEM_ID,
+                "--inventory.sharding.rebalance-interval=1h",
+                "--otel.sdk.disabled=true",
+                "--logging.level.root=WARN",
+                "--logging.level.com.observability=WARN");
+        inventoryService = context.getBean(InventoryService.class);
+
+        final var item = new InventoryItem();
+        item.setItemId(ITEM_ID);
+        item.setName("Hot Item");
+        item.setQuantity(Integer.MAX_VALUE);
+        context.getBean(InventoryRepository.class).save(item);
+        context.getBean(ShardedStock.class).rebalance();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object reserve() {
+        return inventoryService.reserve(ITEM_ID, 1);
+    }
+}
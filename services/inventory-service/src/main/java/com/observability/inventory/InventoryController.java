@@ -1,16 +1,22 @@
 package com.observability.inventory;
 
+import com.observability.commons.deadline.DeadlineExceededException;
 import com.observability.inventory.model.*;
 import com.observability.inventory.service.InventoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
+import static com.observability.commons.util.LogUtils.sanitizeForLog;
+
 /**
  * REST controller for inventory management operations.
  * 
- * <p>This controller handles inventory checks and chaos engineering
+ * <p>This controller handles inventory checks, reservations and chaos engineering
  * configuration for testing and demonstration purposes.</p>
  *
  * @since 1.0.0
@@ -47,6 +53,9 @@ public class InventoryController {
     /**
      * Checks inventory availability for a specific item.
      *
+     * <p>The service's immutable inventory status is written to the response
+     * as is; its JSON form is the API's {@code InventoryResponse}.</p>
+     *
      * @param itemId the item ID to check inventory for
      * @return ResponseEntity with inventory information or error details
      */
@@ -58,17 +67,14 @@ public class InventoryController {
         }
 
         try {
-            final var result = inventoryService.checkInventory(itemId);
-            final var response = new InventoryResponse()
-                .itemId((String) result.get("itemId"))
-                .name((String) result.get("name"))
-                .quantity((Integer) result.get("quantity"))
-                .available((Boolean) result.get("available"));
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(inventoryService.checkInventory(itemId));
         } catch (InterruptedException e) {
             logger.error("Interrupted during latency simulation", e);
             Thread.currentThread().interrupt();
             return ResponseEntity.internalServerError().body(new ErrorResponse("Service interrupted"));
+        } catch (DeadlineExceededException e) {
+            logger.warn("Inventory check abandoned: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(new ErrorResponse("Deadline exceeded"));
         } catch (RuntimeException e) {
             if (e.getMessage() != null && e.getMessage().contains("Chaos error")) {
                 return ResponseEntity.internalServerError().body(new ErrorResponse("Chaos error injected"));
@@ -78,6 +84,77 @@ public class InventoryController {
         }
     }
 
+    /**
+     * Checks inventory availability for several items with a single query.
+     *
+     * <p>An ID containing a comma is rejected: sent on its own it would be
+     * split into several IDs, so its meaning would depend on the request.</p>
+     *
+     * @param ids the item IDs to check, comma-separated or repeated
+     * @return ResponseEntity with one inventory record per distinct ID, in request order, or error details
+     */
+    @GetMapping("/inventory")
+    public ResponseEntity<?> lookupInventory(@RequestParam List<String> ids) {
+        if (ids.stream().anyMatch(id -> id == null || id.trim().isEmpty() || id.length() > 255
+                || id.indexOf(',') >= 0)) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid item ID"));
+        }
+
+        try {
+            return ResponseEntity.ok(inventoryService.lookupInventory(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (InterruptedException e) {
+            logger.error("Interrupted during latency simulation", e);
+            Thread.currentThread().interrupt();
+            return ResponseEntity.internalServerError().body(new ErrorResponse("Service interrupted"));
+        } catch (DeadlineExceededException e) {
+            logger.warn("Inventory lookup abandoned: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(new ErrorResponse("Deadline exceeded"));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Chaos error")) {
+                return ResponseEntity.internalServerError().body(new ErrorResponse("Chaos error injected"));
+            }
+            logger.error("Error looking up inventory", e);
+            return ResponseEntity.internalServerError().body(new ErrorResponse("Internal server error"));
+        }
+    }
+
+    /**
+     * Reserves stock of an item.
+     *
+     * @param itemId the item ID to reserve
+     * @param request the quantity to reserve
+     * @return ResponseEntity with the reservation and the remaining stock, or error details
+     */
+    @PostMapping("/inventory/{itemId}/reserve")
+    public ResponseEntity<?> reserveInventory(@PathVariable String itemId, @RequestBody ReservationRequest request) {
+        if (itemId == null || itemId.trim().isEmpty() || itemId.length() > 255) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid item ID"));
+        }
+        final var quantity = request.getQuantity();
+        if (quantity == null || quantity < 1 || quantity > 1000000) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Quantity must be between 1 and 1000000"));
+        }
+
+        try {
+            return inventoryService.reserve(itemId, quantity)
+                .<ResponseEntity<?>>map(remaining -> ResponseEntity.ok(
+                    new ReservationResponse(itemId, quantity, remaining)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("Item not found")));
+        } catch (IllegalStateException e) {
+            logger.warn("Item {} not reserved: {}", sanitizeForLog(itemId), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        } catch (DeadlineExceededException e) {
+            logger.warn("Inventory reservation abandoned: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(new ErrorResponse("Deadline exceeded"));
+        } catch (RuntimeException e) {
+            logger.error("Error reserving inventory", e);
+            return ResponseEntity.internalServerError().body(new ErrorResponse("Internal server error"));
+        }
+    }
+
     /**
      * Configures chaos latency injection settings.
      *
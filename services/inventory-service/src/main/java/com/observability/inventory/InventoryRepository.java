@@ -1,8 +1,15 @@
 package com.observability.inventory;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * JPA Repository for InventoryItem entities.
  * 
@@ -13,4 +20,40 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface InventoryRepository extends JpaRepository<InventoryItem, String> {
+
+    /**
+     * Takes the given quantity out of an item's stock, provided that much is
+     * available.
+     *
+     * <p>A single conditional {@code UPDATE}: the check and the decrement
+     * happen in the database under the row lock, so concurrent reservations
+     * can never take stock below zero and never need to be retried.</p>
+     *
+     * @param itemId the item ID to reserve
+     * @param quantity the quantity to take out of stock
+     * @return 1 if the stock was decremented, 0 if the item does not exist or has too little stock
+     */
+    @Modifying
+    @Query("update InventoryItem i set i.quantity = i.quantity - :quantity "
+        + "where i.itemId = :itemId and i.quantity >= :quantity")
+    int decrementIfAvailable(@Param("itemId") String itemId, @Param("quantity") int quantity);
+
+    /**
+     * Reads an item's stock quantity without loading the entity.
+     *
+     * @param itemId the item ID to look up
+     * @return an Optional containing the quantity in stock if the item exists, empty otherwise
+     */
+    @Query("select i.quantity from InventoryItem i where i.itemId = :itemId")
+    Optional<Integer> findQuantityByItemId(@Param("itemId") String itemId);
+
+    /**
+     * Loads and locks an item, for rebalancing its stock shards.
+     *
+     * @param itemId the item ID to look up
+     * @return an Optional containing the locked item if it exists, empty otherwise
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from InventoryItem i where i.itemId = :itemId")
+    Optional<InventoryItem> findForUpdate(@Param("itemId") String itemId);
 }
@@ -0,0 +1,123 @@
+package com.observability.inventory;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * JPA Entity representing one slice of a hot item's stock.
+ *
+ * <p>When stock sharding is enabled for an item, its quantity is split
+ * across several shard rows, so concurrent reservations update different
+ * rows instead of all contending for the single {@link InventoryItem} row.
+ * The item's available quantity is the sum of its shards plus whatever is
+ * still held by the item row itself.</p>
+ *
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "inventory_shard")
+@IdClass(InventoryShard.Key.class)
+public class InventoryShard {
+
+    @Id
+    private String itemId;
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    /**
+     * Creates an empty shard, for JPA.
+     */
+    public InventoryShard() {
+    }
+
+    /**
+     * Creates a shard of an item's stock.
+     *
+     * @param itemId the item the shard belongs to
+     * @param shard the shard index, from 0
+     * @param quantity the quantity held by the shard
+     */
+    public InventoryShard(final String itemId, final int shard, final int quantity) {
+        this.itemId = itemId;
+        this.shard = shard;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Gets the item ID.
+     *
+     * @return the item the shard belongs to
+     */
+    public String getItemId() {
+        return itemId;
+    }
+
+    /**
+     * Gets the shard index.
+     *
+     * @return the shard index, from 0
+     */
+    public Integer getShard() {
+        return shard;
+    }
+
+    /**
+     * Gets the quantity held by the shard.
+     *
+     * @return the quantity held by the shard
+     */
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Sets the quantity held by the shard.
+     *
+     * @param quantity the quantity to set
+     */
+    public void setQuantity(final Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    /**
+     * Composite primary key of a shard: the item ID and the shard index.
+     */
+    public static class Key implements Serializable {
+
+        private String itemId;
+        private Integer shard;
+
+        /**
+         * Creates an empty key, for JPA.
+         */
+        public Key() {
+        }
+
+        /**
+         * Creates the key of one shard of an item.
+         *
+         * @param itemId the item ID
+         * @param shard the shard index
+         */
+        public Key(final String itemId, final Integer shard) {
+            this.itemId = itemId;
+            this.shard = shard;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Key other && Objects.equals(itemId, other.itemId) && Objects.equals(shard, other.shard);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, shard);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.observability.inventory;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * JPA Repository for InventoryShard entities.
+ *
+ * <p>Reservations decrement one shard at a time with a conditional
+ * {@code UPDATE}, like {@link InventoryRepository#decrementIfAvailable}.</p>
+ *
+ * @since 1.0.0
+ */
+@Repository
+public interface InventoryShardRepository extends JpaRepository<InventoryShard, InventoryShard.Key> {
+
+    /**
+     * Takes the given quantity out of one shard, provided the shard holds
+     * that much.
+     *
+     * @param itemId the item ID to reserve
+     * @param shard the shard index to take the quantity from
+     * @param quantity the quantity to take out of the shard
+     * @return 1 if the shard was decremented, 0 if it does not exist or holds too little
+     */
+    @Modifying
+    @Query("update InventoryShard s set s.quantity = s.quantity - :quantity "
+        + "where s.itemId = :itemId and s.shard = :shard and s.quantity >= :quantity")
+    int decrementIfAvailable(@Param("itemId") String itemId, @Param("shard") int shard,
+                             @Param("quantity") int quantity);
+
+    /**
+     * Sums the quantity held by all shards of an item.
+     *
+     * @param itemId the item ID to look up
+     * @return the total quantity across the item's shards, 0 if it has none
+     */
+    @Query("select coalesce(sum(s.quantity), 0) from InventoryShard s where s.itemId = :itemId")
+    long sumQuantityByItemId(@Param("itemId") String itemId);
+
+    /**
+     * Loads and locks all shards of an item, for rebalancing.
+     *
+     * @param itemId the item ID to look up
+     * @return the item's shards, ordered by shard index
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<InventoryShard> findByItemIdOrderByShard(String itemId);
+}
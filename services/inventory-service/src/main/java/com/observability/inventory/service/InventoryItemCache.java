@@ -0,0 +1,252 @@
+package com.observability.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-process cache of inventory item statuses, keyed by item ID.
+ *
+ * <p>Lookups are read-through: a miss loads the item from the database,
+ * concurrent misses for the same item share a single load, and items that do
+ * not exist are cached too, with their own shorter TTL. A snapshot is never
+ * older than {@code inventory.item-cache.ttl}, which bounds how stale a
+ * change made outside this service (e.g. a restock written straight to the
+ * database) can be.</p>
+ *
+ * <p>Changes made by this service are written through: a reservation
+ * replaces the cached quantity once its transaction has committed, so
+ * readers on this instance see it straight away. Since reservations only
+ * ever lower the stock, a quantity that is not below the cached one must
+ * come from a commit that finished after a later one; rather than letting
+ * it overwrite the newer quantity, the entry is dropped and reloaded on the
+ * next lookup. Entries are bounded to
+ * {@code inventory.item-cache.max-entries}, evicting the least valuable ones
+ * first.</p>
+ *
+ * <p>Hit, miss, eviction and size metrics are exported to Micrometer under
+ * the {@code cache="inventory.items"} tag, along with
+ * {@code inventory_item_cache_hit_ratio} and the database load latency in
+ * {@code inventory_item_cache_load_duration_seconds}.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class InventoryItemCache {
+
+    private static final String CACHE_NAME = "inventory.items";
+
+    private final boolean enabled;
+    private final boolean cacheNotFound;
+    private final Cache<String, Entry> cache;
+    private final Timer loadTimer;
+
+    /**
+     * Constructs a new InventoryItemCache from configuration.
+     *
+     * @param meterRegistry the Micrometer registry for cache metrics
+     * @param enabled whether caching is enabled; when disabled every lookup goes to the database
+     * @param ttl the longest a snapshot of an existing item stays cached
+     * @param maxEntries the maximum number of cached items
+     * @param cacheNotFound whether lookups for unknown items are cached
+     * @param notFoundTtl how long an unknown item stays cached
+     */
+    @Autowired
+    public InventoryItemCache(
+            final MeterRegistry meterRegistry,
+            @Value("${inventory.item-cache.enabled:true}") final boolean enabled,
+            @Value("${inventory.item-cache.ttl:2s}") final Duration ttl,
+            @Value("${inventory.item-cache.max-entries:10000}") final long maxEntries,
+            @Value("${inventory.item-cache.cache-not-found:true}") final boolean cacheNotFound,
+            @Value("${inventory.item-cache.not-found-ttl:1s}") final Duration notFoundTtl) {
+        this(meterRegistry, enabled, ttl, maxEntries, cacheNotFound, notFoundTtl, Ticker.systemTicker());
+    }
+
+    InventoryItemCache(
+            final MeterRegistry meterRegistry,
+            final boolean enabled,
+            final Duration ttl,
+            final long maxEntries,
+            final boolean cacheNotFound,
+            final Duration notFoundTtl,
+            final Ticker ticker) {
+        this.enabled = enabled;
+        this.cacheNotFound = cacheNotFound;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfter(new EntryExpiry(ttl.toNanos(), notFoundTtl.toNanos()))
+            .ticker(ticker)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("inventory_item_cache_hit_ratio", cache, c -> c.stats().hitRate())
+            .description("Share of item lookups served from the cache since startup")
+            .register(meterRegistry);
+        this.loadTimer = Timer.builder("inventory_item_cache_load_duration")
+            .description("Time spent loading missed items from the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached snapshot of an item, loading it on a miss.
+     *
+     * @param itemId the item ID to look up
+     * @param loader function loading the item from the database; an empty result means "not found"
+     * @return an Optional containing the status, or empty if the item does not exist
+     */
+    public Optional<InventoryStatus> get(final String itemId,
+                                         final Function<String, Optional<InventoryStatus>> loader) {
+        if (!enabled) {
+            return loader.apply(itemId);
+        }
+        final var entry = cache.get(itemId, key -> {
+            final var loaded = loadTimer.record(() -> loader.apply(key));
+            return loaded.isPresent() || cacheNotFound ? new Entry(loaded.orElse(null), false) : null;
+        });
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.status());
+    }
+
+    /**
+     * Returns the cached snapshots of several items, loading all misses with
+     * a single call.
+     *
+     * @param itemIds the distinct item IDs to look up
+     * @param loader function loading the missed items from the database; an ID missing from its
+     *               result means "not found"
+     * @return the status of each existing item, keyed by item ID
+     */
+    public Map<String, InventoryStatus> getAll(final List<String> itemIds,
+                                               final Function<List<String>, Map<String, InventoryStatus>> loader) {
+        if (!enabled) {
+            return loader.apply(itemIds);
+        }
+        final var cached = cache.getAllPresent(itemIds);
+        final var found = new HashMap<String, InventoryStatus>();
+        final var missed = new ArrayList<String>();
+        for (final var itemId : itemIds) {
+            final var entry = cached.get(itemId);
+            if (entry == null) {
+                missed.add(itemId);
+            } else if (entry.status() != null) {
+                found.put(itemId, entry.status());
+            }
+        }
+        if (missed.isEmpty()) {
+            return found;
+        }
+        final var loaded = loadTimer.record(() -> loader.apply(missed));
+        for (final var itemId : missed) {
+            final var status = loaded.get(itemId);
+            if (status != null) {
+                cache.put(itemId, new Entry(status, false));
+                found.put(itemId, status);
+            } else if (cacheNotFound) {
+                cache.put(itemId, Entry.NOT_FOUND);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Writes a new quantity of an item through to its cached status, once
+     * the current transaction has committed (or straight away outside of
+     * one). Only a quantity below the cached one is written; otherwise the
+     * callback is taken to be out of order and the item is dropped from the
+     * cache. An item that is not cached stays uncached, and one cached as
+     * not found is dropped.
+     *
+     * @param itemId the item whose stock changed
+     * @param quantity the quantity now in stock
+     */
+    public void updateQuantity(final String itemId, final int quantity) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replaceQuantity(itemId, quantity);
+                }
+            });
+        } else {
+            replaceQuantity(itemId, quantity);
+        }
+    }
+
+    private void replaceQuantity(final String itemId, final int quantity) {
+        cache.asMap().computeIfPresent(itemId, (key, entry) -> entry.status() == null
+                || quantity >= entry.status().quantity()
+            ? null
+            : new Entry(entry.status().withQuantity(quantity), true));
+    }
+
+    /**
+     * Performs any pending eviction and expiry maintenance.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Returns the approximate number of cached items.
+     *
+     * @return the estimated cache size
+     */
+    long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Cached lookup result; a {@code null} status marks an item that does not exist.
+     *
+     * @param status the status of the item, or {@code null}
+     * @param writeThrough whether only the quantity was replaced, keeping the rest of the status's age
+     */
+    private record Entry(InventoryStatus status, boolean writeThrough) {
+        private static final Entry NOT_FOUND = new Entry(null, false);
+    }
+
+    /**
+     * Applies the found or not-found TTL depending on the entry. A
+     * written-through quantity does not extend the entry's life, so the rest
+     * of the status is still reloaded within the TTL.
+     */
+    private record EntryExpiry(long ttlNanos, long notFoundTtlNanos) implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(final String key, final Entry value, final long currentTime) {
+            return value.status() == null ? notFoundTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final Entry value, final long currentTime,
+                                      final long currentDuration) {
+            return value.writeThrough() ? currentDuration : expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final Entry value, final long currentTime,
+                                    final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.observability.inventory.service;
 
+import com.observability.commons.deadline.DeadlineContext;
+import com.observability.commons.timing.ServerTimingContext;
 import com.observability.inventory.InventoryItem;
 import com.observability.inventory.InventoryRepository;
 import io.opentelemetry.api.trace.Span;
@@ -8,10 +10,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -20,8 +27,14 @@ import static com.observability.commons.util.LogUtils.sanitizeForLog;
 /**
  * Service class for inventory management operations.
  * 
- * <p>This service handles inventory checks and provides chaos engineering
- * capabilities for testing system resilience under adverse conditions.</p>
+ * <p>This service handles inventory checks and reservations, and provides
+ * chaos engineering capabilities for testing system resilience under adverse
+ * conditions.
+ * Items are read through an {@link InventoryItemCache}, which reservations
+ * keep up to date.
+ * Injected latency and time spent in the database are reported to the caller
+ * as {@code chaos} and {@code db} in the {@code Server-Timing} response
+ * header.</p>
  *
  * @since 1.0.0
  */
@@ -29,10 +42,16 @@ import static com.observability.commons.util.LogUtils.sanitizeForLog;
 public class InventoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+    private static final int RESERVE_ATTEMPTS = 5;
+    private static final long RESERVE_RETRY_BACKOFF_MILLIS = 5;
     private final SecureRandom random = new SecureRandom();
 
     private final InventoryRepository inventoryRepository;
+    private final ShardedStock shardedStock;
+    private final InventoryItemCache itemCache;
+    private final TransactionTemplate transactionTemplate;
     private final Tracer tracer;
+    private final int lookupMaxIds;
 
     private boolean chaosLatencyEnabled;
     private int chaosLatencyMin;
@@ -44,39 +63,57 @@ public class InventoryService {
      * Constructs a new InventoryService with the required dependencies.
      *
      * @param inventoryRepository the repository for inventory persistence
+     * @param shardedStock the stock shards of hot items
+     * @param itemCache the cache of item snapshots
+     * @param transactionManager the transaction manager reservations run in
      * @param tracer the OpenTelemetry tracer for distributed tracing (optional)
      * @param chaosLatencyEnabled whether chaos latency is enabled
      * @param chaosLatencyMin minimum latency in milliseconds for chaos injection
      * @param chaosLatencyMax maximum latency in milliseconds for chaos injection
      * @param chaosErrorEnabled whether chaos errors are enabled
      * @param chaosErrorRate the rate of chaos errors (0.0 to 1.0)
+     * @param lookupMaxIds the maximum number of item IDs accepted in one lookup
      */
     public InventoryService(
             final InventoryRepository inventoryRepository,
+            final ShardedStock shardedStock,
+            final InventoryItemCache itemCache,
+            final PlatformTransactionManager transactionManager,
             @Autowired(required = false) final Tracer tracer,
             @Value("${chaos.latency.enabled:false}") final boolean chaosLatencyEnabled,
             @Value("${chaos.latency.min:100}") final int chaosLatencyMin,
             @Value("${chaos.latency.max:2000}") final int chaosLatencyMax,
             @Value("${chaos.error.enabled:false}") final boolean chaosErrorEnabled,
-            @Value("${chaos.error.rate:0.1}") final double chaosErrorRate) {
+            @Value("${chaos.error.rate:0.1}") final double chaosErrorRate,
+            @Value("${inventory.lookup.max-ids:100}") final int lookupMaxIds) {
         this.inventoryRepository = inventoryRepository;
+        this.shardedStock = shardedStock;
+        this.itemCache = itemCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.tracer = tracer;
         this.chaosLatencyEnabled = chaosLatencyEnabled;
         this.chaosLatencyMin = chaosLatencyMin;
         this.chaosLatencyMax = chaosLatencyMax;
         this.chaosErrorEnabled = chaosErrorEnabled;
         this.chaosErrorRate = chaosErrorRate;
+        this.lookupMaxIds = lookupMaxIds;
     }
 
     /**
      * Checks inventory availability for a specific item.
      *
+     * <p>The item is read through the {@link InventoryItemCache}, so unless
+     * this instance reserved it, it may be up to
+     * {@code inventory.item-cache.ttl} old.</p>
+     *
      * @param itemId the item ID to check
-     * @return map containing inventory information
+     * @return the inventory status of the item; for an item with sharded stock, the quantity
+     *         is the sum of its shards and the item row
      * @throws InterruptedException if the thread is interrupted during latency injection
+     * @throws com.observability.commons.deadline.DeadlineExceededException if the request deadline expires
      * @throws RuntimeException if chaos error is injected
      */
-    public Map<String, Object> checkInventory(final String itemId) throws InterruptedException {
+    public InventoryStatus checkInventory(final String itemId) throws InterruptedException {
         Span span = null;
         if (tracer != null) {
             span = tracer.spanBuilder("check-inventory").startSpan();
@@ -86,30 +123,64 @@ public class InventoryService {
                 span.setAttribute("inventory.item_id", itemId);
             }
 
-            // Chaos engineering: random latency
-            if (chaosLatencyEnabled) {
-                final var delay = random.nextInt(chaosLatencyMax - chaosLatencyMin) + chaosLatencyMin;
-                if (span != null) {
-                    span.setAttribute("chaos.latency_ms", delay);
-                }
-                logger.warn("Chaos latency injected: {}ms", delay);
-                Thread.sleep(delay);
+            injectChaos(span, "item", itemId);
+
+            logger.info("Checking inventory for item: {}", sanitizeForLog(itemId));
+
+            DeadlineContext.check("inventory lookup");
+            return itemCache.get(itemId, this::loadStatus).orElseGet(() -> defaultStatus(itemId));
+        } finally {
+            if (span != null) {
+                span.end();
             }
+        }
+    }
 
-            // Chaos engineering: random errors
-            if (chaosErrorEnabled && random.nextDouble() < chaosErrorRate) {
-                logger.error("Chaos error injected for item: {}", sanitizeForLog(itemId));
-                if (span != null) {
-                    span.setAttribute("chaos.error", true);
-                }
-                throw new RuntimeException("Chaos error injected");
+    /**
+     * Checks inventory availability for several items with a single query.
+     *
+     * <p>Chaos latency and errors are injected once for the whole lookup, and
+     * a single {@code lookup-inventory} span covers it. Each item without an
+     * inventory record gets the same default as in
+     * {@link #checkInventory(String)}.</p>
+     *
+     * @param itemIds the item IDs to check
+     * @return the inventory status of each distinct ID, in request order
+     * @throws IllegalArgumentException if no IDs or more than {@code inventory.lookup.max-ids} are given
+     * @throws InterruptedException if the thread is interrupted during latency injection
+     * @throws com.observability.commons.deadline.DeadlineExceededException if the request deadline expires
+     * @throws RuntimeException if chaos error is injected
+     */
+    public List<InventoryStatus> lookupInventory(final List<String> itemIds) throws InterruptedException {
+        if (itemIds == null || itemIds.isEmpty() || itemIds.size() > lookupMaxIds) {
+            throw new IllegalArgumentException("Between 1 and " + lookupMaxIds + " item IDs must be given");
+        }
+        Span span = null;
+        if (tracer != null) {
+            span = tracer.spanBuilder("lookup-inventory").startSpan();
+        }
+        try {
+            final var distinctIds = itemIds.stream().distinct().toList();
+            if (span != null) {
+                span.setAttribute("inventory.items_requested", distinctIds.size());
             }
 
-            logger.info("Checking inventory for item: {}", sanitizeForLog(itemId));
+            injectChaos(span, "items", distinctIds.size());
+
+            logger.info("Checking inventory for {} items", distinctIds.size());
 
-            final var itemOpt = inventoryRepository.findById(itemId);
+            DeadlineContext.check("inventory lookup");
+            final var itemsById = itemCache.getAll(distinctIds, this::loadStatuses);
+            if (span != null) {
+                span.setAttribute("inventory.items_found", itemsById.size());
+            }
 
-            return buildResponse(itemId, itemOpt);
+            final var responses = new ArrayList<InventoryStatus>(distinctIds.size());
+            for (final var itemId : distinctIds) {
+                final var status = itemsById.get(itemId);
+                responses.add(status != null ? status : defaultStatus(itemId));
+            }
+            return responses;
         } finally {
             if (span != null) {
                 span.end();
@@ -117,22 +188,163 @@ public class InventoryService {
         }
     }
 
-    private static HashMap<String, Object> buildResponse(final String itemId, final Optional<InventoryItem> itemOpt) {
-        final var response = new HashMap<String, Object>();
-        if (itemOpt.isEmpty()) {
-            // Return default inventory for demo purposes
-            response.put("itemId", itemId);
-            response.put("name", "Item " + itemId);
-            response.put("quantity", 100);
-            response.put("available", true);
-        } else {
-            final var item = itemOpt.get();
-            response.put("itemId", item.getItemId());
-            response.put("name", item.getName());
-            response.put("quantity", item.getQuantity());
-            response.put("available", item.getQuantity() > 0);
+    /**
+     * Injects chaos latency and errors, if enabled.
+     *
+     * @param span the span of the operation, or {@code null}
+     * @param kind what is being looked up, for the log
+     * @param subject the item ID or number of items being looked up, for the log
+     * @throws InterruptedException if the thread is interrupted during latency injection
+     * @throws com.observability.commons.deadline.DeadlineExceededException if the request deadline expires
+     * @throws RuntimeException if chaos error is injected
+     */
+    private void injectChaos(final Span span, final String kind, final Object subject) throws InterruptedException {
+        // Chaos engineering: random latency
+        if (chaosLatencyEnabled) {
+            final var delay = random.nextInt(chaosLatencyMax - chaosLatencyMin) + chaosLatencyMin;
+            if (span != null) {
+                span.setAttribute("chaos.latency_ms", delay);
+            }
+            logger.warn("Chaos latency injected: {}ms", delay);
+            // Cut short if the caller's deadline expires first; nobody is waiting for the answer any more
+            final var sleepStart = System.nanoTime();
+            try {
+                DeadlineContext.sleep(delay);
+            } finally {
+                ServerTimingContext.record("chaos", System.nanoTime() - sleepStart);
+            }
         }
-        return response;
+
+        // Chaos engineering: random errors
+        if (chaosErrorEnabled && random.nextDouble() < chaosErrorRate) {
+            logger.error("Chaos error injected for {}: {}", kind,
+                subject instanceof String itemId ? sanitizeForLog(itemId) : subject);
+            if (span != null) {
+                span.setAttribute("chaos.error", true);
+            }
+            throw new RuntimeException("Chaos error injected");
+        }
+    }
+
+    /**
+     * Reserves stock of an item.
+     *
+     * <p>The stock is decremented by one conditional {@code UPDATE} rather
+     * than loading the item, changing it and saving it back, so concurrent
+     * reservations of the same item neither race nor conflict. The remaining
+     * quantity is then read within the same transaction, while the row is
+     * still locked by the update.</p>
+     *
+     * <p>Hot items with sharded stock are reserved from one of their shards
+     * (see {@link ShardedStock}), falling back to the item row, and then to
+     * the item row and several shards together. Their remaining quantity is
+     * the sum of both, so a conflict is only reported when that sum is below
+     * the requested quantity.</p>
+     *
+     * <p>Each attempt runs in its own transaction. One that loses a lock
+     * conflict or deadlock to a concurrent reservation (as CockroachDB
+     * reports contended transactions for the client to retry) is retried
+     * after a short, jittered and growing pause, up to
+     * {@value #RESERVE_ATTEMPTS} attempts in all.</p>
+     *
+     * @param itemId the item ID to reserve
+     * @param quantity the quantity to reserve, at least 1
+     * @return an Optional containing the quantity left in stock if the item exists, empty otherwise
+     * @throws IllegalStateException if the item has less than {@code quantity} in stock; nothing is reserved
+     * @throws ConcurrencyFailureException if every attempt lost a lock conflict; nothing is reserved
+     * @throws com.observability.commons.deadline.DeadlineExceededException if the request deadline has expired
+     */
+    public Optional<Integer> reserve(final String itemId, final int quantity) {
+        Span span = null;
+        if (tracer != null) {
+            span = tracer.spanBuilder("reserve-inventory").startSpan();
+        }
+        try {
+            if (span != null) {
+                span.setAttribute("inventory.item_id", itemId);
+                span.setAttribute("inventory.quantity", quantity);
+            }
+            logger.info("Reserving {} of item: {}", quantity, sanitizeForLog(itemId));
+
+            final var remaining = reserveWithRetry(itemId, quantity);
+            remaining.ifPresent(left -> {
+                itemCache.updateQuantity(itemId, left);
+                logger.info("Reserved {} of item: {}, {} left", quantity, sanitizeForLog(itemId), left);
+            });
+            return remaining;
+        } finally {
+            if (span != null) {
+                span.end();
+            }
+        }
+    }
+
+    private Optional<Integer> reserveWithRetry(final String itemId, final int quantity) {
+        for (var attempt = 1; ; attempt++) {
+            DeadlineContext.check("inventory reservation");
+            try {
+                return transactionTemplate.execute(status -> reserveOnce(itemId, quantity));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Retrying reservation of item: {} after lock conflict: {}",
+                    sanitizeForLog(itemId), e.getMessage());
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private void backOff(final int attempt, final ConcurrencyFailureException failure) {
+        try {
+            Thread.sleep(RESERVE_RETRY_BACKOFF_MILLIS * attempt + random.nextLong(RESERVE_RETRY_BACKOFF_MILLIS * attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    private Optional<Integer> reserveOnce(final String itemId, final int quantity) {
+        return ServerTimingContext.time("db", () -> {
+            final var sharded = shardedStock.isSharded(itemId);
+            final var reserved = (sharded && shardedStock.reserve(itemId, quantity))
+                || inventoryRepository.decrementIfAvailable(itemId, quantity) == 1
+                || (sharded && shardedStock.reserveAcross(itemId, quantity));
+            final var left = inventoryRepository.findQuantityByItemId(itemId)
+                .map(quantityLeft -> sharded ? totalQuantity(itemId, quantityLeft) : quantityLeft);
+            if (!reserved && left.isPresent()) {
+                throw new IllegalStateException("Insufficient stock: " + left.get() + " available");
+            }
+            return left;
+        });
+    }
+
+    private int totalQuantity(final String itemId, final int itemRowQuantity) {
+        return (int) Math.min(itemRowQuantity + shardedStock.available(itemId), Integer.MAX_VALUE);
+    }
+
+    private Optional<InventoryStatus> loadStatus(final String itemId) {
+        return ServerTimingContext.time("db", () -> inventoryRepository.findById(itemId).map(this::status));
+    }
+
+    private Map<String, InventoryStatus> loadStatuses(final List<String> itemIds) {
+        return ServerTimingContext.time("db", () -> {
+            final var statuses = new HashMap<String, InventoryStatus>();
+            inventoryRepository.findAllById(itemIds).forEach(item -> statuses.put(item.getItemId(), status(item)));
+            return statuses;
+        });
+    }
+
+    private InventoryStatus status(final InventoryItem item) {
+        final int quantity = shardedStock.isSharded(item.getItemId())
+            ? totalQuantity(item.getItemId(), item.getQuantity())
+            : item.getQuantity();
+        return InventoryStatus.of(item.getItemId(), item.getName(), quantity);
+    }
+
+    private static InventoryStatus defaultStatus(final String itemId) {
+        // Return default inventory for demo purposes
+        return new InventoryStatus(itemId, "Item " + itemId, 100, true);
     }
 
     /**
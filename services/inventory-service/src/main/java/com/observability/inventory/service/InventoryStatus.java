@@ -0,0 +1,40 @@
+package com.observability.inventory.service;
+
+/**
+ * Immutable inventory status of an item, as returned by {@link InventoryService}.
+ *
+ * <p>Its JSON form matches the {@code InventoryResponse} schema of the
+ * Inventory Service API, so controllers write it to the response as is. The
+ * statuses of existing items are cached by the {@link InventoryItemCache} and
+ * shared between requests.</p>
+ *
+ * @param itemId the item ID
+ * @param name the item name
+ * @param quantity the quantity in stock; for an item with sharded stock, its shards included
+ * @param available whether any stock is left
+ * @since 1.0.0
+ */
+public record InventoryStatus(String itemId, String name, int quantity, boolean available) {
+
+    /**
+     * Creates the status of an item, available if any stock is left.
+     *
+     * @param itemId the item ID
+     * @param name the item name
+     * @param quantity the quantity in stock
+     * @return the status of the item
+     */
+    public static InventoryStatus of(final String itemId, final String name, final int quantity) {
+        return new InventoryStatus(itemId, name, quantity, quantity > 0);
+    }
+
+    /**
+     * Returns a copy of this status with another quantity in stock.
+     *
+     * @param newQuantity the quantity now in stock
+     * @return the updated status
+     */
+    public InventoryStatus withQuantity(final int newQuantity) {
+        return of(itemId, name, newQuantity);
+    }
+}
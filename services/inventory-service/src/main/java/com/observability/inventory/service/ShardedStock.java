@@ -0,0 +1,272 @@
+package com.observability.inventory.service;
+
+import com.observability.inventory.InventoryRepository;
+import com.observability.inventory.InventoryShard;
+import com.observability.inventory.InventoryShardRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.observability.commons.util.LogUtils.sanitizeForLog;
+
+/**
+ * Splits the stock of hot items across several rows.
+ *
+ * <p>With {@code inventory.sharding.enabled=true}, each item listed in
+ * {@code inventory.sharding.hot-items} keeps its stock in
+ * {@code inventory.sharding.shards} {@link InventoryShard} rows. A
+ * reservation decrements a random shard, and scans the others in turn if
+ * that one holds too little, so concurrent reservations of the same item
+ * mostly update different rows. A reservation that no single row can cover
+ * is taken from the item row and several shards together, under a row lock
+ * on all of them (see {@link #reserveAcross}). The available quantity is the sum of the
+ * shards plus whatever the item row still holds, e.g. stock added since the
+ * last rebalance.</p>
+ *
+ * <p>Every {@code inventory.sharding.rebalance-interval}, a background job
+ * moves the item row's quantity into the shards and evens them out, under a
+ * row lock on the item and its shards. Until the first rebalance, a hot
+ * item's stock is all in the item row and reservations fall back to it.</p>
+ *
+ * @since 1.0.0
+ */
+@Component
+public class ShardedStock {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedStock.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryShardRepository shardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int shards;
+    private final Set<String> hotItems;
+    private final Duration rebalanceInterval;
+
+    private ScheduledExecutorService rebalancer;
+
+    /**
+     * Constructs a new ShardedStock.
+     *
+     * @param inventoryRepository the repository holding the item rows
+     * @param shardRepository the repository holding the shard rows
+     * @param transactionManager the transaction manager used by the rebalancing job
+     * @param enabled whether hot items are sharded
+     * @param shards the number of shards per hot item
+     * @param hotItems the IDs of the items to shard
+     * @param rebalanceInterval how often shards are refilled from the item row and evened out
+     */
+    public ShardedStock(
+            final InventoryRepository inventoryRepository,
+            final InventoryShardRepository shardRepository,
+            final PlatformTransactionManager transactionManager,
+            @Value("${inventory.sharding.enabled:false}") final boolean enabled,
+            @Value("${inventory.sharding.shards:8}") final int shards,
+            @Value("${inventory.sharding.hot-items:}") final Set<String> hotItems,
+            @Value("${inventory.sharding.rebalance-interval:30s}") final Duration rebalanceInterval) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("inventory.sharding.shards must be at least 1");
+        }
+        this.inventoryRepository = inventoryRepository;
+        this.shardRepository = shardRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.shards = shards;
+        this.hotItems = Set.copyOf(hotItems);
+        this.rebalanceInterval = rebalanceInterval;
+    }
+
+    /**
+     * Starts the rebalancing job, which first runs straight away.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled || hotItems.isEmpty()) {
+            return;
+        }
+        rebalancer = Executors.newSingleThreadScheduledExecutor(task -> {
+            final var thread = new Thread(task, "stock-rebalancer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebalancer.scheduleWithFixedDelay(() -> {
+            try {
+                rebalance();
+            } catch (RuntimeException e) {
+                logger.warn("Stock rebalancing failed, retrying in {}", rebalanceInterval, e);
+            }
+        }, 0, rebalanceInterval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Sharding stock of {} hot items across {} shards", hotItems.size(), shards);
+    }
+
+    /**
+     * Stops the rebalancing job.
+     */
+    @PreDestroy
+    public void stop() {
+        if (rebalancer != null) {
+            rebalancer.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns whether an item's stock is sharded.
+     *
+     * @param itemId the item ID to check
+     * @return {@code true} if reservations of the item should go to its shards
+     */
+    public boolean isSharded(final String itemId) {
+        return enabled && hotItems.contains(itemId);
+    }
+
+    /**
+     * Takes the given quantity out of one of an item's shards, trying a
+     * random shard first and then the others in turn. Must run within the
+     * caller's transaction.
+     *
+     * @param itemId the item ID to reserve
+     * @param quantity the quantity to reserve
+     * @return {@code true} if a shard held enough and was decremented, {@code false} if none did
+     */
+    public boolean reserve(final String itemId, final int quantity) {
+        final var first = ThreadLocalRandom.current().nextInt(shards);
+        for (var i = 0; i < shards; i++) {
+            if (shardRepository.decrementIfAvailable(itemId, (first + i) % shards, quantity) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes the given quantity out of an item's row and shards together, when
+     * none of them holds enough on its own. The item row is drained first,
+     * then the shards in order. Locks the item and its shards in the same
+     * order as the rebalancing job, and must run within the caller's
+     * transaction. An item whose committed stock already adds up to less
+     * than the quantity is turned down without taking any lock, so requests
+     * for a sold-out item do not queue up behind each other.
+     *
+     * @param itemId the item ID to reserve
+     * @param quantity the quantity to reserve
+     * @return {@code true} if the item row and shards held enough in total and were decremented,
+     *         {@code false} if the item does not exist or holds too little
+     */
+    public boolean reserveAcross(final String itemId, final int quantity) {
+        final var itemQuantity = inventoryRepository.findQuantityByItemId(itemId);
+        if (itemQuantity.isEmpty() || itemQuantity.get() + shardRepository.sumQuantityByItemId(itemId) < quantity) {
+            return false;
+        }
+        final var item = inventoryRepository.findForUpdate(itemId).orElse(null);
+        if (item == null) {
+            return false;
+        }
+        final var existing = shardRepository.findByItemIdOrderByShard(itemId);
+        var total = (long) item.getQuantity();
+        for (final var shard : existing) {
+            total += shard.getQuantity();
+        }
+        if (total < quantity) {
+            return false;
+        }
+
+        var left = quantity;
+        final var fromItem = Math.min(item.getQuantity(), left);
+        item.setQuantity(item.getQuantity() - fromItem);
+        left -= fromItem;
+        for (final var shard : existing) {
+            final var fromShard = Math.min(shard.getQuantity(), left);
+            shard.setQuantity(shard.getQuantity() - fromShard);
+            left -= fromShard;
+        }
+        inventoryRepository.save(item);
+        shardRepository.saveAll(existing);
+        logger.debug("Reserved {} of item {} across its row and {} shards", quantity, sanitizeForLog(itemId),
+            existing.size());
+        return true;
+    }
+
+    /**
+     * Returns the quantity held by an item's shards.
+     *
+     * @param itemId the item ID to look up
+     * @return the sum of the item's shards, not including the item row
+     */
+    public long available(final String itemId) {
+        return shardRepository.sumQuantityByItemId(itemId);
+    }
+
+    /**
+     * Refills the shards of every hot item from its item row and evens them
+     * out, each item in its own transaction.
+     *
+     * @return the number of items whose shards were changed
+     */
+    public int rebalance() {
+        var rebalanced = 0;
+        for (final var itemId : hotItems) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> rebalance(itemId)))) {
+                rebalanced++;
+            }
+        }
+        if (rebalanced > 0) {
+            logger.info("Rebalanced stock shards of {} items", rebalanced);
+        }
+        return rebalanced;
+    }
+
+    private boolean rebalance(final String itemId) {
+        final var item = inventoryRepository.findForUpdate(itemId).orElse(null);
+        if (item == null) {
+            return false;
+        }
+        final var existing = shardRepository.findByItemIdOrderByShard(itemId);
+        var total = (long) item.getQuantity();
+        var min = Integer.MAX_VALUE;
+        var max = Integer.MIN_VALUE;
+        for (final var shard : existing) {
+            total += shard.getQuantity();
+            min = Math.min(min, shard.getQuantity());
+            max = Math.max(max, shard.getQuantity());
+        }
+        if (item.getQuantity() == 0 && existing.size() == shards && max - min <= 1) {
+            return false;
+        }
+
+        final var updated = new InventoryShard[shards];
+        final var surplus = new ArrayList<InventoryShard>();
+        for (final var shard : existing) {
+            if (shard.getShard() < shards) {
+                updated[shard.getShard()] = shard;
+            } else {
+                surplus.add(shard);
+            }
+        }
+        for (var index = 0; index < shards; index++) {
+            if (updated[index] == null) {
+                updated[index] = new InventoryShard(itemId, index, 0);
+            }
+            updated[index].setQuantity(Math.toIntExact(total / shards + (index < total % shards ? 1 : 0)));
+        }
+        item.setQuantity(0);
+        shardRepository.deleteAll(surplus);
+        shardRepository.saveAll(Arrays.asList(updated));
+        inventoryRepository.save(item);
+        logger.debug("Spread {} of item {} across {} shards", total, sanitizeForLog(itemId), shards);
+        return true;
+    }
+}
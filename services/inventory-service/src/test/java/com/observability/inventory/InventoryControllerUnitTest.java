@@ -1,7 +1,9 @@
 package com.observability.inventory;
 
+import com.observability.commons.deadline.DeadlineExceededException;
 import com.observability.inventory.model.*;
 import com.observability.inventory.service.InventoryService;
+import com.observability.inventory.service.InventoryStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,9 +13,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -43,26 +50,16 @@ class InventoryControllerUnitTest {
     @Test
     void checkInventoryReturnsItemWhenExists() throws Exception {
         // Arrange
-        var inventoryResponse = new HashMap<String, Object>();
-        inventoryResponse.put("itemId", "item123");
-        inventoryResponse.put("name", "Test Item");
-        inventoryResponse.put("quantity", 50);
-        inventoryResponse.put("available", true);
-        
-        when(inventoryService.checkInventory("item123")).thenReturn(inventoryResponse);
+        var inventoryStatus = new InventoryStatus("item123", "Test Item", 50, true);
+
+        when(inventoryService.checkInventory("item123")).thenReturn(inventoryStatus);
 
         // Act
         var response = inventoryController.checkInventory("item123");
 
-        // Assert
+        // Assert - the service's result is the response body, without copying
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).isInstanceOf(InventoryResponse.class);
-        
-        var body = (InventoryResponse) response.getBody();
-        assertThat(body.getItemId()).isEqualTo("item123");
-        assertThat(body.getName()).isEqualTo("Test Item");
-        assertThat(body.getQuantity()).isEqualTo(50);
-        assertThat(body.getAvailable()).isEqualTo(true);
+        assertThat(response.getBody()).isSameAs(inventoryStatus);
         
         verify(inventoryService).checkInventory("item123");
     }
@@ -70,26 +67,16 @@ class InventoryControllerUnitTest {
     @Test
     void checkInventoryReturnsDefaultWhenItemDoesNotExist() throws Exception {
         // Arrange
-        var defaultResponse = new HashMap<String, Object>();
-        defaultResponse.put("itemId", "nonexistent");
-        defaultResponse.put("name", "Item nonexistent");
-        defaultResponse.put("quantity", 100);
-        defaultResponse.put("available", true);
-        
-        when(inventoryService.checkInventory("nonexistent")).thenReturn(defaultResponse);
+        var defaultStatus = new InventoryStatus("nonexistent", "Item nonexistent", 100, true);
+
+        when(inventoryService.checkInventory("nonexistent")).thenReturn(defaultStatus);
 
         // Act
         var response = inventoryController.checkInventory("nonexistent");
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).isInstanceOf(InventoryResponse.class);
-        
-        var body = (InventoryResponse) response.getBody();
-        assertThat(body.getItemId()).isEqualTo("nonexistent");
-        assertThat(body.getName()).isEqualTo("Item nonexistent");
-        assertThat(body.getQuantity()).isEqualTo(100);
-        assertThat(body.getAvailable()).isEqualTo(true);
+        assertThat(response.getBody()).isEqualTo(defaultStatus);
         
         verify(inventoryService).checkInventory("nonexistent");
     }
@@ -97,23 +84,18 @@ class InventoryControllerUnitTest {
     @Test
     void checkInventoryReturnsUnavailableWhenQuantityIsZero() throws Exception {
         // Arrange
-        var inventoryResponse = new HashMap<String, Object>();
-        inventoryResponse.put("itemId", "item123");
-        inventoryResponse.put("name", "Out of Stock Item");
-        inventoryResponse.put("quantity", 0);
-        inventoryResponse.put("available", false);
-        
-        when(inventoryService.checkInventory("item123")).thenReturn(inventoryResponse);
+        when(inventoryService.checkInventory("item123"))
+            .thenReturn(InventoryStatus.of("item123", "Out of Stock Item", 0));
 
         // Act
         var response = inventoryController.checkInventory("item123");
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        
-        var body = (InventoryResponse) response.getBody();
-        assertThat(body.getAvailable()).isEqualTo(false);
-        assertThat(body.getQuantity()).isEqualTo(0);
+
+        var body = (InventoryStatus) response.getBody();
+        assertThat(body.available()).isFalse();
+        assertThat(body.quantity()).isZero();
     }
 
     @Test
@@ -132,6 +114,20 @@ class InventoryControllerUnitTest {
         verify(inventoryService, never()).checkInventory(anyString());
     }
 
+    @Test
+    void checkInventoryReturnsGatewayTimeoutWhenDeadlineExceeded() throws Exception {
+        // Arrange
+        when(inventoryService.checkInventory("item123"))
+            .thenThrow(new DeadlineExceededException("Deadline exceeded before inventory lookup"));
+
+        // Act
+        var response = inventoryController.checkInventory("item123");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(((ErrorResponse) response.getBody()).getError()).isEqualTo("Deadline exceeded");
+    }
+
     @Test
     void configureChaosLatencyUpdatesSettings() {
         // Arrange
@@ -246,4 +242,112 @@ class InventoryControllerUnitTest {
         assertThat(response1.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(response2.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
+
+    @Test
+    void reserveInventoryReturnsRemainingStock() {
+        // Arrange
+        when(inventoryService.reserve("item123", 5)).thenReturn(Optional.of(45));
+
+        // Act
+        var response = inventoryController.reserveInventory("item123", new ReservationRequest(5));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        var body = (ReservationResponse) response.getBody();
+        assertThat(body.getItemId()).isEqualTo("item123");
+        assertThat(body.getReserved()).isEqualTo(5);
+        assertThat(body.getRemaining()).isEqualTo(45);
+    }
+
+    @Test
+    void reserveInventoryReturnsNotFoundForUnknownItem() {
+        // Arrange
+        when(inventoryService.reserve("missing", 1)).thenReturn(Optional.empty());
+
+        // Act
+        var response = inventoryController.reserveInventory("missing", new ReservationRequest(1));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void reserveInventoryReturnsConflictWhenStockIsInsufficient() {
+        // Arrange
+        when(inventoryService.reserve("item123", 5))
+            .thenThrow(new IllegalStateException("Insufficient stock: 3 available"));
+
+        // Act
+        var response = inventoryController.reserveInventory("item123", new ReservationRequest(5));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(((ErrorResponse) response.getBody()).getError()).isEqualTo("Insufficient stock: 3 available");
+    }
+
+    @Test
+    void reserveInventoryRejectsInvalidQuantity() {
+        // Act
+        var response1 = inventoryController.reserveInventory("item123", new ReservationRequest());
+        var response2 = inventoryController.reserveInventory("item123", new ReservationRequest(0));
+        var response3 = inventoryController.reserveInventory("item123", new ReservationRequest(1000001));
+        var response4 = inventoryController.reserveInventory("", new ReservationRequest(1));
+
+        // Assert
+        assertThat(response1.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response2.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response3.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response4.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(inventoryService, never()).reserve(anyString(), anyInt());
+    }
+
+    @Test
+    void lookupInventoryReturnsArrayOfItems() throws Exception {
+        // Arrange
+        var statuses = List.of(
+            new InventoryStatus("item123", "Test Item", 50, true),
+            new InventoryStatus("missing", "Item missing", 100, true));
+        when(inventoryService.lookupInventory(List.of("item123", "missing"))).thenReturn(statuses);
+
+        // Act
+        var response = inventoryController.lookupInventory(List.of("item123", "missing"));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(statuses);
+    }
+
+    @Test
+    void lookupInventoryRejectsInvalidIds() throws Exception {
+        // Act
+        var response = inventoryController.lookupInventory(List.of("item123", " "));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(inventoryService, never()).lookupInventory(any());
+    }
+
+    @Test
+    void lookupInventoryRejectsIdsContainingComma() throws Exception {
+        // Act
+        var response = inventoryController.lookupInventory(List.of("item123", "item1,item2"));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(inventoryService, never()).lookupInventory(any());
+    }
+
+    @Test
+    void lookupInventoryRejectsTooManyIds() throws Exception {
+        // Arrange
+        when(inventoryService.lookupInventory(anyList()))
+            .thenThrow(new IllegalArgumentException("Between 1 and 100 item IDs must be given"));
+
+        // Act
+        var response = inventoryController.lookupInventory(List.of("item123"));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(((ErrorResponse) response.getBody()).getError()).isEqualTo("Between 1 and 100 item IDs must be given");
+    }
 }
@@ -0,0 +1,88 @@
+package com.observability.inventory;
+
+import com.observability.inventory.service.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"otel.sdk.disabled=true"}
+)
+class InventoryReservationConcurrencyTest {
+
+    private static final String ITEM_ID = "CONCURRENCY-1";
+    private static final int STOCK = 1000;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+    private static final int QUANTITY = 3;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteById(ITEM_ID);
+    }
+
+    @Test
+    void concurrentReservationsNeverTakeStockBelowZero() throws Exception {
+        // Arrange
+        final var item = new InventoryItem();
+        item.setItemId(ITEM_ID);
+        item.setName("Contended Item");
+        item.setQuantity(STOCK);
+        inventoryRepository.save(item);
+
+        final var remainders = new ConcurrentLinkedQueue<Integer>();
+        final var start = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        final var results = new ArrayList<Future<Integer>>();
+
+        // Act: 16 threads ask for 4800 units of an item with 1000 in stock
+        try {
+            for (var t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    var reserved = 0;
+                    for (var i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        try {
+                            inventoryService.reserve(ITEM_ID, QUANTITY).ifPresent(remainders::add);
+                            reserved++;
+                        } catch (IllegalStateException e) {
+                            // Insufficient stock; nothing was reserved
+                        }
+                    }
+                    return reserved;
+                }));
+            }
+            start.countDown();
+            var reservations = 0;
+            for (final var result : results) {
+                reservations += result.get(60, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            final var remaining = inventoryRepository.findQuantityByItemId(ITEM_ID).orElseThrow();
+            assertThat(remaining).isEqualTo(STOCK % QUANTITY);
+            assertThat(reservations).isEqualTo(STOCK / QUANTITY);
+            assertThat(remainders).hasSize(reservations).allSatisfy(left -> assertThat(left).isNotNegative());
+            assertThat(remainders).doesNotHaveDuplicates();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
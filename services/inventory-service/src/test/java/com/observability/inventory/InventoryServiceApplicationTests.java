@@ -4,9 +4,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,4 +30,43 @@ class InventoryServiceApplicationTests {
             .andExpect(jsonPath("$.status").value("UP"))
             .andExpect(jsonPath("$.service").value("inventory-service"));
     }
+
+    @Test
+    void reserveEndpointDecrementsStock() throws Exception {
+        mockMvc.perform(post("/api/inventory/ITEM-5/reserve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 1}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.itemId").value("ITEM-5"))
+            .andExpect(jsonPath("$.reserved").value(1))
+            .andExpect(jsonPath("$.remaining").isNumber());
+    }
+
+    @Test
+    void reserveEndpointRejectsQuantityAboveStock() throws Exception {
+        mockMvc.perform(post("/api/inventory/ITEM-5/reserve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 1000000}"))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error").value(startsWith("Insufficient stock")));
+    }
+
+    @Test
+    void reserveEndpointReturnsNotFoundForUnknownItem() throws Exception {
+        mockMvc.perform(post("/api/inventory/NO-SUCH-ITEM/reserve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 1}"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void lookupEndpointReturnsOneRecordPerDistinctId() throws Exception {
+        mockMvc.perform(get("/api/inventory").param("ids", "ITEM-1,NO-SUCH-ITEM,ITEM-1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].itemId").value("ITEM-1"))
+            .andExpect(jsonPath("$[0].name").value("Sample Item 1"))
+            .andExpect(jsonPath("$[1].itemId").value("NO-SUCH-ITEM"))
+            .andExpect(jsonPath("$[1].quantity").value(100));
+    }
 }
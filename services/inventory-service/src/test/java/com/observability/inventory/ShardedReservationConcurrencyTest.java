@@ -0,0 +1,111 @@
+package com.observability.inventory;
+
+import com.observability.inventory.service.InventoryService;
+import com.observability.inventory.service.ShardedStock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "otel.sdk.disabled=true",
+        "inventory.sharding.enabled=true",
+        "inventory.sharding.shards=4",
+        "inventory.sharding.hot-items=SHARDED-1",
+        "inventory.sharding.rebalance-interval=1h"
+    }
+)
+class ShardedReservationConcurrencyTest {
+
+    private static final String ITEM_ID = "SHARDED-1";
+    private static final int STOCK = 1000;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+    private static final int QUANTITY = 3;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ShardedStock shardedStock;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryShardRepository shardRepository;
+
+    @AfterEach
+    void tearDown() {
+        shardRepository.deleteAll(shards());
+        inventoryRepository.deleteById(ITEM_ID);
+    }
+
+    @Test
+    void concurrentReservationsOfShardedItemNeverTakeStockBelowZero() throws Exception {
+        // Arrange
+        final var item = new InventoryItem();
+        item.setItemId(ITEM_ID);
+        item.setName("Hot Item");
+        item.setQuantity(STOCK);
+        inventoryRepository.save(item);
+        assertThat(shardedStock.rebalance()).isEqualTo(1);
+        assertThat(shards()).extracting(InventoryShard::getQuantity).containsExactly(250, 250, 250, 250);
+
+        final var start = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        final var results = new ArrayList<Future<Integer>>();
+
+        // Act: 16 threads ask for 4800 units of an item with 1000 in stock
+        try {
+            for (var t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    var reserved = 0;
+                    for (var i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        try {
+                            final var left = inventoryService.reserve(ITEM_ID, QUANTITY).orElseThrow();
+                            assertThat(left).isNotNegative();
+                            reserved++;
+                        } catch (IllegalStateException e) {
+                            // Insufficient stock; nothing was reserved
+                        }
+                    }
+                    return reserved;
+                }));
+            }
+            start.countDown();
+            var reservations = 0;
+            for (final var result : results) {
+                reservations += result.get(60, TimeUnit.SECONDS);
+            }
+
+            // Assert: every unit is accounted for, and no more than one reservation's worth is left unsold
+            final var remaining = inventoryService.checkInventory(ITEM_ID).quantity();
+            assertThat(remaining).isEqualTo(STOCK - reservations * QUANTITY);
+            assertThat(remaining).isLessThan(QUANTITY);
+            assertThat(shards()).allSatisfy(shard -> assertThat(shard.getQuantity()).isNotNegative());
+            assertThat(inventoryRepository.findQuantityByItemId(ITEM_ID)).contains(0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<InventoryShard> shards() {
+        return shardRepository.findAll().stream()
+            .filter(shard -> ITEM_ID.equals(shard.getItemId()))
+            .sorted((a, b) -> Integer.compare(a.getShard(), b.getShard()))
+            .toList();
+    }
+}
@@ -0,0 +1,201 @@
+package com.observability.inventory.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link InventoryItemCache}.
+ */
+class InventoryItemCacheTest {
+
+    private static final InventoryStatus ITEM = InventoryStatus.of("item123", "Test Item", 10);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private InventoryItemCache cache(final long maxEntries, final boolean cacheNotFound) {
+        return new InventoryItemCache(meterRegistry, true, Duration.ofSeconds(2), maxEntries,
+            cacheNotFound, Duration.ofSeconds(1), nanos::get);
+    }
+
+    private Function<String, Optional<InventoryStatus>> loader(final InventoryStatus result) {
+        return itemId -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(result);
+        };
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        final var cache = cache(100, true);
+
+        assertThat(cache.get("item123", loader(ITEM))).contains(ITEM);
+        assertThat(cache.get("item123", loader(ITEM))).contains(ITEM);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("inventory_item_cache_hit_ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("inventory_item_cache_load_duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void entryExpiresAfterTtl() {
+        final var cache = cache(100, true);
+        cache.get("item123", loader(ITEM));
+
+        nanos.addAndGet(Duration.ofMillis(2500).toNanos());
+        cache.get("item123", loader(ITEM));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void notFoundIsCachedWithItsOwnTtl() {
+        final var cache = cache(100, true);
+
+        assertThat(cache.get("unknown", loader(null))).isEmpty();
+        assertThat(cache.get("unknown", loader(null))).isEmpty();
+        assertThat(loads.get()).isEqualTo(1);
+
+        nanos.addAndGet(Duration.ofMillis(1500).toNanos());
+        cache.get("unknown", loader(null));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void notFoundIsNotCachedWhenDisabled() {
+        final var cache = cache(100, false);
+
+        cache.get("unknown", loader(null));
+        cache.get("unknown", loader(null));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getAllLoadsOnlyMissesInOneCallAndCachesNotFound() {
+        final var cache = cache(100, true);
+        cache.get("item123", loader(ITEM));
+        final var other = InventoryStatus.of("item456", "Other Item", 5);
+        final var batches = new ArrayList<List<String>>();
+        final Function<List<String>, Map<String, InventoryStatus>> bulkLoader = itemIds -> {
+            batches.add(itemIds);
+            return Map.of("item456", other);
+        };
+
+        assertThat(cache.getAll(List.of("item123", "item456", "unknown"), bulkLoader))
+            .isEqualTo(Map.of("item123", ITEM, "item456", other));
+        assertThat(cache.getAll(List.of("item456", "unknown"), bulkLoader))
+            .isEqualTo(Map.of("item456", other));
+
+        assertThat(batches).containsExactly(List.of("item456", "unknown"));
+    }
+
+    @Test
+    void updatedQuantityIsWrittenThroughWithoutExtendingTtl() {
+        final var cache = cache(100, true);
+        cache.get("item123", loader(ITEM));
+
+        nanos.addAndGet(Duration.ofMillis(1500).toNanos());
+        cache.updateQuantity("item123", 7);
+        assertThat(cache.get("item123", loader(ITEM))).contains(InventoryStatus.of("item123", "Test Item", 7));
+
+        nanos.addAndGet(Duration.ofMillis(1000).toNanos());
+        cache.get("item123", loader(ITEM));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void updatedQuantityIsWrittenThroughOnlyOnceTransactionCommits() {
+        final var cache = cache(100, true);
+        cache.get("item123", loader(ITEM));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.updateQuantity("item123", 7);
+        assertThat(cache.get("item123", loader(ITEM))).contains(ITEM);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.get("item123", loader(ITEM))).contains(InventoryStatus.of("item123", "Test Item", 7));
+    }
+
+    @Test
+    void outOfOrderQuantityUpdateDropsItemInsteadOfRestoringOlderQuantity() {
+        final var cache = cache(100, true);
+        cache.get("item123", loader(ITEM));
+
+        // The reservation leaving 5 committed after the one leaving 7, but its callback ran first
+        cache.updateQuantity("item123", 5);
+        cache.updateQuantity("item123", 7);
+
+        assertThat(cache.get("item123", loader(InventoryStatus.of("item123", "Test Item", 5))))
+            .contains(InventoryStatus.of("item123", "Test Item", 5));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void updatedQuantityOfUncachedItemIsNotCached() {
+        final var cache = cache(100, true);
+        cache.get("unknown", loader(null));
+
+        cache.updateQuantity("item123", 7);
+        cache.updateQuantity("unknown", 7);
+
+        assertThat(cache.get("item123", loader(ITEM))).contains(ITEM);
+        assertThat(cache.get("unknown", loader(ITEM))).contains(ITEM);
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void cacheIsBoundedAndRecordsEvictions() {
+        final var cache = cache(10, true);
+
+        for (var i = 0; i < 100; i++) {
+            cache.get("item" + i, loader(ITEM));
+        }
+        cache.cleanUp();
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(meterRegistry.get("cache.evictions").functionCounter().count()).isGreaterThan(0.0);
+    }
+
+    @Test
+    void loaderErrorsAreNotCached() {
+        final var cache = cache(100, true);
+
+        assertThatThrownBy(() -> cache.get("item123", itemId -> {
+            throw new IllegalStateException("down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.get("item123", loader(ITEM))).contains(ITEM);
+    }
+}
@@ -1,20 +1,30 @@
 package com.observability.inventory.service;
 
+import com.observability.commons.deadline.Deadline;
+import com.observability.commons.deadline.DeadlineContext;
+import com.observability.commons.deadline.DeadlineExceededException;
 import com.observability.inventory.InventoryItem;
 import com.observability.inventory.InventoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.Tracer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -24,6 +34,12 @@ class InventoryServiceUnitTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private ShardedStock shardedStock;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private Tracer tracer;
 
@@ -33,21 +49,33 @@ class InventoryServiceUnitTest {
     @Mock
     private Span span;
 
+    private final InventoryItemCache itemCache = new InventoryItemCache(new SimpleMeterRegistry(), false,
+        Duration.ofSeconds(2), 100, true, Duration.ofSeconds(1));
+
     private InventoryService inventoryService;
 
     @BeforeEach
     void setUp() {
         inventoryService = new InventoryService(
             inventoryRepository,
+            shardedStock,
+            itemCache,
+            transactionManager,
             tracer,
             false,  // chaosLatencyEnabled
             100,    // chaosLatencyMin
             2000,   // chaosLatencyMax
             false,  // chaosErrorEnabled
-            0.1     // chaosErrorRate
+            0.1,    // chaosErrorRate
+            100     // lookupMaxIds
         );
     }
 
+    @AfterEach
+    void tearDown() {
+        DeadlineContext.clear();
+    }
+
     @Test
     void checkInventoryReturnsItemWhenExists() throws InterruptedException {
         // Arrange
@@ -65,10 +93,10 @@ class InventoryServiceUnitTest {
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result.get("itemId")).isEqualTo("item123");
-        assertThat(result.get("name")).isEqualTo("Test Item");
-        assertThat(result.get("quantity")).isEqualTo(50);
-        assertThat(result.get("available")).isEqualTo(true);
+        assertThat(result.itemId()).isEqualTo("item123");
+        assertThat(result.name()).isEqualTo("Test Item");
+        assertThat(result.quantity()).isEqualTo(50);
+        assertThat(result.available()).isEqualTo(true);
         verify(span).setAttribute("inventory.item_id", "item123");
         verify(span).end();
     }
@@ -85,10 +113,10 @@ class InventoryServiceUnitTest {
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result.get("itemId")).isEqualTo("nonexistent");
-        assertThat(result.get("name")).isEqualTo("Item nonexistent");
-        assertThat(result.get("quantity")).isEqualTo(100);
-        assertThat(result.get("available")).isEqualTo(true);
+        assertThat(result.itemId()).isEqualTo("nonexistent");
+        assertThat(result.name()).isEqualTo("Item nonexistent");
+        assertThat(result.quantity()).isEqualTo(100);
+        assertThat(result.available()).isEqualTo(true);
     }
 
     @Test
@@ -107,8 +135,8 @@ class InventoryServiceUnitTest {
         var result = inventoryService.checkInventory("item123");
 
         // Assert
-        assertThat(result.get("available")).isEqualTo(false);
-        assertThat(result.get("quantity")).isEqualTo(0);
+        assertThat(result.available()).isEqualTo(false);
+        assertThat(result.quantity()).isEqualTo(0);
     }
 
     @Test
@@ -160,12 +188,16 @@ class InventoryServiceUnitTest {
         // Arrange - create service without tracer
         var serviceWithoutTracer = new InventoryService(
             inventoryRepository,
+            shardedStock,
+            itemCache,
+            transactionManager,
             null,   // no tracer
             false,
             100,
             2000,
             false,
-            0.1
+            0.1,
+            100
         );
 
         when(inventoryRepository.findById("item123")).thenReturn(Optional.empty());
@@ -175,7 +207,7 @@ class InventoryServiceUnitTest {
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result.get("itemId")).isEqualTo("item123");
+        assertThat(result.itemId()).isEqualTo("item123");
     }
 
     @Test
@@ -189,4 +221,256 @@ class InventoryServiceUnitTest {
         // Act & Assert
         assertThat(inventoryService.getChaosLatencyMax()).isEqualTo(2000);
     }
+
+    @Test
+    void chaosLatencyIsCutShortWhenDeadlineExpires() {
+        // Arrange
+        var slowService = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, true, 5000, 5001, false, 0.1, 100);
+        DeadlineContext.set(Deadline.after(Duration.ofMillis(50)));
+        var start = System.nanoTime();
+
+        // Act & Assert
+        assertThatThrownBy(() -> slowService.checkInventory("item123"))
+            .isInstanceOf(DeadlineExceededException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void checkInventorySkipsLookupWhenDeadlineAlreadyExpired() {
+        // Arrange
+        DeadlineContext.set(Deadline.after(Duration.ZERO));
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+
+        // Act & Assert
+        assertThatThrownBy(() -> serviceWithoutTracer.checkInventory("item123"))
+            .isInstanceOf(DeadlineExceededException.class)
+            .hasMessageContaining("inventory lookup");
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void reserveDecrementsStockAndReturnsRemainingQuantity() {
+        // Arrange
+        when(tracer.spanBuilder(anyString())).thenReturn(spanBuilder);
+        when(spanBuilder.startSpan()).thenReturn(span);
+        when(inventoryRepository.decrementIfAvailable("item123", 5)).thenReturn(1);
+        when(inventoryRepository.findQuantityByItemId("item123")).thenReturn(Optional.of(45));
+
+        // Act
+        var remaining = inventoryService.reserve("item123", 5);
+
+        // Assert
+        assertThat(remaining).contains(45);
+        verify(inventoryRepository, never()).findById(anyString());
+        verify(inventoryRepository, never()).save(any());
+        verify(span).setAttribute("inventory.quantity", 5L);
+        verify(span).end();
+    }
+
+    @Test
+    void reserveRejectsQuantityAboveStock() {
+        // Arrange
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+        when(inventoryRepository.decrementIfAvailable("item123", 5)).thenReturn(0);
+        when(inventoryRepository.findQuantityByItemId("item123")).thenReturn(Optional.of(3));
+
+        // Act & Assert
+        assertThatThrownBy(() -> serviceWithoutTracer.reserve("item123", 5))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Insufficient stock: 3 available");
+    }
+
+    @Test
+    void reserveReturnsEmptyWhenItemNotFound() {
+        // Arrange
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+        when(inventoryRepository.decrementIfAvailable("missing", 1)).thenReturn(0);
+        when(inventoryRepository.findQuantityByItemId("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThat(serviceWithoutTracer.reserve("missing", 1)).isEmpty();
+    }
+
+    @Test
+    void reserveSkipsUpdateWhenDeadlineAlreadyExpired() {
+        // Arrange
+        DeadlineContext.set(Deadline.after(Duration.ZERO));
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+
+        // Act & Assert
+        assertThatThrownBy(() -> serviceWithoutTracer.reserve("item123", 1))
+            .isInstanceOf(DeadlineExceededException.class)
+            .hasMessageContaining("inventory reservation");
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void reserveTakesStockFromShardsOfHotItem() {
+        // Arrange
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+        when(shardedStock.isSharded("hot")).thenReturn(true);
+        when(shardedStock.reserve("hot", 5)).thenReturn(true);
+        when(shardedStock.available("hot")).thenReturn(40L);
+        when(inventoryRepository.findQuantityByItemId("hot")).thenReturn(Optional.of(2));
+
+        // Act
+        var remaining = serviceWithoutTracer.reserve("hot", 5);
+
+        // Assert
+        assertThat(remaining).contains(42);
+        verify(inventoryRepository, never()).decrementIfAvailable(anyString(), anyInt());
+    }
+
+    @Test
+    void reserveFallsBackToItemRowWhenNoShardHoldsEnough() {
+        // Arrange
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+        when(shardedStock.isSharded("hot")).thenReturn(true);
+        when(shardedStock.reserve("hot", 5)).thenReturn(false);
+        when(inventoryRepository.decrementIfAvailable("hot", 5)).thenReturn(1);
+        when(shardedStock.available("hot")).thenReturn(8L);
+        when(inventoryRepository.findQuantityByItemId("hot")).thenReturn(Optional.of(95));
+
+        // Act
+        var remaining = serviceWithoutTracer.reserve("hot", 5);
+
+        // Assert
+        assertThat(remaining).contains(103);
+    }
+
+    @Test
+    void reserveTakesStockFromSeveralShardsWhenNoSingleRowHoldsEnough() {
+        // Arrange
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+        when(shardedStock.isSharded("hot")).thenReturn(true);
+        when(shardedStock.reserve("hot", 9)).thenReturn(false);
+        when(inventoryRepository.decrementIfAvailable("hot", 9)).thenReturn(0);
+        when(shardedStock.reserveAcross("hot", 9)).thenReturn(true);
+        when(shardedStock.available("hot")).thenReturn(2L);
+        when(inventoryRepository.findQuantityByItemId("hot")).thenReturn(Optional.of(0));
+
+        // Act
+        var remaining = serviceWithoutTracer.reserve("hot", 9);
+
+        // Assert
+        assertThat(remaining).contains(2);
+    }
+
+    @Test
+    void reserveRetriesInNewTransactionAfterLosingLockConflict() {
+        // Arrange
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+        when(inventoryRepository.decrementIfAvailable("item123", 5))
+            .thenThrow(new CannotAcquireLockException("Deadlock detected"))
+            .thenReturn(1);
+        when(inventoryRepository.findQuantityByItemId("item123")).thenReturn(Optional.of(45));
+
+        // Act
+        var remaining = serviceWithoutTracer.reserve("item123", 5);
+
+        // Assert
+        assertThat(remaining).contains(45);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void reserveGivesUpAfterLosingEveryLockConflict() {
+        // Arrange
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+        when(inventoryRepository.decrementIfAvailable("item123", 5))
+            .thenThrow(new CannotAcquireLockException("Deadlock detected"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> serviceWithoutTracer.reserve("item123", 5))
+            .isInstanceOf(CannotAcquireLockException.class);
+        verify(inventoryRepository, times(5)).decrementIfAvailable("item123", 5);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void checkInventoryOfHotItemSumsShardsAndItemRow() throws InterruptedException {
+        // Arrange
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 100);
+        var item = new InventoryItem();
+        item.setItemId("hot");
+        item.setName("Hot Item");
+        item.setQuantity(0);
+        when(inventoryRepository.findById("hot")).thenReturn(Optional.of(item));
+        when(shardedStock.isSharded("hot")).thenReturn(true);
+        when(shardedStock.available("hot")).thenReturn(64L);
+
+        // Act
+        var result = serviceWithoutTracer.checkInventory("hot");
+
+        // Assert
+        assertThat(result.quantity()).isEqualTo(64);
+        assertThat(result.available()).isEqualTo(true);
+        assertThat(item.getQuantity()).isZero();
+    }
+
+    @Test
+    void checkInventoryIsServedFromItemCacheAndKeptCurrentByReservations() throws InterruptedException {
+        // Arrange
+        var cachingService = new InventoryService(inventoryRepository, shardedStock,
+            new InventoryItemCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 100, true, Duration.ofMinutes(1)),
+            transactionManager, null, false, 100, 2000, false, 0.1, 100);
+        var item = new InventoryItem();
+        item.setItemId("item123");
+        item.setName("Test Item");
+        item.setQuantity(50);
+        when(inventoryRepository.findById("item123")).thenReturn(Optional.of(item));
+        when(inventoryRepository.decrementIfAvailable("item123", 5)).thenReturn(1);
+        when(inventoryRepository.findQuantityByItemId("item123")).thenReturn(Optional.of(45));
+
+        // Act
+        var before = cachingService.checkInventory("item123");
+        cachingService.reserve("item123", 5);
+        var after = cachingService.checkInventory("item123");
+
+        // Assert
+        assertThat(before.quantity()).isEqualTo(50);
+        assertThat(after.quantity()).isEqualTo(45);
+        assertThat(after.name()).isEqualTo("Test Item");
+        verify(inventoryRepository, times(1)).findById("item123");
+    }
+
+    @Test
+    void lookupInventoryResolvesAllItemsWithOneQuery() throws InterruptedException {
+        // Arrange
+        var item = new InventoryItem();
+        item.setItemId("item123");
+        item.setName("Test Item");
+        item.setQuantity(0);
+        when(tracer.spanBuilder(anyString())).thenReturn(spanBuilder);
+        when(spanBuilder.startSpan()).thenReturn(span);
+        when(inventoryRepository.findAllById(List.of("missing", "item123"))).thenReturn(List.of(item));
+
+        // Act
+        var result = inventoryService.lookupInventory(List.of("missing", "item123", "missing"));
+
+        // Assert
+        assertThat(result).extracting(InventoryStatus::itemId).containsExactly("missing", "item123");
+        assertThat(result.get(0)).isEqualTo(new InventoryStatus("missing", "Item missing", 100, true));
+        assertThat(result.get(1)).isEqualTo(new InventoryStatus("item123", "Test Item", 0, false));
+        verify(inventoryRepository, never()).findById(anyString());
+        verify(span).setAttribute("inventory.items_requested", 2L);
+        verify(span).setAttribute("inventory.items_found", 1L);
+        verify(span).end();
+    }
+
+    @Test
+    void lookupInventoryRejectsTooManyIds() {
+        // Arrange
+        var serviceWithoutTracer = new InventoryService(inventoryRepository, shardedStock, itemCache, transactionManager, null, false, 100, 2000, false, 0.1, 2);
+
+        // Act & Assert
+        assertThatThrownBy(() -> serviceWithoutTracer.lookupInventory(List.of("a", "b", "c")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Between 1 and 2 item IDs must be given");
+        assertThatThrownBy(() -> serviceWithoutTracer.lookupInventory(List.of()))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(inventoryRepository);
+    }
 }
@@ -0,0 +1,212 @@
+package com.observability.inventory.service;
+
+import com.observability.inventory.InventoryItem;
+import com.observability.inventory.InventoryRepository;
+import com.observability.inventory.InventoryShard;
+import com.observability.inventory.InventoryShardRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedStockTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryShardRepository shardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ShardedStock shardedStock(final boolean enabled, final int shards) {
+        return new ShardedStock(inventoryRepository, shardRepository, transactionManager, enabled, shards,
+            Set.of("hot"), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void onlyListedItemsAreShardedAndOnlyWhenEnabled() {
+        // Act & Assert
+        assertThat(shardedStock(true, 4).isSharded("hot")).isTrue();
+        assertThat(shardedStock(true, 4).isSharded("cold")).isFalse();
+        assertThat(shardedStock(false, 4).isSharded("hot")).isFalse();
+    }
+
+    @Test
+    void rejectsFewerThanOneShard() {
+        // Act & Assert
+        assertThatThrownBy(() -> shardedStock(true, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reserveFallsBackToOtherShardsUntilOneHoldsEnough() {
+        // Arrange
+        var stock = shardedStock(true, 4);
+        when(shardRepository.decrementIfAvailable(anyString(), anyInt(), anyInt())).thenReturn(0);
+        when(shardRepository.decrementIfAvailable("hot", 2, 5)).thenReturn(1);
+
+        // Act & Assert
+        for (var i = 0; i < 20; i++) {
+            assertThat(stock.reserve("hot", 5)).isTrue();
+        }
+        verify(shardRepository, times(20)).decrementIfAvailable("hot", 2, 5);
+    }
+
+    @Test
+    void reserveTriesEveryShardOnceBeforeGivingUp() {
+        // Arrange
+        var stock = shardedStock(true, 4);
+
+        // Act
+        var reserved = stock.reserve("hot", 5);
+
+        // Assert
+        assertThat(reserved).isFalse();
+        for (var shard = 0; shard < 4; shard++) {
+            verify(shardRepository).decrementIfAvailable("hot", shard, 5);
+        }
+        verifyNoMoreInteractions(shardRepository);
+    }
+
+    @Test
+    void reserveAcrossTakesMoreThanOneShardHoldsFromItemRowAndSeveralShards() {
+        // Arrange - 2 + 3 + 3 + 3 = 11 in stock, no row holds 9
+        var item = item(2);
+        var shards = List.of(new InventoryShard("hot", 0, 3), new InventoryShard("hot", 1, 3),
+            new InventoryShard("hot", 2, 3));
+        when(inventoryRepository.findQuantityByItemId("hot")).thenReturn(Optional.of(2));
+        when(shardRepository.sumQuantityByItemId("hot")).thenReturn(9L);
+        when(inventoryRepository.findForUpdate("hot")).thenReturn(Optional.of(item));
+        when(shardRepository.findByItemIdOrderByShard("hot")).thenReturn(shards);
+
+        // Act
+        var reserved = shardedStock(true, 3).reserveAcross("hot", 9);
+
+        // Assert
+        assertThat(reserved).isTrue();
+        assertThat(item.getQuantity()).isZero();
+        assertThat(savedShards()).extracting(InventoryShard::getQuantity).containsExactly(0, 0, 2);
+        verify(inventoryRepository).save(item);
+    }
+
+    @Test
+    void reserveAcrossTurnsDownSoldOutItemWithoutLocking() {
+        // Arrange
+        when(inventoryRepository.findQuantityByItemId("hot")).thenReturn(Optional.of(1));
+        when(shardRepository.sumQuantityByItemId("hot")).thenReturn(6L);
+
+        // Act
+        var reserved = shardedStock(true, 2).reserveAcross("hot", 8);
+
+        // Assert
+        assertThat(reserved).isFalse();
+        verify(inventoryRepository, never()).findForUpdate(any());
+        verify(shardRepository, never()).findByItemIdOrderByShard(any());
+    }
+
+    @Test
+    void reserveAcrossLeavesStockAloneWhenLockedTotalIsTooLow() {
+        // Arrange - enough was committed when first read, but a concurrent reservation took it
+        when(inventoryRepository.findQuantityByItemId("hot")).thenReturn(Optional.of(2));
+        when(shardRepository.sumQuantityByItemId("hot")).thenReturn(6L);
+        when(inventoryRepository.findForUpdate("hot")).thenReturn(Optional.of(item(1)));
+        when(shardRepository.findByItemIdOrderByShard("hot"))
+            .thenReturn(List.of(new InventoryShard("hot", 0, 3), new InventoryShard("hot", 1, 3)));
+
+        // Act
+        var reserved = shardedStock(true, 2).reserveAcross("hot", 8);
+
+        // Assert
+        assertThat(reserved).isFalse();
+        verify(shardRepository, never()).saveAll(any());
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    @Test
+    void rebalanceMovesItemRowIntoShardsAndEvensThemOut() {
+        // Arrange
+        var item = item(10);
+        when(inventoryRepository.findForUpdate("hot")).thenReturn(Optional.of(item));
+        when(shardRepository.findByItemIdOrderByShard("hot"))
+            .thenReturn(List.of(new InventoryShard("hot", 0, 1), new InventoryShard("hot", 2, 0)));
+
+        // Act
+        var rebalanced = shardedStock(true, 4).rebalance();
+
+        // Assert
+        assertThat(rebalanced).isEqualTo(1);
+        assertThat(item.getQuantity()).isZero();
+        assertThat(savedShards()).extracting(InventoryShard::getShard, InventoryShard::getQuantity)
+            .containsExactly(tuple(0, 3), tuple(1, 3), tuple(2, 3), tuple(3, 2));
+        verify(inventoryRepository).save(item);
+    }
+
+    @Test
+    void rebalanceFoldsShardsBeyondTheConfiguredCount() {
+        // Arrange
+        var item = item(0);
+        var surplus = new InventoryShard("hot", 2, 7);
+        when(inventoryRepository.findForUpdate("hot")).thenReturn(Optional.of(item));
+        when(shardRepository.findByItemIdOrderByShard("hot"))
+            .thenReturn(List.of(new InventoryShard("hot", 0, 1), new InventoryShard("hot", 1, 2), surplus));
+
+        // Act
+        shardedStock(true, 2).rebalance();
+
+        // Assert
+        verify(shardRepository).deleteAll(List.of(surplus));
+        assertThat(savedShards()).extracting(InventoryShard::getQuantity).containsExactly(5, 5);
+    }
+
+    @Test
+    void rebalanceLeavesEvenShardsAlone() {
+        // Arrange
+        when(inventoryRepository.findForUpdate("hot")).thenReturn(Optional.of(item(0)));
+        when(shardRepository.findByItemIdOrderByShard("hot"))
+            .thenReturn(List.of(new InventoryShard("hot", 0, 3), new InventoryShard("hot", 1, 2)));
+
+        // Act
+        var rebalanced = shardedStock(true, 2).rebalance();
+
+        // Assert
+        assertThat(rebalanced).isZero();
+        verify(shardRepository, never()).saveAll(any());
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    private static InventoryItem item(final int quantity) {
+        final var item = new InventoryItem();
+        item.setItemId("hot");
+        item.setName("Hot Item");
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryShard> savedShards() {
+        final ArgumentCaptor<Iterable<InventoryShard>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(shardRepository).saveAll(captor.capture());
+        final var shards = new ArrayList<InventoryShard>();
+        captor.getValue().forEach(shards::add);
+        return shards;
+    }
+}
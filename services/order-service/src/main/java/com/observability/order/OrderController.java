@@ -1,5 +1,8 @@
 package com.observability.order;
 
+import com.observability.commons.deadline.DeadlineExceededException;
+import com.observability.commons.idempotency.IdempotencyKeyMismatchException;
+import com.observability.commons.idempotency.IdempotencyStore;
 import com.observability.order.model.CreateOrderRequest;
 import com.observability.order.model.ErrorResponse;
 import com.observability.order.model.HealthResponse;
@@ -15,11 +18,17 @@ import org.springframework.web.bind.annotation.*;
 import java.time.ZoneOffset;
 import java.util.List;
 
+import static com.observability.commons.util.LogUtils.sanitizeForLog;
+
 /**
  * REST controller for order management operations.
  * 
  * <p>This controller handles CRUD operations for orders, including
- * order creation, retrieval, and listing.</p>
+ * order creation, retrieval, listing and cancellation.</p>
+ *
+ * <p>Order creation honours the {@value IdempotencyStore#HEADER} header:
+ * a retry with the same key returns the order created by the first request
+ * instead of saving another one.</p>
  *
  * @since 1.0.0
  */
@@ -30,14 +39,18 @@ public class OrderController {
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
     private final OrderService orderService;
+    private final IdempotencyStore<OrderResponse> idempotencyStore;
 
     /**
      * Constructs a new OrderController with the required service.
      *
      * @param orderService the order service for handling business logic
+     * @param idempotencyStore the store of created orders, keyed by idempotency key
      */
-    public OrderController(final OrderService orderService) {
+    public OrderController(final OrderService orderService,
+                           final IdempotencyStore<OrderResponse> idempotencyStore) {
         this.orderService = orderService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -55,11 +68,19 @@ public class OrderController {
     /**
      * Creates a new order.
      *
+     * <p>With an idempotency key, a request repeating an earlier one gets the
+     * original order back, and one arriving while the earlier request is still
+     * running waits for it. Reusing a key for a different order is rejected
+     * with 422.</p>
+     *
+     * @param idempotencyKey the optional idempotency key identifying this request
      * @param orderRequest the order request containing itemId and quantity
      * @return ResponseEntity with the created order or error details
      */
     @PostMapping("/orders")
-    public ResponseEntity<?> createOrder(@Valid @RequestBody CreateOrderRequest orderRequest) {
+    public ResponseEntity<?> createOrder(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest orderRequest) {
         try {
             final var itemId = orderRequest.getItemId();
             final var quantity = orderRequest.getQuantity();
@@ -75,16 +96,22 @@ public class OrderController {
                 return ResponseEntity.badRequest().body(new ErrorResponse("Quantity must be between 1 and 10000"));
             }
 
-            final var order = orderService.createOrder(itemId, quantity);
+            if (idempotencyKey != null && !IdempotencyStore.isValidKey(idempotencyKey)) {
+                logger.warn("Invalid idempotency key received");
+                return ResponseEntity.badRequest().body(new ErrorResponse("Invalid idempotency key"));
+            }
 
-            final var response = new OrderResponse()
-                .id(order.getId())
-                .itemId(order.getItemId())
-                .quantity(order.getQuantity())
-                .status(OrderResponse.StatusEnum.fromValue(order.getStatus()))
-                .createdAt(order.getCreatedAt().atOffset(ZoneOffset.UTC));
+            final var response = idempotencyKey == null
+                ? toResponse(orderService.createOrder(itemId, quantity))
+                : idempotencyStore.executeBlocking(idempotencyKey, orderRequest,
+                    () -> toResponse(orderService.createOrder(itemId, quantity)));
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IdempotencyKeyMismatchException e) {
+            logger.warn("Order request rejected: {}", e.getMessage());
+            return ResponseEntity.unprocessableEntity().body(new ErrorResponse(e.getMessage()));
+        } catch (DeadlineExceededException e) {
+            return deadlineExceeded(e);
         } catch (Exception e) {
             logger.error("Error creating order", e);
             return ResponseEntity.internalServerError().body(new ErrorResponse("Internal server error"));
@@ -100,12 +127,7 @@ public class OrderController {
     public ResponseEntity<List<OrderResponse>> getAllOrders() {
         final var orders = orderService.getAllOrders();
         final var response = orders.stream()
-            .map(order -> new OrderResponse()
-                .id(order.getId())
-                .itemId(order.getItemId())
-                .quantity(order.getQuantity())
-                .status(OrderResponse.StatusEnum.fromValue(order.getStatus()))
-                .createdAt(order.getCreatedAt().atOffset(ZoneOffset.UTC)))
+            .map(OrderController::toResponse)
             .toList();
         return ResponseEntity.ok(response);
     }
@@ -124,15 +146,61 @@ public class OrderController {
         }
 
         return orderService.getOrderById(id)
-            .map(order -> {
-                final var response = new OrderResponse()
-                    .id(order.getId())
-                    .itemId(order.getItemId())
-                    .quantity(order.getQuantity())
-                    .status(OrderResponse.StatusEnum.fromValue(order.getStatus()))
-                    .createdAt(order.getCreatedAt().atOffset(ZoneOffset.UTC));
-                return ResponseEntity.ok((Object) response);
-            })
+            .map(order -> ResponseEntity.ok((Object) toResponse(order)))
             .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Cancels an order that has not shipped yet.
+     *
+     * <p>Used by the gateway to compensate orders created speculatively
+     * before their inventory check failed. Cancelling an already cancelled
+     * order succeeds.</p>
+     *
+     * @param id the order ID to cancel
+     * @return ResponseEntity with the cancelled order or error details
+     */
+    @PostMapping("/orders/{id}/cancel")
+    public ResponseEntity<?> cancelOrder(@PathVariable String id) {
+        // Validate input to prevent injection attacks
+        if (id == null || id.trim().isEmpty() || id.length() > 255) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid order ID"));
+        }
+
+        try {
+            return orderService.cancelOrder(id)
+                .map(order -> ResponseEntity.ok((Object) toResponse(order)))
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            logger.warn("Order {} not cancelled: {}", sanitizeForLog(id), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Maps an order entity to its API representation.
+     *
+     * @param order the order entity
+     * @return the order response
+     */
+    private static OrderResponse toResponse(final Order order) {
+        return new OrderResponse()
+            .id(order.getId())
+            .itemId(order.getItemId())
+            .quantity(order.getQuantity())
+            .status(OrderResponse.StatusEnum.fromValue(order.getStatus()))
+            .createdAt(order.getCreatedAt().atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Answers requests abandoned because their deadline expired.
+     *
+     * @param e the deadline exception
+     * @return ResponseEntity with 504 status and error details
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> deadlineExceeded(final DeadlineExceededException e) {
+        logger.warn("Order request abandoned: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(new ErrorResponse("Deadline exceeded"));
+    }
 }
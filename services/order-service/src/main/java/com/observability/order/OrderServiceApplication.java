@@ -1,9 +1,16 @@
 package com.observability.order;
 
+import com.observability.commons.idempotency.IdempotencyStore;
+import com.observability.order.model.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 
+import java.time.Duration;
+
 /**
  * Main Spring Boot application class for the Order Service.
  * 
@@ -24,4 +31,20 @@ public class OrderServiceApplication {
     public static void main(final String[] args) {
         SpringApplication.run(OrderServiceApplication.class, args);
     }
+
+    /**
+     * Creates the store of order creation results, keyed by idempotency key.
+     *
+     * @param meterRegistry the Micrometer registry for idempotency metrics
+     * @param maxEntries the maximum number of stored keys
+     * @param ttl how long a created order is replayed for its key
+     * @return the idempotency store for order creation
+     */
+    @Bean
+    public IdempotencyStore<OrderResponse> orderIdempotencyStore(
+            final MeterRegistry meterRegistry,
+            @Value("${order.idempotency.max-entries:10000}") final long maxEntries,
+            @Value("${order.idempotency.ttl:24h}") final Duration ttl) {
+        return new IdempotencyStore<>(meterRegistry, maxEntries, ttl);
+    }
 }
@@ -1,5 +1,7 @@
 package com.observability.order.service;
 
+import com.observability.commons.deadline.DeadlineContext;
+import com.observability.commons.timing.ServerTimingContext;
 import com.observability.order.Order;
 import com.observability.order.OrderRepository;
 import io.micrometer.core.instrument.Counter;
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.observability.commons.util.LogUtils.sanitizeForLog;
 
@@ -20,7 +23,9 @@ import static com.observability.commons.util.LogUtils.sanitizeForLog;
  * Service class for order management operations.
  * 
  * <p>This service handles the business logic for order creation
- * and retrieval, including metrics collection and distributed tracing.</p>
+ * and retrieval, including metrics collection and distributed tracing.
+ * Time spent in the database is reported to the caller as {@code db} in the
+ * {@code Server-Timing} response header.</p>
  *
  * @since 1.0.0
  */
@@ -28,9 +33,12 @@ import static com.observability.commons.util.LogUtils.sanitizeForLog;
 public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final String CANCELLED = "CANCELLED";
+    private static final Set<String> CANCELLABLE_STATUSES = Set.of("PENDING", "CONFIRMED");
 
     private final OrderRepository orderRepository;
     private final Counter ordersCreatedCounter;
+    private final Counter ordersCancelledCounter;
     private final Tracer tracer;
 
     /**
@@ -48,6 +56,9 @@ public class OrderService {
         this.ordersCreatedCounter = Counter.builder("orders_created_total")
             .description("Total number of orders created")
             .register(meterRegistry);
+        this.ordersCancelledCounter = Counter.builder("orders_cancelled_total")
+            .description("Total number of orders cancelled")
+            .register(meterRegistry);
         this.tracer = tracer;
     }
 
@@ -57,8 +68,10 @@ public class OrderService {
      * @param itemId the ID of the item to order
      * @param quantity the quantity to order
      * @return the created order with generated ID
+     * @throws com.observability.commons.deadline.DeadlineExceededException if the request deadline has expired
      */
     public Order createOrder(final String itemId, final Integer quantity) {
+        DeadlineContext.check("saving order");
         Span span = null;
         if (tracer != null) {
             span = tracer.spanBuilder("create-order").startSpan();
@@ -69,8 +82,7 @@ public class OrderService {
                 span.setAttribute("order.quantity", quantity);
             }
 
-            var order = new Order(itemId, quantity);
-            order = orderRepository.save(order);
+            final var order = ServerTimingContext.time("db", () -> orderRepository.save(new Order(itemId, quantity)));
 
             ordersCreatedCounter.increment();
             logger.info("Order created: {}", sanitizeForLog(order.getId()));
@@ -93,10 +105,12 @@ public class OrderService {
      * Retrieves all orders from the database.
      *
      * @return list of all orders
+     * @throws com.observability.commons.deadline.DeadlineExceededException if the request deadline has expired
      */
     public List<Order> getAllOrders() {
+        DeadlineContext.check("listing orders");
         logger.info("Fetching all orders");
-        return orderRepository.findAll();
+        return ServerTimingContext.time("db", orderRepository::findAll);
     }
 
     /**
@@ -104,9 +118,40 @@ public class OrderService {
      *
      * @param id the order ID to retrieve
      * @return an Optional containing the order if found, empty otherwise
+     * @throws com.observability.commons.deadline.DeadlineExceededException if the request deadline has expired
      */
     public Optional<Order> getOrderById(final String id) {
+        DeadlineContext.check("fetching order");
         logger.info("Fetching order: {}", sanitizeForLog(id));
-        return orderRepository.findById(id);
+        return ServerTimingContext.time("db", () -> orderRepository.findById(id));
+    }
+
+    /**
+     * Cancels an order that has not shipped yet.
+     *
+     * <p>Cancelling an order that is already cancelled succeeds without
+     * changing it, so callers may safely retry.</p>
+     *
+     * @param id the order ID to cancel
+     * @return an Optional containing the cancelled order if found, empty otherwise
+     * @throws IllegalStateException if the order has already shipped or been delivered
+     * @throws com.observability.commons.deadline.DeadlineExceededException if the request deadline has expired
+     */
+    public Optional<Order> cancelOrder(final String id) {
+        DeadlineContext.check("cancelling order");
+        logger.info("Cancelling order: {}", sanitizeForLog(id));
+        return ServerTimingContext.time("db", () -> orderRepository.findById(id)).map(order -> {
+            if (CANCELLED.equals(order.getStatus())) {
+                return order;
+            }
+            if (!CANCELLABLE_STATUSES.contains(order.getStatus())) {
+                throw new IllegalStateException("Order in status " + order.getStatus() + " cannot be cancelled");
+            }
+            order.setStatus(CANCELLED);
+            final var cancelled = ServerTimingContext.time("db", () -> orderRepository.save(order));
+            ordersCancelledCounter.increment();
+            logger.info("Order cancelled: {}", sanitizeForLog(id));
+            return cancelled;
+        });
     }
 }
@@ -1,9 +1,12 @@
 package com.observability.order;
 
+import com.observability.commons.deadline.DeadlineExceededException;
+import com.observability.commons.idempotency.IdempotencyStore;
 import com.observability.order.model.CreateOrderRequest;
 import com.observability.order.model.ErrorResponse;
 import com.observability.order.model.OrderResponse;
 import com.observability.order.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,7 +32,8 @@ class OrderControllerUnitTest {
 
     @BeforeEach
     void setUp() {
-        orderController = new OrderController(orderService);
+        orderController = new OrderController(orderService,
+            new IdempotencyStore<>(new SimpleMeterRegistry(), 100, Duration.ofHours(1)));
     }
 
     @Test
@@ -52,7 +57,7 @@ class OrderControllerUnitTest {
         when(orderService.createOrder("item123", 5)).thenReturn(savedOrder);
 
         // Act
-        var response = orderController.createOrder(orderRequest);
+        var response = orderController.createOrder(null, orderRequest);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
@@ -74,7 +79,7 @@ class OrderControllerUnitTest {
         orderRequest.setQuantity(5);
 
         // Act
-        var response = orderController.createOrder(orderRequest);
+        var response = orderController.createOrder(null, orderRequest);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -88,7 +93,7 @@ class OrderControllerUnitTest {
         orderRequest.setItemId("item123");
 
         // Act
-        var response = orderController.createOrder(orderRequest);
+        var response = orderController.createOrder(null, orderRequest);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -101,7 +106,7 @@ class OrderControllerUnitTest {
         var orderRequest = new CreateOrderRequest("item123", 0);
 
         // Act
-        var response = orderController.createOrder(orderRequest);
+        var response = orderController.createOrder(null, orderRequest);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -114,7 +119,7 @@ class OrderControllerUnitTest {
         var orderRequest = new CreateOrderRequest("item123", -5);
 
         // Act
-        var response = orderController.createOrder(orderRequest);
+        var response = orderController.createOrder(null, orderRequest);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -127,13 +132,90 @@ class OrderControllerUnitTest {
         var orderRequest = new CreateOrderRequest("item123", 10001);
 
         // Act
-        var response = orderController.createOrder(orderRequest);
+        var response = orderController.createOrder(null, orderRequest);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         verify(orderService, never()).createOrder(anyString(), anyInt());
     }
 
+    @Test
+    void createOrderReturnsGatewayTimeoutWhenDeadlineExceeded() {
+        // Arrange
+        var request = new CreateOrderRequest("item123", 5);
+        when(orderService.createOrder("item123", 5))
+            .thenThrow(new DeadlineExceededException("Deadline exceeded before saving order"));
+
+        // Act
+        var response = orderController.createOrder(null, request);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(((ErrorResponse) response.getBody()).getError()).isEqualTo("Deadline exceeded");
+    }
+
+    @Test
+    void createOrderWithRepeatedIdempotencyKeyReturnsOriginalOrder() {
+        // Arrange
+        var savedOrder = new Order("item123", 5);
+        savedOrder.setId("order123");
+        when(orderService.createOrder("item123", 5)).thenReturn(savedOrder);
+        orderController.createOrder("key-1", new CreateOrderRequest("item123", 5));
+
+        // Act
+        var response = orderController.createOrder("key-1", new CreateOrderRequest("item123", 5));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(((OrderResponse) response.getBody()).getId()).isEqualTo("order123");
+        verify(orderService, times(1)).createOrder("item123", 5);
+    }
+
+    @Test
+    void createOrderRetriesIdempotencyKeyAfterFailure() {
+        // Arrange
+        var savedOrder = new Order("item123", 5);
+        savedOrder.setId("order123");
+        when(orderService.createOrder("item123", 5))
+            .thenThrow(new RuntimeException("Database error"))
+            .thenReturn(savedOrder);
+        orderController.createOrder("key-1", new CreateOrderRequest("item123", 5));
+
+        // Act
+        var response = orderController.createOrder("key-1", new CreateOrderRequest("item123", 5));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verify(orderService, times(2)).createOrder("item123", 5);
+    }
+
+    @Test
+    void createOrderWithIdempotencyKeyReusedForDifferentOrderReturnsUnprocessableEntity() {
+        // Arrange
+        var savedOrder = new Order("item123", 5);
+        savedOrder.setId("order123");
+        when(orderService.createOrder("item123", 5)).thenReturn(savedOrder);
+        orderController.createOrder("key-1", new CreateOrderRequest("item123", 5));
+
+        // Act
+        var response = orderController.createOrder("key-1", new CreateOrderRequest("item123", 6));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        verify(orderService, never()).createOrder("item123", 6);
+    }
+
+    @Test
+    void createOrderWithBlankIdempotencyKeyReturnsBadRequest() {
+        // Act
+        var response = orderController.createOrder(" ", new CreateOrderRequest("item123", 5));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(((ErrorResponse) response.getBody()).getError()).isEqualTo("Invalid idempotency key");
+        verify(orderService, never()).createOrder(anyString(), anyInt());
+    }
+
     @Test
     void getAllOrdersReturnsOrderList() {
         // Arrange
@@ -200,4 +282,59 @@ class OrderControllerUnitTest {
         assertThat(response4.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         verify(orderService, never()).getOrderById(anyString());
     }
+
+    @Test
+    void cancelOrderReturnsCancelledOrder() {
+        // Arrange
+        var order = new Order("item123", 5);
+        order.setId("order123");
+        order.setStatus("CANCELLED");
+
+        when(orderService.cancelOrder("order123")).thenReturn(Optional.of(order));
+
+        // Act
+        var response = orderController.cancelOrder("order123");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        var returnedOrder = (OrderResponse) response.getBody();
+        assertThat(returnedOrder.getStatus()).isEqualTo(OrderResponse.StatusEnum.CANCELLED);
+    }
+
+    @Test
+    void cancelOrderReturnsNotFoundWhenDoesNotExist() {
+        // Arrange
+        when(orderService.cancelOrder("nonexistent")).thenReturn(Optional.empty());
+
+        // Act
+        var response = orderController.cancelOrder("nonexistent");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void cancelOrderReturnsConflictWhenAlreadyShipped() {
+        // Arrange
+        when(orderService.cancelOrder("order123"))
+            .thenThrow(new IllegalStateException("Order in status SHIPPED cannot be cancelled"));
+
+        // Act
+        var response = orderController.cancelOrder("order123");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(((ErrorResponse) response.getBody()).getError())
+            .isEqualTo("Order in status SHIPPED cannot be cancelled");
+    }
+
+    @Test
+    void cancelOrderWithInvalidIdReturnsBadRequest() {
+        // Act
+        var response = orderController.cancelOrder(" ");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(orderService, never()).cancelOrder(anyString());
+    }
 }
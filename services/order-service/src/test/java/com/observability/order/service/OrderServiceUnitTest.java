@@ -1,5 +1,8 @@
 package com.observability.order.service;
 
+import com.observability.commons.deadline.Deadline;
+import com.observability.commons.deadline.DeadlineContext;
+import com.observability.commons.deadline.DeadlineExceededException;
 import com.observability.order.Order;
 import com.observability.order.OrderRepository;
 import io.micrometer.core.instrument.Counter;
@@ -8,12 +11,14 @@ import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.Tracer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -48,6 +53,11 @@ class OrderServiceUnitTest {
         orderService = new OrderService(orderRepository, meterRegistry, tracer);
     }
 
+    @AfterEach
+    void tearDown() {
+        DeadlineContext.clear();
+    }
+
     @Test
     void createOrderSuccessfully() {
         // Arrange
@@ -181,4 +191,101 @@ class OrderServiceUnitTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo("order123");
     }
+
+    @Test
+    void createOrderSkipsSaveWhenDeadlineExpired() {
+        // Arrange
+        DeadlineContext.set(Deadline.after(Duration.ZERO));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.createOrder("item123", 5))
+            .isInstanceOf(DeadlineExceededException.class);
+        verifyNoInteractions(orderRepository, tracer);
+        assertThat(meterRegistry.get("orders_created_total").counter().count()).isZero();
+    }
+
+    @Test
+    void getOrderByIdSkipsLookupWhenDeadlineExpired() {
+        // Arrange
+        DeadlineContext.set(Deadline.after(Duration.ZERO));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.getOrderById("order123"))
+            .isInstanceOf(DeadlineExceededException.class);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void getAllOrdersRunsWhileDeadlineNotExpired() {
+        // Arrange
+        DeadlineContext.set(Deadline.after(Duration.ofSeconds(5)));
+        when(orderRepository.findAll()).thenReturn(List.of());
+
+        // Act
+        var result = orderService.getAllOrders();
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void cancelOrderSetsStatusToCancelled() {
+        // Arrange
+        var order = new Order("item123", 5);
+        order.setId("order123");
+
+        when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        // Act
+        var result = orderService.cancelOrder("order123");
+
+        // Assert
+        assertThat(result).isPresent();
+        assertThat(result.get().getStatus()).isEqualTo("CANCELLED");
+        assertThat(meterRegistry.get("orders_cancelled_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void cancelOrderIsIdempotent() {
+        // Arrange
+        var order = new Order("item123", 5);
+        order.setStatus("CANCELLED");
+
+        when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
+
+        // Act
+        var result = orderService.cancelOrder("order123");
+
+        // Assert
+        assertThat(result).containsSame(order);
+        verify(orderRepository, never()).save(any(Order.class));
+        assertThat(meterRegistry.get("orders_cancelled_total").counter().count()).isZero();
+    }
+
+    @Test
+    void cancelOrderRejectsShippedOrder() {
+        // Arrange
+        var order = new Order("item123", 5);
+        order.setStatus("SHIPPED");
+
+        when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.cancelOrder("order123"))
+            .isInstanceOf(IllegalStateException.class);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void cancelOrderReturnsEmptyWhenNotExists() {
+        // Arrange
+        when(orderRepository.findById("nonexistent")).thenReturn(Optional.empty());
+
+        // Act
+        var result = orderService.cancelOrder("nonexistent");
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
 }